@@ -0,0 +1,127 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Doubly-linked queue of CacheNode objects, ordered from least recently
+ * used (first) to most recently used (last). Links are stored in the nodes 
+ * themselves, so that moving a node inside the queue or removing it
+ * are constant-time operations which do not need any allocation.
+ * 
+ * This class is NOT thread-safe: it is always accessed while holding the
+ * eviction lock of its ConcurrentCache.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ * 
+ */
+final class AccessOrderDeque<K,V> {
+
+    private CacheNode<K,V> first;
+    private CacheNode<K,V> last;
+    private int size;
+    
+    
+    AccessOrderDeque() {
+        super();
+    }
+    
+    
+    int size() {
+        return this.size;
+    }
+    
+    
+    CacheNode<K,V> peekFirst() {
+        return this.first;
+    }
+    
+    
+    CacheNode<K,V> peekLast() {
+        return this.last;
+    }
+    
+    
+    void addLast(final CacheNode<K,V> node) {
+        node.previous = this.last;
+        node.next = null;
+        if (this.last == null) {
+            this.first = node;
+        } else {
+            this.last.next = node;
+        }
+        this.last = node;
+        this.size++;
+    }
+    
+    
+    void remove(final CacheNode<K,V> node) {
+        if (node.previous == null) {
+            this.first = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            this.last = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+        this.size--;
+    }
+    
+    
+    void moveToBack(final CacheNode<K,V> node) {
+        if (node != this.last) {
+            remove(node);
+            addLast(node);
+        }
+    }
+    
+    
+    CacheNode<K,V> pollFirst() {
+        final CacheNode<K,V> node = this.first;
+        if (node != null) {
+            remove(node);
+        }
+        return node;
+    }
+    
+    
+    void clear() {
+        CacheNode<K,V> node = this.first;
+        while (node != null) {
+            final CacheNode<K,V> next = node.next;
+            node.previous = null;
+            node.next = null;
+            node = next;
+        }
+        this.first = null;
+        this.last = null;
+        this.size = 0;
+    }
+    
+}
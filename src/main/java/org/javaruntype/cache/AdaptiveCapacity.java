@@ -0,0 +1,166 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Decides the maximum size of a ConcurrentCache working in adaptive mode.
+ * 
+ * Requests are observed in periods. A period ends when the cache has 
+ * processed a number of operations proportional to its size, or when a 
+ * fixed amount of time has passed. At the end of each period:
+ * 
+ *   - If memory headroom is scarce, the cache shrinks.
+ *   - If the period ended because of time without enough requests
+ *     being made (the cache is idle), the cache shrinks.
+ *   - If the miss rate during the period was high and there is enough 
+ *     memory headroom, the cache grows.
+ * 
+ * The cache never shrinks below the size it was configured with, nor
+ * grows beyond GROWTH_LIMIT_FACTOR times that size.
+ * 
+ * Periods are only evaluated during cache maintenance, so a cache which is
+ * completely idle will shrink the next time it is used.
+ * 
+ * This class is NOT thread-safe: it is always accessed while holding the
+ * eviction lock of its ConcurrentCache.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ * 
+ */
+final class AdaptiveCapacity {
+
+    static final int GROWTH_LIMIT_FACTOR = 16;
+    
+    private static final double GROW_MISS_RATE = 0.10;
+    private static final double MIN_HEADROOM_FOR_GROWING = 0.25;
+    private static final double MIN_HEADROOM = 0.10;
+    private static final int SAMPLE_FACTOR = 10;
+    private static final int MIN_SAMPLE_SIZE = 1000;
+    private static final long PERIOD_NANOS = 60L * 1000L * 1000L * 1000L;
+    
+    private final int baseMaxElements;
+    private final int limitMaxElements;
+    
+    private long operations;
+    private long periodStart;
+    private long periodStartHits;
+    private long periodStartMisses;
+    
+    
+    
+    AdaptiveCapacity(final int baseMaxElements, final long hits, final long misses, final long now) {
+        super();
+        this.baseMaxElements = baseMaxElements;
+        this.limitMaxElements = 
+            (int) Math.min(Integer.MAX_VALUE, (long) baseMaxElements * GROWTH_LIMIT_FACTOR);
+        startPeriod(hits, misses, now);
+    }
+    
+    
+    
+    int getBaseMaxElements() {
+        return this.baseMaxElements;
+    }
+    
+    
+    int getLimitMaxElements() {
+        return this.limitMaxElements;
+    }
+    
+    
+    
+    boolean recordOperations(final int count, final int currentMaxElements, final long now) {
+        this.operations += count;
+        return (this.operations >= sampleSize(currentMaxElements) ||
+                (now - this.periodStart) >= PERIOD_NANOS);
+    }
+    
+    
+    
+    int evaluate(final int currentMaxElements, final long hits, final long misses, 
+            final long now, final double headroom) {
+        
+        final long periodHits = hits - this.periodStartHits;
+        final long periodMisses = misses - this.periodStartMisses;
+        final long periodRequests = periodHits + periodMisses;
+        final long periodDuration = now - this.periodStart;
+        startPeriod(hits, misses, now);
+        
+        if (headroom < MIN_HEADROOM) {
+            return shrink(currentMaxElements);
+        }
+        if (periodRequests < sampleSize(currentMaxElements)) {
+            if (periodDuration >= PERIOD_NANOS) {
+                // Too few requests during the whole period to need this size
+                return shrink(currentMaxElements);
+            }
+            return currentMaxElements;
+        }
+        final double missRate = (double) periodMisses / periodRequests;
+        if (missRate > GROW_MISS_RATE && headroom >= MIN_HEADROOM_FOR_GROWING) {
+            return grow(currentMaxElements);
+        }
+        return currentMaxElements;
+        
+    }
+    
+    
+    
+    private void startPeriod(final long hits, final long misses, final long now) {
+        this.operations = 0L;
+        this.periodStart = now;
+        this.periodStartHits = hits;
+        this.periodStartMisses = misses;
+    }
+    
+    
+    private int grow(final int currentMaxElements) {
+        return (int) Math.min(this.limitMaxElements, (long) currentMaxElements * 2);
+    }
+    
+    
+    private int shrink(final int currentMaxElements) {
+        return Math.max(this.baseMaxElements, currentMaxElements / 2);
+    }
+    
+    
+    private static long sampleSize(final int maxElements) {
+        return Math.max(MIN_SAMPLE_SIZE, (long) maxElements * SAMPLE_FACTOR);
+    }
+    
+    
+    
+    static double currentMemoryHeadroom() {
+        final Runtime runtime = Runtime.getRuntime();
+        final long maxMemory = runtime.maxMemory();
+        if (maxMemory == Long.MAX_VALUE) {
+            return 1.0;
+        }
+        final long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        return (double) (maxMemory - usedMemory) / maxMemory;
+    }
+    
+}
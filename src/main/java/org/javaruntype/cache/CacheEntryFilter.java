@@ -0,0 +1,55 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+/**
+ * <p>
+ * Selects the entries of a {@link ConcurrentCache} to be invalidated 
+ * (see {@link ConcurrentCache#invalidate(CacheEntryFilter)}).
+ * </p>
+ * <p>
+ * <b>Do not</b> use this interface directly.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @param <K> key type
+ * @param <V> value type
+ *  
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public interface CacheEntryFilter<K,V> {
+
+    /**
+     * <p>
+     * Returns whether the specified entry matches the filter. This method
+     * is called while holding the eviction lock of the cache, so it should
+     * not access the same cache.
+     * </p>
+     * 
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return true if the entry matches
+     */
+    public boolean matches(final K key, final V value);
+    
+}
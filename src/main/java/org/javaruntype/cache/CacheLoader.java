@@ -1,10 +1,3 @@
-lexer grammar Type;
-options {
-  language=Java;
-
-}
-
-@header {
 /*
  * =============================================================================
  * 
@@ -24,25 +17,37 @@
  * 
  * =============================================================================
  */
-package org.javaruntype.type.parser;
-}
+package org.javaruntype.cache;
 
-ARRAY : '[]' ;
-UNKNOWN : '?' ;
-BEGINTYPEPARAM : '<' ;
-ENDTYPEPARAM : '>' ;
-COMMA : ',' ;
-EXTENDS : ' extends ' ;
-SUPER : ' super ' ;
-EXT : 'EXT' ;
-SUP : 'SUP' ;
 
-// $ANTLR src "org/javaruntype/type/parser/Type.g" 119
-CLASSNAME
-    : ('a'..'z' | 'A'..'Z' | '0'..'9' | '-' | '_' | '.' | '$')+
-    ;
+/**
+ * <p>
+ * Computes the value corresponding to a key when it is not found in
+ * a {@link ConcurrentCache}.
+ * </p>
+ * <p>
+ * <b>Do not</b> use this interface directly.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @param <K> key type
+ * @param <V> value type
+ *  
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public interface CacheLoader<K,V> {
 
-// $ANTLR src "org/javaruntype/type/parser/Type.g" 123
-WS
-    : (' ')+ {skip();}
-    ;
+    /**
+     * <p>
+     * Computes the value for the specified key. This method should never
+     * return null.
+     * </p>
+     * 
+     * @param key the key
+     * @return the computed value
+     */
+    public V load(final K key);
+    
+}
@@ -0,0 +1,113 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+import java.lang.ref.WeakReference;
+
+
+/*
+ * (non-javadoc)
+ * 
+ * MBean implementation exposing the statistics of a named ConcurrentCache.
+ * Every attribute is read from a fresh stats snapshot.
+ * 
+ * The cache is only weakly referenced, so that being monitored does not 
+ * prevent it from being garbage collected (see Caches). Once it has been 
+ * collected, all counters are zero until the MBean is unregistered.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class CacheMonitor implements CacheMonitorMBean {
+
+    private final String name;
+    private final WeakReference<ConcurrentCache<?,?>> cache;
+    
+    
+    
+    CacheMonitor(final ConcurrentCache<?,?> cache) {
+        super();
+        this.name = cache.getName();
+        this.cache = new WeakReference<ConcurrentCache<?,?>>(cache);
+    }
+    
+    
+    private CacheStats getStats() {
+        final ConcurrentCache<?,?> monitoredCache = this.cache.get();
+        if (monitoredCache == null) {
+            return new CacheStats(this.name, 0, 0, 0L, 0L, 0L, 0L, 0L);
+        }
+        return monitoredCache.getStats();
+    }
+
+    
+    
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxElements() {
+        return getStats().getMaxElements();
+    }
+
+    public int getSize() {
+        return getStats().getSize();
+    }
+
+    public long getHitCount() {
+        return getStats().getHitCount();
+    }
+
+    public long getMissCount() {
+        return getStats().getMissCount();
+    }
+
+    public long getRequestCount() {
+        return getStats().getRequestCount();
+    }
+
+    public double getHitRate() {
+        return getStats().getHitRate();
+    }
+
+    public double getMissRate() {
+        return getStats().getMissRate();
+    }
+
+    public long getLoadCount() {
+        return getStats().getLoadCount();
+    }
+
+    public long getTotalLoadTime() {
+        return getStats().getTotalLoadTime();
+    }
+
+    public double getAverageLoadPenalty() {
+        return getStats().getAverageLoadPenalty();
+    }
+
+    public long getEvictionCount() {
+        return getStats().getEvictionCount();
+    }
+    
+}
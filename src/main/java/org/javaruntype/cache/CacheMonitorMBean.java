@@ -0,0 +1,65 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+/**
+ * <p>
+ * Management interface for named {@link ConcurrentCache} objects, 
+ * registered at the platform MBean server under
+ * <tt>org.javaruntype:type=Cache,name=<i>cacheName</i></tt>.
+ * </p>
+ * <p>
+ * All counters are cumulative since the creation of the cache. See 
+ * {@link CacheStats} for the meaning of each of them.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public interface CacheMonitorMBean {
+
+    public String getName();
+    
+    public int getMaxElements();
+    
+    public int getSize();
+    
+    public long getHitCount();
+    
+    public long getMissCount();
+    
+    public long getRequestCount();
+    
+    public double getHitRate();
+    
+    public double getMissRate();
+    
+    public long getLoadCount();
+    
+    public long getTotalLoadTime();
+    
+    public double getAverageLoadPenalty();
+    
+    public long getEvictionCount();
+    
+}
@@ -0,0 +1,71 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Entry of a ConcurrentCache. Besides key and value, nodes contain the
+ * links needed for placing them in one of the access-ordered queues
+ * managed by the eviction policy.
+ * 
+ * Key and value are immutable. Links and queue are only accessed while
+ * holding the eviction lock of the cache.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ * 
+ */
+final class CacheNode<K,V> {
+
+    static final byte QUEUE_NONE = 0;
+    static final byte QUEUE_WINDOW = 1;
+    static final byte QUEUE_PROBATION = 2;
+    static final byte QUEUE_PROTECTED = 3;
+    static final byte QUEUE_DEAD = 4;
+    
+    private final K key;
+    private final V value;
+    
+    CacheNode<K,V> previous;
+    CacheNode<K,V> next;
+    byte queue = QUEUE_NONE;
+    
+    
+    CacheNode(final K key, final V value) {
+        super();
+        this.key = key;
+        this.value = value;
+    }
+    
+    
+    K getKey() {
+        return this.key;
+    }
+    
+    
+    V getValue() {
+        return this.value;
+    }
+    
+}
@@ -0,0 +1,229 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * Immutable snapshot of the statistics of a {@link ConcurrentCache}: 
+ * number of hits, misses, loads, accumulated load time and evictions, 
+ * plus its size at the moment the snapshot was taken.
+ * </p>
+ * <p>
+ * Counters are cumulative since the creation of the cache. Because they are
+ * updated without locking, the values in a snapshot might not be exactly 
+ * consistent among them if the cache is being used while the snapshot is taken.
+ * </p>
+ * <p>
+ * Objects of this class are <b>immutable</b>, and thus <b>thread-safe</b>.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public final class CacheStats implements Serializable {
+
+    private static final long serialVersionUID = -2873946532127843871L;
+    
+    private final String name;
+    private final int maxElements;
+    private final int size;
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long totalLoadTime;
+    private final long evictionCount;
+    
+    
+    
+    CacheStats(final String name, final int maxElements, final int size,
+            final long hitCount, final long missCount, final long loadCount, 
+            final long totalLoadTime, final long evictionCount) {
+        super();
+        this.name = name;
+        this.maxElements = maxElements;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+    }
+
+    
+    /**
+     * <p>
+     * Returns the name of the cache, or null if the cache has no name.
+     * </p>
+     * 
+     * @return the name of the cache
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * <p>
+     * Returns the maximum number of elements the cache can contain.
+     * </p>
+     * 
+     * @return the maximum size of the cache
+     */
+    public int getMaxElements() {
+        return this.maxElements;
+    }
+
+    /**
+     * <p>
+     * Returns the number of elements contained in the cache.
+     * </p>
+     * 
+     * @return the size of the cache
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * <p>
+     * Returns the number of lookups which found a value in the cache.
+     * </p>
+     * 
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * <p>
+     * Returns the number of lookups which did not find a value in the cache.
+     * </p>
+     * 
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * <p>
+     * Returns the total number of lookups (hits plus misses).
+     * </p>
+     * 
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    /**
+     * <p>
+     * Returns the ratio of lookups which found a value in the cache, or 1.0
+     * if no lookups have been performed yet.
+     * </p>
+     * 
+     * @return the hit rate, between 0.0 and 1.0
+     */
+    public double getHitRate() {
+        final long requestCount = getRequestCount();
+        return (requestCount == 0L? 1.0 : ((double) this.hitCount / requestCount));
+    }
+
+    /**
+     * <p>
+     * Returns the ratio of lookups which did not find a value in the cache, 
+     * or 0.0 if no lookups have been performed yet.
+     * </p>
+     * 
+     * @return the miss rate, between 0.0 and 1.0
+     */
+    public double getMissRate() {
+        final long requestCount = getRequestCount();
+        return (requestCount == 0L? 0.0 : ((double) this.missCount / requestCount));
+    }
+
+    /**
+     * <p>
+     * Returns the number of values computed by cache loaders.
+     * </p>
+     * 
+     * @return the number of loads
+     */
+    public long getLoadCount() {
+        return this.loadCount;
+    }
+
+    /**
+     * <p>
+     * Returns the total time spent computing values by cache loaders, 
+     * in nanoseconds.
+     * </p>
+     * 
+     * @return the total load time in nanoseconds
+     */
+    public long getTotalLoadTime() {
+        return this.totalLoadTime;
+    }
+
+    /**
+     * <p>
+     * Returns the average time spent computing each value by cache loaders, 
+     * in nanoseconds.
+     * </p>
+     * 
+     * @return the average load time in nanoseconds
+     */
+    public double getAverageLoadPenalty() {
+        return (this.loadCount == 0L? 0.0 : ((double) this.totalLoadTime / this.loadCount));
+    }
+
+    /**
+     * <p>
+     * Returns the number of entries which have been evicted from the cache
+     * for keeping it under its maximum size.
+     * </p>
+     * 
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+
+    @Override
+    public String toString() {
+        final StringBuilder strBuilder = new StringBuilder();
+        strBuilder.append("CacheStats[name=").append(this.name);
+        strBuilder.append(", size=").append(this.size);
+        strBuilder.append(", maxElements=").append(this.maxElements);
+        strBuilder.append(", hits=").append(this.hitCount);
+        strBuilder.append(", misses=").append(this.missCount);
+        strBuilder.append(", loads=").append(this.loadCount);
+        strBuilder.append(", totalLoadTime=").append(this.totalLoadTime);
+        strBuilder.append(", evictions=").append(this.evictionCount);
+        strBuilder.append("]");
+        return strBuilder.toString();
+    }
+    
+}
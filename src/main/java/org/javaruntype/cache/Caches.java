@@ -0,0 +1,450 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.javaruntype.util.Utils;
+
+/**
+ * <p>
+ * Access point to the configuration and statistics of the named caches used 
+ * by the <tt>*Registry</tt> objects (see {@link CacheStats}).
+ * </p>
+ * <p>
+ * The maximum size of each named cache can be configured by means of the
+ * <tt>org.javaruntype.cache.<i>cacheName</i>.maxElements</tt> system property, 
+ * and adaptive mode (see {@link ConcurrentCache#setAdaptive(boolean)}) can be 
+ * set with <tt>org.javaruntype.cache.<i>cacheName</i>.adaptive=true</tt> or, for 
+ * every named cache, with <tt>org.javaruntype.cache.adaptive=true</tt>. Invalid 
+ * property values are ignored. Configuration can also be set programmatically with
+ * {@link #setMaxElements(String, int)} and {@link #setAdaptive(String, boolean)},
+ * which takes precedence over system properties and is applied to caches which
+ * have already been created, too.
+ * </p>
+ * <p>
+ * The type registry keeps a separate set of caches for each class loader 
+ * other than the one of javaRuntype (and its ancestors), named 
+ * <tt><i>cacheName</i>[<i>loaderClass</i>@<i>loaderIdentityHash</i>]</tt>. 
+ * These are configured like any other named cache, but take the configuration
+ * of <tt><i>cacheName</i></tt> when they have none of their own.
+ * </p>
+ * <p>
+ * Named caches can also be registered as MBeans at the platform MBean server
+ * under <tt>org.javaruntype:type=Cache,name=<i>cacheName</i></tt> (see 
+ * {@link CacheMonitorMBean}), by calling {@link #registerMBeans()} or by setting
+ * the <tt>org.javaruntype.cache.jmx</tt> system property to <tt>true</tt>. This
+ * is not done by default, as it creates the platform MBean server (which is 
+ * expensive) and makes it reference classes of javaRuntype, which prevents 
+ * their class loader from being garbage collected until 
+ * {@link #unregisterMBeans()} is called. Failures during MBean registration (for 
+ * example, because of a security manager) are ignored.
+ * </p>
+ * <p>
+ * Cache names are unique: a cache created with the name of another one which
+ * is still in use is registered under that name followed by <tt>#2</tt>, 
+ * <tt>#3</tt>... (see {@link ConcurrentCache#getName()}).
+ * </p>
+ * <p>
+ * Caches are only weakly referenced from here (and from their MBeans), so
+ * once a named cache is garbage collected it disappears from these statistics
+ * and its MBean is unregistered.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public final class Caches {
+
+    /**
+     * <p>
+     * Name of the system property which can be set to <tt>true</tt> for
+     * registering cache MBeans from startup.
+     * </p>
+     */
+    public static final String JMX_ENABLED_PROPERTY = "org.javaruntype.cache.jmx";
+    
+    /**
+     * <p>
+     * Domain of the object names under which cache MBeans are registered.
+     * </p>
+     */
+    public static final String JMX_DOMAIN = "org.javaruntype";
+    
+    /**
+     * <p>
+     * Prefix of the system properties used for configuring caches.
+     * </p>
+     */
+    public static final String PROPERTY_PREFIX = "org.javaruntype.cache.";
+    
+    private static final String MAX_ELEMENTS_PROPERTY_SUFFIX = ".maxElements";
+    private static final String ADAPTIVE_PROPERTY_SUFFIX = ".adaptive";
+    
+    private static final ConcurrentHashMap<String,CacheReference> cachesByName =
+        new ConcurrentHashMap<String, CacheReference>();
+    private static final ReferenceQueue<ConcurrentCache<?,?>> collectedCaches =
+        new ReferenceQueue<ConcurrentCache<?,?>>();
+    private static final ConcurrentHashMap<String,Integer> configuredMaxElements =
+        new ConcurrentHashMap<String, Integer>();
+    private static final ConcurrentHashMap<String,Boolean> configuredAdaptive =
+        new ConcurrentHashMap<String, Boolean>();
+    
+    // Both are guarded by cachesByName
+    private static final Set<String> reservedNames = new HashSet<String>();
+    private static boolean mbeansRegistered = 
+        "true".equalsIgnoreCase(getProperty(JMX_ENABLED_PROPERTY));
+    
+    
+    
+    
+    /**
+     * <p>
+     * Sets the maximum size of the cache with the specified name. If the 
+     * cache has not been created yet, it will be created with this size. If
+     * it already exists, it is resized.
+     * </p>
+     * 
+     * @param cacheName the name of the cache
+     * @param maxElements the maximum number of elements in the cache
+     */
+    public static void setMaxElements(final String cacheName, final int maxElements) {
+        Utils.validateNotNull(cacheName, "Cache name cannot be null");
+        Utils.validateIsTrue(maxElements > 1, "Max elements must be > 1");
+        configuredMaxElements.put(cacheName, Integer.valueOf(maxElements));
+        final ConcurrentCache<?,?> cache = getCache(cacheName);
+        if (cache != null) {
+            cache.setMaxElements(maxElements);
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Sets or unsets adaptive mode for the cache with the specified name. If 
+     * the cache has not been created yet, it will be created in this mode. If
+     * it already exists, the mode is changed.
+     * </p>
+     * 
+     * @param cacheName the name of the cache
+     * @param adaptive whether the cache should be adaptive or not
+     */
+    public static void setAdaptive(final String cacheName, final boolean adaptive) {
+        Utils.validateNotNull(cacheName, "Cache name cannot be null");
+        configuredAdaptive.put(cacheName, Boolean.valueOf(adaptive));
+        final ConcurrentCache<?,?> cache = getCache(cacheName);
+        if (cache != null) {
+            cache.setAdaptive(adaptive);
+        }
+    }
+    
+    
+    
+    
+    /**
+     * <p>
+     * Returns the names of all the named caches created until now.
+     * </p>
+     * 
+     * @return the cache names, in alphabetical order
+     */
+    public static String[] getCacheNames() {
+        expungeCollectedCaches();
+        final TreeMap<String,CacheReference> sortedCaches = 
+            new TreeMap<String, CacheReference>(cachesByName);
+        return sortedCaches.keySet().toArray(new String[sortedCaches.size()]);
+    }
+    
+    
+    /**
+     * <p>
+     * Returns a snapshot of the statistics of the cache with the specified name.
+     * </p>
+     * 
+     * @param cacheName the name of the cache
+     * @return the statistics, or null if no cache exists with such name
+     */
+    public static CacheStats getStats(final String cacheName) {
+        Utils.validateNotNull(cacheName, "Cache name cannot be null");
+        final ConcurrentCache<?,?> cache = getCache(cacheName);
+        return (cache == null? null : cache.getStats());
+    }
+    
+    
+    /**
+     * <p>
+     * Returns a snapshot of the statistics of all the named caches.
+     * </p>
+     * 
+     * @return the statistics, indexed by cache name (in alphabetical order)
+     */
+    public static Map<String,CacheStats> getAllStats() {
+        expungeCollectedCaches();
+        final TreeMap<String,CacheStats> stats = new TreeMap<String, CacheStats>();
+        final Iterator<CacheReference> cachesIter = cachesByName.values().iterator();
+        while (cachesIter.hasNext()) {
+            final ConcurrentCache<?,?> cache = cachesIter.next().get();
+            if (cache != null) {
+                stats.put(cache.getName(), cache.getStats());
+            }
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+    
+    
+    
+    
+    /**
+     * <p>
+     * Registers every named cache, including the ones created from now on, 
+     * as an MBean at the platform MBean server.
+     * </p>
+     */
+    public static void registerMBeans() {
+        synchronized (cachesByName) {
+            expungeCollectedCaches();
+            mbeansRegistered = true;
+            final Iterator<CacheReference> cachesIter = cachesByName.values().iterator();
+            while (cachesIter.hasNext()) {
+                final ConcurrentCache<?,?> cache = cachesIter.next().get();
+                if (cache != null) {
+                    registerMBean(cache);
+                }
+            }
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Unregisters the MBeans of every named cache, and stops registering 
+     * new caches. This should be called before discarding the class loader
+     * of javaRuntype if MBeans have been registered.
+     * </p>
+     */
+    public static void unregisterMBeans() {
+        synchronized (cachesByName) {
+            expungeCollectedCaches();
+            mbeansRegistered = false;
+            final Iterator<String> namesIter = cachesByName.keySet().iterator();
+            while (namesIter.hasNext()) {
+                unregisterMBean(namesIter.next());
+            }
+        }
+    }
+    
+    
+    
+    
+    private static ConcurrentCache<?,?> getCache(final String cacheName) {
+        final CacheReference reference = cachesByName.get(cacheName);
+        return (reference == null? null : reference.get());
+    }
+    
+    
+    
+    
+    static int getConfiguredMaxElements(final String cacheName, final int defaultMaxElements) {
+        final Integer maxElements = configuredMaxElements.get(cacheName);
+        if (maxElements != null) {
+            return maxElements.intValue();
+        }
+        final String property = 
+            getProperty(PROPERTY_PREFIX + cacheName + MAX_ELEMENTS_PROPERTY_SUFFIX);
+        if (property != null) {
+            try {
+                final int propertyMaxElements = Integer.parseInt(property.trim());
+                if (propertyMaxElements > 1) {
+                    return propertyMaxElements;
+                }
+            } catch (NumberFormatException e) {
+                // Invalid values are ignored
+            }
+        }
+        final String baseCacheName = getBaseCacheName(cacheName);
+        if (baseCacheName != null) {
+            return getConfiguredMaxElements(baseCacheName, defaultMaxElements);
+        }
+        return defaultMaxElements;
+    }
+    
+    
+    static boolean isConfiguredAdaptive(final String cacheName) {
+        final Boolean adaptive = configuredAdaptive.get(cacheName);
+        if (adaptive != null) {
+            return adaptive.booleanValue();
+        }
+        final String property = getProperty(PROPERTY_PREFIX + cacheName + ADAPTIVE_PROPERTY_SUFFIX);
+        if (property != null) {
+            return "true".equalsIgnoreCase(property.trim());
+        }
+        final String baseCacheName = getBaseCacheName(cacheName);
+        if (baseCacheName != null) {
+            return isConfiguredAdaptive(baseCacheName);
+        }
+        return "true".equalsIgnoreCase(getProperty(PROPERTY_PREFIX + "adaptive"));
+    }
+    
+    
+    /*
+     * "types[org.example.TenantClassLoader@1b6d3586]" -> "types"
+     */
+    private static String getBaseCacheName(final String cacheName) {
+        final int partitionStart = cacheName.indexOf('[');
+        if (partitionStart > 0 && cacheName.charAt(cacheName.length() - 1) == ']') {
+            return cacheName.substring(0, partitionStart);
+        }
+        return null;
+    }
+    
+    
+    private static String getProperty(final String propertyName) {
+        try {
+            return System.getProperty(propertyName);
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+    
+    
+    
+    /*
+     * Returns the name to be given to a new cache: the specified one or, if 
+     * it is used by another cache, the first free one adding a "#n" suffix. 
+     * The name is reserved until the cache is registered.
+     */
+    static String reserveName(final String cacheName) {
+        synchronized (cachesByName) {
+            expungeCollectedCaches();
+            String name = cacheName;
+            int suffix = 2;
+            while (getCache(name) != null || reservedNames.contains(name)) {
+                name = cacheName + "#" + suffix++;
+            }
+            reservedNames.add(name);
+            return name;
+        }
+    }
+    
+    
+    static void register(final ConcurrentCache<?,?> cache) {
+        synchronized (cachesByName) {
+            reservedNames.remove(cache.getName());
+            cachesByName.put(cache.getName(), new CacheReference(cache, collectedCaches));
+            if (mbeansRegistered) {
+                registerMBean(cache);
+            }
+        }
+    }
+    
+    
+    private static void expungeCollectedCaches() {
+        synchronized (cachesByName) {
+            CacheReference reference = null;
+            while ((reference = (CacheReference) collectedCaches.poll()) != null) {
+                // The name might already be registered for a newer cache
+                if (cachesByName.remove(reference.name, reference) && mbeansRegistered) {
+                    unregisterMBean(reference.name);
+                }
+            }
+        }
+    }
+    
+    
+    private static void registerMBean(final ConcurrentCache<?,?> cache) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = createObjectName(cache.getName());
+            // Names are unique, so a registered MBean can only be a stale one
+            // (of a collected cache) or the one of this cache
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(
+                    new StandardMBean(new CacheMonitor(cache), CacheMonitorMBean.class), 
+                    objectName);
+        } catch (JMException e) {
+            // Monitoring is not essential: the cache works the same without it
+        } catch (SecurityException e) {
+            // Monitoring is not essential: the cache works the same without it
+        }
+    }
+    
+    
+    private static void unregisterMBean(final String cacheName) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = createObjectName(cacheName);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            // Monitoring is not essential: the cache works the same without it
+        } catch (SecurityException e) {
+            // Monitoring is not essential: the cache works the same without it
+        }
+    }
+    
+    
+    static ObjectName createObjectName(final String cacheName) throws JMException {
+        final boolean needsQuoting = 
+            cacheName.length() == 0 || cacheName.matches(".*[,=:\"*?\\\\\\n].*");
+        final String value = (needsQuoting? ObjectName.quote(cacheName) : cacheName);
+        return new ObjectName(JMX_DOMAIN + ":type=Cache,name=" + value);
+    }
+    
+    
+    
+    private Caches() {
+        super();
+    }
+    
+    
+    
+    
+    private static final class CacheReference extends WeakReference<ConcurrentCache<?,?>> {
+        
+        final String name;
+        
+        CacheReference(final ConcurrentCache<?,?> cache, 
+                final ReferenceQueue<ConcurrentCache<?,?>> queue) {
+            super(cache, queue);
+            this.name = cache.getName();
+        }
+        
+    }
+    
+}
@@ -19,9 +19,15 @@
  */
 package org.javaruntype.cache;
 
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.javaruntype.util.Utils;
 
@@ -30,6 +36,36 @@
  * Base synchronized cache for <tt>*Registry</tt> objects.
  * </p>
  * <p>
+ * Once the cache reaches its maximum size, entries are evicted following
+ * a frequency-aware policy (<i>Window TinyLFU</i>): the cache estimates how often
+ * each key is requested and, when a new entry competes for space with an 
+ * existing one, only the most frequently requested of both is kept. This way,
+ * bursts of keys that are only requested once do not flush the entries which
+ * are used all the time.
+ * </p>
+ * <p>
+ * Reads and writes are recorded in striped buffers (one stripe per thread
+ * hash, as many stripes as processors) which are drained in batches by 
+ * whichever thread manages to acquire the eviction lock, so that threads 
+ * do not contend on shared structures for every operation. The maximum size
+ * of the cache is nevertheless a hard bound: each stripe is granted a small 
+ * number of insertion credits, and no entry can be added without consuming one.
+ * </p>
+ * <p>
+ * Caches keep counters of hits, misses, loads, load time and evictions, which
+ * can be obtained by means of {@link #getStats()}. These counters are also 
+ * striped, so that updating them does not make threads contend. Caches created 
+ * with a name are registered at {@link Caches}, which makes their statistics 
+ * available for monitoring (also through JMX, if enabled).
+ * </p>
+ * <p>
+ * The maximum size of a cache can be changed while it is being used (see
+ * {@link #setMaxElements(int)}). Caches can also work in <i>adaptive</i> mode
+ * (see {@link #setAdaptive(boolean)}), in which they grow while their miss rate
+ * is high and there is enough free memory, and shrink back when they are idle.
+ * The size of named caches can be configured by means of {@link Caches}.
+ * </p>
+ * <p>
  * <b>Do not</b> use this class directly.
  * </p>
  * <p>
@@ -48,9 +84,27 @@
 
     private final static int DEFAULT_MAX_ELEMENTS = 100;
     
-    private final ConcurrentHashMap<K,V> cache; 
-    private final int maxElements;
-    private final Queue<K> keysQueue;
+    private static final int MAX_STRIPES = 64;
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int WRITE_BUFFER_SIZE = 16;
+    private static final int MAX_CREDITS_BATCH = 16;
+    
+    private final ConcurrentHashMap<K,CacheNode<K,V>> cache; 
+    private final ConcurrentHashMap<K,PendingLoad<V>> pendingLoads; 
+    private final String name;
+    private volatile int maxElements;
+    
+    private final Stripe<K,V>[] stripes;
+    private final int stripesMask;
+    
+    // Fields below are only accessed while holding the eviction lock
+    private final ReentrantLock evictionLock;
+    private final WindowTinyLfuPolicy<K,V> policy;
+    private final List<CacheNode<K,V>> evicted;
+    private int grantedCredits;
+    private int creditsBatch;
+    private AdaptiveCapacity adaptiveCapacity;
+    private volatile long evictionCount;
     
     
     /**
@@ -71,11 +125,58 @@ public ConcurrentCache() {
      * @param maxElements the maximum number of elements this cache can contain
      */
     public ConcurrentCache(final int maxElements) {
+        this(null, maxElements);
+    }
+    
+    /**
+     * <p>
+     * Create a new named synchronized cache specifying a maximum size for 
+     * the cache. Named caches are registered at {@link Caches} so that their
+     * statistics can be monitored. If another cache (still in use) has been 
+     * registered with the same name, a suffix is appended to the name of 
+     * this one (see {@link #getName()}).
+     * </p>
+     * <p>
+     * If a maximum size or adaptive mode have been configured for the 
+     * specified name (see {@link Caches}), the configuration is applied 
+     * instead of the <tt>maxElements</tt> argument.
+     * </p>
+     *
+     * @param name the name of the cache (null for an unregistered cache)
+     * @param maxElements the maximum number of elements this cache can contain
+     * @since 1.4
+     */
+    public ConcurrentCache(final String name, final int maxElements) {
         super();
         Utils.validateIsTrue(maxElements > 1, "Max elements must be > 1");
-        this.cache = new ConcurrentHashMap<K,V>();
-        this.maxElements = maxElements;
-        this.keysQueue = new ConcurrentLinkedQueue<K>();
+        this.cache = new ConcurrentHashMap<K,CacheNode<K,V>>();
+        this.pendingLoads = new ConcurrentHashMap<K,PendingLoad<V>>();
+        this.name = (name == null? null : Caches.reserveName(name));
+        this.maxElements = 
+            (name == null? maxElements : Caches.getConfiguredMaxElements(name, maxElements));
+        
+        final int stripeCount = computeStripeCount();
+        @SuppressWarnings("unchecked")
+        final Stripe<K,V>[] newStripes = (Stripe<K,V>[]) new Stripe<?,?>[stripeCount];
+        this.stripes = newStripes;
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe<K,V>();
+        }
+        this.stripesMask = stripeCount - 1;
+        
+        this.evictionLock = new ReentrantLock();
+        this.policy = new WindowTinyLfuPolicy<K,V>(this.maxElements);
+        this.evicted = new ArrayList<CacheNode<K,V>>();
+        this.grantedCredits = 0;
+        this.creditsBatch = computeCreditsBatch(this.maxElements, stripeCount);
+        this.adaptiveCapacity = 
+            (name != null && Caches.isConfiguredAdaptive(name)? 
+                    new AdaptiveCapacity(this.maxElements, 0L, 0L, System.nanoTime()) : null);
+        this.evictionCount = 0L;
+        
+        if (name != null) {
+            Caches.register(this);
+        }
     }
 
     
@@ -85,7 +186,65 @@ public ConcurrentCache(final int maxElements) {
      * </p>
      */
     public void clear() {
-        this.cache.clear();
+        this.evictionLock.lock();
+        try {
+            this.cache.clear();
+            this.policy.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Removes the entries matching the specified filter, leaving the rest
+     * of the cache (and the frequencies recorded for its keys) untouched.
+     * </p>
+     * 
+     * @param filter the filter selecting the entries to be removed
+     * @return the number of removed entries
+     * @since 1.4
+     */
+    public int invalidate(final CacheEntryFilter<? super K, ? super V> filter) {
+        this.evictionLock.lock();
+        try {
+            // Pending insertions are applied first, so that they are removed from the policy too
+            maintain();
+            int invalidated = 0;
+            final Iterator<CacheNode<K,V>> nodesIter = this.cache.values().iterator();
+            while (nodesIter.hasNext()) {
+                final CacheNode<K,V> node = nodesIter.next();
+                if (filter.matches(node.getKey(), node.getValue()) && 
+                        this.cache.remove(node.getKey(), node)) {
+                    this.policy.recordRemoval(node);
+                    invalidated++;
+                }
+            }
+            return invalidated;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Returns a copy of the entries currently contained in the cache. 
+     * Entries added or removed concurrently may or may not be included.
+     * </p>
+     * 
+     * @return the entries in the cache
+     * @since 1.4
+     */
+    public Map<K,V> getEntries() {
+        final Map<K,V> entries = new HashMap<K,V>();
+        final Iterator<CacheNode<K,V>> nodesIter = this.cache.values().iterator();
+        while (nodesIter.hasNext()) {
+            final CacheNode<K,V> node = nodesIter.next();
+            entries.put(node.getKey(), node.getValue());
+        }
+        return entries;
     }
     
     
@@ -98,7 +257,44 @@ public void clear() {
      * @return the value, or null if not found
      */
     public V get(final K key) {
-        return this.cache.get(key);
+        final Stripe<K,V> stripe = currentStripe();
+        final CacheNode<K,V> node = this.cache.get(key);
+        if (node == null) {
+            stripe.misses.incrementAndGet();
+            afterRead(stripe, key);
+            return null;
+        }
+        stripe.hits.incrementAndGet();
+        afterRead(stripe, node);
+        return node.getValue();
+    }
+    
+    /**
+     * <p>
+     * Get the value for a specific key, only if it is present. Unlike 
+     * {@link #get(Object)}, a miss is not recorded (neither in statistics 
+     * nor for deciding evictions).
+     * </p>
+     * <p>
+     * This is meant for lookups performed with a reusable (mutable) key, 
+     * which will be followed by a call to {@link #get(Object, CacheLoader)}
+     * with an immutable copy of the key if the value is not present. That call 
+     * will be the one recording the miss.
+     * </p>
+     * 
+     * @param key the key
+     * @return the value, or null if not found
+     * @since 1.4
+     */
+    public V getIfPresent(final K key) {
+        final CacheNode<K,V> node = this.cache.get(key);
+        if (node == null) {
+            return null;
+        }
+        final Stripe<K,V> stripe = currentStripe();
+        stripe.hits.incrementAndGet();
+        afterRead(stripe, node);
+        return node.getValue();
     }
     
     /**
@@ -114,20 +310,519 @@ public V get(final K key) {
      * @return the value added to the map (or the one already existing at the map)
      */
     public V computeAndGet(final K key, final V value) {
-        V result = this.cache.get(key);
-        if (result == null) {
-            result = this.cache.putIfAbsent(key, value);
-            if (result == null) {
-                result = value;
-                final int excessElements = this.cache.size() - this.maxElements;
-                for (int i = 0; i < excessElements; i++) {
-                    final K keyToRemove = this.keysQueue.poll();
-                    this.cache.remove(keyToRemove);
+        
+        final CacheNode<K,V> existing = this.cache.get(key);
+        final Stripe<K,V> stripe = currentStripe();
+        if (existing != null) {
+            afterRead(stripe, existing);
+            return existing.getValue();
+        }
+        
+        acquireCredit(stripe);
+        
+        final CacheNode<K,V> node = new CacheNode<K,V>(key, value);
+        final CacheNode<K,V> prior = this.cache.putIfAbsent(key, node);
+        if (prior != null) {
+            // The credit was not used, so it is given back to the stripe
+            stripe.credits.incrementAndGet();
+            afterRead(stripe, prior);
+            return prior.getValue();
+        }
+        
+        afterWrite(stripe, node);
+        return value;
+        
+    }
+    
+    
+    /**
+     * <p>
+     * Get the value for a specific key, computing it with the specified
+     * loader if it is not found.
+     * </p>
+     * <p>
+     * Only one computation is performed at a time for each key: if several
+     * threads miss on the same key at the same time, one of them will execute 
+     * the loader and the rest will wait for its result. Loaders can 
+     * themselves obtain values from this or other caches (even recursively).
+     * If waiting for a computation would cause a deadlock, the waiting 
+     * thread computes the value itself instead.
+     * </p>
+     * 
+     * @param key the key
+     * @param loader the loader which will compute the value if needed
+     * @return the value
+     * @since 1.4
+     */
+    public V get(final K key, final CacheLoader<? super K, ? extends V> loader) {
+        
+        final V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        
+        for (;;) {
+            
+            final PendingLoad<V> load = new PendingLoad<V>();
+            final PendingLoad<V> existingLoad = this.pendingLoads.putIfAbsent(key, load);
+            
+            if (existingLoad == null) {
+                try {
+                    final CacheNode<K,V> node = this.cache.get(key);
+                    final V result = 
+                        (node != null? node.getValue() : computeAndGet(key, load(key, loader)));
+                    load.complete(result);
+                    return result;
+                } catch (RuntimeException e) {
+                    load.fail(e);
+                    throw e;
+                } catch (Error e) {
+                    load.fail(e);
+                    throw e;
+                } finally {
+                    this.pendingLoads.remove(key, load);
                 }
-                this.keysQueue.add(key);
             }
+            
+            if (!existingLoad.await()) {
+                return computeAndGet(key, load(key, loader));
+            }
+            final V loadedValue = existingLoad.getValue();
+            if (loadedValue != null) {
+                return loadedValue;
+            }
+            
+        }
+        
+    }
+    
+    
+    /**
+     * <p>
+     * Returns the name of this cache, which is the one specified when 
+     * creating it followed, if another cache was already using it, by 
+     * <tt>#<i>n</i></tt>.
+     * </p>
+     * 
+     * @return the name of the cache, or null if it has no name
+     * @since 1.4
+     */
+    public String getName() {
+        return this.name;
+    }
+    
+    
+    /**
+     * <p>
+     * Returns the maximum number of elements this cache can contain.
+     * </p>
+     * 
+     * @return the maximum size of the cache
+     */
+    public int getMaxElements() {
+        return this.maxElements;
+    }
+    
+    
+    /**
+     * <p>
+     * Changes the maximum number of elements this cache can contain. If 
+     * the cache is shrunk, the entries not fitting into the new size are 
+     * evicted immediately.
+     * </p>
+     * <p>
+     * If the cache is in adaptive mode, the specified size becomes the
+     * minimum size the cache can shrink to.
+     * </p>
+     * 
+     * @param maxElements the new maximum number of elements
+     * @since 1.4
+     */
+    public void setMaxElements(final int maxElements) {
+        Utils.validateIsTrue(maxElements > 1, "Max elements must be > 1");
+        this.evictionLock.lock();
+        try {
+            if (this.adaptiveCapacity != null) {
+                this.adaptiveCapacity = newAdaptiveCapacity(maxElements);
+            }
+            resize(maxElements);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Returns whether this cache is in adaptive mode.
+     * </p>
+     * 
+     * @return true if the cache is adaptive, false if not
+     * @since 1.4
+     */
+    public boolean isAdaptive() {
+        this.evictionLock.lock();
+        try {
+            return (this.adaptiveCapacity != null);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Sets or unsets adaptive mode for this cache. Adaptive caches double their 
+     * size while their miss rate is high and there is enough free memory (up 
+     * to 16 times their initial size), and halve it (never going below their 
+     * initial size) when they are idle or free memory becomes scarce.
+     * </p>
+     * <p>
+     * When adaptive mode is set, the current maximum size of the cache is 
+     * taken as its initial size. When it is unset, the cache keeps its current 
+     * maximum size.
+     * </p>
+     * 
+     * @param adaptive whether the cache should be adaptive or not
+     * @since 1.4
+     */
+    public void setAdaptive(final boolean adaptive) {
+        this.evictionLock.lock();
+        try {
+            if (!adaptive) {
+                this.adaptiveCapacity = null;
+            } else if (this.adaptiveCapacity == null) {
+                this.adaptiveCapacity = newAdaptiveCapacity(this.maxElements);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+    
+    
+    /**
+     * <p>
+     * Returns the number of elements currently contained in the cache.
+     * </p>
+     * 
+     * @return the size of the cache
+     */
+    public int size() {
+        return this.cache.size();
+    }
+    
+    
+    /**
+     * <p>
+     * Returns a snapshot of the statistics of this cache.
+     * </p>
+     * 
+     * @return the statistics
+     * @since 1.4
+     */
+    public CacheStats getStats() {
+        long hitCount = 0L;
+        long missCount = 0L;
+        long loadCount = 0L;
+        long totalLoadTime = 0L;
+        for (int i = 0; i < this.stripes.length; i++) {
+            final Stripe<K,V> stripe = this.stripes[i];
+            hitCount += stripe.hits.get();
+            missCount += stripe.misses.get();
+            loadCount += stripe.loads.get();
+            totalLoadTime += stripe.loadTime.get();
+        }
+        return new CacheStats(
+                this.name, this.maxElements, this.cache.size(), 
+                hitCount, missCount, loadCount, totalLoadTime, this.evictionCount);
+    }
+    
+    
+    
+    
+    private Stripe<K,V> currentStripe() {
+        int hash = (int) Thread.currentThread().getId();
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = (hash >>> 16) ^ hash;
+        return this.stripes[hash & this.stripesMask];
+    }
+    
+    
+    
+    private V load(final K key, final CacheLoader<? super K, ? extends V> loader) {
+        final long start = System.nanoTime();
+        try {
+            return loader.load(key);
+        } finally {
+            final Stripe<K,V> stripe = currentStripe();
+            stripe.loads.incrementAndGet();
+            stripe.loadTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+    
+    
+    
+    /*
+     * Reads (both hits and misses) are recorded on a best-effort basis: if 
+     * the read buffer of the stripe is full the read is simply dropped, so 
+     * that readers never block.
+     */
+    private void afterRead(final Stripe<K,V> stripe, final Object nodeOrKey) {
+        final RingBuffer<Object> reads = stripe.reads;
+        if (!reads.offer(nodeOrKey) || reads.size() >= READ_BUFFER_SIZE) {
+            tryToMaintain();
+        }
+    }
+    
+    
+    
+    /*
+     * Writes cannot be dropped (the credit consumed by the write would
+     * never be returned), so if the write buffer of the stripe is full,
+     * the insertion is processed right away under the eviction lock.
+     */
+    private void afterWrite(final Stripe<K,V> stripe, final CacheNode<K,V> node) {
+        if (stripe.writes.offer(node)) {
+            if (stripe.writes.size() >= (WRITE_BUFFER_SIZE / 2)) {
+                tryToMaintain();
+            }
+            return;
+        }
+        this.evictionLock.lock();
+        try {
+            maintain();
+            processInsertion(node);
+            evict(this.maxElements - this.grantedCredits);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+    
+    
+    
+    private void acquireCredit(final Stripe<K,V> stripe) {
+        for (;;) {
+            final int credits = stripe.credits.get();
+            if (credits > 0) {
+                if (stripe.credits.compareAndSet(credits, credits - 1)) {
+                    return;
+                }
+            } else if (!grantCredits(stripe)) {
+                // All the room is taken by insertions in progress at other threads
+                Thread.yield();
+            }
+        }
+    }
+    
+    
+    
+    /*
+     * Grants a new batch of insertion credits to a stripe. The sum of the 
+     * size of the policy plus all the credits granted and not yet settled
+     * (credits available at stripes plus insertions not processed by the 
+     * policy yet) never goes over the maximum number of elements, which 
+     * guarantees the size of the map never does, either.
+     */
+    private boolean grantCredits(final Stripe<K,V> stripe) {
+        
+        this.evictionLock.lock();
+        try {
+            
+            if (stripe.credits.get() > 0) {
+                // Another thread of the same stripe got there first
+                return true;
+            }
+            
+            maintain();
+            
+            int room = this.maxElements - this.policy.size() - this.grantedCredits;
+            if (room < this.creditsBatch) {
+                reclaimCredits();
+                room = this.maxElements - this.policy.size() - this.grantedCredits;
+            }
+            if (room < this.creditsBatch) {
+                evict(this.maxElements - this.grantedCredits - this.creditsBatch);
+                room = this.maxElements - this.policy.size() - this.grantedCredits;
+            }
+            if (room <= 0) {
+                return false;
+            }
+            
+            final int granted = Math.min(room, this.creditsBatch);
+            this.grantedCredits += granted;
+            stripe.credits.addAndGet(granted);
+            return true;
+            
+        } finally {
+            this.evictionLock.unlock();
+        }
+        
+    }
+    
+    
+    
+    /*
+     * Must be called while holding the eviction lock.
+     */
+    private void resize(final int newMaxElements) {
+        final int oldMaxElements = this.maxElements;
+        this.maxElements = newMaxElements;
+        this.creditsBatch = computeCreditsBatch(newMaxElements, this.stripes.length);
+        this.policy.setMaximum(newMaxElements);
+        if (newMaxElements < oldMaxElements) {
+            reclaimCredits();
+        }
+        maintain();
+    }
+    
+    
+    
+    private AdaptiveCapacity newAdaptiveCapacity(final int baseMaxElements) {
+        final CacheStats stats = getStats();
+        return new AdaptiveCapacity(
+                baseMaxElements, stats.getHitCount(), stats.getMissCount(), System.nanoTime());
+    }
+    
+    
+    
+    private void adapt(final int drainedReads) {
+        final long now = System.nanoTime();
+        if (!this.adaptiveCapacity.recordOperations(drainedReads, this.maxElements, now)) {
+            return;
+        }
+        final CacheStats stats = getStats();
+        final int newMaxElements = 
+            this.adaptiveCapacity.evaluate(
+                    this.maxElements, stats.getHitCount(), stats.getMissCount(), 
+                    now, AdaptiveCapacity.currentMemoryHeadroom());
+        if (newMaxElements != this.maxElements) {
+            resize(newMaxElements);
+        }
+    }
+    
+    
+    
+    private void reclaimCredits() {
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.grantedCredits -= this.stripes[i].credits.getAndSet(0);
+        }
+    }
+    
+    
+    
+    private void tryToMaintain() {
+        if (this.evictionLock.tryLock()) {
+            try {
+                maintain();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+    
+    
+    
+    /*
+     * Drains all buffers and applies their contents to the policy. Must be 
+     * called while holding the eviction lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void maintain() {
+        
+        for (int i = 0; i < this.stripes.length; i++) {
+            final RingBuffer<CacheNode<K,V>> writes = this.stripes[i].writes;
+            CacheNode<K,V> node = null;
+            while ((node = writes.poll()) != null) {
+                processInsertion(node);
+            }
+        }
+        
+        int drainedReads = 0;
+        for (int i = 0; i < this.stripes.length; i++) {
+            final RingBuffer<Object> reads = this.stripes[i].reads;
+            Object read = null;
+            while ((read = reads.poll()) != null) {
+                if (read instanceof CacheNode<?,?>) {
+                    this.policy.recordAccess((CacheNode<K,V>) read);
+                } else {
+                    this.policy.recordMiss((K) read);
+                }
+                drainedReads++;
+            }
+        }
+        
+        if (this.adaptiveCapacity != null && drainedReads > 0) {
+            // Might resize the cache, which maintains it again (with empty buffers)
+            adapt(drainedReads);
+        }
+        
+        evict(this.maxElements - this.grantedCredits);
+        
+    }
+    
+    
+    
+    private void processInsertion(final CacheNode<K,V> node) {
+        // The credit consumed by this insertion is now settled
+        this.grantedCredits--;
+        // The cache could have been cleared since the node was added
+        if (this.cache.get(node.getKey()) == node) {
+            this.policy.recordInsertion(node);
+        }
+    }
+    
+    
+    
+    private void evict(final int targetSize) {
+        this.policy.evict(targetSize, this.evicted);
+        final int evictedCount = this.evicted.size();
+        if (evictedCount == 0) {
+            return;
+        }
+        for (int i = 0; i < evictedCount; i++) {
+            final CacheNode<K,V> evictedNode = this.evicted.get(i);
+            this.cache.remove(evictedNode.getKey(), evictedNode);
+        }
+        this.evicted.clear();
+        // Only written while holding the eviction lock
+        this.evictionCount += evictedCount;
+    }
+    
+    
+    
+    private static int computeCreditsBatch(final int maxElements, final int stripeCount) {
+        return Math.max(1, Math.min(MAX_CREDITS_BATCH, maxElements / (4 * stripeCount)));
+    }
+    
+    
+    
+    private static int computeStripeCount() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        int stripeCount = 1;
+        while (stripeCount < processors && stripeCount < MAX_STRIPES) {
+            stripeCount <<= 1;
+        }
+        return stripeCount;
+    }
+    
+    
+    
+    
+    private static final class Stripe<K,V> {
+        
+        final RingBuffer<Object> reads = new RingBuffer<Object>(READ_BUFFER_SIZE);
+        final RingBuffer<CacheNode<K,V>> writes = new RingBuffer<CacheNode<K,V>>(WRITE_BUFFER_SIZE);
+        final AtomicInteger credits = new AtomicInteger(0);
+        
+        final AtomicLong hits = new AtomicLong(0L);
+        final AtomicLong misses = new AtomicLong(0L);
+        final AtomicLong loads = new AtomicLong(0L);
+        final AtomicLong loadTime = new AtomicLong(0L);
+        
+        Stripe() {
+            super();
         }
-        return result;
+        
     }
     
 }
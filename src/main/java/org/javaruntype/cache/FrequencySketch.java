@@ -0,0 +1,173 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Count-Min sketch used by ConcurrentCache for estimating how often
+ * a key has been requested during the recent past.
+ * 
+ * Each long in the table packs sixteen 4-bit counters, and each key is
+ * mapped to four of them (one per hash function). The estimated frequency
+ * of a key is the minimum of its four counters, so it can only be
+ * overestimated because of collisions, never underestimated.
+ * 
+ * Once the number of increments reaches a sample size proportional to the
+ * cache size, all counters are halved ("aging"), so that keys that were
+ * popular a long time ago stop shadowing the ones being requested now.
+ * 
+ * This class is NOT thread-safe: it is always accessed while holding the
+ * eviction lock of its ConcurrentCache.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ * 
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = new long[] {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+        0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private static final int MIN_TABLE_SIZE = 8;
+    private static final int SAMPLE_FACTOR = 10;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int size;
+
+
+
+    FrequencySketch(final int maximumSize) {
+        super();
+        ensureCapacity(maximumSize);
+    }
+
+
+
+    void ensureCapacity(final int maximumSize) {
+        final int tableSize =
+            Math.max(MIN_TABLE_SIZE, ceilingPowerOfTwo(maximumSize));
+        this.sampleSize = SAMPLE_FACTOR * Math.max(1, maximumSize);
+        if (this.table != null && this.table.length >= tableSize) {
+            return;
+        }
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.size = 0;
+    }
+
+
+
+    int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+
+
+    void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            added |= incrementAt(index, start + i);
+        }
+        if (added && (++this.size == this.sampleSize)) {
+            reset();
+        }
+    }
+
+
+
+    void clear() {
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = 0L;
+        }
+        this.size = 0;
+    }
+
+
+
+    private boolean incrementAt(final int index, final int counter) {
+        final int offset = counter << 2;
+        final long mask = (0xfL << offset);
+        if ((this.table[index] & mask) != mask) {
+            this.table[index] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+
+
+    private void reset() {
+        int oddCounters = 0;
+        for (int i = 0; i < this.table.length; i++) {
+            oddCounters += Long.bitCount(this.table[i] & ONE_MASK);
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+        this.size = (this.size >>> 1) - (oddCounters >>> 2);
+    }
+
+
+
+    private int indexOf(final int item, final int i) {
+        long hash = (item + SEEDS[i]) * SEEDS[i];
+        hash += (hash >>> 32);
+        return ((int) hash) & this.tableMask;
+    }
+
+
+
+    private static int spread(final int hashCode) {
+        int x = hashCode;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+
+
+    private static int ceilingPowerOfTwo(final int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        final int highest = Integer.highestOneBit(value - 1);
+        return (highest >= (1 << 30)) ? (1 << 30) : (highest << 1);
+    }
+
+}
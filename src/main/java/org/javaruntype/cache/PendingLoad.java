@@ -0,0 +1,141 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * A load in progress at a ConcurrentCache, which other threads missing
+ * on the same key can wait on instead of computing the same value again.
+ * 
+ * Loads can be nested (computing a value can require loading other values,
+ * even from other caches), so waiting could cause deadlocks if two threads
+ * ended up waiting on each other's loads. In order to avoid this, a
+ * global wait-for graph is kept (each waiting thread points to the load it 
+ * is waiting on, and each load points to its owner thread), and a thread
+ * only waits if doing so does not close a cycle in that graph. Threads
+ * register themselves as waiting before checking for cycles, so if two 
+ * threads try to close the same cycle at the same time, at least one of them
+ * will detect it. A thread which cannot wait just computes the value itself.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class PendingLoad<V> {
+
+    private static final ConcurrentHashMap<Thread,PendingLoad<?>> loadsByWaitingThread = 
+        new ConcurrentHashMap<Thread, PendingLoad<?>>();
+    
+    private final Thread owner;
+    private final CountDownLatch latch;
+    private volatile V value;
+    private volatile Throwable failure;
+    
+    
+    
+    PendingLoad() {
+        super();
+        this.owner = Thread.currentThread();
+        this.latch = new CountDownLatch(1);
+    }
+    
+    
+    
+    void complete(final V completedValue) {
+        this.value = completedValue;
+        this.latch.countDown();
+    }
+    
+    
+    void fail(final Throwable loadFailure) {
+        this.failure = loadFailure;
+        this.latch.countDown();
+    }
+    
+    
+    
+    /*
+     * Waits for the load to finish. Returns false if the current thread
+     * cannot wait for it (because that would cause a deadlock or because 
+     * it was interrupted), in which case the value should be computed by
+     * the current thread.
+     */
+    boolean await() {
+        
+        final Thread current = Thread.currentThread();
+        if (this.owner == current) {
+            // Re-entrant load of the same key
+            return false;
+        }
+        
+        loadsByWaitingThread.put(current, this);
+        try {
+            
+            // Any path in the graph longer than the number of waiting
+            // threads must contain a cycle (maybe one which is being 
+            // resolved right now by the threads in it)
+            final int maxPathLength = loadsByWaitingThread.size() + 1;
+            Thread thread = this.owner;
+            for (int i = 0; thread != null; i++) {
+                if (thread == current || i > maxPathLength) {
+                    return false;
+                }
+                final PendingLoad<?> load = loadsByWaitingThread.get(thread);
+                thread = (load == null? null : load.owner);
+            }
+            
+            try {
+                this.latch.await();
+            } catch (InterruptedException e) {
+                current.interrupt();
+                return false;
+            }
+            return true;
+            
+        } finally {
+            loadsByWaitingThread.remove(current);
+        }
+        
+    }
+    
+    
+    
+    /*
+     * Must only be called after await() returns true.
+     */
+    V getValue() {
+        final Throwable loadFailure = this.failure;
+        if (loadFailure instanceof RuntimeException) {
+            throw (RuntimeException) loadFailure;
+        }
+        if (loadFailure instanceof Error) {
+            throw (Error) loadFailure;
+        }
+        return this.value;
+    }
+    
+}
@@ -0,0 +1,116 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.javaruntype.util.Utils;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Bounded multiple-producer, single-consumer ring buffer used by 
+ * ConcurrentCache for recording reads and writes without contending
+ * on the eviction lock.
+ * 
+ * Producers claim a slot by incrementing the write counter and then
+ * publish their element into it. The only consumer is the thread holding
+ * the eviction lock, which polls elements in order until it finds an empty
+ * (not yet published) slot. Offering never blocks: if the buffer is full,
+ * the offer simply fails and the caller decides what to do.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class RingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    
+    private final AtomicLong writeCounter;
+    private volatile long readCounter;
+    
+    
+    
+    RingBuffer(final int capacity) {
+        super();
+        Utils.validateIsTrue(
+                (capacity > 0) && ((capacity & (capacity - 1)) == 0), 
+                "Ring buffer capacity must be a power of two");
+        this.slots = new AtomicReferenceArray<E>(capacity);
+        this.mask = capacity - 1;
+        this.writeCounter = new AtomicLong(0L);
+        this.readCounter = 0L;
+    }
+    
+    
+    
+    int capacity() {
+        return this.mask + 1;
+    }
+    
+    
+    int size() {
+        return (int) (this.writeCounter.get() - this.readCounter);
+    }
+    
+    
+    
+    boolean offer(final E element) {
+        for (;;) {
+            final long head = this.readCounter;
+            final long tail = this.writeCounter.get();
+            if (tail - head > this.mask) {
+                return false;
+            }
+            if (this.writeCounter.compareAndSet(tail, tail + 1)) {
+                this.slots.set((int) (tail & this.mask), element);
+                return true;
+            }
+        }
+    }
+    
+    
+    
+    /*
+     * Must only be called by the consumer (the thread holding the eviction lock).
+     */
+    E poll() {
+        final long head = this.readCounter;
+        if (head >= this.writeCounter.get()) {
+            return null;
+        }
+        final int index = (int) (head & this.mask);
+        final E element = this.slots.get(index);
+        if (element == null) {
+            // Slot claimed by a producer, but not published yet
+            return null;
+        }
+        this.slots.set(index, null);
+        this.readCounter = head + 1;
+        return element;
+    }
+    
+}
@@ -0,0 +1,247 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.cache;
+
+import java.util.List;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Window TinyLFU eviction policy for ConcurrentCache.
+ * 
+ * New entries are first added to a small LRU "window" (1% of the
+ * capacity). When they overflow the window, they move to the main space,
+ * which is a segmented LRU split into a "probation" and a "protected" 
+ * (80% of the main space) queue. Entries accessed while in probation are
+ * promoted to protected; entries overflowing protected are demoted back to
+ * probation.
+ * 
+ * When the cache is over its capacity, the candidate coming from the
+ * window (the most recent in probation) is compared against the least 
+ * recently used entry in probation (the victim), and only the one with
+ * the higher estimated frequency is kept. This prevents a burst of one-off
+ * keys from flushing the entries that are requested all the time, as 
+ * happened with the former FIFO policy.
+ * 
+ * This class is NOT thread-safe: it is always accessed while holding the
+ * eviction lock of its ConcurrentCache.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class WindowTinyLfuPolicy<K,V> {
+
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final int PROTECTED_PERCENTAGE = 80;
+    
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<K,V> window;
+    private final AccessOrderDeque<K,V> probation;
+    private final AccessOrderDeque<K,V> protectedQueue;
+    
+    private int maxWindow;
+    private int maxProtected;
+    
+    
+    
+    WindowTinyLfuPolicy(final int maximum) {
+        super();
+        this.sketch = new FrequencySketch(maximum);
+        this.window = new AccessOrderDeque<K,V>();
+        this.probation = new AccessOrderDeque<K,V>();
+        this.protectedQueue = new AccessOrderDeque<K,V>();
+        computeSizes(maximum);
+    }
+    
+    
+    
+    private void computeSizes(final int newMaximum) {
+        this.maxWindow = Math.max(1, (newMaximum * WINDOW_PERCENTAGE) / 100);
+        this.maxProtected = ((newMaximum - this.maxWindow) * PROTECTED_PERCENTAGE) / 100;
+    }
+    
+    
+    
+    /*
+     * Changes the maximum size the policy is tuned for. The cache is in 
+     * charge of evicting whatever is needed after shrinking.
+     */
+    void setMaximum(final int newMaximum) {
+        computeSizes(newMaximum);
+        this.sketch.ensureCapacity(newMaximum);
+        demoteFromProtected();
+    }
+    
+    
+    
+    int size() {
+        return this.window.size() + this.probation.size() + this.protectedQueue.size();
+    }
+    
+    
+    
+    void recordMiss(final K key) {
+        this.sketch.increment(key);
+    }
+    
+    
+    
+    void recordAccess(final CacheNode<K,V> node) {
+        
+        this.sketch.increment(node.getKey());
+        
+        switch (node.queue) {
+            case CacheNode.QUEUE_WINDOW:
+                this.window.moveToBack(node);
+                break;
+            case CacheNode.QUEUE_PROBATION:
+                this.probation.remove(node);
+                node.queue = CacheNode.QUEUE_PROTECTED;
+                this.protectedQueue.addLast(node);
+                demoteFromProtected();
+                break;
+            case CacheNode.QUEUE_PROTECTED:
+                this.protectedQueue.moveToBack(node);
+                break;
+            default:
+                // Node not (or no longer) managed by the policy: nothing to do
+        }
+        
+    }
+    
+    
+    
+    void recordInsertion(final CacheNode<K,V> node) {
+        node.queue = CacheNode.QUEUE_WINDOW;
+        this.window.addLast(node);
+    }
+    
+    
+    
+    void recordRemoval(final CacheNode<K,V> node) {
+        final AccessOrderDeque<K,V> queue = queueFor(node);
+        if (queue != null) {
+            queue.remove(node);
+        }
+        node.queue = CacheNode.QUEUE_DEAD;
+    }
+    
+    
+    
+    void clear() {
+        markDead(this.window);
+        markDead(this.probation);
+        markDead(this.protectedQueue);
+        this.sketch.clear();
+    }
+    
+    
+    
+    /*
+     * Evicts as many nodes as needed for the policy to contain no more than
+     * "targetSize" nodes. Evicted nodes are added to the "evicted" list so 
+     * that they can be removed from the map.
+     */
+    void evict(final int targetSize, final List<CacheNode<K,V>> evicted) {
+        
+        // Overflowing window entries become candidates for the main space
+        while (this.window.size() > this.maxWindow) {
+            final CacheNode<K,V> candidate = this.window.pollFirst();
+            candidate.queue = CacheNode.QUEUE_PROBATION;
+            this.probation.addLast(candidate);
+        }
+
+        while (size() > targetSize) {
+            
+            CacheNode<K,V> victim = this.probation.peekFirst();
+            final CacheNode<K,V> candidate = this.probation.peekLast();
+            
+            if (victim == null) {
+                // Nothing in probation: evict from protected or window
+                victim = this.protectedQueue.peekFirst();
+                if (victim == null) {
+                    victim = this.window.peekFirst();
+                }
+                if (victim == null) {
+                    return;
+                }
+                evicted.add(victim);
+                recordRemoval(victim);
+                continue;
+            }
+            
+            if (victim == candidate) {
+                evicted.add(victim);
+                recordRemoval(victim);
+                continue;
+            }
+            
+            final int victimFrequency = this.sketch.frequency(victim.getKey());
+            final int candidateFrequency = this.sketch.frequency(candidate.getKey());
+            final CacheNode<K,V> loser = 
+                (candidateFrequency > victimFrequency)? victim : candidate;
+            evicted.add(loser);
+            recordRemoval(loser);
+            
+        }
+        
+    }
+    
+    
+    
+    private void demoteFromProtected() {
+        while (this.protectedQueue.size() > this.maxProtected) {
+            final CacheNode<K,V> demoted = this.protectedQueue.pollFirst();
+            demoted.queue = CacheNode.QUEUE_PROBATION;
+            this.probation.addLast(demoted);
+        }
+    }
+    
+    
+    
+    private AccessOrderDeque<K,V> queueFor(final CacheNode<K,V> node) {
+        switch (node.queue) {
+            case CacheNode.QUEUE_WINDOW:
+                return this.window;
+            case CacheNode.QUEUE_PROBATION:
+                return this.probation;
+            case CacheNode.QUEUE_PROTECTED:
+                return this.protectedQueue;
+            default:
+                return null;
+        }
+    }
+    
+    
+    
+    private static <K,V> void markDead(final AccessOrderDeque<K,V> queue) {
+        CacheNode<K,V> node = queue.peekFirst();
+        while (node != null) {
+            node.queue = CacheNode.QUEUE_DEAD;
+            node = node.next;
+        }
+        queue.clear();
+    }
+    
+}
@@ -0,0 +1,198 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Bounded cache of the assignabilities computed between pairs of canonical
+ * types, keyed by their ids. It is used for the pairs that are not covered
+ * by the precomputed assignability index (see AssignabilityRow), and it 
+ * never allocates on lookups.
+ * 
+ * The cache is an open-addressing table of longs. Type ids are non-negative
+ * ints, so each slot packs the id of the target type in its high word, the
+ * id of the candidate ("from") type in the lower 31 bits of its low word,
+ * and the cached result in bit 31. An empty slot is zero, so the
+ * highest bit is always set in occupied slots. As key and value share the
+ * same long, reads are a single volatile read per probed slot and need no
+ * locking, and a reader can never see a key with the value of another one.
+ * 
+ * Lookups probe at most MAX_PROBES slots from the home position of the key.
+ * Slots are never emptied (that would break the probe sequences of other
+ * keys), so when there is no free slot among them, the slot at the home 
+ * position is overwritten. Invalidated entries are replaced by a tombstone,
+ * which matches no key (ids never reach Integer.MAX_VALUE) and can be
+ * reused by insertions. Concurrent writers might
+ * therefore lose an entry or store one twice, which only means that it will
+ * be computed again. The size of the cache never grows.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class AssignabilityCache {
+
+    static final byte UNKNOWN = 0;
+    static final byte ASSIGNABLE = 1;
+    static final byte NOT_ASSIGNABLE = 2;
+    
+    private static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final int MAX_PROBES = 8;
+    
+    private static final long OCCUPIED_BIT = 1L << 63;
+    private static final long ASSIGNABLE_BIT = 1L << 31;
+    private static final long TOMBSTONE = -1L;
+    
+    private final AtomicLongArray slots;
+    private final int mask;
+    
+    
+    
+    AssignabilityCache() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    
+    AssignabilityCache(final int capacity) {
+        super();
+        final int size = Math.max(MAX_PROBES, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+    
+    
+    
+    byte get(final int typeId, final int fromTypeId) {
+        final long key = pack(typeId, fromTypeId);
+        int index = indexFor(key);
+        for (int i = 0; i < MAX_PROBES; i++) {
+            final long slot = this.slots.get(index);
+            if (slot == 0L) {
+                return UNKNOWN;
+            }
+            if ((slot & ~ASSIGNABLE_BIT) == key) {
+                return ((slot & ASSIGNABLE_BIT) != 0L? ASSIGNABLE : NOT_ASSIGNABLE);
+            }
+            index = (index + 1) & this.mask;
+        }
+        return UNKNOWN;
+    }
+    
+    
+    
+    void put(final int typeId, final int fromTypeId, final boolean assignable) {
+        final long key = pack(typeId, fromTypeId);
+        final long entry = (assignable? key | ASSIGNABLE_BIT : key);
+        final int home = indexFor(key);
+        int index = home;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            final long slot = this.slots.get(index);
+            if (slot == 0L || slot == TOMBSTONE || (slot & ~ASSIGNABLE_BIT) == key) {
+                this.slots.set(index, entry);
+                return;
+            }
+            index = (index + 1) & this.mask;
+        }
+        this.slots.set(home, entry);
+    }
+    
+    
+    
+    /*
+     * Removes the entries involving any of the types whose ids are set in
+     * the specified bitmap (64 ids per word).
+     */
+    void invalidate(final long[] ids) {
+        for (int i = 0; i < this.slots.length(); i++) {
+            final long slot = this.slots.get(i);
+            if (slot == 0L || slot == TOMBSTONE) {
+                continue;
+            }
+            if (isSet(ids, getTypeId(slot)) || isSet(ids, getFromTypeId(slot))) {
+                this.slots.compareAndSet(i, slot, TOMBSTONE);
+            }
+        }
+    }
+    
+    
+    
+    /*
+     * Returns the entries currently in the cache (see TypeSnapshot), which
+     * can be decoded with getTypeId(...), getFromTypeId(...) and 
+     * isAssignable(...).
+     */
+    long[] getEntries() {
+        int count = 0;
+        final long[] entries = new long[this.slots.length()];
+        for (int i = 0; i < entries.length; i++) {
+            final long slot = this.slots.get(i);
+            if (slot != 0L && slot != TOMBSTONE) {
+                entries[count++] = slot;
+            }
+        }
+        final long[] result = new long[count];
+        System.arraycopy(entries, 0, result, 0, count);
+        return result;
+    }
+    
+    
+    static int getTypeId(final long entry) {
+        return (int) ((entry >>> 32) & 0x7fffffffL);
+    }
+    
+    
+    static int getFromTypeId(final long entry) {
+        return (int) (entry & 0x7fffffffL);
+    }
+    
+    
+    static boolean isAssignable(final long entry) {
+        return ((entry & ASSIGNABLE_BIT) != 0L);
+    }
+    
+    
+    
+    private static boolean isSet(final long[] ids, final int id) {
+        final int word = id >>> 6;
+        return (word < ids.length && (ids[word] & (1L << (id & 63))) != 0L);
+    }
+    
+    
+    
+    private static long pack(final int typeId, final int fromTypeId) {
+        return OCCUPIED_BIT | ((long) typeId << 32) | fromTypeId;
+    }
+    
+    
+    
+    private int indexFor(final long key) {
+        long hash = key;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return ((int) (hash ^ (hash >>> 33))) & this.mask;
+    }
+    
+}
@@ -0,0 +1,207 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Row of the assignability index kept by each canonical Type. For a type
+ * "F", bit "i" of the row says whether F is assignable to the canonical
+ * type with id "i" (i.e. whether type(i).isAssignableFrom(F) is true).
+ * 
+ * Rows are filled for the closed set of types declared to
+ * Types.precomputeAssignabilities(...), which might not include every
+ * existing type, so each id needs two bits: a "known" bit and a "value" 
+ * bit. Assignabilities between other types are kept in a bounded 
+ * AssignabilityCache instead. Ids are dense, so bits are stored in chunks
+ * covering CHUNK_IDS consecutive ids each, which are only allocated when an
+ * id in their range is first set. Within a chunk, the known and value words 
+ * for each group of 64 ids are stored next to each other.
+ * 
+ * Reads are lock-free. Writes set the value bit before the known bit, so
+ * that a reader seeing the known bit always sees the right value. Growing
+ * the chunk directory is synchronized and copies it, so that readers always
+ * see a fully built directory.
+ * 
+ * Bits are cleared when the registry invalidates the types they depend on
+ * (see TypeRegistry.invalidate), and before the ids of garbage collected 
+ * types are reused (see TypeRegistry.recycleTypeIds).
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class AssignabilityRow {
+
+    private static final int CHUNK_SHIFT = 9;
+    private static final int CHUNK_IDS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_IDS - 1;
+    private static final int CHUNK_WORDS = (CHUNK_IDS >>> 6) << 1;
+    
+    private static final AtomicLongArray[] NO_CHUNKS = new AtomicLongArray[0];
+    
+    private volatile AtomicLongArray[] chunks;
+    
+    
+    
+    AssignabilityRow() {
+        super();
+        this.chunks = NO_CHUNKS;
+    }
+    
+    
+    
+    /*
+     * Returns true if the assignability to the type with the specified id
+     * has already been computed.
+     */
+    boolean isKnown(final int id) {
+        final AtomicLongArray chunk = getChunk(id);
+        if (chunk == null) {
+            return false;
+        }
+        return (chunk.get(knownWordIndex(id)) & bit(id)) != 0L;
+    }
+    
+    
+    
+    /*
+     * Returns the computed assignability to the type with the specified id.
+     * Only meaningful if isKnown(id) returned true before.
+     */
+    boolean isAssignable(final int id) {
+        final AtomicLongArray chunk = getChunk(id);
+        if (chunk == null) {
+            return false;
+        }
+        return (chunk.get(knownWordIndex(id) + 1) & bit(id)) != 0L;
+    }
+    
+    
+    
+    void set(final int id, final boolean assignable) {
+        AtomicLongArray chunk = getChunk(id);
+        if (chunk == null) {
+            chunk = createChunk(id);
+        }
+        final int knownWordIndex = knownWordIndex(id);
+        final long bit = bit(id);
+        if (assignable) {
+            setBit(chunk, knownWordIndex + 1, bit);
+        }
+        setBit(chunk, knownWordIndex, bit);
+    }
+    
+    
+    
+    /*
+     * Forgets every known assignability.
+     */
+    synchronized void clear() {
+        this.chunks = NO_CHUNKS;
+    }
+    
+    
+    
+    /*
+     * Forgets the known assignabilities to the types whose ids are set in
+     * the specified bitmap (64 ids per word). The known bit is cleared 
+     * before the value bit, so that readers never see a known bit with a 
+     * wrong value.
+     */
+    void clear(final long[] ids) {
+        final AtomicLongArray[] currentChunks = this.chunks;
+        for (int i = 0; i < currentChunks.length; i++) {
+            final AtomicLongArray chunk = currentChunks[i];
+            if (chunk == null) {
+                continue;
+            }
+            final int firstWord = i << (CHUNK_SHIFT - 6);
+            for (int j = 0; j < CHUNK_WORDS; j += 2) {
+                final int idsWord = firstWord + (j >>> 1);
+                if (idsWord < ids.length && ids[idsWord] != 0L) {
+                    clearBits(chunk, j, ids[idsWord]);
+                    clearBits(chunk, j + 1, ids[idsWord]);
+                }
+            }
+        }
+    }
+    
+    
+    
+    private AtomicLongArray getChunk(final int id) {
+        final AtomicLongArray[] currentChunks = this.chunks;
+        final int chunkIndex = id >>> CHUNK_SHIFT;
+        return (chunkIndex < currentChunks.length? currentChunks[chunkIndex] : null);
+    }
+    
+    
+    
+    private synchronized AtomicLongArray createChunk(final int id) {
+        final int chunkIndex = id >>> CHUNK_SHIFT;
+        final AtomicLongArray[] currentChunks = this.chunks;
+        if (chunkIndex < currentChunks.length && currentChunks[chunkIndex] != null) {
+            return currentChunks[chunkIndex];
+        }
+        final AtomicLongArray[] newChunks = 
+            new AtomicLongArray[Math.max(currentChunks.length, chunkIndex + 1)];
+        System.arraycopy(currentChunks, 0, newChunks, 0, currentChunks.length);
+        final AtomicLongArray chunk = new AtomicLongArray(CHUNK_WORDS);
+        newChunks[chunkIndex] = chunk;
+        this.chunks = newChunks;
+        return chunk;
+    }
+    
+    
+    
+    private static void setBit(final AtomicLongArray chunk, final int wordIndex, final long bit) {
+        long word = chunk.get(wordIndex);
+        while ((word & bit) == 0L && !chunk.compareAndSet(wordIndex, word, word | bit)) {
+            word = chunk.get(wordIndex);
+        }
+    }
+    
+    
+    
+    private static void clearBits(final AtomicLongArray chunk, final int wordIndex, final long bits) {
+        long word = chunk.get(wordIndex);
+        while ((word & bits) != 0L && !chunk.compareAndSet(wordIndex, word, word & ~bits)) {
+            word = chunk.get(wordIndex);
+        }
+    }
+    
+    
+    
+    private static int knownWordIndex(final int id) {
+        return ((id & CHUNK_MASK) >>> 6) << 1;
+    }
+    
+    
+    
+    private static long bit(final int id) {
+        return 1L << (id & 63);
+    }
+    
+}
@@ -0,0 +1,222 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Index of the classes from which the registry data about each class is
+ * derived, used for invalidating only the entries which depend on a set 
+ * of classes (see TypeRegistry.invalidate).
+ * 
+ * The dependencies of a class are the class itself plus every class 
+ * mentioned in its declaration (superclass, interfaces, their type 
+ * arguments and the bounds of its type variables), transitively. They are
+ * computed once per class and attached to it by means of a ClassValue.
+ * 
+ * Every time the dependencies of a class are computed, the class is 
+ * recorded as a dependent of each of them, so that the classes depending
+ * on a given one can be found without scanning every class known to the
+ * registry. Dependents are weakly referenced, so that a class does not 
+ * prevent its subclasses (maybe from other class loaders) from being 
+ * garbage collected. Classes from the bootstrap class loader cannot be
+ * reloaded or unloaded, so their dependents are not recorded.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class ClassDependencies {
+
+    private static final Class<?>[] NO_CLASSES = new Class<?>[0];
+    
+    private final ClassValue<Class<?>[]> dependenciesByClass =
+        new ClassValue<Class<?>[]>() {
+            @Override
+            protected Class<?>[] computeValue(final Class<?> typeClass) {
+                return computeDependencies(typeClass);
+            }
+        };
+    private final ClassValue<DependentClasses> dependentsByClass =
+        new ClassValue<DependentClasses>() {
+            @Override
+            protected DependentClasses computeValue(final Class<?> typeClass) {
+                return new DependentClasses();
+            }
+        };
+    
+    
+    
+    ClassDependencies() {
+        super();
+    }
+    
+    
+    
+    Class<?>[] getDependencies(final Class<?> typeClass) {
+        return this.dependenciesByClass.get(typeClass);
+    }
+    
+    
+    
+    /*
+     * Returns the specified classes plus all the recorded classes which 
+     * depend on any of them.
+     */
+    Set<Class<?>> getDependentClasses(final Class<?>[] classes) {
+        final Set<Class<?>> dependentClasses = new HashSet<Class<?>>();
+        for (int i = 0; i < classes.length; i++) {
+            dependentClasses.add(classes[i]);
+            if (classes[i].getClassLoader() != null) {
+                this.dependentsByClass.get(classes[i]).addTo(dependentClasses);
+            }
+        }
+        return dependentClasses;
+    }
+    
+    
+    
+    private Class<?>[] computeDependencies(final Class<?> typeClass) {
+        
+        // Computed iteratively, as declarations can be recursive (Enum<E extends Enum<E>>)
+        final Set<Class<?>> dependencies = new HashSet<Class<?>>();
+        final List<Class<?>> pending = new ArrayList<Class<?>>();
+        pending.add(typeClass);
+        while (!pending.isEmpty()) {
+            final Class<?> dependency = pending.remove(pending.size() - 1);
+            if (!dependencies.add(dependency)) {
+                continue;
+            }
+            if (dependency.isArray()) {
+                pending.add(dependency.getComponentType());
+                continue;
+            }
+            addClasses(dependency.getGenericSuperclass(), pending);
+            final java.lang.reflect.Type[] interfaces = dependency.getGenericInterfaces();
+            for (int i = 0; i < interfaces.length; i++) {
+                addClasses(interfaces[i], pending);
+            }
+            final TypeVariable<?>[] typeVariables = dependency.getTypeParameters();
+            for (int i = 0; i < typeVariables.length; i++) {
+                final java.lang.reflect.Type[] bounds = typeVariables[i].getBounds();
+                for (int j = 0; j < bounds.length; j++) {
+                    addClasses(bounds[j], pending);
+                }
+            }
+        }
+        
+        dependencies.remove(typeClass);
+        final Class<?>[] dependencyArray = dependencies.toArray(NO_CLASSES);
+        for (int i = 0; i < dependencyArray.length; i++) {
+            if (dependencyArray[i].getClassLoader() != null) {
+                this.dependentsByClass.get(dependencyArray[i]).add(typeClass);
+            }
+        }
+        
+        final Class<?>[] result = new Class<?>[dependencyArray.length + 1];
+        result[0] = typeClass;
+        System.arraycopy(dependencyArray, 0, result, 1, dependencyArray.length);
+        return result;
+        
+    }
+    
+    
+    
+    /*
+     * Type variables are not followed (their bounds are added by the 
+     * class declaring them).
+     */
+    private static void addClasses(final java.lang.reflect.Type type, final List<Class<?>> classes) {
+        if (type instanceof Class<?>) {
+            classes.add((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterizedType = (ParameterizedType) type;
+            addClasses(parameterizedType.getRawType(), classes);
+            if (parameterizedType.getOwnerType() != null) {
+                addClasses(parameterizedType.getOwnerType(), classes);
+            }
+            final java.lang.reflect.Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            for (int i = 0; i < typeArguments.length; i++) {
+                addClasses(typeArguments[i], classes);
+            }
+        } else if (type instanceof GenericArrayType) {
+            addClasses(((GenericArrayType) type).getGenericComponentType(), classes);
+        } else if (type instanceof WildcardType) {
+            final WildcardType wildcardType = (WildcardType) type;
+            final java.lang.reflect.Type[] upperBounds = wildcardType.getUpperBounds();
+            for (int i = 0; i < upperBounds.length; i++) {
+                addClasses(upperBounds[i], classes);
+            }
+            final java.lang.reflect.Type[] lowerBounds = wildcardType.getLowerBounds();
+            for (int i = 0; i < lowerBounds.length; i++) {
+                addClasses(lowerBounds[i], classes);
+            }
+        }
+    }
+    
+    
+    
+    
+    private static final class DependentClasses {
+        
+        private final List<WeakReference<Class<?>>> classes = 
+            new ArrayList<WeakReference<Class<?>>>();
+        
+        DependentClasses() {
+            super();
+        }
+        
+        synchronized void add(final Class<?> dependentClass) {
+            if (this.classes.size() >= 16 && (this.classes.size() & 15) == 0) {
+                // Collected classes are purged from time to time
+                for (int i = this.classes.size() - 1; i >= 0; i--) {
+                    if (this.classes.get(i).get() == null) {
+                        this.classes.remove(i);
+                    }
+                }
+            }
+            this.classes.add(new WeakReference<Class<?>>(dependentClass));
+        }
+        
+        synchronized void addTo(final Set<Class<?>> dependentClasses) {
+            for (int i = 0; i < this.classes.size(); i++) {
+                final Class<?> dependentClass = this.classes.get(i).get();
+                if (dependentClass != null) {
+                    dependentClasses.add(dependentClass);
+                }
+            }
+        }
+        
+    }
+    
+}
@@ -0,0 +1,395 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.javaruntype.util.Utils;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Resolves the class names found in type names, which can be fully 
+ * qualified ("java.util.List"), relative to one of the imported packages
+ * ("List" for java.util.List) and/or use dots as separators for nested 
+ * classes ("Map.Entry" for java.util.Map$Entry).
+ * 
+ * The imported packages are java.lang, java.util, java.io and java.math, 
+ * plus the ones configured by the user, either by means of the 
+ * IMPORTED_PACKAGES_PROPERTY system property (comma-separated) or by 
+ * calling Types.addImportedPackage(...).
+ * 
+ * For each candidate binary name, the resolver checks that the class 
+ * loader can find a ".class" resource for it before loading the class,
+ * so that failed attempts do not throw ClassNotFoundExceptions (which are
+ * expensive because of their stack traces). Only if no candidate has a 
+ * resource (which could happen for classes defined at runtime), the name
+ * is loaded as is, allowing the loader to throw the exception. A null
+ * loader means the bootstrap loader, whose resources are looked up by a
+ * loader without parent (the system loader would also find the ones in
+ * the classpath, which the bootstrap loader cannot load).
+ * 
+ * Classes are initialized when loaded unless specified otherwise, either 
+ * per call or globally (by means of the INITIALIZE_CLASSES_PROPERTY system 
+ * property or by calling Types.setInitializeClasses(...)). Not initializing
+ * them avoids running the static initializers of classes that are only 
+ * being described. Note that this only affects classes loaded during
+ * resolution: classes are not initialized when resolved from the caches.
+ * 
+ * Results are cached per class loader, both positive (as weak references,
+ * so that they do not prevent classes from being unloaded) and negative.
+ * Negative results only record that no candidate has a resource, so that
+ * later resolutions of the name go straight to the last resort, which is 
+ * always attempted again (the loader could define the class at any time).
+ * Loaders are weakly referenced too. Caches are cleared when a package is
+ * imported, as this could change the results of previous resolutions, and
+ * resolutions to invalidated classes (see TypeRegistry.invalidate) are 
+ * removed along with all the negative results.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class ClassNameResolver {
+
+    static final String IMPORTED_PACKAGES_PROPERTY = "org.javaruntype.imports";
+    static final String INITIALIZE_CLASSES_PROPERTY = "org.javaruntype.initializeClasses";
+    
+    private static final String[] DEFAULT_IMPORTED_PACKAGES = 
+        new String[] {
+            TypeNaming.TYPE_PACKAGE_LANG, TypeNaming.TYPE_PACKAGE_UTIL,
+            TypeNaming.TYPE_PACKAGE_IO, TypeNaming.TYPE_PACKAGE_MATH
+        };
+    
+    // Names are not expected to be many, so caches are just emptied when full
+    private static final int MAX_CACHED_NAMES = 4096;
+    
+    private static final Object NO_CLASS_RESOURCE = new Object();
+    
+    // Only finds the resources of the bootstrap loader (its parent)
+    private static final ClassLoader BOOTSTRAP_RESOURCE_LOADER = new ClassLoader(null) {};
+    
+    private static final Map<String,Class<?>> PRIMITIVE_CLASSES;
+    
+    static {
+        final Map<String,Class<?>> primitiveClasses = new HashMap<String, Class<?>>();
+        primitiveClasses.put("int", int.class);
+        primitiveClasses.put("boolean", boolean.class);
+        primitiveClasses.put("float", float.class);
+        primitiveClasses.put("long", long.class);
+        primitiveClasses.put("short", short.class);
+        primitiveClasses.put("byte", byte.class);
+        primitiveClasses.put("double", double.class);
+        primitiveClasses.put("char", char.class);
+        PRIMITIVE_CLASSES = Collections.unmodifiableMap(primitiveClasses);
+    }
+    
+    private static final ClassNameResolver instance = 
+        new ClassNameResolver(
+                System.getProperty(IMPORTED_PACKAGES_PROPERTY),
+                !"false".equalsIgnoreCase(System.getProperty(INITIALIZE_CLASSES_PROPERTY)));
+    
+    // Prefixes to be tried, the first one being the empty prefix
+    private volatile String[] prefixes;
+    
+    private volatile boolean initializeClasses;
+    
+    private final Map<ClassLoader,Map<String,Object>> resolutionsByLoader =
+        new WeakHashMap<ClassLoader, Map<String,Object>>();
+    
+    
+    
+    static ClassNameResolver getInstance() {
+        return instance;
+    }
+    
+    
+    
+    ClassNameResolver(final String importedPackages, final boolean initializeClasses) {
+        
+        super();
+        
+        this.initializeClasses = initializeClasses;
+        
+        final List<String> prefixList = new ArrayList<String>();
+        prefixList.add("");
+        for (int i = 0; i < DEFAULT_IMPORTED_PACKAGES.length; i++) {
+            prefixList.add(DEFAULT_IMPORTED_PACKAGES[i]);
+        }
+        if (importedPackages != null) {
+            final String[] packageNames = importedPackages.split(",");
+            for (int i = 0; i < packageNames.length; i++) {
+                final String prefix = toPrefix(packageNames[i]);
+                if (prefix != null && !prefixList.contains(prefix)) {
+                    prefixList.add(prefix);
+                }
+            }
+        }
+        this.prefixes = prefixList.toArray(new String[prefixList.size()]);
+        
+    }
+    
+    
+    
+    void addImportedPackage(final String packageName) {
+        
+        final String prefix = toPrefix(packageName);
+        if (prefix == null) {
+            throw new IllegalArgumentException(
+                    "Invalid package name: \"" + packageName + "\"");
+        }
+        
+        synchronized (this.resolutionsByLoader) {
+            final String[] currentPrefixes = this.prefixes;
+            for (int i = 0; i < currentPrefixes.length; i++) {
+                if (currentPrefixes[i].equals(prefix)) {
+                    return;
+                }
+            }
+            final String[] newPrefixes = new String[currentPrefixes.length + 1];
+            System.arraycopy(currentPrefixes, 0, newPrefixes, 0, currentPrefixes.length);
+            newPrefixes[currentPrefixes.length] = prefix;
+            this.prefixes = newPrefixes;
+            this.resolutionsByLoader.clear();
+        }
+        
+    }
+    
+    
+    
+    void invalidate(final Set<Class<?>> classes) {
+        synchronized (this.resolutionsByLoader) {
+            final Iterator<Map<String,Object>> resolutionsIter = 
+                this.resolutionsByLoader.values().iterator();
+            while (resolutionsIter.hasNext()) {
+                final Iterator<Object> resolutionIter = resolutionsIter.next().values().iterator();
+                while (resolutionIter.hasNext()) {
+                    final Object resolution = resolutionIter.next();
+                    if (resolution == NO_CLASS_RESOURCE || 
+                            classes.contains(((ClassReference) resolution).get())) {
+                        resolutionIter.remove();
+                    }
+                }
+            }
+        }
+    }
+    
+    
+    
+    boolean isInitializeClasses() {
+        return this.initializeClasses;
+    }
+    
+    
+    
+    void setInitializeClasses(final boolean initializeClasses) {
+        this.initializeClasses = initializeClasses;
+    }
+    
+    
+    
+    Class<?> resolve(final String className, final ClassLoader loader, final boolean initialize) 
+            throws ClassNotFoundException {
+        final Class<?> resolvedClass = lookup(className, loader, initialize);
+        if (resolvedClass == null) {
+            throw new ClassNotFoundException(className);
+        }
+        return resolvedClass;
+    }
+    
+    
+    
+    /*
+     * Returns null if the class cannot be resolved. No exceptions are created
+     * unless the last resort attempt is needed, which only happens when no 
+     * candidate has a resource (and then, every time resolution fails).
+     */
+    Class<?> tryResolve(final String className, final ClassLoader loader, 
+            final boolean initialize) {
+        return lookup(className, loader, initialize);
+    }
+    
+    
+    
+    private Class<?> lookup(final String className, final ClassLoader loader, 
+            final boolean initialize) {
+        
+        final Class<?> primitiveClass = PRIMITIVE_CLASSES.get(className);
+        if (primitiveClass != null) {
+            return primitiveClass;
+        }
+        
+        final Map<String,Object> resolutions = getResolutions(loader);
+        
+        final Object resolution = resolutions.get(className);
+        if (resolution != null && resolution != NO_CLASS_RESOURCE) {
+            final Class<?> resolvedClass = ((ClassReference) resolution).get();
+            if (resolvedClass != null) {
+                return resolvedClass;
+            }
+        }
+        
+        if (resolutions.size() >= MAX_CACHED_NAMES) {
+            resolutions.clear();
+        }
+        
+        if (resolution != NO_CLASS_RESOURCE) {
+            final Class<?> resolvedClass = findClass(className, loader, initialize);
+            if (resolvedClass != null) {
+                resolutions.put(className, new ClassReference(resolvedClass));
+                return resolvedClass;
+            }
+        }
+        
+        // Last resort: the class could exist without a ".class" resource. Its
+        // failure is not cached, as the class could be defined later
+        try {
+            final Class<?> definedClass = Class.forName(className, initialize, loader);
+            resolutions.put(className, new ClassReference(definedClass));
+            return definedClass;
+        } catch (ClassNotFoundException e) {
+            resolutions.put(className, NO_CLASS_RESOURCE);
+            return null;
+        }
+        
+    }
+    
+    
+    
+    static ClassLoader getDefaultClassLoader() {
+        final ClassLoader contextCL = Thread.currentThread().getContextClassLoader();
+        return (contextCL == null ? Utils.class.getClassLoader() : contextCL);
+    }
+    
+    
+    
+    private Map<String,Object> getResolutions(final ClassLoader loader) {
+        synchronized (this.resolutionsByLoader) {
+            Map<String,Object> resolutions = this.resolutionsByLoader.get(loader);
+            if (resolutions == null) {
+                resolutions = new ConcurrentHashMap<String, Object>();
+                this.resolutionsByLoader.put(loader, resolutions);
+            }
+            return resolutions;
+        }
+    }
+    
+    
+    
+    /*
+     * Tries every imported package and every nested class interpretation 
+     * of the dots in the name ("a.B.C" can be "a.B$C" or "a$B$C"), without 
+     * throwing any exceptions.
+     */
+    private Class<?> findClass(final String className, final ClassLoader loader, 
+            final boolean initialize) {
+        
+        final String[] currentPrefixes = this.prefixes;
+        for (int i = 0; i < currentPrefixes.length; i++) {
+            
+            final char[] binaryName = (currentPrefixes[i] + className).toCharArray();
+            final int nameStart = currentPrefixes[i].length();
+            
+            int dotIndex = binaryName.length;
+            while (true) {
+                if (hasClassResource(binaryName, loader)) {
+                    try {
+                        return Class.forName(new String(binaryName), initialize, loader);
+                    } catch (ClassNotFoundException e) {
+                        // The resource exists but is not a loadable class
+                    } catch (NoClassDefFoundError e) {
+                        // Case-insensitive file systems can find "a/b/c.class" for "a.b.C"
+                    }
+                }
+                dotIndex = lastIndexOf(binaryName, '.', nameStart, dotIndex);
+                if (dotIndex < 0) {
+                    break;
+                }
+                binaryName[dotIndex] = '$';
+            }
+            
+        }
+        return null;
+        
+    }
+    
+    
+    
+    private static boolean hasClassResource(final char[] binaryName, final ClassLoader loader) {
+        final StringBuilder resourceName = new StringBuilder(binaryName.length + 6);
+        for (int i = 0; i < binaryName.length; i++) {
+            resourceName.append(binaryName[i] == '.'? '/' : binaryName[i]);
+        }
+        resourceName.append(".class");
+        final ClassLoader resourceLoader = (loader == null? BOOTSTRAP_RESOURCE_LOADER : loader);
+        return (resourceLoader.getResource(resourceName.toString()) != null);
+    }
+    
+    
+    
+    private static int lastIndexOf(final char[] chars, final char c, final int start, final int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    
+    
+    private static String toPrefix(final String packageName) {
+        if (packageName == null) {
+            return null;
+        }
+        String prefix = packageName.trim();
+        if (prefix.endsWith(".")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        if (prefix.length() == 0) {
+            return null;
+        }
+        return prefix + ".";
+    }
+    
+    
+    
+    
+    private static final class ClassReference extends WeakReference<Class<?>> {
+        
+        ClassReference(final Class<?> resolvedClass) {
+            super(resolvedClass);
+        }
+        
+    }
+    
+}
@@ -39,24 +39,17 @@
     private static final long serialVersionUID = -3422656676188437147L;
     
 
-    private final Type<T> type;
-    
-    private final String stringRepresentation;
-    
-    private final int hashCode;
-    
+    // Distinguishes the hash codes of the different kinds of parameters
+    private static final int HASH_CODE_SEED = TypeNaming.TYPE_NAME_EXTENDS.hashCode();
     
+
+    private final Type<T> type;
     
-    private static <T> String createStringRepresentation(final Type<T> type) {
-        return  ("? extends " + type.getName()).intern();
-    }
     
     
     ExtendsTypeParameter(final Type<T> type) {
         super();
         this.type = type;
-        this.stringRepresentation = createStringRepresentation(type);
-        this.hashCode = this.stringRepresentation.hashCode();
     }
 
 
@@ -84,7 +77,7 @@ boolean isAssignableFrom(final TypeParameter<?> typeParameter) {
 
     @Override
     public int hashCode() {
-        return this.hashCode;
+        return 31 * HASH_CODE_SEED + this.type.hashCode();
     }
 
 
@@ -100,13 +93,13 @@ public boolean equals(final Object obj) {
             return false;
         }
         final ExtendsTypeParameter<?> other = (ExtendsTypeParameter<?>) obj;
-        return this.stringRepresentation.equals(other.stringRepresentation);
+        return this.type.equals(other.type);
     }
 
 
     @Override
     public String toString() {
-        return this.stringRepresentation;
+        return TypeNaming.TYPE_NAME_EXTENDS + this.type.getName();
     }
     
     
@@ -0,0 +1,154 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+import org.javaruntype.exceptions.TypeValidationException;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Serialized form of Type instances (see Type.writeReplace()). Instead of 
+ * every field of the type (its names, raw class, type definition...) only 
+ * its structure is written: the component class, the array dimensions and 
+ * a tree of type parameters, each of them written as another serialized 
+ * type. As types are canonical, a class or type repeated in the same 
+ * stream is written only once, and then referenced by its stream handle.
+ * 
+ * Streams are not trusted: every type read is validated, unless its 
+ * canonical instance already is.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class SerializedType implements Serializable {
+
+    private static final long serialVersionUID = 3016587274163259457L;
+
+    private static final byte KIND_STANDARD = 1;
+    private static final byte KIND_EXTENDS = 2;
+    private static final byte KIND_SUPER = 3;
+    private static final byte KIND_WILDCARD = 4;
+    
+    private transient Class<?> componentClass;
+    private transient TypeParameter<?>[] typeParameters;
+    private transient int arrayDimensions;
+    
+    
+    
+    SerializedType(final Type<?> type) {
+        super();
+        this.componentClass = type.getComponentClass();
+        this.typeParameters = type.getTypeParametersArray();
+        this.arrayDimensions = type.getArrayDimensions();
+    }
+    
+    
+    
+    
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        
+        out.writeObject(this.componentClass);
+        // The JVM does not allow more than 255 array dimensions
+        out.writeByte(this.arrayDimensions);
+        out.writeShort(this.typeParameters.length);
+        for (int i = 0; i < this.typeParameters.length; i++) {
+            final TypeParameter<?> typeParameter = this.typeParameters[i];
+            if (typeParameter instanceof WildcardTypeParameter) {
+                out.writeByte(KIND_WILDCARD);
+            } else {
+                if (typeParameter instanceof StandardTypeParameter) {
+                    out.writeByte(KIND_STANDARD);
+                } else if (typeParameter instanceof ExtendsTypeParameter) {
+                    out.writeByte(KIND_EXTENDS);
+                } else {
+                    out.writeByte(KIND_SUPER);
+                }
+                out.writeObject(typeParameter.getType());
+            }
+        }
+        
+    }
+    
+    
+    private void readObject(final ObjectInputStream in) 
+            throws IOException, ClassNotFoundException {
+        
+        this.componentClass = readObject(in, Class.class);
+        this.arrayDimensions = in.readUnsignedByte();
+        this.typeParameters = new TypeParameter<?>[in.readUnsignedShort()];
+        for (int i = 0; i < this.typeParameters.length; i++) {
+            final byte kind = in.readByte();
+            if (kind == KIND_WILDCARD) {
+                this.typeParameters[i] = WildcardTypeParameter.UNKNOWN;
+            } else {
+                final Type<?> type = readObject(in, Type.class);
+                if (kind == KIND_STANDARD) {
+                    this.typeParameters[i] = TypeParameters.forType(type);
+                } else if (kind == KIND_EXTENDS) {
+                    this.typeParameters[i] = TypeParameters.forExtendsType(type);
+                } else if (kind == KIND_SUPER) {
+                    this.typeParameters[i] = TypeParameters.forSuperType(type);
+                } else {
+                    throw new InvalidObjectException("Invalid type parameter kind: " + kind);
+                }
+            }
+        }
+        
+    }
+    
+    
+    private Object readResolve() throws ObjectStreamException {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        try {
+            return typeRegistry.getType(
+                    this.componentClass, this.typeParameters, this.arrayDimensions);
+        } catch (TypeValidationException e) {
+            final InvalidObjectException exception = 
+                new InvalidObjectException("Invalid type: " + e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+    
+    
+    
+    
+    private static <T> T readObject(final ObjectInputStream in, final Class<T> objectClass) 
+            throws IOException, ClassNotFoundException {
+        final Object object = in.readObject();
+        if (!objectClass.isInstance(object)) {
+            throw new InvalidObjectException(
+                    "Expected " + objectClass.getName() + ", found: " + object);
+        }
+        return objectClass.cast(object);
+    }
+    
+}
@@ -0,0 +1,141 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Lazy walk over the supertypes (extended superclasses and implemented
+ * interfaces) of a type. Supertypes are only computed (by means of the 
+ * supertype templates of each class) when the walk reaches them, so
+ * that a consumer which stops early does not pay for the rest of the
+ * hierarchy.
+ * 
+ * The walk can be restricted to the supertypes whose component class is
+ * assignable to a specific "target" class. As any path leading to such a
+ * supertype only goes through types which are also assignable to the
+ * target class, every other branch of the hierarchy can be pruned without
+ * computing it.
+ * 
+ * The types returned are the same as the ones contained in the set returned
+ * by TypeUtil.getExtendedTypes (when not restricted), in no specific order.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class SupertypeIterator implements Iterator<Type<?>> {
+
+    private static final TypeParameter<?>[] NO_TYPE_PARAMETERS = new TypeParameter<?>[0];
+    
+    private final Class<?> targetClass;
+    private final ArrayDeque<Type<?>> pending;
+    private final Set<Type<?>> found;
+    private Type<?> next;
+    
+    
+    
+    SupertypeIterator(final Type<?> type, final Class<?> targetClass) {
+        super();
+        this.targetClass = targetClass;
+        this.pending = new ArrayDeque<Type<?>>();
+        this.found = new HashSet<Type<?>>();
+        this.next = null;
+        addSupertypesOf(type);
+    }
+
+    
+    
+    public boolean hasNext() {
+        if (this.next == null && !this.pending.isEmpty()) {
+            this.next = this.pending.poll();
+            addSupertypesOf(this.next);
+        }
+        return (this.next != null);
+    }
+
+    
+    public Type<?> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Type<?> result = this.next;
+        this.next = null;
+        return result;
+    }
+
+    
+    public void remove() {
+        throw new UnsupportedOperationException("Cannot remove supertypes");
+    }
+    
+    
+    
+    private void addSupertypesOf(final Type<?> type) {
+        
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        
+        if (Object.class.equals(type.getComponentClass())) {
+            // Object-based types only extend the Object-based types 
+            // of lower array dimensions
+            if (isTargetClass(Object.class)) {
+                for (int i = type.getArrayDimensions() - 1; i >= 0; i--) {
+                    add(typeRegistry.getTypeWithoutValidation(Object.class, NO_TYPE_PARAMETERS, i));
+                }
+            }
+            return;
+        }
+        
+        if (type.isInterface() && isTargetClass(Object.class)) {
+            add(typeRegistry.getRawTypeForClass(Object.class));
+        }
+        
+        final SupertypeTemplate supertypeTemplate = 
+            typeRegistry.getSupertypeTemplate(type.getComponentClass());
+        for (int i = 0, n = supertypeTemplate.getSupertypeCount(); i < n; i++) {
+            if (isTargetClass(supertypeTemplate.getSupertypeClass(i))) {
+                add(supertypeTemplate.getSupertype(i, type));
+            }
+        }
+        
+    }
+    
+    
+    private boolean isTargetClass(final Class<?> supertypeClass) {
+        return (this.targetClass == null || this.targetClass.isAssignableFrom(supertypeClass));
+    }
+    
+    
+    private void add(final Type<?> supertype) {
+        if (this.found.add(supertype)) {
+            this.pending.add(supertype);
+        }
+    }
+    
+}
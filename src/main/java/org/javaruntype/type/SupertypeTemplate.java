@@ -0,0 +1,355 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Compiled form of the generic supertype declarations (superclass and
+ * interfaces) of a class, as obtained from java.lang.reflect only once
+ * per class.
+ * 
+ * Each declaration is compiled into a tree which refers to the type 
+ * variables of the class by their index, so that the direct supertypes of 
+ * any parameterization of the class (e.g. "ArrayList<Foo>") can be obtained 
+ * by simply substituting its type parameters into the tree, without any 
+ * further reflection calls.
+ * 
+ * Instances of this class are immutable, and stored attached to their 
+ * classes by the registry.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class SupertypeTemplate {
+
+    private final TypeNode[] supertypes;
+    
+    
+    
+    static SupertypeTemplate forClass(final Class<?> componentClass) {
+        
+        final TypeVariable<?>[] variables = componentClass.getTypeParameters();
+        final java.lang.reflect.Type superclass = componentClass.getGenericSuperclass();
+        final java.lang.reflect.Type[] interfaces = componentClass.getGenericInterfaces();
+        
+        final int superclassCount = (superclass == null? 0 : 1);
+        final TypeNode[] supertypes = new TypeNode[superclassCount + interfaces.length];
+        if (superclass != null) {
+            supertypes[0] = compileType(superclass, variables, 0);
+        }
+        for (int i = 0; i < interfaces.length; i++) {
+            supertypes[superclassCount + i] = compileType(interfaces[i], variables, 0);
+        }
+        return new SupertypeTemplate(supertypes);
+        
+    }
+    
+    
+    private SupertypeTemplate(final TypeNode[] supertypes) {
+        super();
+        this.supertypes = supertypes;
+    }
+    
+    
+    
+    int getSupertypeCount() {
+        return this.supertypes.length;
+    }
+    
+    
+    /*
+     * Returns the component class of the n-th direct supertype, which is
+     * known without instantiating the supertype.
+     */
+    Class<?> getSupertypeClass(final int index) {
+        return this.supertypes[index].componentClass;
+    }
+    
+    
+    /*
+     * Returns the n-th direct supertype of the specified type, which must be a 
+     * parameterization of the class this template was compiled for. Array types
+     * have the array versions of the supertypes of their component class as 
+     * supertypes (e.g. "List<Foo>[]" for "ArrayList<Foo>[]").
+     */
+    Type<?> getSupertype(final int index, final Type<?> type) {
+        return this.supertypes[index].instantiate(
+                type.getTypeParametersArray(), type.getArrayDimensions());
+    }
+    
+    
+    
+    
+    private static TypeNode compileType(final java.lang.reflect.Type declaration,
+            final TypeVariable<?>[] variables, final int arrayDimensions) {
+        
+        if (declaration instanceof GenericArrayType) {
+            return compileType(
+                    ((GenericArrayType) declaration).getGenericComponentType(),
+                    variables, arrayDimensions + 1);
+        }
+        
+        if (declaration instanceof ParameterizedType) {
+            final ParameterizedType parameterizedType = (ParameterizedType) declaration;
+            final Class<?> componentClass = (Class<?>) parameterizedType.getRawType();
+            final java.lang.reflect.Type[] arguments = parameterizedType.getActualTypeArguments();
+            final ParameterNode[] parameters = new ParameterNode[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                parameters[i] = compileParameter(arguments[i], variables);
+            }
+            return new TypeNode(componentClass, parameters, arrayDimensions);
+        }
+        
+        // Not parameterized: either it has no type parameters, or it is a raw
+        // declaration (like "implements Comparable"), which is equivalent to
+        // having all its type parameters set to unknown ("Comparable<?>")
+        Class<?> componentClass = (Class<?>) declaration;
+        int newArrayDimensions = arrayDimensions;
+        while (componentClass.isArray()) {
+            componentClass = componentClass.getComponentType();
+            newArrayDimensions++;
+        }
+        final ParameterNode[] parameters = 
+            new ParameterNode[componentClass.getTypeParameters().length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = ParameterNode.UNKNOWN;
+        }
+        return new TypeNode(componentClass, parameters, newArrayDimensions);
+        
+    }
+    
+    
+    
+    private static ParameterNode compileParameter(final java.lang.reflect.Type argument,
+            final TypeVariable<?>[] variables) {
+        
+        if (argument instanceof WildcardType) {
+            final WildcardType wildcardType = (WildcardType) argument;
+            final java.lang.reflect.Type[] lowerBounds = wildcardType.getLowerBounds();
+            if (lowerBounds.length > 0) {
+                return new ParameterNode(
+                        ParameterNode.SUPER, compileParameter(lowerBounds[0], variables));
+            }
+            final java.lang.reflect.Type[] upperBounds = wildcardType.getUpperBounds();
+            if (upperBounds.length == 0 || Object.class.equals(upperBounds[0])) {
+                return ParameterNode.UNKNOWN;
+            }
+            return new ParameterNode(
+                    ParameterNode.EXTENDS, compileParameter(upperBounds[0], variables));
+        }
+        
+        int arrayDimensions = 0;
+        java.lang.reflect.Type componentDeclaration = argument;
+        while (componentDeclaration instanceof GenericArrayType) {
+            componentDeclaration = 
+                ((GenericArrayType) componentDeclaration).getGenericComponentType();
+            arrayDimensions++;
+        }
+        
+        if (componentDeclaration instanceof TypeVariable<?>) {
+            final String variableName = ((TypeVariable<?>) componentDeclaration).getName();
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].getName().equals(variableName)) {
+                    return new ParameterNode(i, arrayDimensions);
+                }
+            }
+            // Variables not belonging to the class (e.g. variables of an enclosing
+            // class used by an inner class) cannot be resolved from its parameters
+            return ParameterNode.UNKNOWN;
+        }
+        
+        return new ParameterNode(
+                ParameterNode.STANDARD, compileType(componentDeclaration, variables, arrayDimensions));
+        
+    }
+    
+    
+    
+    
+    
+    /*
+     * A type in a supertype declaration: a class with type parameters and
+     * (maybe) array dimensions.
+     */
+    private static final class TypeNode {
+        
+        private final Class<?> componentClass;
+        private final ParameterNode[] parameters;
+        private final int arrayDimensions;
+        
+        TypeNode(final Class<?> componentClass, final ParameterNode[] parameters, 
+                final int arrayDimensions) {
+            super();
+            this.componentClass = componentClass;
+            this.parameters = parameters;
+            this.arrayDimensions = arrayDimensions;
+        }
+        
+        Type<?> instantiate(final TypeParameter<?>[] variableValues, final int extraArrayDimensions) {
+            final TypeParameter<?>[] typeParameters = new TypeParameter<?>[this.parameters.length];
+            for (int i = 0; i < typeParameters.length; i++) {
+                typeParameters[i] = this.parameters[i].instantiate(variableValues);
+            }
+            final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+            return typeRegistry.getTypeWithoutValidation(
+                    this.componentClass, typeParameters, 
+                    this.arrayDimensions + extraArrayDimensions);
+        }
+        
+    }
+    
+    
+    
+    
+    /*
+     * A type parameter in a supertype declaration: the unknown wildcard, a
+     * reference to one of the type variables of the class (maybe as an array), 
+     * or a standard, "extends" or "super" parameter containing a type or a
+     * reference to a variable.
+     */
+    private static final class ParameterNode {
+        
+        static final int UNKNOWN_KIND = 0;
+        static final int VARIABLE = 1;
+        static final int STANDARD = 2;
+        static final int EXTENDS = 3;
+        static final int SUPER = 4;
+        
+        static final ParameterNode UNKNOWN = new ParameterNode(UNKNOWN_KIND, -1, 0, null, null);
+        
+        private final int kind;
+        private final int variableIndex;
+        private final int arrayDimensions;
+        private final TypeNode type;
+        private final ParameterNode bound;
+        
+        ParameterNode(final int variableIndex, final int arrayDimensions) {
+            this(VARIABLE, variableIndex, arrayDimensions, null, null);
+        }
+        
+        ParameterNode(final int kind, final TypeNode type) {
+            this(kind, -1, 0, type, null);
+        }
+        
+        ParameterNode(final int kind, final ParameterNode bound) {
+            this(kind, -1, 0, null, bound);
+        }
+        
+        private ParameterNode(final int kind, final int variableIndex, final int arrayDimensions,
+                final TypeNode type, final ParameterNode bound) {
+            super();
+            this.kind = kind;
+            this.variableIndex = variableIndex;
+            this.arrayDimensions = arrayDimensions;
+            this.type = type;
+            this.bound = bound;
+        }
+        
+        TypeParameter<?> instantiate(final TypeParameter<?>[] variableValues) {
+            switch (this.kind) {
+                case VARIABLE:
+                    return instantiateVariable(variableValues);
+                case STANDARD:
+                    return new StandardTypeParameter<Object>(instantiateType(this.type, variableValues));
+                case EXTENDS:
+                case SUPER:
+                    return instantiateBounded(variableValues);
+                default:
+                    return WildcardTypeParameter.UNKNOWN;
+            }
+        }
+        
+        
+        private TypeParameter<?> instantiateVariable(final TypeParameter<?>[] variableValues) {
+            
+            if (this.variableIndex >= variableValues.length) {
+                return WildcardTypeParameter.UNKNOWN;
+            }
+            final TypeParameter<?> value = variableValues[this.variableIndex];
+            if (this.arrayDimensions == 0 || value instanceof WildcardTypeParameter) {
+                return value;
+            }
+            
+            // The variable is used as an array ("E[]"): same kind of parameter, 
+            // with the array dimensions added to the type it contains
+            final Type<?> containedType = value.getType();
+            final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+            final Type<Object> newType = 
+                cast(typeRegistry.getTypeWithoutValidation(
+                        containedType.getComponentClass(), 
+                        containedType.getTypeParametersArray(), 
+                        containedType.getArrayDimensions() + this.arrayDimensions));
+            if (value instanceof ExtendsTypeParameter<?>) {
+                return new ExtendsTypeParameter<Object>(newType);
+            } else if (value instanceof SuperTypeParameter<?>) {
+                return new SuperTypeParameter<Object>(newType);
+            }
+            return new StandardTypeParameter<Object>(newType);
+            
+        }
+        
+        
+        /*
+         * "? extends X" or "? super X", where X can be a variable bound to
+         * another parameter: "? extends (? extends Y)" is equivalent to
+         * "? extends Y", and "? extends (? super Y)" can only be "?".
+         */
+        private TypeParameter<?> instantiateBounded(final TypeParameter<?>[] variableValues) {
+            
+            final TypeParameter<?> boundValue = this.bound.instantiate(variableValues);
+            
+            if (boundValue instanceof WildcardTypeParameter) {
+                return boundValue;
+            }
+            final Type<Object> boundType = cast(boundValue.getType());
+            if (this.kind == EXTENDS) {
+                return (boundValue instanceof SuperTypeParameter<?>? 
+                        WildcardTypeParameter.UNKNOWN : new ExtendsTypeParameter<Object>(boundType));
+            }
+            return (boundValue instanceof ExtendsTypeParameter<?>? 
+                    WildcardTypeParameter.UNKNOWN : new SuperTypeParameter<Object>(boundType));
+            
+        }
+        
+        
+        private static Type<Object> instantiateType(final TypeNode typeNode, 
+                final TypeParameter<?>[] variableValues) {
+            return cast(typeNode.instantiate(variableValues, 0));
+        }
+        
+        
+        @SuppressWarnings("unchecked")
+        private static Type<Object> cast(final Type<?> type) {
+            return (Type<Object>) type;
+        }
+        
+    }
+    
+}
@@ -25,6 +25,7 @@
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -57,6 +58,10 @@
  * prevents the same <tt>Type</tt> from being instantiated more than once (so, if two 
  * Type objects are equal, this will mean that they are the same object).
  * </p>
+ * <p>
+ * This is guaranteed for every <tt>Type</tt> object, however it was obtained (including
+ * deserialization), so equality of types is simply identity.
+ * </p>
  * 
  * @since 1.0
  * 
@@ -74,30 +79,30 @@
     private final Class<? super T> rawClass;
 
     private final TypeDef typeDef;
-    private final String name;
-    private final String simpleName;
-    
-    // Class is immutable, so hashCode can be precomputed
-    private final int hashCode;
+    private final long fingerprint;
+    
+    // Names are only computed if needed (equality and hashing do not use them)
+    private transient volatile String name;
+    private transient volatile String simpleName;
+    
+    // Dense id assigned when the instance becomes canonical (see TypeInterner)
+    private transient int id;
+    // Canonical instances can be created without validation and validated later
+    private transient volatile boolean validated;
+    // Row of the assignability index for this type (see AssignabilityRow)
+    private final transient AssignabilityRow assignabilities;
+    // Registry partition in which the type is interned (see TypeRegistry)
+    private final transient TypeRegistryPartition partition;
 
     
     
     
-    static Type<?> createType(final Class<?> componentClass, 
-            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
-
-        final Type<?> type = new Type<Object>(componentClass, typeParameters, arrayDimensions);
-        TypeUtil.validateTypeParameters(type);
-
-        return type;
-        
-    }
-
-    
     static Type<?> createTypeWithoutValidation(final Class<?> componentClass, 
-            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions,
+            final TypeRegistryPartition partition) {
 
-        final Type<?> type = new Type<Object>(componentClass, typeParameters, arrayDimensions);
+        final Type<?> type = 
+            new Type<Object>(componentClass, typeParameters, arrayDimensions, partition);
 
         return type;
         
@@ -110,7 +115,7 @@ static Type<?> createTypeWithoutValidation(final Class<?> componentClass,
     
     @SuppressWarnings("unchecked")
     private Type(final Class<?> componentClass, final TypeParameter<?>[] typeParameters, 
-            final int arrayDimensions) {
+            final int arrayDimensions, final TypeRegistryPartition partition) {
 
         this.componentClass = componentClass;
         this.typeParameters = typeParameters.clone();
@@ -118,16 +123,46 @@ private Type(final Class<?> componentClass, final TypeParameter<?>[] typeParamet
         
         this.rawClass = (Class<? super T>) TypeUtil.computeRawClass(componentClass, arrayDimensions);
         
-        this.name = 
-            TypeUtil.createName(componentClass, typeParameters, arrayDimensions);
-        this.simpleName = 
-            TypeUtil.createSimpleName(componentClass, typeParameters, arrayDimensions);
+        this.fingerprint = 
+            TypeUtil.computeFingerprint(componentClass, typeParameters, arrayDimensions);
         this.typeDef = TypeDefs.forClass(componentClass);
-        this.hashCode = this.name.hashCode();
+        this.validated = false;
+        this.assignabilities = new AssignabilityRow();
+        this.partition = partition;
 
     }
     
     
+    int getId() {
+        return this.id;
+    }
+    
+    
+    void setId(final int id) {
+        this.id = id;
+    }
+    
+    
+    boolean isValidated() {
+        return this.validated;
+    }
+    
+    
+    void setValidated() {
+        this.validated = true;
+    }
+    
+    
+    AssignabilityRow getAssignabilities() {
+        return this.assignabilities;
+    }
+    
+    
+    TypeRegistryPartition getPartition() {
+        return this.partition;
+    }
+    
+    
     /**
      * <p>
      * Returns the type's component class. For instance, it will return List.class
@@ -227,6 +262,18 @@ TypeDef getTypeDef() {
      * @return the type's name.
      */
     public String getName() {
+        String currentName = this.name;
+        if (currentName == null) {
+            // Racing threads would just compute equal names
+            currentName = 
+                TypeUtil.createName(this.componentClass, this.typeParameters, this.arrayDimensions);
+            this.name = currentName;
+        }
+        return currentName;
+    }
+    
+    
+    String getComputedName() {
         return this.name;
     }
     
@@ -238,7 +285,31 @@ public String getName() {
      * @return the type's simepl name.
      */
     public String getSimpleName() {
-        return this.simpleName;
+        String currentSimpleName = this.simpleName;
+        if (currentSimpleName == null) {
+            currentSimpleName = 
+                TypeUtil.createSimpleName(this.componentClass, this.typeParameters, this.arrayDimensions);
+            this.simpleName = currentSimpleName;
+        }
+        return currentSimpleName;
+    }
+    
+    
+    /**
+     * <p>
+     * Returns a 64-bit fingerprint of the type, computed from its structure
+     * (the names of its classes, the kinds of its type parameters and its
+     * array dimensions). The fingerprint of a type is the same in every JVM,
+     * so it can be used for identifying the type instead of its name (see
+     * {@link Types#forFingerprint(long)}). Two different types having the 
+     * same fingerprint is extremely unlikely, but not impossible.
+     * </p>
+     * 
+     * @return the type's fingerprint
+     * @since 1.4
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
     }
     
     
@@ -342,6 +413,27 @@ public Set<Type<?>> getAllTypesAssignableFromThis() {
     }
 
 
+    /**
+     * <p>
+     * Returns an iterator on the types corresponding to all the interfaces and 
+     * superclasses that this type implements or extends (the same types contained
+     * in the set returned by {@link #getAllTypesAssignableFromThis()}, in no
+     * specific order).
+     * </p>
+     * <p>
+     * Types are computed lazily as the iterator advances, so this is cheaper than 
+     * {@link #getAllTypesAssignableFromThis()} when only some of the types are 
+     * needed (for example, when looking for a specific supertype).
+     * </p>
+     * 
+     * @return an iterator on the implemented interfaces and extended superclass types.
+     * @since 1.4
+     */
+    public Iterator<Type<?>> iterateAllTypesAssignableFromThis() {
+        return new SupertypeIterator(this, null);
+    }
+
+
     /**
      * <p>
      * Returns a type corresponding with the one on which this method is called, but substituting all its
@@ -380,35 +472,32 @@ public boolean isRaw() {
     
     @Override
     public int hashCode() {
-        return this.hashCode;
+        return this.id;
     }
 
 
 
     @Override
     public boolean equals(final Object obj) {
-        if (this == obj) {
-            return true;
-        }
-        if (obj == null) {
-            return false;
-        }
-        if (getClass() != obj.getClass()) {
-            return false;
-        }
-        final Type<?> other = (Type<?>) obj;
-        // Comparing name will be enough and quicker than other comparisons
-        return (this.name.equals(other.name));
+        // Type instances are canonical: there is only one for each type
+        return (this == obj);
     }
 
 
 
     @Override
     public String toString() {
-        return this.name;
+        return getName();
+    }
+    
+    
+    @SuppressWarnings("unused")
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializedType(this);
     }
     
     
+    // Only for streams written before types were serialized as SerializedType
     @SuppressWarnings("unused")
     private Object readResolve() throws ObjectStreamException {
         final TypeRegistry typeRegistry = TypeRegistry.getInstance();
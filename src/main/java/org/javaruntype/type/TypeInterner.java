@@ -0,0 +1,278 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Table of canonical Type instances. Every Type object created by the
+ * registry is interned here before being returned, so that only one
+ * instance exists for each distinct type (whether it was created with or
+ * without validation), and each canonical instance receives a dense integer
+ * id. Canonical instances can also be looked up by their fingerprints.
+ * 
+ * Instances are only weakly referenced, so that the table does not prevent
+ * unused types (and their classes) from being garbage collected. The ids 
+ * of collected types are recycled, so that ids stay dense (and the tables
+ * indexed by them stay small) however many types are created and collected
+ * over time. Before an id can be reused, the data computed for it must be
+ * cleared, which the registry does in batches (see 
+ * TypeRegistry.recycleTypeIds()). Each id is cleared twice, in two 
+ * consecutive batches, before becoming free, so that data written for the
+ * id by a computation still running when its type was collected is cleared
+ * too. If ids are ever exhausted, types can no longer be created.
+ * 
+ * There is one table per registry partition (see TypeRegistryPartition), 
+ * but ids are unique among all of them, as they index tables shared by 
+ * every partition (see AssignabilityCache).
+ * 
+ * Interning only happens when a type is created, which is rare compared to
+ * lookups (these are served by the registry caches), so it is simply 
+ * synchronized.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeInterner {
+
+    private final HashMap<TypeKey,CanonicalReference> canonicalTypes;
+    private final HashMap<Long,CanonicalReference> canonicalTypesByFingerprint;
+    private final ReferenceQueue<Type<?>> collectedTypes;
+    
+    // Ids never reach Integer.MAX_VALUE (see AssignabilityCache)
+    private static final int MAX_ID = Integer.MAX_VALUE - 1;
+    private static final int RECYCLING_BATCH_SIZE = 1024;
+    
+    // All of these are guarded by the class
+    private static int nextId = 0;
+    private static int[] freeIds = new int[RECYCLING_BATCH_SIZE];
+    private static int freeIdCount = 0;
+    private static long[] collectedIds = new long[0];
+    private static int collectedIdCount = 0;
+    private static long[] quarantinedIds = new long[0];
+    private static long[] recyclingIds = null;
+    
+    
+    
+    TypeInterner() {
+        super();
+        this.canonicalTypes = new HashMap<TypeKey, CanonicalReference>();
+        this.canonicalTypesByFingerprint = new HashMap<Long, CanonicalReference>();
+        this.collectedTypes = new ReferenceQueue<Type<?>>();
+    }
+
+    
+    
+    synchronized Type<?> get(final TypeKey key) {
+        final CanonicalReference reference = this.canonicalTypes.get(key);
+        return (reference == null? null : reference.get());
+    }
+    
+    
+    
+    /*
+     * Returns the canonical instance for the specified key. If none exists 
+     * yet, the specified type (which must correspond to the key) becomes 
+     * canonical. The key must be immutable.
+     */
+    synchronized Type<?> intern(final TypeKey key, final Type<?> type) {
+        
+        expungeCollectedTypes();
+        
+        final CanonicalReference reference = this.canonicalTypes.get(key);
+        if (reference != null) {
+            final Type<?> canonicalType = reference.get();
+            if (canonicalType != null) {
+                return canonicalType;
+            }
+        }
+        
+        type.setId(allocateId());
+        final CanonicalReference canonicalReference = 
+            new CanonicalReference(key, type, this.collectedTypes);
+        this.canonicalTypes.put(key, canonicalReference);
+        // In the unlikely case of a collision, the first type keeps the fingerprint
+        final Long fingerprint = Long.valueOf(type.getFingerprint());
+        final CanonicalReference fingerprintReference = 
+            this.canonicalTypesByFingerprint.get(fingerprint);
+        if (fingerprintReference == null || fingerprintReference.get() == null) {
+            this.canonicalTypesByFingerprint.put(fingerprint, canonicalReference);
+        }
+        return type;
+        
+    }
+    
+    
+    
+    synchronized Type<?> getByFingerprint(final long fingerprint) {
+        final CanonicalReference reference = 
+            this.canonicalTypesByFingerprint.get(Long.valueOf(fingerprint));
+        return (reference == null? null : reference.get());
+    }
+    
+    
+    
+    /*
+     * Returns the canonical instances which have not been collected yet
+     */
+    synchronized List<Type<?>> getTypes() {
+        expungeCollectedTypes();
+        final List<Type<?>> types = new ArrayList<Type<?>>(this.canonicalTypes.size());
+        final Iterator<CanonicalReference> referencesIter = this.canonicalTypes.values().iterator();
+        while (referencesIter.hasNext()) {
+            final Type<?> type = referencesIter.next().get();
+            if (type != null) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+    
+    
+    
+    synchronized int size() {
+        expungeCollectedTypes();
+        return this.canonicalTypes.size();
+    }
+    
+    
+    
+    private void expungeCollectedTypes() {
+        CanonicalReference reference = null;
+        while ((reference = (CanonicalReference) this.collectedTypes.poll()) != null) {
+            releaseId(reference.id);
+            // The key might already be mapped to a newer canonical instance
+            if (this.canonicalTypes.get(reference.key) == reference) {
+                this.canonicalTypes.remove(reference.key);
+            }
+            final Long fingerprint = Long.valueOf(reference.fingerprint);
+            if (this.canonicalTypesByFingerprint.get(fingerprint) == reference) {
+                this.canonicalTypesByFingerprint.remove(fingerprint);
+            }
+        }
+    }
+    
+    
+    
+    
+    private static synchronized int allocateId() {
+        if (freeIdCount > 0) {
+            return freeIds[--freeIdCount];
+        }
+        if (nextId > MAX_ID) {
+            throw new IllegalStateException(
+                    "Type ids exhausted: no more than " + MAX_ID + " types can exist at the same time");
+        }
+        return nextId++;
+    }
+    
+    
+    private static synchronized void releaseId(final int id) {
+        collectedIds = setBit(collectedIds, id);
+        collectedIdCount++;
+    }
+    
+    
+    /*
+     * Returns the bitmap of the ids whose data must be cleared before 
+     * calling finishRecycling(), or null if there are not enough ids to be
+     * recycled yet (or they are already being recycled).
+     */
+    static synchronized long[] startRecycling() {
+        if (recyclingIds != null || collectedIdCount < RECYCLING_BATCH_SIZE) {
+            return null;
+        }
+        recyclingIds = quarantinedIds;
+        quarantinedIds = collectedIds;
+        collectedIds = new long[0];
+        collectedIdCount = 0;
+        final long[] ids = new long[Math.max(recyclingIds.length, quarantinedIds.length)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (i < recyclingIds.length? recyclingIds[i] : 0L) |
+                     (i < quarantinedIds.length? quarantinedIds[i] : 0L);
+        }
+        return ids;
+    }
+    
+    
+    /*
+     * Ids cleared twice become free, and the ones cleared once remain in 
+     * quarantine until the next batch.
+     */
+    static synchronized void finishRecycling() {
+        for (int i = 0; i < recyclingIds.length; i++) {
+            long word = recyclingIds[i];
+            while (word != 0L) {
+                final int bit = Long.numberOfTrailingZeros(word);
+                word &= (word - 1);
+                if (freeIdCount == freeIds.length) {
+                    final int[] newFreeIds = new int[freeIds.length * 2];
+                    System.arraycopy(freeIds, 0, newFreeIds, 0, freeIdCount);
+                    freeIds = newFreeIds;
+                }
+                freeIds[freeIdCount++] = (i << 6) + bit;
+            }
+        }
+        recyclingIds = null;
+    }
+    
+    
+    private static long[] setBit(final long[] bitmap, final int id) {
+        final int word = id >>> 6;
+        long[] result = bitmap;
+        if (word >= result.length) {
+            result = new long[Math.max(word + 1, result.length * 2)];
+            System.arraycopy(bitmap, 0, result, 0, bitmap.length);
+        }
+        result[word] |= (1L << (id & 63));
+        return result;
+    }
+    
+    
+    
+    
+    private static final class CanonicalReference extends WeakReference<Type<?>> {
+        
+        final TypeKey key;
+        final long fingerprint;
+        final int id;
+        
+        CanonicalReference(final TypeKey key, final Type<?> type, 
+                final ReferenceQueue<Type<?>> queue) {
+            super(type, queue);
+            this.key = key;
+            this.fingerprint = type.getFingerprint();
+            this.id = type.getId();
+        }
+        
+    }
+    
+}
@@ -0,0 +1,131 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Decides which types are affected by the invalidation of a set of classes
+ * (see TypeRegistry.invalidate), and collects the ids of the affected 
+ * canonical types, so that the assignabilities computed for them can be 
+ * invalidated too.
+ * 
+ * A type is affected if any of the dependencies of its component class
+ * (see ClassDependencies) is invalidated, or if the type of any of its type
+ * parameters is affected. As the dependencies of a class include all its
+ * supertypes, this covers every piece of data derived from the type.
+ * 
+ * Results are memoized, as types share many of their parameters. This 
+ * class is NOT thread-safe: each invalidation uses its own instance.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeInvalidation {
+
+    private final Set<Class<?>> invalidatedClasses;
+    private final ClassDependencies classDependencies;
+    private final IdentityHashMap<Type<?>,Boolean> checkedTypes;
+    private long[] invalidatedIds;
+    
+    
+    
+    TypeInvalidation(final Set<Class<?>> invalidatedClasses, 
+            final ClassDependencies classDependencies) {
+        super();
+        this.invalidatedClasses = invalidatedClasses;
+        this.classDependencies = classDependencies;
+        this.checkedTypes = new IdentityHashMap<Type<?>, Boolean>();
+        this.invalidatedIds = new long[0];
+    }
+    
+    
+    
+    boolean isInvalidated(final Type<?> type) {
+        
+        final Boolean checked = this.checkedTypes.get(type);
+        if (checked != null) {
+            return checked.booleanValue();
+        }
+        
+        boolean invalidated = dependsOnInvalidatedClass(type.getComponentClass());
+        final TypeParameter<?>[] typeParameters = type.getTypeParametersArray();
+        for (int i = 0; !invalidated && i < typeParameters.length; i++) {
+            if (!(typeParameters[i] instanceof WildcardTypeParameter)) {
+                invalidated = isInvalidated(typeParameters[i].getType());
+            }
+        }
+        
+        this.checkedTypes.put(type, Boolean.valueOf(invalidated));
+        if (invalidated) {
+            addInvalidatedId(type.getId());
+        }
+        return invalidated;
+        
+    }
+    
+    
+    
+    boolean isInvalidated(final Class<?> typeClass) {
+        return this.invalidatedClasses.contains(typeClass);
+    }
+    
+    
+    
+    /*
+     * Bitmap of the ids of all the affected types checked until now
+     */
+    long[] getInvalidatedIds() {
+        return this.invalidatedIds;
+    }
+    
+    
+    
+    private boolean dependsOnInvalidatedClass(final Class<?> typeClass) {
+        final Class<?>[] dependencies = this.classDependencies.getDependencies(typeClass);
+        for (int i = 0; i < dependencies.length; i++) {
+            if (this.invalidatedClasses.contains(dependencies[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    
+    
+    private void addInvalidatedId(final int id) {
+        final int word = id >>> 6;
+        if (word >= this.invalidatedIds.length) {
+            final long[] newInvalidatedIds = 
+                new long[Math.max(word + 1, this.invalidatedIds.length * 2)];
+            System.arraycopy(this.invalidatedIds, 0, newInvalidatedIds, 0, this.invalidatedIds.length);
+            this.invalidatedIds = newInvalidatedIds;
+        }
+        this.invalidatedIds[word] |= (1L << (id & 63));
+    }
+    
+}
@@ -0,0 +1,200 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Structural key identifying a type in the registry: its component class,
+ * its type parameters and its array dimensions. As types are canonical, 
+ * parameters are compared by kind and by identity of the types they contain,
+ * so no names need to be formatted for looking up a type. The hash code is 
+ * computed once, when the key contents are set.
+ * 
+ * Keys are mutable so that each thread can reuse a single "probe" key for 
+ * lookups (and thus cache hits do not allocate anything). Keys stored into
+ * caches or the interner must always be immutable copies obtained by 
+ * calling copy().
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeKey {
+
+    private static final int KIND_STANDARD = 1;
+    private static final int KIND_EXTENDS = 2;
+    private static final int KIND_SUPER = 3;
+    private static final int KIND_WILDCARD = 4;
+    
+    private Class<?> componentClass;
+    private TypeParameter<?>[] typeParameters;
+    private int arrayDimensions;
+    private int hashCode;
+    
+    
+    
+    TypeKey() {
+        super();
+    }
+    
+    
+    private TypeKey(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions, 
+            final int hashCode) {
+        super();
+        this.componentClass = componentClass;
+        this.typeParameters = typeParameters;
+        this.arrayDimensions = arrayDimensions;
+        this.hashCode = hashCode;
+    }
+    
+    
+    
+    TypeKey set(final Class<?> newComponentClass, 
+            final TypeParameter<?>[] newTypeParameters, final int newArrayDimensions) {
+        
+        this.componentClass = newComponentClass;
+        this.typeParameters = newTypeParameters;
+        this.arrayDimensions = newArrayDimensions;
+        
+        int hash = newComponentClass.hashCode();
+        hash = 31 * hash + newArrayDimensions;
+        for (int i = 0; i < newTypeParameters.length; i++) {
+            hash = 31 * hash + hashParameter(newTypeParameters[i]);
+        }
+        this.hashCode = hash;
+        return this;
+        
+    }
+    
+    
+    
+    TypeKey copy() {
+        return new TypeKey(
+                this.componentClass, this.typeParameters.clone(), 
+                this.arrayDimensions, this.hashCode);
+    }
+    
+    
+    
+    /*
+     * Releases the references held by a probe key after using it, so that 
+     * probes do not keep classes or types alive.
+     */
+    void reset() {
+        this.componentClass = null;
+        this.typeParameters = null;
+    }
+    
+    
+    
+    Class<?> getComponentClass() {
+        return this.componentClass;
+    }
+    
+    
+    TypeParameter<?>[] getTypeParameters() {
+        return this.typeParameters;
+    }
+    
+    
+    int getArrayDimensions() {
+        return this.arrayDimensions;
+    }
+    
+    
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+    
+    
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TypeKey)) {
+            return false;
+        }
+        final TypeKey other = (TypeKey) obj;
+        if (this.hashCode != other.hashCode ||
+                this.componentClass != other.componentClass ||
+                this.arrayDimensions != other.arrayDimensions ||
+                this.typeParameters.length != other.typeParameters.length) {
+            return false;
+        }
+        for (int i = 0; i < this.typeParameters.length; i++) {
+            if (!isSameParameter(this.typeParameters[i], other.typeParameters[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    
+    
+    private static int kindOf(final TypeParameter<?> typeParameter) {
+        if (typeParameter instanceof StandardTypeParameter<?>) {
+            return KIND_STANDARD;
+        }
+        if (typeParameter instanceof ExtendsTypeParameter<?>) {
+            return KIND_EXTENDS;
+        }
+        if (typeParameter instanceof SuperTypeParameter<?>) {
+            return KIND_SUPER;
+        }
+        return KIND_WILDCARD;
+    }
+    
+    
+    private static int hashParameter(final TypeParameter<?> typeParameter) {
+        if (typeParameter == null) {
+            return 0;
+        }
+        final int kind = kindOf(typeParameter);
+        if (kind == KIND_WILDCARD) {
+            return kind;
+        }
+        return (typeParameter.getType().getId() << 2) ^ kind;
+    }
+    
+    
+    private static boolean isSameParameter(
+            final TypeParameter<?> left, final TypeParameter<?> right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        final int kind = kindOf(left);
+        if (kind != kindOf(right)) {
+            return false;
+        }
+        return (kind == KIND_WILDCARD || left.getType() == right.getType());
+    }
+    
+}
@@ -0,0 +1,446 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.util.Arrays;
+
+import org.javaruntype.exceptions.TypeRecognitionException;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Parser for type names, like "Map<String,List<? extends Number>>[]".
+ * The accepted grammar is:
+ * 
+ *     type      : CLASSNAME ('<' parameter (',' parameter)* '>')? ('[]')*
+ *     parameter : type | '?' | '?' 'extends' type | '?' 'super' type
+ * 
+ * with spaces allowed between tokens. 
+ * 
+ * The parser works directly on the name's characters, creating no tokens
+ * or intermediate trees: Type objects are obtained from the registry as 
+ * soon as each of them is complete. It is not recursive either: the types
+ * whose parameters are being parsed are kept in a stack (a set of 
+ * growable arrays, one entry per nesting level), so that nesting depth is
+ * only limited by memory.
+ * 
+ * Classes are resolved (see ClassNameResolver) once their type is complete
+ * (i.e., children before their parents), and validation is performed by the
+ * registry as usual.
+ * 
+ * Instances are meant to be used only once, and are not thread-safe.
+ * 
+ * In silent mode (used by Types.tryForName(...)), failures do not create 
+ * any exceptions: classes are resolved and types are validated by methods
+ * that return null instead of throwing, and the parse is abandoned by 
+ * throwing a preallocated, stackless SilentFailure.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeNameParser {
+
+    private static final int INITIAL_DEPTH = 4;
+    private static final int INITIAL_PARAMETERS = 4;
+    
+    private static final int BOUND_NONE = 0;
+    private static final int BOUND_EXTENDS = 1;
+    private static final int BOUND_SUPER = 2;
+    
+    private static final String KEYWORD_EXTENDS = "extends";
+    private static final String KEYWORD_SUPER = "super";
+    
+    private final CharSequence typeName;
+    private final ClassLoader classLoader;
+    private final boolean silent;
+    private final boolean initialize;
+    private final int length;
+    private int position;
+    
+    // Stack of the types whose parameters are being parsed
+    private int depth;
+    private int[] nameStarts;
+    private int[] nameEnds;
+    private int[] bounds;
+    private TypeParameter<?>[][] parameters;
+    private int[] parameterCounts;
+    
+    
+
+    TypeNameParser(final CharSequence typeName, final ClassLoader classLoader,
+            final boolean silent, final boolean initialize) {
+        super();
+        this.typeName = typeName;
+        this.classLoader = classLoader;
+        this.silent = silent;
+        this.initialize = initialize;
+        this.length = typeName.length();
+        this.position = 0;
+        this.depth = 0;
+        this.nameStarts = new int[INITIAL_DEPTH];
+        this.nameEnds = new int[INITIAL_DEPTH];
+        this.bounds = new int[INITIAL_DEPTH];
+        this.parameters = new TypeParameter<?>[INITIAL_DEPTH][];
+        this.parameterCounts = new int[INITIAL_DEPTH];
+    }
+    
+    
+    
+    /*
+     * Parses the type name. In silent mode, null is returned if the type 
+     * name is not valid, and no exceptions are created.
+     */
+    Type<?> parse() throws ClassNotFoundException {
+        if (!this.silent) {
+            return parseType();
+        }
+        try {
+            return parseType();
+        } catch (SilentFailure e) {
+            return null;
+        }
+    }
+    
+    
+    
+    private Type<?> parseType() throws ClassNotFoundException {
+        
+        Type<?> type = null;
+        
+        while (true) {
+            
+            /*
+             * A type starts here: read its class name and, if it has 
+             * parameters, push it and start parsing the first one.
+             */
+            skipSpaces();
+            final int nameStart = this.position;
+            final int nameEnd = scanName();
+            skipSpaces();
+            if (consume('<')) {
+                push(nameStart, nameEnd);
+                if (scanParameterStart()) {
+                    continue;
+                }
+                type = null;
+            } else {
+                type = createType(nameStart, nameEnd, null, 0, scanTypeEnd());
+            }
+            
+            /*
+             * Either a type has been completed or an unbounded wildcard has 
+             * been added as a parameter. Add the type as a parameter of the
+             * enclosing one (if any) and close as many levels as possible 
+             * until a new type has to be parsed.
+             */
+            while (true) {
+                if (this.depth == 0) {
+                    return type;
+                }
+                if (type != null) {
+                    addParameter(type);
+                    type = null;
+                }
+                skipSpaces();
+                if (consume(',')) {
+                    if (scanParameterStart()) {
+                        break;
+                    }
+                } else if (consume('>')) {
+                    type = pop();
+                } else {
+                    throw unexpected();
+                }
+            }
+            
+        }
+        
+    }
+    
+    
+    
+    /*
+     * Scans the beginning of a parameter. If it is an unbounded wildcard,
+     * it is added to the current type and false is returned. Otherwise, the
+     * bound (if any) is recorded and true is returned, as a type follows.
+     */
+    private boolean scanParameterStart() {
+        skipSpaces();
+        if (!consume('?')) {
+            this.bounds[this.depth - 1] = BOUND_NONE;
+            return true;
+        }
+        skipSpaces();
+        if (this.position < this.length && isNameChar(this.typeName.charAt(this.position))) {
+            final int keywordStart = this.position;
+            final int keywordEnd = scanName();
+            if (matches(keywordStart, keywordEnd, KEYWORD_EXTENDS)) {
+                this.bounds[this.depth - 1] = BOUND_EXTENDS;
+            } else if (matches(keywordStart, keywordEnd, KEYWORD_SUPER)) {
+                this.bounds[this.depth - 1] = BOUND_SUPER;
+            } else {
+                throw expectedKeyword(keywordStart);
+            }
+            return true;
+        }
+        addParameter(WildcardTypeParameter.UNKNOWN);
+        return false;
+    }
+    
+    
+    
+    private int scanName() {
+        final int start = this.position;
+        while (this.position < this.length && isNameChar(this.typeName.charAt(this.position))) {
+            this.position++;
+        }
+        if (this.position == start) {
+            throw expectedName();
+        }
+        return this.position;
+    }
+    
+    
+    
+    /*
+     * Scans the array dimensions that end a type. If the type is the outer
+     * one, nothing else can follow them. 
+     */
+    private int scanTypeEnd() {
+        int arrayDimensions = 0;
+        skipSpaces();
+        while (consume('[')) {
+            if (!consume(']')) {
+                throw unexpected();
+            }
+            arrayDimensions++;
+            skipSpaces();
+        }
+        if (this.depth == 0 && this.position < this.length) {
+            throw unexpected();
+        }
+        return arrayDimensions;
+    }
+    
+    
+    
+    private void push(final int nameStart, final int nameEnd) {
+        if (this.depth == this.nameStarts.length) {
+            final int newDepth = this.depth * 2;
+            this.nameStarts = Arrays.copyOf(this.nameStarts, newDepth);
+            this.nameEnds = Arrays.copyOf(this.nameEnds, newDepth);
+            this.bounds = Arrays.copyOf(this.bounds, newDepth);
+            this.parameterCounts = Arrays.copyOf(this.parameterCounts, newDepth);
+            this.parameters = Arrays.copyOf(this.parameters, newDepth);
+        }
+        this.nameStarts[this.depth] = nameStart;
+        this.nameEnds[this.depth] = nameEnd;
+        this.bounds[this.depth] = BOUND_NONE;
+        this.parameterCounts[this.depth] = 0;
+        this.depth++;
+    }
+    
+    
+    
+    private Type<?> pop() throws ClassNotFoundException {
+        this.depth--;
+        return createType(
+                this.nameStarts[this.depth], this.nameEnds[this.depth], 
+                this.parameters[this.depth], this.parameterCounts[this.depth],
+                scanTypeEnd());
+    }
+    
+    
+    
+    @SuppressWarnings("unchecked")
+    private void addParameter(final Type<?> type) {
+        final Type<Object> parameterType = (Type<Object>) type;
+        switch (this.bounds[this.depth - 1]) {
+            case BOUND_EXTENDS:
+                addParameter(new ExtendsTypeParameter<Object>(parameterType));
+                break;
+            case BOUND_SUPER:
+                addParameter(new SuperTypeParameter<Object>(parameterType));
+                break;
+            default:
+                addParameter(new StandardTypeParameter<Object>(parameterType));
+        }
+    }
+    
+    
+    
+    private void addParameter(final TypeParameter<?> typeParameter) {
+        final int level = this.depth - 1;
+        TypeParameter<?>[] levelParameters = this.parameters[level];
+        final int count = this.parameterCounts[level];
+        if (levelParameters == null) {
+            levelParameters = new TypeParameter<?>[INITIAL_PARAMETERS];
+            this.parameters[level] = levelParameters;
+        } else if (count == levelParameters.length) {
+            levelParameters = Arrays.copyOf(levelParameters, count * 2);
+            this.parameters[level] = levelParameters;
+        }
+        levelParameters[count] = typeParameter;
+        this.parameterCounts[level] = count + 1;
+    }
+    
+    
+    
+    private Type<?> createType(final int nameStart, final int nameEnd, 
+            final TypeParameter<?>[] levelParameters, final int parameterCount,
+            final int arrayDimensions) 
+            throws ClassNotFoundException {
+        
+        final ClassNameResolver classNameResolver = ClassNameResolver.getInstance();
+        final String className = this.typeName.subSequence(nameStart, nameEnd).toString();
+        final Class<?> typeClass =
+            (this.silent? 
+                    classNameResolver.tryResolve(className, this.classLoader, this.initialize) : 
+                    classNameResolver.resolve(className, this.classLoader, this.initialize));
+        if (typeClass == null) {
+            throw SilentFailure.INSTANCE;
+        }
+        
+        final TypeParameter<?>[] typeParameters;
+        if (parameterCount == 0) {
+            // Maybe the type has been specified as raw without the wildcards
+            typeParameters = new TypeParameter<?>[typeClass.getTypeParameters().length];
+            for (int i = 0; i < typeParameters.length; i++) {
+                typeParameters[i] = WildcardTypeParameter.UNKNOWN;
+            }
+        } else {
+            typeParameters = Arrays.copyOf(levelParameters, parameterCount);
+            // Parameter buffers are reused by other types at the same level
+            Arrays.fill(levelParameters, 0, parameterCount, null);
+        }
+        
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        if (!this.silent) {
+            return typeRegistry.getType(typeClass, typeParameters, arrayDimensions);
+        }
+        final Type<?> type = 
+            typeRegistry.tryGetType(typeClass, typeParameters, arrayDimensions);
+        if (type == null) {
+            throw SilentFailure.INSTANCE;
+        }
+        return type;
+        
+    }
+    
+    
+    
+    private void skipSpaces() {
+        while (this.position < this.length && this.typeName.charAt(this.position) == ' ') {
+            this.position++;
+        }
+    }
+    
+    
+    
+    private boolean consume(final char c) {
+        if (this.position < this.length && this.typeName.charAt(this.position) == c) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+    
+    
+    
+    private boolean matches(final int start, final int end, final String keyword) {
+        if (end - start != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (this.typeName.charAt(start + i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    
+    
+    private RuntimeException expectedName() {
+        if (this.silent) {
+            return SilentFailure.INSTANCE;
+        }
+        if (this.position < this.length) {
+            return new TypeRecognitionException(
+                    "A class name was expected at position " + this.position + 
+                    " (was: '" + this.typeName.charAt(this.position) + "')");
+        }
+        return new TypeRecognitionException(
+                "A class name was expected at position " + this.position + 
+                " (was: end of type name)");
+    }
+    
+    
+    
+    private RuntimeException expectedKeyword(final int keywordStart) {
+        if (this.silent) {
+            return SilentFailure.INSTANCE;
+        }
+        return new TypeRecognitionException(
+                "\"" + KEYWORD_EXTENDS + "\" or \"" + KEYWORD_SUPER + 
+                "\" expected at position " + keywordStart);
+    }
+    
+    
+    
+    private RuntimeException unexpected() {
+        if (this.silent) {
+            return SilentFailure.INSTANCE;
+        }
+        if (this.position < this.length) {
+            return new TypeRecognitionException(
+                    "Unexpected character '" + this.typeName.charAt(this.position) + 
+                    "' at position " + this.position);
+        }
+        return new TypeRecognitionException("Unexpected end of type name");
+    }
+    
+    
+    
+    private static boolean isNameChar(final char c) {
+        return (Character.isLetterOrDigit(c) || 
+                c == '_' || c == '$' || c == '.' || c == '-');
+    }
+    
+    
+    
+    
+    private static final class SilentFailure extends RuntimeException {
+        
+        private static final long serialVersionUID = -2310683577094125478L;
+        
+        static final SilentFailure INSTANCE = new SilentFailure();
+        
+        private SilentFailure() {
+            super(null, null, false, false);
+        }
+        
+    }
+    
+}
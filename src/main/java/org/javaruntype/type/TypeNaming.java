@@ -40,6 +40,8 @@ final class TypeNaming {
     static final String TYPE_NAME_PARAMETERS_END = ">";
     static final String TYPE_NAME_PARAMETERS_SEPARATOR = ",";
     static final String TYPE_NAME_ARRAY = "[]";
+    static final String TYPE_NAME_EXTENDS = "? extends ";
+    static final String TYPE_NAME_SUPER = "? super ";
     
     
     private TypeNaming() {
@@ -0,0 +1,292 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Set of the distinct type names, classes and assignability pairs resolved
+ * through the TypeRegistry while recording (see TypeProfiles), which can
+ * be written to a profile file and replayed later for warming up the
+ * registry caches.
+ * 
+ * Recording is thread-safe and does not block. The number of recorded 
+ * entries is bounded by MAX_ENTRIES, and names longer than MAX_NAME_LENGTH
+ * are not recorded, so that a profile can neither grow without limit nor
+ * contain names that cannot be written.
+ * 
+ * Profile files are binary: a header (magic number and format version),
+ * a table with every distinct name and then the class names, the type 
+ * names and the assignability pairs, all of them as indexes into the table.
+ * So names appearing in several entries are written only once.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeProfile {
+
+    private static final int MAGIC = 0x4A525450; // "JRTP"
+    private static final int VERSION = 1;
+    
+    private static final int MAX_ENTRIES = 100000;
+    private static final int MAX_NAME_LENGTH = 8192;
+    
+    private final ConcurrentMap<String,Boolean> classNames = 
+        new ConcurrentHashMap<String, Boolean>();
+    private final ConcurrentMap<String,Boolean> typeNames = 
+        new ConcurrentHashMap<String, Boolean>();
+    private final ConcurrentMap<String,ConcurrentMap<String,Boolean>> assignabilities = 
+        new ConcurrentHashMap<String, ConcurrentMap<String,Boolean>>();
+    private final AtomicInteger entryCount = new AtomicInteger(0);
+    
+    
+    
+    TypeProfile() {
+        super();
+    }
+    
+    
+    
+    
+    void recordClass(final Class<?> typeClass) {
+        // Primitive classes cannot be resolved by name
+        if (!typeClass.isPrimitive()) {
+            record(this.classNames, typeClass.getName());
+        }
+    }
+    
+    
+    void recordTypeName(final String typeName) {
+        record(this.typeNames, typeName);
+    }
+    
+    
+    void recordAssignability(final Type<?> type, final Type<?> fromType) {
+        final String typeName = type.getName();
+        if (typeName.length() > MAX_NAME_LENGTH) {
+            return;
+        }
+        ConcurrentMap<String,Boolean> fromTypeNames = this.assignabilities.get(typeName);
+        if (fromTypeNames == null) {
+            final ConcurrentMap<String,Boolean> newFromTypeNames = 
+                new ConcurrentHashMap<String, Boolean>();
+            fromTypeNames = this.assignabilities.putIfAbsent(typeName, newFromTypeNames);
+            if (fromTypeNames == null) {
+                fromTypeNames = newFromTypeNames;
+            }
+        }
+        record(fromTypeNames, fromType.getName());
+    }
+    
+    
+    private void record(final ConcurrentMap<String,Boolean> names, final String name) {
+        if (name.length() > MAX_NAME_LENGTH || names.containsKey(name) || 
+                this.entryCount.get() >= MAX_ENTRIES) {
+            return;
+        }
+        if (names.putIfAbsent(name, Boolean.TRUE) == null) {
+            this.entryCount.incrementAndGet();
+        }
+    }
+    
+    
+    
+    
+    List<String> getClassNames() {
+        return new ArrayList<String>(this.classNames.keySet());
+    }
+    
+    
+    List<String> getTypeNames() {
+        return new ArrayList<String>(this.typeNames.keySet());
+    }
+    
+    
+    /*
+     * Returns the pairs as {typeName, fromTypeName} arrays
+     */
+    List<String[]> getAssignabilities() {
+        final List<String[]> pairs = new ArrayList<String[]>();
+        final Iterator<Map.Entry<String,ConcurrentMap<String,Boolean>>> assignabilitiesIter =
+            this.assignabilities.entrySet().iterator();
+        while (assignabilitiesIter.hasNext()) {
+            final Map.Entry<String,ConcurrentMap<String,Boolean>> entry = assignabilitiesIter.next();
+            final Iterator<String> fromTypeNamesIter = entry.getValue().keySet().iterator();
+            while (fromTypeNamesIter.hasNext()) {
+                pairs.add(new String[] { entry.getKey(), fromTypeNamesIter.next() });
+            }
+        }
+        return pairs;
+    }
+    
+    
+    int size() {
+        return this.entryCount.get();
+    }
+    
+    
+    
+    
+    void write(final OutputStream outputStream) throws IOException {
+        
+        final List<String> profileClassNames = getClassNames();
+        final List<String> profileTypeNames = getTypeNames();
+        final List<String[]> profileAssignabilities = getAssignabilities();
+        
+        final List<String> names = new ArrayList<String>();
+        final Map<String,Integer> indexesByName = new HashMap<String, Integer>();
+        final int[] classIndexes = indexNames(profileClassNames, names, indexesByName);
+        final int[] typeIndexes = indexNames(profileTypeNames, names, indexesByName);
+        final int[] assignabilityIndexes = new int[profileAssignabilities.size() * 2];
+        for (int i = 0; i < profileAssignabilities.size(); i++) {
+            final String[] pair = profileAssignabilities.get(i);
+            assignabilityIndexes[i * 2] = indexName(pair[0], names, indexesByName);
+            assignabilityIndexes[i * 2 + 1] = indexName(pair[1], names, indexesByName);
+        }
+        
+        final DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            out.writeUTF(names.get(i));
+        }
+        writeIndexes(out, classIndexes);
+        writeIndexes(out, typeIndexes);
+        out.writeInt(profileAssignabilities.size());
+        for (int i = 0; i < assignabilityIndexes.length; i++) {
+            out.writeInt(assignabilityIndexes[i]);
+        }
+        out.flush();
+        
+    }
+    
+    
+    private static int[] indexNames(final List<String> entryNames, 
+            final List<String> names, final Map<String,Integer> indexesByName) {
+        final int[] indexes = new int[entryNames.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = indexName(entryNames.get(i), names, indexesByName);
+        }
+        return indexes;
+    }
+    
+    
+    private static int indexName(final String name, 
+            final List<String> names, final Map<String,Integer> indexesByName) {
+        final Integer index = indexesByName.get(name);
+        if (index != null) {
+            return index.intValue();
+        }
+        names.add(name);
+        indexesByName.put(name, Integer.valueOf(names.size() - 1));
+        return names.size() - 1;
+    }
+    
+    
+    private static void writeIndexes(final DataOutputStream out, final int[] indexes) 
+            throws IOException {
+        out.writeInt(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            out.writeInt(indexes[i]);
+        }
+    }
+    
+    
+    
+    
+    static TypeProfile read(final InputStream inputStream) throws IOException {
+        
+        final DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a type profile");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported type profile version: " + version);
+        }
+        
+        final String[] names = new String[readCount(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        
+        final TypeProfile profile = new TypeProfile();
+        final int classCount = readCount(in);
+        for (int i = 0; i < classCount; i++) {
+            profile.record(profile.classNames, readName(in, names));
+        }
+        final int typeNameCount = readCount(in);
+        for (int i = 0; i < typeNameCount; i++) {
+            profile.record(profile.typeNames, readName(in, names));
+        }
+        final int assignabilityCount = readCount(in);
+        for (int i = 0; i < assignabilityCount; i++) {
+            final String typeName = readName(in, names);
+            final String fromTypeName = readName(in, names);
+            ConcurrentMap<String,Boolean> fromTypeNames = profile.assignabilities.get(typeName);
+            if (fromTypeNames == null) {
+                fromTypeNames = new ConcurrentHashMap<String, Boolean>();
+                profile.assignabilities.put(typeName, fromTypeNames);
+            }
+            profile.record(fromTypeNames, fromTypeName);
+        }
+        return profile;
+        
+    }
+    
+    
+    private static int readCount(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0 || count > MAX_ENTRIES * 2) {
+            throw new IOException("Invalid type profile: bad entry count " + count);
+        }
+        return count;
+    }
+    
+    
+    private static String readName(final DataInputStream in, final String[] names) 
+            throws IOException {
+        final int index = in.readInt();
+        if (index < 0 || index >= names.length) {
+            throw new IOException("Invalid type profile: bad name index " + index);
+        }
+        return names[index];
+    }
+    
+}
@@ -0,0 +1,399 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.javaruntype.util.Utils;
+
+/**
+ * <p>
+ * Recording and replay of type registry profiles, for warming up the 
+ * registry caches at startup.
+ * </p>
+ * <p>
+ * While recording, every distinct type name, class and assignability pair
+ * resolved through the type registry (by means of {@link Types} or 
+ * {@link Type}) is added to the current profile, which can then be written 
+ * with {@link #writeProfile(OutputStream)}. Replaying such a profile with
+ * {@link #warmUp(InputStream)} resolves all its entries again in a set of 
+ * background threads, and returns a {@link WarmUpProgress} for reporting
+ * the progress of the warm-up and its duration. Entries which cannot be 
+ * replayed (for example, because their classes no longer exist) are 
+ * ignored, and counted as failed.
+ * </p>
+ * <p>
+ * Recording can also be enabled from startup by setting the 
+ * <tt>org.javaruntype.profile.record</tt> system property to the name of a 
+ * file, to which the profile is written when the JVM shuts down. Likewise,
+ * the <tt>org.javaruntype.profile.warmUp</tt> system property can be set to
+ * the name of a profile file to be replayed as soon as the type registry is
+ * initialized (if the file exists), and the progress of this warm-up can be
+ * obtained with {@link #getLastWarmUp()}. Both properties can point to the 
+ * same file, which will then be replayed and updated at every run.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public final class TypeProfiles {
+
+    /**
+     * <p>
+     * Name of the system property which can be set to the name of the file
+     * to which a profile is recorded.
+     * </p>
+     */
+    public static final String RECORD_PROPERTY = "org.javaruntype.profile.record";
+    
+    /**
+     * <p>
+     * Name of the system property which can be set to the name of a profile
+     * file to be replayed at startup.
+     * </p>
+     */
+    public static final String WARM_UP_PROPERTY = "org.javaruntype.profile.warmUp";
+    
+    private static final int ENTRIES_PER_THREAD = 64;
+    
+    private static volatile TypeProfile lastProfile = null;
+    private static volatile WarmUpProgress lastWarmUp = null;
+    
+    
+    
+    
+    /**
+     * <p>
+     * Starts recording a new profile. Nothing is done if a profile is 
+     * already being recorded.
+     * </p>
+     */
+    public static synchronized void startRecording() {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        startRecording(typeRegistry);
+    }
+    
+    
+    /**
+     * <p>
+     * Stops recording. The recorded profile can still be written afterwards.
+     * </p>
+     */
+    public static synchronized void stopRecording() {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        typeRegistry.setProfile(null);
+    }
+    
+    
+    /**
+     * <p>
+     * Returns whether a profile is being recorded.
+     * </p>
+     * 
+     * @return true if recording, false if not
+     */
+    public static boolean isRecording() {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return (typeRegistry.getProfile() != null);
+    }
+    
+    
+    /**
+     * <p>
+     * Writes the profile being recorded (or the last one recorded, if 
+     * recording has been stopped). If no profile has ever been recorded,
+     * an empty one is written. The stream is not closed.
+     * </p>
+     * 
+     * @param outputStream the stream to which the profile will be written
+     * @throws IOException if the profile cannot be written
+     */
+    public static void writeProfile(final OutputStream outputStream) throws IOException {
+        Utils.validateNotNull(outputStream, "Output stream cannot be null");
+        final TypeProfile profile = lastProfile;
+        (profile == null? new TypeProfile() : profile).write(outputStream);
+    }
+    
+    
+    
+    
+    /**
+     * <p>
+     * Reads a profile and starts replaying it in background, resolving
+     * class names with the thread context class loader (see 
+     * {@link Types#forName(String)}). The stream is not closed.
+     * </p>
+     * 
+     * @param inputStream the stream from which the profile will be read
+     * @return the progress of the warm-up
+     * @throws IOException if the profile cannot be read
+     */
+    public static WarmUpProgress warmUp(final InputStream inputStream) throws IOException {
+        return warmUp(inputStream, ClassNameResolver.getDefaultClassLoader());
+    }
+    
+    
+    /**
+     * <p>
+     * Reads a profile and starts replaying it in background, resolving
+     * class names with the specified class loader. The stream is not closed.
+     * </p>
+     * 
+     * @param inputStream the stream from which the profile will be read
+     * @param classLoader the class loader to be used for resolving classes
+     * @return the progress of the warm-up
+     * @throws IOException if the profile cannot be read
+     */
+    public static WarmUpProgress warmUp(final InputStream inputStream, 
+            final ClassLoader classLoader) throws IOException {
+        Utils.validateNotNull(inputStream, "Input stream cannot be null");
+        Utils.validateNotNull(classLoader, "Class loader cannot be null");
+        final TypeProfile profile = TypeProfile.read(inputStream);
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return startWarmUp(typeRegistry, profile, classLoader);
+    }
+    
+    
+    /**
+     * <p>
+     * Returns the progress of the last warm-up started, including the one
+     * started at startup by means of the <tt>org.javaruntype.profile.warmUp</tt>
+     * system property.
+     * </p>
+     * 
+     * @return the progress of the last warm-up, or null if none was started
+     */
+    public static WarmUpProgress getLastWarmUp() {
+        return lastWarmUp;
+    }
+    
+    
+    
+    
+    private static void startRecording(final TypeRegistry typeRegistry) {
+        if (typeRegistry.getProfile() == null) {
+            final TypeProfile profile = new TypeProfile();
+            lastProfile = profile;
+            typeRegistry.setProfile(profile);
+        }
+    }
+    
+    
+    
+    private static WarmUpProgress startWarmUp(final TypeRegistry typeRegistry, 
+            final TypeProfile profile, final ClassLoader classLoader) {
+        
+        final WarmUp warmUp = 
+            new WarmUp(typeRegistry, profile, classLoader, 
+                    ClassNameResolver.getInstance().isInitializeClasses());
+        final int threadCount = 
+            Math.min(Runtime.getRuntime().availableProcessors(), 
+                    (warmUp.progress.getEntryCount() + ENTRIES_PER_THREAD - 1) / ENTRIES_PER_THREAD);
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(warmUp, "javaruntype-warm-up-" + (i + 1));
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            thread.start();
+        }
+        lastWarmUp = warmUp.progress;
+        return warmUp.progress;
+        
+    }
+    
+    
+    
+    
+    /*
+     * Called once, when the type registry is initialized. Failures (for 
+     * example, an unreadable profile) are ignored, as in the rest of 
+     * system property based configuration.
+     */
+    static void applySystemProperties(final TypeRegistry typeRegistry) {
+        
+        final String recordFileName = getProperty(RECORD_PROPERTY);
+        if (recordFileName != null) {
+            try {
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(new ProfileWriter(new File(recordFileName)), 
+                                "javaruntype-profile-writer"));
+                startRecording(typeRegistry);
+            } catch (SecurityException e) {
+                // Recording is not possible
+            }
+        }
+        
+        final String warmUpFileName = getProperty(WARM_UP_PROPERTY);
+        if (warmUpFileName != null) {
+            final File warmUpFile = new File(warmUpFileName);
+            if (warmUpFile.isFile()) {
+                try {
+                    final InputStream inputStream = 
+                        new BufferedInputStream(new FileInputStream(warmUpFile));
+                    try {
+                        startWarmUp(typeRegistry, TypeProfile.read(inputStream), 
+                                ClassNameResolver.getDefaultClassLoader());
+                    } finally {
+                        inputStream.close();
+                    }
+                } catch (IOException e) {
+                    // The profile is ignored
+                } catch (SecurityException e) {
+                    // The profile is ignored
+                }
+            }
+        }
+        
+    }
+    
+    
+    private static String getProperty(final String propertyName) {
+        try {
+            return System.getProperty(propertyName);
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+    
+    
+    
+    
+    private TypeProfiles() {
+        super();
+    }
+    
+    
+    
+    
+    /*
+     * Replays the entries of a profile. The same instance is run by every
+     * warm-up thread, each of them taking the next entry not replayed yet,
+     * so that the threads stay busy until the end no matter how long each
+     * entry takes.
+     */
+    private static final class WarmUp implements Runnable {
+        
+        private final TypeRegistry typeRegistry;
+        private final ClassLoader classLoader;
+        private final boolean initialize;
+        private final List<String> classNames;
+        private final List<String> typeNames;
+        private final List<String[]> assignabilities;
+        private final AtomicInteger nextEntry = new AtomicInteger(0);
+        final WarmUpProgress progress;
+        
+        WarmUp(final TypeRegistry typeRegistry, final TypeProfile profile, 
+                final ClassLoader classLoader, final boolean initialize) {
+            super();
+            this.typeRegistry = typeRegistry;
+            this.classLoader = classLoader;
+            this.initialize = initialize;
+            this.classNames = profile.getClassNames();
+            this.typeNames = profile.getTypeNames();
+            this.assignabilities = profile.getAssignabilities();
+            this.progress = 
+                new WarmUpProgress(
+                        this.classNames.size() + this.typeNames.size() + this.assignabilities.size());
+        }
+        
+        public void run() {
+            final int entryCount = this.progress.getEntryCount();
+            int entry = this.nextEntry.getAndIncrement();
+            while (entry < entryCount) {
+                boolean replayed = false;
+                try {
+                    replayed = replay(entry);
+                } catch (ClassNotFoundException e) {
+                    // Counted as failed
+                } catch (RuntimeException e) {
+                    // Counted as failed
+                } catch (LinkageError e) {
+                    // Counted as failed
+                }
+                this.progress.entryCompleted(!replayed);
+                entry = this.nextEntry.getAndIncrement();
+            }
+        }
+        
+        private boolean replay(final int entry) throws ClassNotFoundException {
+            if (entry < this.classNames.size()) {
+                final Class<?> typeClass = 
+                    Class.forName(this.classNames.get(entry), this.initialize, this.classLoader);
+                this.typeRegistry.getRawTypeForClass(typeClass);
+                return true;
+            }
+            final int typeNameEntry = entry - this.classNames.size();
+            if (typeNameEntry < this.typeNames.size()) {
+                return (tryForName(this.typeNames.get(typeNameEntry)) != null);
+            }
+            final String[] pair = this.assignabilities.get(typeNameEntry - this.typeNames.size());
+            final Type<?> type = tryForName(pair[0]);
+            final Type<?> fromType = tryForName(pair[1]);
+            if (type == null || fromType == null) {
+                return false;
+            }
+            this.typeRegistry.isAssignableFrom(type, fromType);
+            return true;
+        }
+        
+        private Type<?> tryForName(final String typeName) {
+            return this.typeRegistry.tryForName(typeName, this.classLoader, this.initialize);
+        }
+        
+    }
+    
+    
+    
+    private static final class ProfileWriter implements Runnable {
+        
+        private final File file;
+        
+        ProfileWriter(final File file) {
+            super();
+            this.file = file;
+        }
+        
+        public void run() {
+            try {
+                final OutputStream outputStream = 
+                    new BufferedOutputStream(new FileOutputStream(this.file));
+                try {
+                    writeProfile(outputStream);
+                } finally {
+                    outputStream.close();
+                }
+            } catch (IOException e) {
+                // Nothing can be done at shutdown
+            }
+        }
+        
+    }
+    
+}
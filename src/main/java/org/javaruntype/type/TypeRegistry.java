@@ -19,11 +19,22 @@
  */
 package org.javaruntype.type;
 
-import java.util.Collections;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
-import org.javaruntype.cache.ConcurrentCache;
+import org.javaruntype.typedef.TypeDefs;
+import org.javaruntype.util.Utils;
 
 
 /*
@@ -32,10 +43,57 @@
  * This is the registry of types, a synchronized cache which ensures
  * that only one object of each type exists in memory at a time.
  * 
+ * Every Type object is interned into a table of canonical instances
+ * before being returned (see TypeInterner), whether it is validated or
+ * not. Types obtained without validation are validated the first time
+ * they are requested through getType.
+ * 
+ * Types created without validation (which is only done internally, for 
+ * types which are known to be valid, like supertypes of a valid type) are 
+ * kept in their own cache ("trustedTypes"), so that they do not compete for
+ * room with the types requested by users.
+ * 
  * This is not for saving CPU cycles (an aspect which would probably be more
  * efficient if new instances were created), but to avoid an excessive
  * memory usage under heavy processing load. 
  * 
+ * Caches are partitioned by class loader (see TypeRegistryPartition), so
+ * that the types of different class loaders do not compete for room, and
+ * so that the types of a class loader do not prevent it from being 
+ * garbage collected. A type belongs to the partition of the most specific
+ * class loader among the ones defining its component class and the classes
+ * in its type parameters (for a type like List<Foo>, the loader of Foo). 
+ * Type names belong to the partition of the class loader used for 
+ * resolving them.
+ * 
+ * Partitions are attached to the classes of their class loader by means of 
+ * a ClassValue, and kept in a table weakly keyed by their loader, so they 
+ * are dropped along with it. As a loader might be used only for resolving
+ * names of classes it does not define, the table references each partition
+ * strongly until it is attached to a class of its loader (which is always
+ * done before any type of such class is created). Until then, the partition
+ * cannot contain anything referencing the loader, and afterwards that class
+ * keeps the partition alive for as long as the loader lives.
+ * 
+ * Entries can be invalidated selectively: invalidate(...) removes only the
+ * data derived from the specified classes (see ClassDependencies and 
+ * TypeInvalidation), including computed assignabilities and the type
+ * definitions of the affected classes.
+ * 
+ * If a snapshot has been loaded (see TypeSnapshots), types, validations,
+ * extended types and assignabilities are taken from it (when present and 
+ * not stale) before computing them.
+ * 
+ * While a profile is being recorded (see TypeProfiles), the type names,
+ * classes and assignability pairs resolved here are added to it. When not
+ * recording, this only costs a volatile read per call.
+ * 
+ * Data which depends only on a Class (its raw type, the types extended
+ * by it and the template of its generic supertypes) is not stored in these caches, but attached to the class itself by 
+ * means of ClassValue objects. This way it is never evicted while the class
+ * is alive, and it never prevents its class loader from being garbage 
+ * collected.
+ * 
  * 
  * @since 1.0
  * 
@@ -45,22 +103,62 @@
 final class TypeRegistry {
 
     
-    private final ConcurrentCache<String,Type<?>> types = 
-        new ConcurrentCache<String,Type<?>>(200);
-    private final ConcurrentCache<String,Type<?>> typesByPossibleNames = 
-        new ConcurrentCache<String, Type<?>>(100);
-    private final ConcurrentCache<Class<?>,Type<?>> rawTypesByClass = 
-        new ConcurrentCache<Class<?>,Type<?>>(100);
-    private final ConcurrentCache<Type<?>,Set<Type<?>>> extendedTypesByType = 
-        new ConcurrentCache<Type<?>, Set<Type<?>>>(300);
-    protected final ConcurrentCache<TypeAssignation, Boolean> typeAssignabilities = 
-        new ConcurrentCache<TypeAssignation, Boolean>(200);
-    protected final ConcurrentCache<java.lang.reflect.Type, Type<?>> typesbyJavaLangReflectType = 
-        new ConcurrentCache<java.lang.reflect.Type, Type<?>>(100);
+    private final ClassDependencies classDependencies = new ClassDependencies();
+    private final ClassLoader[] defaultClassLoaders = computeDefaultClassLoaders();
+    private final TypeRegistryPartition defaultPartition = 
+        new TypeRegistryPartition(null, getDefaultNameLoaders(this.defaultClassLoaders), 
+                this.classDependencies);
+    
+    private final WeakHashMap<ClassLoader,PartitionReference> partitionsByClassLoader =
+        new WeakHashMap<ClassLoader, PartitionReference>();
+    
+    private final ClassValue<TypeRegistryPartition> partitionsByClass =
+        new ClassValue<TypeRegistryPartition>() {
+            @Override
+            protected TypeRegistryPartition computeValue(final Class<?> typeClass) {
+                return getAttachedPartition(typeClass.getClassLoader());
+            }
+        };
+    
+    
+    private final ClassValue<Type<?>> rawTypesByClass =
+        new ClassValue<Type<?>>() {
+            @Override
+            protected Type<?> computeValue(final Class<?> typeClass) {
+                return TypeUtil.getRawTypeForClass(typeClass);
+            }
+        };
+    private final ClassValue<Set<Type<?>>> rawExtendedTypesByClass =
+        new ClassValue<Set<Type<?>>>() {
+            @Override
+            protected Set<Type<?>> computeValue(final Class<?> typeClass) {
+                return TypeUtil.getExtendedTypes(rawTypesByClass.get(typeClass));
+            }
+        };
+    private final ClassValue<SupertypeTemplate> supertypeTemplatesByClass =
+        new ClassValue<SupertypeTemplate>() {
+            @Override
+            protected SupertypeTemplate computeValue(final Class<?> typeClass) {
+                return SupertypeTemplate.forClass(typeClass);
+            }
+        };
+    
+    
+    private final AssignabilityCache assignabilities = new AssignabilityCache();
+    
+    // Only set while recording (see TypeProfiles)
+    private volatile TypeProfile profile = null;
+    // Only set if a snapshot has been loaded (see TypeSnapshots)
+    private volatile TypeSnapshot snapshot = null;
     
     
     private static final TypeRegistry instance = new TypeRegistry(); 
     
+    static {
+        TypeSnapshots.applySystemProperties(instance);
+        TypeProfiles.applySystemProperties(instance);
+    }
+    
     
 
     static TypeRegistry getInstance() {
@@ -74,16 +172,277 @@ private TypeRegistry() {
 
     
     
+    
+    /*
+     * The class loader of javaRuntype and its ancestors cannot be garbage 
+     * collected before javaRuntype itself, so they are all assigned the 
+     * default partition.
+     */
+    private static ClassLoader[] computeDefaultClassLoaders() {
+        final List<ClassLoader> classLoaders = new ArrayList<ClassLoader>();
+        ClassLoader classLoader = Utils.class.getClassLoader();
+        while (classLoader != null) {
+            classLoaders.add(classLoader);
+            classLoader = classLoader.getParent();
+        }
+        return classLoaders.toArray(new ClassLoader[classLoaders.size()]);
+    }
+    
+    
+    /*
+     * Type names can also be resolved in the default partition through the 
+     * bootstrap class loader (null).
+     */
+    private static ClassLoader[] getDefaultNameLoaders(final ClassLoader[] defaultClassLoaders) {
+        final ClassLoader[] nameLoaders = new ClassLoader[defaultClassLoaders.length + 1];
+        System.arraycopy(defaultClassLoaders, 0, nameLoaders, 0, defaultClassLoaders.length);
+        return nameLoaders;
+    }
+    
+    
+    
+    TypeRegistryPartition getPartition(final ClassLoader classLoader) {
+        
+        if (classLoader == null) {
+            return this.defaultPartition;
+        }
+        for (int i = 0; i < this.defaultClassLoaders.length; i++) {
+            if (this.defaultClassLoaders[i] == classLoader) {
+                return this.defaultPartition;
+            }
+        }
+        
+        synchronized (this.partitionsByClassLoader) {
+            final PartitionReference reference = this.partitionsByClassLoader.get(classLoader);
+            TypeRegistryPartition partition = (reference == null? null : reference.get());
+            if (partition == null) {
+                partition = new TypeRegistryPartition(classLoader, null, this.classDependencies);
+                this.partitionsByClassLoader.put(classLoader, new PartitionReference(partition));
+            }
+            return partition;
+        }
+        
+    }
+    
+    
+    /*
+     * Used when attaching the partition to one of the classes of its loader,
+     * which from then on keep it alive instead of the partition table.
+     */
+    private TypeRegistryPartition getAttachedPartition(final ClassLoader classLoader) {
+        
+        final TypeRegistryPartition partition = getPartition(classLoader);
+        if (!partition.isDefault()) {
+            synchronized (this.partitionsByClassLoader) {
+                this.partitionsByClassLoader.get(classLoader).unattachedPartition = null;
+            }
+        }
+        return partition;
+        
+    }
+    
+    
+    
+    private TypeRegistryPartition getPartition(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters) {
+        
+        TypeRegistryPartition partition = this.partitionsByClass.get(componentClass);
+        for (int i = 0; i < typeParameters.length; i++) {
+            final TypeParameter<?> typeParameter = typeParameters[i];
+            if (typeParameter != null && !(typeParameter instanceof WildcardTypeParameter)) {
+                partition = 
+                    getMostSpecificPartition(partition, typeParameter.getType().getPartition());
+            }
+        }
+        return partition;
+        
+    }
+    
+    
+    
+    private TypeRegistryPartition getPartition(final java.lang.reflect.Type javaLangReflectType) {
+        
+        if (javaLangReflectType instanceof Class<?>) {
+            return this.partitionsByClass.get((Class<?>) javaLangReflectType);
+        }
+        if (javaLangReflectType instanceof ParameterizedType) {
+            final ParameterizedType parameterizedType = (ParameterizedType) javaLangReflectType;
+            TypeRegistryPartition partition = getPartition(parameterizedType.getRawType());
+            final java.lang.reflect.Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            for (int i = 0; i < typeArguments.length; i++) {
+                partition = getMostSpecificPartition(partition, getPartition(typeArguments[i]));
+            }
+            return partition;
+        }
+        if (javaLangReflectType instanceof GenericArrayType) {
+            return getPartition(((GenericArrayType) javaLangReflectType).getGenericComponentType());
+        }
+        if (javaLangReflectType instanceof WildcardType) {
+            final WildcardType wildcardType = (WildcardType) javaLangReflectType;
+            TypeRegistryPartition partition = this.defaultPartition;
+            final java.lang.reflect.Type[] upperBounds = wildcardType.getUpperBounds();
+            for (int i = 0; i < upperBounds.length; i++) {
+                partition = getMostSpecificPartition(partition, getPartition(upperBounds[i]));
+            }
+            final java.lang.reflect.Type[] lowerBounds = wildcardType.getLowerBounds();
+            for (int i = 0; i < lowerBounds.length; i++) {
+                partition = getMostSpecificPartition(partition, getPartition(lowerBounds[i]));
+            }
+            return partition;
+        }
+        if (javaLangReflectType instanceof TypeVariable<?>) {
+            final Object genericDeclaration = 
+                ((TypeVariable<?>) javaLangReflectType).getGenericDeclaration();
+            if (genericDeclaration instanceof Class<?>) {
+                return this.partitionsByClass.get((Class<?>) genericDeclaration);
+            }
+            if (genericDeclaration instanceof Method) {
+                return this.partitionsByClass.get(((Method) genericDeclaration).getDeclaringClass());
+            }
+            if (genericDeclaration instanceof Constructor<?>) {
+                return this.partitionsByClass.get(((Constructor<?>) genericDeclaration).getDeclaringClass());
+            }
+        }
+        return this.defaultPartition;
+        
+    }
+    
+    
+    
+    /*
+     * A partition is more specific than another one if its class loader is
+     * a descendant of the other's. If neither is, the first one is kept.
+     */
+    private static TypeRegistryPartition getMostSpecificPartition(
+            final TypeRegistryPartition partition, final TypeRegistryPartition candidate) {
+        
+        if (candidate == partition || candidate.isDefault()) {
+            return partition;
+        }
+        if (partition.isDefault()) {
+            return candidate;
+        }
+        final ClassLoader classLoader = partition.getClassLoader();
+        ClassLoader ancestor = candidate.getClassLoader().getParent();
+        while (ancestor != null) {
+            if (ancestor == classLoader) {
+                return candidate;
+            }
+            ancestor = ancestor.getParent();
+        }
+        return partition;
+        
+    }
+    
+    
+    
+    
+    Type<?> forName(final String typeName, final ClassLoader classLoader, 
+            final boolean initialize) {
 
-    Type<?> forName(final String typeName) {
+        final Type<?> type = 
+            getPartition(classLoader).forName(typeName, classLoader, initialize);
+        final TypeProfile currentProfile = this.profile;
+        if (currentProfile != null) {
+            currentProfile.recordTypeName(typeName);
+        }
+        return type;
+        
+    }
+    
+    
+    Type<?> tryForName(final String typeName, final ClassLoader classLoader, 
+            final boolean initialize) {
 
-        final Type<?> type = this.typesByPossibleNames.get(typeName);
-        if (type != null) {
-            return type; 
+        final Type<?> type = 
+            getPartition(classLoader).tryForName(typeName, classLoader, initialize);
+        final TypeProfile currentProfile = this.profile;
+        if (currentProfile != null && type != null) {
+            currentProfile.recordTypeName(typeName);
         }
-        return this.typesByPossibleNames.computeAndGet(
-                typeName, 
-                TypeUtil.forName(typeName));
+        return type;
+        
+    }
+    
+    
+    private List<TypeRegistryPartition> getPartitions() {
+        final List<TypeRegistryPartition> partitions = new ArrayList<TypeRegistryPartition>();
+        partitions.add(this.defaultPartition);
+        synchronized (this.partitionsByClassLoader) {
+            final Iterator<PartitionReference> referencesIter = 
+                this.partitionsByClassLoader.values().iterator();
+            while (referencesIter.hasNext()) {
+                final TypeRegistryPartition partition = referencesIter.next().get();
+                if (partition != null) {
+                    partitions.add(partition);
+                }
+            }
+        }
+        return partitions;
+    }
+    
+    
+    
+    /*
+     * Failed resolutions might succeed after importing new packages
+     */
+    void clearFailures() {
+        final List<TypeRegistryPartition> partitions = getPartitions();
+        for (int i = 0; i < partitions.size(); i++) {
+            partitions.get(i).clearFailures();
+        }
+    }
+    
+    
+    
+    void invalidate(final Class<?>[] classes) {
+        
+        final Set<Class<?>> invalidatedClasses = 
+            this.classDependencies.getDependentClasses(classes);
+        final TypeInvalidation invalidation = 
+            new TypeInvalidation(invalidatedClasses, this.classDependencies);
+        
+        final Iterator<Class<?>> classesIter = invalidatedClasses.iterator();
+        while (classesIter.hasNext()) {
+            final Class<?> invalidatedClass = classesIter.next();
+            this.rawTypesByClass.remove(invalidatedClass);
+            this.rawExtendedTypesByClass.remove(invalidatedClass);
+            this.supertypeTemplatesByClass.remove(invalidatedClass);
+        }
+        TypeDefs.invalidate(invalidatedClasses.toArray(new Class<?>[invalidatedClasses.size()]));
+        
+        final List<TypeRegistryPartition> partitions = getPartitions();
+        final List<Type<?>> canonicalTypes = new ArrayList<Type<?>>();
+        for (int i = 0; i < partitions.size(); i++) {
+            partitions.get(i).invalidate(invalidation);
+            canonicalTypes.addAll(partitions.get(i).getCanonicalTypes());
+        }
+        
+        /*
+         * Every canonical type must be checked before invalidating 
+         * assignabilities, as types not present in any cache can still 
+         * have computed assignabilities.
+         */
+        for (int i = 0; i < canonicalTypes.size(); i++) {
+            invalidation.isInvalidated(canonicalTypes.get(i));
+        }
+        final long[] invalidatedIds = invalidation.getInvalidatedIds();
+        for (int i = 0; i < canonicalTypes.size(); i++) {
+            final Type<?> canonicalType = canonicalTypes.get(i);
+            if (invalidation.isInvalidated(canonicalType)) {
+                canonicalType.getAssignabilities().clear();
+            } else {
+                canonicalType.getAssignabilities().clear(invalidatedIds);
+            }
+        }
+        this.assignabilities.invalidate(invalidatedIds);
+        
+        final TypeSnapshot currentSnapshot = this.snapshot;
+        if (currentSnapshot != null) {
+            currentSnapshot.invalidate(invalidatedClasses);
+        }
+        
+        ClassNameResolver.getInstance().invalidate(invalidatedClasses);
         
     }
     
@@ -92,13 +451,11 @@ Type<?> forName(final String typeName) {
     
     Type<?> getRawTypeForClass(final Class<?> typeClass) {
         
-        final Type<?> type = this.rawTypesByClass.get(typeClass);
-        if (type != null) {
-            return type; 
+        final TypeProfile currentProfile = this.profile;
+        if (currentProfile != null) {
+            currentProfile.recordClass(typeClass);
         }
-        return this.rawTypesByClass.computeAndGet(
-                typeClass, 
-                TypeUtil.getRawTypeForClass(typeClass));
+        return this.rawTypesByClass.get(typeClass);
         
     }
     
@@ -108,31 +465,86 @@ Type<?> getRawTypeForClass(final Class<?> typeClass) {
     Type<?> getType(final Class<?> componentClass, 
             final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
 
-        final String identifier = 
-            TypeUtil.createName(componentClass, typeParameters, arrayDimensions);
-        final Type<?> type = this.types.get(identifier);
-        if (type != null) {
-            return type; 
+        final Type<?> type = 
+            getPartition(componentClass, typeParameters).getType(
+                    componentClass, typeParameters, arrayDimensions);
+        final TypeProfile currentProfile = this.profile;
+        if (currentProfile != null) {
+            currentProfile.recordTypeName(type.getName());
         }
-        return this.types.computeAndGet(
-                identifier, 
-                Type.createType(componentClass, typeParameters, arrayDimensions));
+        return type;
         
     }
 
     
 
     
-    Type<?> getTypeWithoutValidation(final Class<?> componentClass, 
+    /*
+     * Returns null if no type with the specified fingerprint is known to 
+     * the partition of the class loader (or if it is not valid).
+     */
+    Type<?> forFingerprint(final long fingerprint, final ClassLoader classLoader) {
+        
+        final Type<?> type = getPartition(classLoader).getTypeForFingerprint(fingerprint);
+        if (type == null) {
+            return null;
+        }
+        if (!type.isValidated()) {
+            if (!TypeUtil.isTypeParametersValid(type)) {
+                return null;
+            }
+            type.setValidated();
+        }
+        return type;
+        
+    }
+
+    
+
+    
+    /*
+     * Same as getType(...), but returning null instead of throwing an 
+     * exception if the type is not valid.
+     */
+    Type<?> tryGetType(final Class<?> componentClass, 
             final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
 
-        final String identifier = 
-            TypeUtil.createName(componentClass, typeParameters, arrayDimensions);
-        final Type<?> type = this.types.get(identifier);
-        if (type != null) {
-            return type; 
+        final Type<?> type = 
+            getTypeWithoutValidation(componentClass, typeParameters, arrayDimensions);
+        if (!type.isValidated()) {
+            if (!TypeUtil.isTypeParametersValid(type)) {
+                return null;
+            }
+            type.setValidated();
         }
-        return Type.createTypeWithoutValidation(componentClass, typeParameters, arrayDimensions);
+        // The type is valid, so this will not throw any exceptions
+        return getType(componentClass, typeParameters, arrayDimensions);
+        
+    }
+
+    
+
+    
+    Type<?> getTypeWithoutValidation(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+
+        return getPartition(componentClass, typeParameters).getTypeWithoutValidation(
+                componentClass, typeParameters, arrayDimensions);
+        
+    }
+    
+    
+    
+    
+    /*
+     * Only for types known to be valid, which are neither validated nor 
+     * added to the caches (see TypeRegistryPartition.getValidatedType(...)).
+     */
+    Type<?> getValidatedType(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+
+        return getPartition(componentClass, typeParameters).getValidatedType(
+                componentClass, typeParameters, arrayDimensions);
         
     }
     
@@ -141,29 +553,27 @@ Type<?> getTypeWithoutValidation(final Class<?> componentClass,
     
     Set<Type<?>> getExtendedTypes(final Type<?> type) {
         
-        final Set<Type<?>> extendedTypes = this.extendedTypesByType.get(type);
-        if (extendedTypes != null) {
-            return extendedTypes; 
+        if (type.getArrayDimensions() == 0 && type.isRaw() &&
+                type.getTypeParametersArray().length == type.getTypeDef().getVariables().length) {
+            return this.rawExtendedTypesByClass.get(type.getComponentClass());
         }
-        return this.extendedTypesByType.computeAndGet(
-                type, 
-                TypeUtil.getExtendedTypes(type));
+        return type.getPartition().getExtendedTypes(type);
+        
+    }
+
+    
+    
+    SupertypeTemplate getSupertypeTemplate(final Class<?> componentClass) {
+        
+        return this.supertypeTemplatesByClass.get(componentClass);
         
     }
 
     
     
-    @SuppressWarnings("unchecked")
     Type<?> forJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType) {
 
-        final Type<?> type = this.typesbyJavaLangReflectType.get(javaLangReflectType);
-        if (type != null) {
-            return type; 
-        }
-        return this.typesbyJavaLangReflectType.computeAndGet(
-                javaLangReflectType, 
-                TypeUtil.createFromJavaLangReflectType(
-                        javaLangReflectType, javaLangReflectType, Collections.EMPTY_MAP));
+        return getPartition(javaLangReflectType).forJavaLangReflectType(javaLangReflectType);
         
     }
     
@@ -182,20 +592,171 @@ Type<?> forJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType,
     }
     
     
+    Type<?> tryForJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType) {
+        
+        return getPartition(javaLangReflectType).tryForJavaLangReflectType(javaLangReflectType);
+        
+    }
+    
+    
+    Type<?> tryForJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType, final Map<String,Type<?>> variableSubstitutions) {
+        
+        // Not cached, for the same reasons as forJavaLangReflectType(...) 
+        return TypeUtil.tryCreateFromJavaLangReflectType(
+                javaLangReflectType, javaLangReflectType, variableSubstitutions);
+        
+    }
+    
+    
+    /*
+     * Clears the assignabilities computed for the ids of collected types,
+     * so that they can be reused (see TypeInterner). This is done in 
+     * batches, and only by one thread at a time.
+     */
+    void recycleTypeIds() {
+        
+        final long[] ids = TypeInterner.startRecycling();
+        if (ids == null) {
+            return;
+        }
+        final List<TypeRegistryPartition> partitions = getPartitions();
+        for (int i = 0; i < partitions.size(); i++) {
+            final List<Type<?>> canonicalTypes = partitions.get(i).getCanonicalTypes();
+            for (int j = 0; j < canonicalTypes.size(); j++) {
+                canonicalTypes.get(j).getAssignabilities().clear(ids);
+            }
+        }
+        this.assignabilities.invalidate(ids);
+        TypeInterner.finishRecycling();
+        
+    }
+    
+    
     boolean isAssignableFrom(final Type<?> type, final Type<?> fromType) {
 
-        final TypeAssignation assignation = new TypeAssignation(type, fromType);
-        final Boolean assignable = this.typeAssignabilities.get(assignation);
-        if (assignable != null) {
-            return assignable.booleanValue(); 
+        final TypeProfile currentProfile = this.profile;
+        if (currentProfile != null) {
+            currentProfile.recordAssignability(type, fromType);
         }
-        return this.typeAssignabilities.computeAndGet(
-                assignation, 
-                Boolean.valueOf(TypeUtil.isAssignableFrom(type, fromType))).booleanValue();
+        
+        /*
+         * Precomputed assignabilities are stored in the row of "fromType", 
+         * indexed by the id of "type", so they only need a bit test. The 
+         * rest are kept in a bounded cache keyed by both ids.
+         */
+        final int typeId = type.getId();
+        final AssignabilityRow row = fromType.getAssignabilities();
+        if (row.isKnown(typeId)) {
+            return row.isAssignable(typeId);
+        }
+        
+        final int fromTypeId = fromType.getId();
+        final byte cached = this.assignabilities.get(typeId, fromTypeId);
+        if (cached != AssignabilityCache.UNKNOWN) {
+            return (cached == AssignabilityCache.ASSIGNABLE);
+        }
+        
+        final TypeSnapshot currentSnapshot = this.snapshot;
+        final byte snapshotAssignability = 
+            (currentSnapshot == null? 
+                    AssignabilityCache.UNKNOWN : currentSnapshot.getAssignability(type, fromType));
+        final boolean assignable = 
+            (snapshotAssignability != AssignabilityCache.UNKNOWN?
+                    (snapshotAssignability == AssignabilityCache.ASSIGNABLE) :
+                    TypeUtil.isAssignableFrom(type, fromType));
+        this.assignabilities.put(typeId, fromTypeId, assignable);
+        return assignable;
         
     }
     
     
-
-
+    /*
+     * Only the types resolved with the class loader of the snapshot are 
+     * taken from it.
+     */
+    Type<?> getSnapshotType(final String typeName, final ClassLoader classLoader) {
+        final TypeSnapshot currentSnapshot = this.snapshot;
+        if (currentSnapshot == null || currentSnapshot.getClassLoader() != classLoader) {
+            return null;
+        }
+        return currentSnapshot.getType(typeName);
+    }
+    
+    
+    boolean isValidatedBySnapshot(final Type<?> type) {
+        final TypeSnapshot currentSnapshot = this.snapshot;
+        return (currentSnapshot != null && currentSnapshot.isValidated(type));
+    }
+    
+    
+    Set<Type<?>> getSnapshotExtendedTypes(final Type<?> type) {
+        final TypeSnapshot currentSnapshot = this.snapshot;
+        return (currentSnapshot == null? null : currentSnapshot.getExtendedTypes(type));
+    }
+    
+    
+    TypeSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+    
+    
+    void setSnapshot(final TypeSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    
+    ClassDependencies getClassDependencies() {
+        return this.classDependencies;
+    }
+    
+    
+    AssignabilityCache getAssignabilityCache() {
+        return this.assignabilities;
+    }
+    
+    
+    
+    
+    TypeProfile getProfile() {
+        return this.profile;
+    }
+    
+    
+    void setProfile(final TypeProfile profile) {
+        this.profile = profile;
+    }
+    
+    
+    
+    
+    void precomputeAssignabilities(final Type<?>[] knownTypes) {
+        for (int i = 0; i < knownTypes.length; i++) {
+            final int typeId = knownTypes[i].getId();
+            for (int j = 0; j < knownTypes.length; j++) {
+                final AssignabilityRow row = knownTypes[j].getAssignabilities();
+                if (!row.isKnown(typeId)) {
+                    row.set(typeId, isAssignableFrom(knownTypes[i], knownTypes[j]));
+                }
+            }
+        }
+    }
+    
+    
+    
+    
+    /*
+     * Weak reference to a partition, which is also referenced strongly until 
+     * the partition is attached to a class of its loader.
+     */
+    private static final class PartitionReference extends WeakReference<TypeRegistryPartition> {
+        
+        TypeRegistryPartition unattachedPartition;
+        
+        PartitionReference(final TypeRegistryPartition partition) {
+            super(partition);
+            this.unattachedPartition = partition;
+        }
+        
+    }
+    
 }
@@ -0,0 +1,474 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.javaruntype.cache.CacheEntryFilter;
+import org.javaruntype.cache.CacheLoader;
+import org.javaruntype.cache.ConcurrentCache;
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Partition of the type registry, containing the caches of the types 
+ * which belong to a class loader (see TypeRegistry for how types are
+ * assigned to partitions).
+ * 
+ * The default partition contains the types of the class loader of 
+ * javaRuntype itself and its ancestors, and its caches are named as
+ * usual ("types", "trustedTypes"...). The caches of the partition of 
+ * any other class loader are named after that loader, like in 
+ * "types[org.example.TenantClassLoader@1b6d3586]", so that their sizes 
+ * can be configured separately (see org.javaruntype.cache.Caches). When
+ * they are not, they take the configuration of the default partition.
+ * 
+ * As the default partition serves several class loaders, which do not 
+ * see the same classes, it keeps separate caches of type names (resolved 
+ * and failed) for each of them. Only the ones of the class loader of 
+ * javaRuntype are named as usual, and the ones of any other are named 
+ * after that loader (or "[bootstrap]" for the bootstrap class loader).
+ * 
+ * Partitions only reference their class loader weakly, but the types in 
+ * their caches can reference it (through their classes). Because of this,
+ * once a partition contains types of classes defined by its loader, it must 
+ * only be referenced (strongly) from those classes, so that it does not 
+ * prevent the loader from being garbage collected (see TypeRegistry).
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeRegistryPartition {
+
+    
+    private static final ThreadLocal<TypeKey> probeKeys = 
+        new ThreadLocal<TypeKey>() {
+            @Override
+            protected TypeKey initialValue() {
+                return new TypeKey();
+            }
+        };
+    
+    
+    private final WeakReference<ClassLoader> classLoaderReference;
+    private final ClassDependencies classDependencies;
+    
+    private final ConcurrentCache<TypeKey,Type<?>> types;
+    private final ConcurrentCache<TypeKey,Type<?>> trustedTypes;
+    private final ConcurrentCache<Type<?>,Set<Type<?>>> extendedTypesByType;
+    private final ConcurrentCache<java.lang.reflect.Type, Type<?>> typesbyJavaLangReflectType;
+    private final ConcurrentCache<java.lang.reflect.Type,Boolean> failedJavaLangReflectTypes;
+    
+    private final ClassLoader[] nameLoaders;
+    private final NameCaches[] nameCaches;
+    
+    private final TypeInterner canonicalTypes = new TypeInterner();
+    
+    
+    
+    private final CacheLoader<TypeKey,Type<?>> typeLoader =
+        new CacheLoader<TypeKey, Type<?>>() {
+            public Type<?> load(final TypeKey key) {
+                final Type<?> type = getCanonicalType(key);
+                if (!type.isValidated()) {
+                    TypeUtil.validateTypeParameters(type);
+                    type.setValidated();
+                }
+                return type;
+            }
+        };
+    private final CacheLoader<TypeKey,Type<?>> trustedTypeLoader =
+        new CacheLoader<TypeKey, Type<?>>() {
+            public Type<?> load(final TypeKey key) {
+                return getCanonicalType(key);
+            }
+        };
+    private final CacheLoader<Type<?>,Set<Type<?>>> extendedTypesLoader =
+        new CacheLoader<Type<?>, Set<Type<?>>>() {
+            public Set<Type<?>> load(final Type<?> type) {
+                return TypeUtil.getExtendedTypes(type);
+            }
+        };
+    private final CacheLoader<java.lang.reflect.Type,Type<?>> typeByJavaLangReflectTypeLoader =
+        new CacheLoader<java.lang.reflect.Type, Type<?>>() {
+            @SuppressWarnings("unchecked")
+            public Type<?> load(final java.lang.reflect.Type javaLangReflectType) {
+                return TypeUtil.createFromJavaLangReflectType(
+                        javaLangReflectType, javaLangReflectType, Collections.EMPTY_MAP);
+            }
+        };
+    
+    
+    
+    
+    /*
+     * The class loader is null for the default partition, which is the only
+     * one serving several class loaders (its name loaders, the first of 
+     * which being the class loader of javaRuntype). Name loaders are null 
+     * for any other partition.
+     */
+    TypeRegistryPartition(final ClassLoader classLoader, 
+            final ClassLoader[] nameLoaders, final ClassDependencies classDependencies) {
+        
+        super();
+        
+        this.classLoaderReference = 
+            (classLoader == null? null : new WeakReference<ClassLoader>(classLoader));
+        this.classDependencies = classDependencies;
+        
+        final String suffix = (classLoader == null? "" : getCacheNameSuffix(classLoader));
+        
+        this.types = 
+            new ConcurrentCache<TypeKey,Type<?>>("types" + suffix, 200);
+        this.trustedTypes = 
+            new ConcurrentCache<TypeKey,Type<?>>("trustedTypes" + suffix, 300);
+        this.extendedTypesByType = 
+            new ConcurrentCache<Type<?>, Set<Type<?>>>("extendedTypesByType" + suffix, 300);
+        this.typesbyJavaLangReflectType = 
+            new ConcurrentCache<java.lang.reflect.Type, Type<?>>("typesByJavaLangReflectType" + suffix, 100);
+        this.failedJavaLangReflectTypes = 
+            new ConcurrentCache<java.lang.reflect.Type, Boolean>("failedJavaLangReflectTypes" + suffix, 100);
+        
+        if (nameLoaders == null) {
+            this.nameLoaders = null;
+            this.nameCaches = new NameCaches[] { new NameCaches(suffix) };
+        } else {
+            this.nameLoaders = nameLoaders.clone();
+            this.nameCaches = new NameCaches[nameLoaders.length];
+            for (int i = 0; i < nameLoaders.length; i++) {
+                this.nameCaches[i] = 
+                    new NameCaches(i == 0? suffix : getCacheNameSuffix(nameLoaders[i]));
+            }
+        }
+        
+    }
+    
+    
+    private static String getCacheNameSuffix(final ClassLoader classLoader) {
+        if (classLoader == null) {
+            return "[bootstrap]";
+        }
+        return "[" + classLoader.getClass().getName() + "@" + 
+                     Integer.toHexString(System.identityHashCode(classLoader)) + "]";
+    }
+    
+    
+    
+    /*
+     * Null for the default partition, and also once the class loader has 
+     * been garbage collected.
+     */
+    ClassLoader getClassLoader() {
+        return (this.classLoaderReference == null? null : this.classLoaderReference.get());
+    }
+    
+    
+    boolean isDefault() {
+        return (this.classLoaderReference == null);
+    }
+    
+    
+    private NameCaches getNameCaches(final ClassLoader loader) {
+        if (this.nameLoaders == null) {
+            return this.nameCaches[0];
+        }
+        for (int i = 0; i < this.nameLoaders.length; i++) {
+            if (this.nameLoaders[i] == loader) {
+                return this.nameCaches[i];
+            }
+        }
+        throw new IllegalArgumentException(
+                "Class loader " + loader + " is not served by this partition");
+    }
+    
+    
+    
+    
+    /*
+     * Classes will only be initialized (or not) if they are loaded during 
+     * this resolution. Type names already in cache are not re-resolved.
+     */
+    Type<?> forName(final String typeName, final ClassLoader loader, final boolean initialize) {
+
+        final ConcurrentCache<String,Type<?>> typesByPossibleNames = 
+            getNameCaches(loader).typesByPossibleNames;
+        final Type<?> type = typesByPossibleNames.getIfPresent(typeName);
+        if (type != null) {
+            return type;
+        }
+        // The default partition serves several class loaders, so the
+        // one to be used is not always the partition's own
+        return typesByPossibleNames.get(typeName, 
+                new CacheLoader<String, Type<?>>() {
+                    public Type<?> load(final String name) {
+                        return TypeUtil.forName(name, loader, initialize);
+                    }
+                });
+        
+    }
+    
+    
+    Type<?> tryForName(final String typeName, final ClassLoader loader, final boolean initialize) {
+
+        final NameCaches loaderNameCaches = getNameCaches(loader);
+        final Type<?> type = loaderNameCaches.typesByPossibleNames.getIfPresent(typeName);
+        if (type != null) {
+            return type;
+        }
+        if (loaderNameCaches.failedTypeNames.get(typeName) != null) {
+            return null;
+        }
+        final Type<?> parsedType = TypeUtil.tryForName(typeName, loader, initialize);
+        if (parsedType == null) {
+            loaderNameCaches.failedTypeNames.computeAndGet(typeName, Boolean.TRUE);
+            return null;
+        }
+        return loaderNameCaches.typesByPossibleNames.computeAndGet(typeName, parsedType);
+        
+    }
+    
+    
+    void clearFailures() {
+        for (int i = 0; i < this.nameCaches.length; i++) {
+            this.nameCaches[i].failedTypeNames.clear();
+        }
+        this.failedJavaLangReflectTypes.clear();
+    }
+    
+    
+    /*
+     * Canonical instances are kept (they are only weakly referenced), so
+     * that types still in use outside the registry remain the only instances
+     * of their type. Failures are all cleared, as they might have been caused 
+     * by the invalidated classes not being available.
+     */
+    void invalidate(final TypeInvalidation invalidation) {
+        
+        final CacheEntryFilter<Object,Type<?>> byValue = 
+            new CacheEntryFilter<Object, Type<?>>() {
+                public boolean matches(final Object key, final Type<?> value) {
+                    return invalidation.isInvalidated(value);
+                }
+            };
+        this.types.invalidate(byValue);
+        this.trustedTypes.invalidate(byValue);
+        for (int i = 0; i < this.nameCaches.length; i++) {
+            this.nameCaches[i].typesByPossibleNames.invalidate(byValue);
+        }
+        this.typesbyJavaLangReflectType.invalidate(byValue);
+        
+        this.extendedTypesByType.invalidate(
+                new CacheEntryFilter<Type<?>, Object>() {
+                    public boolean matches(final Type<?> key, final Object value) {
+                        return invalidation.isInvalidated(key);
+                    }
+                });
+        
+        clearFailures();
+        
+    }
+    
+    
+    List<Type<?>> getCanonicalTypes() {
+        return this.canonicalTypes.getTypes();
+    }
+    
+    
+    /*
+     * The names (as specified by users, not necessarily canonical) of 
+     * the types currently cached in this partition for the specified loader.
+     */
+    Map<String,Type<?>> getTypesByNames(final ClassLoader loader) {
+        return getNameCaches(loader).typesByPossibleNames.getEntries();
+    }
+    
+    
+    
+    
+    Type<?> getType(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+
+        final TypeKey probeKey = 
+            probeKeys.get().set(componentClass, typeParameters, arrayDimensions);
+        final Type<?> type = this.types.getIfPresent(probeKey);
+        if (type != null) {
+            probeKey.reset();
+            return type;
+        }
+        final TypeKey key = probeKey.copy();
+        probeKey.reset();
+        return this.types.get(key, this.typeLoader);
+        
+    }
+
+    
+
+    
+    Type<?> getTypeWithoutValidation(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+
+        final TypeKey probeKey = 
+            probeKeys.get().set(componentClass, typeParameters, arrayDimensions);
+        Type<?> type = this.types.getIfPresent(probeKey);
+        if (type == null) {
+            type = this.trustedTypes.getIfPresent(probeKey);
+        }
+        if (type != null) {
+            probeKey.reset();
+            return type;
+        }
+        final TypeKey key = probeKey.copy();
+        probeKey.reset();
+        return this.trustedTypes.get(key, this.trustedTypeLoader);
+        
+    }
+    
+    
+    
+    
+    /*
+     * The type is only interned, so it will stay in the registry only while
+     * the caller references it. Requests for it through the caches will then
+     * find this same (already validated) instance.
+     */
+    Type<?> getValidatedType(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+
+        final TypeKey probeKey = 
+            probeKeys.get().set(componentClass, typeParameters, arrayDimensions);
+        final TypeKey key = probeKey.copy();
+        probeKey.reset();
+        final Type<?> type = getCanonicalType(key);
+        if (!type.isValidated()) {
+            type.setValidated();
+        }
+        return type;
+        
+    }
+    
+    
+    
+    
+    /*
+     * Only types already created in this partition can be found
+     */
+    Type<?> getTypeForFingerprint(final long fingerprint) {
+        return this.canonicalTypes.getByFingerprint(fingerprint);
+    }
+    
+    
+    
+    
+    /*
+     * The key must be immutable.
+     */
+    private Type<?> getCanonicalType(final TypeKey key) {
+        
+        final Type<?> canonicalType = this.canonicalTypes.get(key);
+        if (canonicalType != null) {
+            return canonicalType;
+        }
+        // Records the component class as a dependent of its dependencies
+        this.classDependencies.getDependencies(key.getComponentClass());
+        final Type<?> type = 
+            this.canonicalTypes.intern(
+                    key,
+                    Type.createTypeWithoutValidation(
+                            key.getComponentClass(), key.getTypeParameters(), 
+                            key.getArrayDimensions(), this));
+        // Outside the lock of the interner, as every partition is involved
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        if (typeRegistry != null) {
+            typeRegistry.recycleTypeIds();
+        }
+        return type;
+        
+    }
+    
+    
+    
+    
+    Set<Type<?>> getExtendedTypes(final Type<?> type) {
+        
+        return this.extendedTypesByType.get(type, this.extendedTypesLoader);
+        
+    }
+
+    
+    
+    Type<?> forJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType) {
+
+        return this.typesbyJavaLangReflectType.get(
+                javaLangReflectType, this.typeByJavaLangReflectTypeLoader);
+        
+    }
+    
+    
+    Type<?> tryForJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType) {
+        
+        final Type<?> type = this.typesbyJavaLangReflectType.getIfPresent(javaLangReflectType);
+        if (type != null) {
+            return type;
+        }
+        if (this.failedJavaLangReflectTypes.get(javaLangReflectType) != null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        final Type<?> createdType = 
+            TypeUtil.tryCreateFromJavaLangReflectType(
+                    javaLangReflectType, javaLangReflectType, Collections.EMPTY_MAP);
+        if (createdType == null) {
+            this.failedJavaLangReflectTypes.computeAndGet(javaLangReflectType, Boolean.TRUE);
+            return null;
+        }
+        return this.typesbyJavaLangReflectType.computeAndGet(javaLangReflectType, createdType);
+        
+    }
+    
+    
+    
+    
+    /*
+     * The caches of type names for one of the class loaders served by 
+     * the partition.
+     */
+    private static final class NameCaches {
+        
+        private final ConcurrentCache<String,Type<?>> typesByPossibleNames;
+        private final ConcurrentCache<String,Boolean> failedTypeNames;
+        
+        NameCaches(final String suffix) {
+            super();
+            this.typesByPossibleNames = 
+                new ConcurrentCache<String, Type<?>>("typesByPossibleNames" + suffix, 100);
+            this.failedTypeNames = 
+                new ConcurrentCache<String, Boolean>("failedTypeNames" + suffix, 100);
+        }
+        
+    }
+    
+}
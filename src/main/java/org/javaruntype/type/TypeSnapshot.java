@@ -0,0 +1,944 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Snapshot of the resolved state of the type registry (types, their 
+ * validation, the types extended by them and the computed assignabilities
+ * between them), written to a file and memory-mapped by a later JVM so 
+ * that all this does not need to be computed again (see TypeSnapshots).
+ * 
+ * The file is only mapped when loading the snapshot. Its entries are read 
+ * and bound to the actual classes and types lazily, the first time each of 
+ * them is needed, and they are never bound if they are not. Each class is
+ * stored along with its identity: a hash of the bytes of its class file and
+ * of the class files of all the classes it depends on (see 
+ * ClassDependencies), so that any change in them makes the entries which 
+ * depend on the class stale. Bootstrap classes are identified by the 
+ * version of the Java runtime instead of their bytes. Stale entries, and 
+ * those which cannot be bound (for example, because a class no longer 
+ * exists), are simply ignored, and the data they contained is computed 
+ * as usual.
+ * 
+ * File layout (big-endian): a header with a magic number, a format version
+ * and the count and offset of each table, followed by:
+ * 
+ *   - Strings: byte length + UTF-8 bytes.
+ *   - Class table: name offset + identity, for each class.
+ *   - Type records: fingerprint, class index, array dimensions, validated
+ *     flag, type parameters (kind + type index) and extended types (type
+ *     indexes, or -1 if not known). Names are not stored, as they can be 
+ *     derived from the structure (and they grow quadratically with the 
+ *     nesting of types).
+ *   - Type table: record offset, for each type.
+ *   - Name index: open-addressing hash table of (name hash, type index + 1),
+ *     for finding types by their name. Types nested too deeply are not
+ *     indexed by name.
+ *   - Assignability index: open-addressing hash table of longs packing the
+ *     indexes of both types and the result, as in AssignabilityCache.
+ * 
+ * Classes are bound with the class loader specified when loading the 
+ * snapshot, and without initializing them.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class TypeSnapshot {
+
+    private static final int MAGIC = 0x4A525453; // "JRTS"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 40;
+    
+    private static final int CLASS_ENTRY_SIZE = 12;
+    private static final int TYPE_RECORD_HEADER_SIZE = 21;
+    private static final int NAME_ENTRY_SIZE = 12;
+    private static final int ASSIGNABILITY_ENTRY_SIZE = 8;
+    
+    private static final byte KIND_STANDARD = 1;
+    private static final byte KIND_EXTENDS = 2;
+    private static final byte KIND_SUPER = 3;
+    private static final byte KIND_WILDCARD = 4;
+    
+    private static final long OCCUPIED_BIT = 1L << 63;
+    private static final long ASSIGNABLE_BIT = 1L << 31;
+    
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private static final long RUNTIME_HASH = 
+        hash(System.getProperty("java.vendor") + "/" + 
+                System.getProperty("java.runtime.version") + "/" + 
+                System.getProperty("java.vm.version"));
+    
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    
+    // Names of types nested deeper are too long to be worth indexing
+    private static final int MAX_INDEXED_NESTING_DEPTH = 32;
+    
+    private static final Object STALE = new Object();
+    
+    private static final ClassValue<Long> classFileHashes =
+        new ClassValue<Long>() {
+            @Override
+            protected Long computeValue(final Class<?> typeClass) {
+                return Long.valueOf(computeClassFileHash(typeClass));
+            }
+        };
+    
+    
+    private final ByteBuffer buffer;
+    private final TypeRegistry typeRegistry;
+    private final ClassLoader classLoader;
+    
+    private final int classCount;
+    private final int classTableOffset;
+    private final int typeCount;
+    private final int typeTableOffset;
+    private final int nameIndexCapacity;
+    private final int nameIndexOffset;
+    private final int assignabilityIndexCapacity;
+    private final int assignabilityIndexOffset;
+    
+    private final AtomicReferenceArray<Object> classes;
+    private final AtomicReferenceArray<Object> types;
+    private final ConcurrentHashMap<Type<?>,Integer> boundTypeIndexes = 
+        new ConcurrentHashMap<Type<?>, Integer>();
+    private final Set<Class<?>> invalidatedClasses = 
+        Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+    
+    
+    
+    
+    private TypeSnapshot(final ByteBuffer buffer, final TypeRegistry typeRegistry, 
+            final ClassLoader classLoader) throws IOException {
+        
+        super();
+        
+        this.buffer = buffer;
+        this.typeRegistry = typeRegistry;
+        this.classLoader = classLoader;
+        
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a type registry snapshot");
+        }
+        final int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported type registry snapshot version: " + version);
+        }
+        this.classCount = buffer.getInt(8);
+        this.classTableOffset = buffer.getInt(12);
+        this.typeCount = buffer.getInt(16);
+        this.typeTableOffset = buffer.getInt(20);
+        this.nameIndexCapacity = buffer.getInt(24);
+        this.nameIndexOffset = buffer.getInt(28);
+        this.assignabilityIndexCapacity = buffer.getInt(32);
+        this.assignabilityIndexOffset = buffer.getInt(36);
+        
+        checkTable(this.classTableOffset, this.classCount, CLASS_ENTRY_SIZE);
+        checkTable(this.typeTableOffset, this.typeCount, 4);
+        checkIndex(this.nameIndexOffset, this.nameIndexCapacity, NAME_ENTRY_SIZE);
+        checkIndex(this.assignabilityIndexOffset, this.assignabilityIndexCapacity, ASSIGNABILITY_ENTRY_SIZE);
+        
+        this.classes = new AtomicReferenceArray<Object>(this.classCount);
+        this.types = new AtomicReferenceArray<Object>(this.typeCount);
+        
+    }
+    
+    
+    private void checkTable(final int offset, final int count, final int entrySize) 
+            throws IOException {
+        if (count < 0 || offset < HEADER_SIZE || 
+                (long) offset + (long) count * entrySize > this.buffer.limit()) {
+            throw new IOException("Invalid type registry snapshot: bad table bounds");
+        }
+    }
+    
+    
+    private void checkIndex(final int offset, final int capacity, final int entrySize) 
+            throws IOException {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IOException("Invalid type registry snapshot: bad index capacity");
+        }
+        checkTable(offset, capacity, entrySize);
+    }
+    
+    
+    
+    
+    static TypeSnapshot load(final File file, final TypeRegistry typeRegistry, 
+            final ClassLoader classLoader) throws IOException {
+        
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid type registry snapshot: file too large");
+            }
+            // The mapping stays valid after closing the file
+            final ByteBuffer buffer = 
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TypeSnapshot(buffer, typeRegistry, classLoader);
+        } finally {
+            randomAccessFile.close();
+        }
+        
+    }
+    
+    
+    
+    ClassLoader getClassLoader() {
+        return this.classLoader;
+    }
+    
+    
+    
+    
+    Type<?> getType(final String typeName) {
+        final int typeIndex = findType(typeName);
+        return (typeIndex < 0? null : bindType(typeIndex));
+    }
+    
+    
+    
+    /*
+     * The type is validated if its entry in the snapshot is. Binding the 
+     * entry (which is the canonical instance) has already marked it so.
+     */
+    boolean isValidated(final Type<?> type) {
+        return (indexOf(type) >= 0 && type.isValidated());
+    }
+    
+    
+    
+    Set<Type<?>> getExtendedTypes(final Type<?> type) {
+        
+        final int typeIndex = indexOf(type);
+        if (typeIndex < 0) {
+            return null;
+        }
+        try {
+            int position = skipTypeParameters(getTypeRecordOffset(typeIndex));
+            final int extendedTypeCount = this.buffer.getInt(position);
+            if (extendedTypeCount < 0) {
+                return null;
+            }
+            position += 4;
+            final Set<Type<?>> extendedTypes = new HashSet<Type<?>>();
+            for (int i = 0; i < extendedTypeCount; i++) {
+                final Type<?> extendedType = bindType(this.buffer.getInt(position + i * 4));
+                if (extendedType == null) {
+                    return null;
+                }
+                extendedTypes.add(extendedType);
+            }
+            return Collections.unmodifiableSet(extendedTypes);
+        } catch (RuntimeException e) {
+            // Corrupt entry
+            return null;
+        }
+        
+    }
+    
+    
+    
+    byte getAssignability(final Type<?> type, final Type<?> fromType) {
+        
+        final int typeIndex = indexOf(type);
+        if (typeIndex < 0) {
+            return AssignabilityCache.UNKNOWN;
+        }
+        final int fromTypeIndex = indexOf(fromType);
+        if (fromTypeIndex < 0) {
+            return AssignabilityCache.UNKNOWN;
+        }
+        final long key = packAssignability(typeIndex, fromTypeIndex);
+        final int mask = this.assignabilityIndexCapacity - 1;
+        int slot = indexFor(key) & mask;
+        for (int i = 0; i < this.assignabilityIndexCapacity; i++) {
+            final long entry = 
+                this.buffer.getLong(this.assignabilityIndexOffset + slot * ASSIGNABILITY_ENTRY_SIZE);
+            if (entry == 0L) {
+                return AssignabilityCache.UNKNOWN;
+            }
+            if ((entry & ~ASSIGNABLE_BIT) == key) {
+                return ((entry & ASSIGNABLE_BIT) != 0L? 
+                        AssignabilityCache.ASSIGNABLE : AssignabilityCache.NOT_ASSIGNABLE);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return AssignabilityCache.UNKNOWN;
+        
+    }
+    
+    
+    
+    /*
+     * Entries depending on invalidated classes are stale from then on, and 
+     * every entry is bound again when needed.
+     */
+    void invalidate(final Set<Class<?>> classes) {
+        this.invalidatedClasses.addAll(classes);
+        for (int i = 0; i < this.classCount; i++) {
+            this.classes.set(i, null);
+        }
+        for (int i = 0; i < this.typeCount; i++) {
+            this.types.set(i, null);
+        }
+        this.boundTypeIndexes.clear();
+    }
+    
+    
+    
+    
+    private int indexOf(final Type<?> type) {
+        // Bound types are found without hashing their names
+        final Integer boundTypeIndex = this.boundTypeIndexes.get(type);
+        if (boundTypeIndex != null) {
+            return boundTypeIndex.intValue();
+        }
+        final int typeIndex = findType(type.getName());
+        return (typeIndex >= 0 && bindType(typeIndex) == type? typeIndex : -1);
+    }
+    
+    
+    
+    private int findType(final String typeName) {
+        final int mask = this.nameIndexCapacity - 1;
+        final long nameHash = hash(typeName);
+        int slot = indexFor(nameHash) & mask;
+        for (int i = 0; i < this.nameIndexCapacity; i++) {
+            final int entryOffset = this.nameIndexOffset + slot * NAME_ENTRY_SIZE;
+            final int typeIndex = this.buffer.getInt(entryOffset + 8) - 1;
+            if (typeIndex < 0) {
+                return -1;
+            }
+            if (this.buffer.getLong(entryOffset) == nameHash && typeIndex < this.typeCount) {
+                return typeIndex;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    
+    
+    private Type<?> bindType(final int typeIndex) {
+        Object type = this.types.get(typeIndex);
+        if (type == null) {
+            try {
+                type = readType(typeIndex);
+            } catch (RuntimeException e) {
+                // Corrupt entry
+                type = STALE;
+            }
+            this.types.set(typeIndex, type);
+            if (type != STALE) {
+                this.boundTypeIndexes.put((Type<?>) type, Integer.valueOf(typeIndex));
+            }
+        }
+        return (type == STALE? null : (Type<?>) type);
+    }
+    
+    
+    
+    private Object readType(final int typeIndex) {
+        
+        int position = getTypeRecordOffset(typeIndex);
+        final long fingerprint = this.buffer.getLong(position);
+        final Class<?> componentClass = bindClass(this.buffer.getInt(position + 8));
+        if (componentClass == null) {
+            return STALE;
+        }
+        final int arrayDimensions = this.buffer.getInt(position + 12);
+        final boolean validated = (this.buffer.get(position + 16) != 0);
+        final int typeParameterCount = this.buffer.getInt(position + 17);
+        position += TYPE_RECORD_HEADER_SIZE;
+        
+        final TypeParameter<?>[] typeParameters = new TypeParameter<?>[typeParameterCount];
+        for (int i = 0; i < typeParameterCount; i++) {
+            final byte kind = this.buffer.get(position);
+            if (kind == KIND_WILDCARD) {
+                typeParameters[i] = WildcardTypeParameter.UNKNOWN;
+            } else {
+                final Type<?> parameterType = bindType(this.buffer.getInt(position + 1));
+                if (parameterType == null) {
+                    return STALE;
+                }
+                if (kind == KIND_STANDARD) {
+                    typeParameters[i] = TypeParameters.forType(parameterType);
+                } else if (kind == KIND_EXTENDS) {
+                    typeParameters[i] = TypeParameters.forExtendsType(parameterType);
+                } else if (kind == KIND_SUPER) {
+                    typeParameters[i] = TypeParameters.forSuperType(parameterType);
+                } else {
+                    return STALE;
+                }
+            }
+            position += 5;
+        }
+        
+        final Type<?> type = 
+            (validated?
+                    this.typeRegistry.getValidatedType(componentClass, typeParameters, arrayDimensions) :
+                    this.typeRegistry.getTypeWithoutValidation(componentClass, typeParameters, arrayDimensions));
+        return (fingerprint == type.getFingerprint()? type : STALE);
+        
+    }
+    
+    
+    
+    private int skipTypeParameters(final int recordOffset) {
+        return recordOffset + TYPE_RECORD_HEADER_SIZE + this.buffer.getInt(recordOffset + 17) * 5;
+    }
+    
+    
+    
+    private int getTypeRecordOffset(final int typeIndex) {
+        return this.buffer.getInt(this.typeTableOffset + typeIndex * 4);
+    }
+    
+    
+    
+    private Class<?> bindClass(final int classIndex) {
+        Object typeClass = this.classes.get(classIndex);
+        if (typeClass == null) {
+            typeClass = readClass(classIndex);
+            this.classes.set(classIndex, typeClass);
+        }
+        return (typeClass == STALE? null : (Class<?>) typeClass);
+    }
+    
+    
+    
+    private Object readClass(final int classIndex) {
+        
+        final int entryOffset = this.classTableOffset + classIndex * CLASS_ENTRY_SIZE;
+        final String className = readString(this.buffer.getInt(entryOffset));
+        final long identity = this.buffer.getLong(entryOffset + 4);
+        
+        final Class<?> typeClass;
+        try {
+            typeClass = Class.forName(className, false, this.classLoader);
+        } catch (ClassNotFoundException e) {
+            return STALE;
+        } catch (LinkageError e) {
+            return STALE;
+        }
+        if (this.invalidatedClasses.contains(typeClass) || 
+                identity != computeIdentity(this.typeRegistry, typeClass)) {
+            return STALE;
+        }
+        return typeClass;
+        
+    }
+    
+    
+    
+    private String readString(final int offset) {
+        final int length = this.buffer.getInt(offset);
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(offset + 4 + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+    
+    
+    
+    
+    /*
+     * Exports the canonical types of the default partition (the ones whose
+     * classes can be resolved by name with the specified class loader), 
+     * computing the types extended by them if needed.
+     */
+    static void write(final TypeRegistry typeRegistry, final ClassLoader classLoader,
+            final OutputStream outputStream) throws IOException {
+        
+        final List<Type<?>> canonicalTypes = 
+            typeRegistry.getPartition((ClassLoader) null).getCanonicalTypes();
+        write(typeRegistry, classLoader, canonicalTypes, outputStream);
+        
+    }
+    
+    
+    /*
+     * Only the specified types (and those they depend on, or extend) are
+     * written. They must belong to the default partition.
+     */
+    static void write(final TypeRegistry typeRegistry, final ClassLoader classLoader,
+            final List<Type<?>> types, final OutputStream outputStream) throws IOException {
+        
+        final SnapshotWriter writer = new SnapshotWriter(typeRegistry, classLoader);
+        writer.write(types, outputStream);
+        
+    }
+    
+    
+    
+    
+    /*
+     * Zero means that the identity of the class cannot be computed, because
+     * the class file of the class (or of one of its dependencies) cannot be
+     * read. Such classes are never exported.
+     */
+    static long computeIdentity(final TypeRegistry typeRegistry, final Class<?> typeClass) {
+        if (typeClass.isPrimitive() || typeClass.getClassLoader() == null) {
+            // Bootstrap classes can only depend on other bootstrap classes,
+            // so the runtime version identifies their whole closure
+            return classFileHashes.get(typeClass).longValue();
+        }
+        final Class<?>[] dependencies = 
+            typeRegistry.getClassDependencies().getDependencies(typeClass);
+        long identity = 0L;
+        for (int i = 0; i < dependencies.length; i++) {
+            final long classFileHash = classFileHashes.get(dependencies[i]).longValue();
+            if (classFileHash == 0L) {
+                return 0L;
+            }
+            // Addition, so that the order of the dependencies is irrelevant
+            identity += mix(classFileHash);
+        }
+        return (identity == 0L? 1L : identity);
+    }
+    
+    
+    
+    private static long computeClassFileHash(final Class<?> typeClass) {
+        
+        if (typeClass.isPrimitive() || typeClass.getClassLoader() == null) {
+            return mix(RUNTIME_HASH ^ hash(typeClass.getName()));
+        }
+        final String resourceName = 
+            "/" + typeClass.getName().replace('.', '/') + ".class";
+        try {
+            final InputStream inputStream = typeClass.getResourceAsStream(resourceName);
+            if (inputStream == null) {
+                return 0L;
+            }
+            try {
+                long hash = FNV_OFFSET_BASIS;
+                final byte[] bytes = new byte[4096];
+                int read = inputStream.read(bytes);
+                while (read >= 0) {
+                    for (int i = 0; i < read; i++) {
+                        hash = (hash ^ (bytes[i] & 0xff)) * FNV_PRIME;
+                    }
+                    read = inputStream.read(bytes);
+                }
+                return (hash == 0L? 1L : hash);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            return 0L;
+        } catch (SecurityException e) {
+            return 0L;
+        }
+        
+    }
+    
+    
+    
+    private static long hash(final String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+    
+    
+    
+    private static long mix(final long value) {
+        long hash = value;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+    
+    
+    
+    private static int indexFor(final long key) {
+        return (int) mix(key);
+    }
+    
+    
+    
+    private static long packAssignability(final int typeIndex, final int fromTypeIndex) {
+        return OCCUPIED_BIT | ((long) typeIndex << 32) | fromTypeIndex;
+    }
+    
+    
+    
+    private static final class SnapshotWriter {
+        
+        private final TypeRegistry typeRegistry;
+        private final ClassLoader classLoader;
+        
+        private final List<Type<?>> types = new ArrayList<Type<?>>();
+        private final Map<Type<?>,Integer> typeIndexes = new HashMap<Type<?>, Integer>();
+        private final List<Class<?>> classes = new ArrayList<Class<?>>();
+        private final Map<Class<?>,Integer> classIndexes = new HashMap<Class<?>, Integer>();
+        private final Map<Class<?>,Long> classIdentities = new HashMap<Class<?>, Long>();
+        
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+        private final Map<String,Integer> stringOffsets = new HashMap<String, Integer>();
+        
+        SnapshotWriter(final TypeRegistry typeRegistry, final ClassLoader classLoader) {
+            super();
+            this.typeRegistry = typeRegistry;
+            this.classLoader = classLoader;
+        }
+        
+        
+        void write(final List<Type<?>> exportedTypes, final OutputStream outputStream) 
+                throws IOException {
+            
+            for (int i = 0; i < exportedTypes.size(); i++) {
+                indexType(exportedTypes.get(i));
+            }
+            // Computing extended types might add new types to the list
+            final List<Set<Type<?>>> extendedTypes = new ArrayList<Set<Type<?>>>();
+            for (int i = 0; i < this.types.size(); i++) {
+                final Set<Type<?>> typeExtendedTypes = 
+                    this.typeRegistry.getExtendedTypes(this.types.get(i));
+                final Type<?>[] typeExtendedTypesArray = 
+                    typeExtendedTypes.toArray(new Type<?>[typeExtendedTypes.size()]);
+                boolean exported = true;
+                for (int j = 0; j < typeExtendedTypesArray.length; j++) {
+                    exported &= (indexType(typeExtendedTypesArray[j]) >= 0);
+                }
+                extendedTypes.add(exported? typeExtendedTypes : null);
+            }
+            
+            // Strings go first, so that every record knows their offsets
+            for (int i = 0; i < this.classes.size(); i++) {
+                writeString(this.classes.get(i).getName());
+            }
+            
+            final int classTableOffset = offset();
+            for (int i = 0; i < this.classes.size(); i++) {
+                final Class<?> typeClass = this.classes.get(i);
+                this.out.writeInt(this.stringOffsets.get(typeClass.getName()).intValue());
+                this.out.writeLong(this.classIdentities.get(typeClass).longValue());
+            }
+            
+            final int[] typeRecordOffsets = new int[this.types.size()];
+            for (int i = 0; i < this.types.size(); i++) {
+                typeRecordOffsets[i] = offset();
+                writeTypeRecord(this.types.get(i), extendedTypes.get(i));
+            }
+            final int typeTableOffset = offset();
+            for (int i = 0; i < typeRecordOffsets.length; i++) {
+                this.out.writeInt(typeRecordOffsets[i]);
+            }
+            
+            // Besides their canonical names, types are indexed by the 
+            // names they have been asked for (like "List<String>") through 
+            // the snapshot's class loader
+            final TypeRegistryPartition partition = 
+                this.typeRegistry.getPartition(this.classLoader);
+            final Map<String,Integer> names = new LinkedHashMap<String, Integer>();
+            final int[] nestingDepths = computeNestingDepths();
+            for (int i = 0; i < this.types.size(); i++) {
+                if (nestingDepths[i] <= MAX_INDEXED_NESTING_DEPTH) {
+                    names.put(this.types.get(i).getName(), Integer.valueOf(i));
+                }
+            }
+            final Iterator<Map.Entry<String,Type<?>>> typesByNamesIter = 
+                partition.getTypesByNames(this.classLoader).entrySet().iterator();
+            while (typesByNamesIter.hasNext()) {
+                final Map.Entry<String,Type<?>> typeByName = typesByNamesIter.next();
+                final Integer typeIndex = this.typeIndexes.get(typeByName.getValue());
+                if (typeIndex != null && typeIndex.intValue() >= 0 && 
+                        !names.containsKey(typeByName.getKey())) {
+                    names.put(typeByName.getKey(), typeIndex);
+                }
+            }
+            final int nameIndexCapacity = capacityFor(names.size());
+            final long[] nameHashes = new long[nameIndexCapacity];
+            final int[] nameTypeIndexes = new int[nameIndexCapacity];
+            final Iterator<Map.Entry<String,Integer>> namesIter = names.entrySet().iterator();
+            while (namesIter.hasNext()) {
+                final Map.Entry<String,Integer> name = namesIter.next();
+                final long nameHash = hash(name.getKey());
+                int slot = indexFor(nameHash) & (nameIndexCapacity - 1);
+                while (nameTypeIndexes[slot] != 0) {
+                    slot = (slot + 1) & (nameIndexCapacity - 1);
+                }
+                nameHashes[slot] = nameHash;
+                nameTypeIndexes[slot] = name.getValue().intValue() + 1;
+            }
+            final int nameIndexOffset = offset();
+            for (int i = 0; i < nameIndexCapacity; i++) {
+                this.out.writeLong(nameHashes[i]);
+                this.out.writeInt(nameTypeIndexes[i]);
+            }
+            
+            final long[] assignabilityEntries = collectAssignabilities();
+            final int assignabilityIndexCapacity = capacityFor(assignabilityEntries.length);
+            final long[] assignabilityIndex = new long[assignabilityIndexCapacity];
+            for (int i = 0; i < assignabilityEntries.length; i++) {
+                int slot = indexFor(assignabilityEntries[i] & ~ASSIGNABLE_BIT) & (assignabilityIndexCapacity - 1);
+                while (assignabilityIndex[slot] != 0L) {
+                    slot = (slot + 1) & (assignabilityIndexCapacity - 1);
+                }
+                assignabilityIndex[slot] = assignabilityEntries[i];
+            }
+            final int assignabilityIndexOffset = offset();
+            for (int i = 0; i < assignabilityIndexCapacity; i++) {
+                this.out.writeLong(assignabilityIndex[i]);
+            }
+            this.out.flush();
+            
+            final DataOutputStream fileOut = new DataOutputStream(outputStream);
+            fileOut.writeInt(MAGIC);
+            fileOut.writeInt(VERSION);
+            fileOut.writeInt(this.classes.size());
+            fileOut.writeInt(classTableOffset);
+            fileOut.writeInt(this.types.size());
+            fileOut.writeInt(typeTableOffset);
+            fileOut.writeInt(nameIndexCapacity);
+            fileOut.writeInt(nameIndexOffset);
+            fileOut.writeInt(assignabilityIndexCapacity);
+            fileOut.writeInt(assignabilityIndexOffset);
+            this.bytes.writeTo(fileOut);
+            fileOut.flush();
+            
+        }
+        
+        
+        /*
+         * Returns -1 if the type cannot be exported, because one of its 
+         * classes cannot be resolved by name or its identity cannot be 
+         * computed.
+         */
+        private int indexType(final Type<?> type) {
+            final Integer typeIndex = this.typeIndexes.get(type);
+            if (typeIndex != null) {
+                return typeIndex.intValue();
+            }
+            boolean exportable = (indexClass(type.getComponentClass()) >= 0);
+            final TypeParameter<?>[] typeParameters = type.getTypeParametersArray();
+            for (int i = 0; exportable && i < typeParameters.length; i++) {
+                exportable = 
+                    (typeParameters[i] instanceof WildcardTypeParameter || 
+                            indexType(typeParameters[i].getType()) >= 0);
+            }
+            int index = -1;
+            if (exportable) {
+                // Type parameters have been indexed before the type
+                index = this.types.size();
+                this.types.add(type);
+            }
+            this.typeIndexes.put(type, Integer.valueOf(index));
+            return index;
+        }
+        
+        
+        private int indexClass(final Class<?> typeClass) {
+            final Integer classIndex = this.classIndexes.get(typeClass);
+            if (classIndex != null) {
+                return classIndex.intValue();
+            }
+            int index = -1;
+            final long identity = computeIdentity(this.typeRegistry, typeClass);
+            if (identity != 0L && isResolvable(typeClass)) {
+                index = this.classes.size();
+                this.classes.add(typeClass);
+                this.classIdentities.put(typeClass, Long.valueOf(identity));
+            }
+            this.classIndexes.put(typeClass, Integer.valueOf(index));
+            return index;
+        }
+        
+        
+        private boolean isResolvable(final Class<?> typeClass) {
+            try {
+                return (Class.forName(typeClass.getName(), false, this.classLoader) == typeClass);
+            } catch (ClassNotFoundException e) {
+                return false;
+            } catch (LinkageError e) {
+                return false;
+            }
+        }
+        
+        
+        /*
+         * Type parameters are always indexed before the types containing
+         * them, so depths can be computed in a single pass.
+         */
+        private int[] computeNestingDepths() {
+            final int[] nestingDepths = new int[this.types.size()];
+            for (int i = 0; i < nestingDepths.length; i++) {
+                final TypeParameter<?>[] typeParameters = this.types.get(i).getTypeParametersArray();
+                for (int j = 0; j < typeParameters.length; j++) {
+                    if (!(typeParameters[j] instanceof WildcardTypeParameter)) {
+                        final int parameterTypeIndex = 
+                            this.typeIndexes.get(typeParameters[j].getType()).intValue();
+                        nestingDepths[i] = 
+                            Math.max(nestingDepths[i], nestingDepths[parameterTypeIndex] + 1);
+                    }
+                }
+            }
+            return nestingDepths;
+        }
+        
+        
+        private long[] collectAssignabilities() {
+            
+            final Map<Integer,Type<?>> typesById = new HashMap<Integer, Type<?>>();
+            for (int i = 0; i < this.types.size(); i++) {
+                typesById.put(Integer.valueOf(this.types.get(i).getId()), this.types.get(i));
+            }
+            final Set<Long> entries = new HashSet<Long>();
+            
+            final long[] cacheEntries = this.typeRegistry.getAssignabilityCache().getEntries();
+            for (int i = 0; i < cacheEntries.length; i++) {
+                final Type<?> type = 
+                    typesById.get(Integer.valueOf(AssignabilityCache.getTypeId(cacheEntries[i])));
+                final Type<?> fromType = 
+                    typesById.get(Integer.valueOf(AssignabilityCache.getFromTypeId(cacheEntries[i])));
+                if (type != null && fromType != null) {
+                    addAssignability(entries, type, fromType, 
+                            AssignabilityCache.isAssignable(cacheEntries[i]));
+                }
+            }
+            // Precomputed assignabilities
+            for (int i = 0; i < this.types.size(); i++) {
+                final Type<?> fromType = this.types.get(i);
+                final AssignabilityRow row = fromType.getAssignabilities();
+                for (int j = 0; j < this.types.size(); j++) {
+                    final Type<?> type = this.types.get(j);
+                    if (row.isKnown(type.getId())) {
+                        addAssignability(entries, type, fromType, row.isAssignable(type.getId()));
+                    }
+                }
+            }
+            
+            final long[] result = new long[entries.size()];
+            final Iterator<Long> entriesIter = entries.iterator();
+            for (int i = 0; i < result.length; i++) {
+                result[i] = entriesIter.next().longValue();
+            }
+            return result;
+            
+        }
+        
+        
+        private void addAssignability(final Set<Long> entries, 
+                final Type<?> type, final Type<?> fromType, final boolean assignable) {
+            final long key = 
+                packAssignability(
+                        this.typeIndexes.get(type).intValue(), 
+                        this.typeIndexes.get(fromType).intValue());
+            entries.add(Long.valueOf(assignable? key | ASSIGNABLE_BIT : key));
+        }
+        
+        
+        private void writeTypeRecord(final Type<?> type, final Set<Type<?>> extendedTypes) 
+                throws IOException {
+            this.out.writeLong(type.getFingerprint());
+            this.out.writeInt(this.classIndexes.get(type.getComponentClass()).intValue());
+            this.out.writeInt(type.getArrayDimensions());
+            this.out.writeByte(type.isValidated()? 1 : 0);
+            final TypeParameter<?>[] typeParameters = type.getTypeParametersArray();
+            this.out.writeInt(typeParameters.length);
+            for (int i = 0; i < typeParameters.length; i++) {
+                final TypeParameter<?> typeParameter = typeParameters[i];
+                if (typeParameter instanceof WildcardTypeParameter) {
+                    this.out.writeByte(KIND_WILDCARD);
+                    this.out.writeInt(-1);
+                } else {
+                    this.out.writeByte(
+                            typeParameter instanceof ExtendsTypeParameter<?>? KIND_EXTENDS :
+                            typeParameter instanceof SuperTypeParameter<?>? KIND_SUPER : KIND_STANDARD);
+                    this.out.writeInt(this.typeIndexes.get(typeParameter.getType()).intValue());
+                }
+            }
+            if (extendedTypes == null) {
+                this.out.writeInt(-1);
+            } else {
+                this.out.writeInt(extendedTypes.size());
+                final Type<?>[] extendedTypesArray = 
+                    extendedTypes.toArray(new Type<?>[extendedTypes.size()]);
+                for (int i = 0; i < extendedTypesArray.length; i++) {
+                    this.out.writeInt(this.typeIndexes.get(extendedTypesArray[i]).intValue());
+                }
+            }
+        }
+        
+        
+        private void writeString(final String value) throws IOException {
+            if (this.stringOffsets.containsKey(value)) {
+                return;
+            }
+            this.stringOffsets.put(value, Integer.valueOf(offset()));
+            final byte[] valueBytes = value.getBytes(UTF_8);
+            this.out.writeInt(valueBytes.length);
+            this.out.write(valueBytes);
+        }
+        
+        
+        private int offset() {
+            return HEADER_SIZE + this.out.size();
+        }
+        
+        
+        private static int capacityFor(final int count) {
+            int capacity = 16;
+            while (capacity < count * 2) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,187 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.javaruntype.util.Utils;
+
+/**
+ * <p>
+ * Export and loading of type registry snapshots, for starting up with the 
+ * type registry already populated.
+ * </p>
+ * <p>
+ * A snapshot contains the types known to the type registry (except those 
+ * of the class loaders with partitions of their own, see {@link Types}), 
+ * along with their validation, the types extended by each of them and the
+ * assignabilities computed between them. It is written to a versioned 
+ * binary file with {@link #export(OutputStream)}, and a later JVM can load
+ * it with {@link #load(File)}, which memory-maps the file and returns 
+ * immediately. Snapshot entries are then bound to the actual classes 
+ * lazily, the first time they are needed, and used instead of computing 
+ * their data again by means of reflection. Types can be looked up in a 
+ * snapshot by their canonical names, and also by the names they were 
+ * requested with (like <tt>List&lt;String&gt;</tt>) if these were still
+ * cached when exporting.
+ * </p>
+ * <p>
+ * Each class is stored in the snapshot along with a hash of its class file
+ * and those of the classes it depends on (superclasses, interfaces, 
+ * etc.), or of the version of the Java runtime for the classes of the Java
+ * platform. Entries for classes which no longer exist or which have changed
+ * are ignored, as are those affected by {@link Types#invalidate(Class...)}, 
+ * and their data is computed as usual. Classes bound from a snapshot are
+ * not initialized.
+ * </p>
+ * <p>
+ * A snapshot can also be loaded at startup by setting the 
+ * <tt>org.javaruntype.snapshot</tt> system property to the name of the file
+ * (if the file exists and is a valid snapshot).
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public final class TypeSnapshots {
+
+    /**
+     * <p>
+     * Name of the system property which can be set to the name of a 
+     * snapshot file to be loaded at startup.
+     * </p>
+     */
+    public static final String SNAPSHOT_PROPERTY = "org.javaruntype.snapshot";
+    
+    
+    
+    
+    /**
+     * <p>
+     * Writes a snapshot of the current state of the type registry. Only 
+     * types whose classes can be resolved by name with the thread context 
+     * class loader are included. The stream is not closed.
+     * </p>
+     * 
+     * @param outputStream the stream to which the snapshot will be written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void export(final OutputStream outputStream) throws IOException {
+        Utils.validateNotNull(outputStream, "Output stream cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        TypeSnapshot.write(typeRegistry, ClassNameResolver.getDefaultClassLoader(), outputStream);
+    }
+    
+    
+    /**
+     * <p>
+     * Loads a snapshot, resolving its classes with the thread context class 
+     * loader. It replaces any snapshot loaded before.
+     * </p>
+     * 
+     * @param file the snapshot file
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static void load(final File file) throws IOException {
+        load(file, ClassNameResolver.getDefaultClassLoader());
+    }
+    
+    
+    /**
+     * <p>
+     * Loads a snapshot, resolving its classes with the specified class loader. 
+     * It replaces any snapshot loaded before.
+     * </p>
+     * 
+     * @param file the snapshot file
+     * @param classLoader the class loader to be used for resolving classes
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static void load(final File file, final ClassLoader classLoader) throws IOException {
+        Utils.validateNotNull(file, "File cannot be null");
+        Utils.validateNotNull(classLoader, "Class loader cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        typeRegistry.setSnapshot(TypeSnapshot.load(file, typeRegistry, classLoader));
+    }
+    
+    
+    /**
+     * <p>
+     * Stops using the loaded snapshot, if any. Data already taken from it 
+     * stays in the type registry.
+     * </p>
+     */
+    public static void unload() {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        typeRegistry.setSnapshot(null);
+    }
+    
+    
+    /**
+     * <p>
+     * Returns whether a snapshot is loaded.
+     * </p>
+     * 
+     * @return true if a snapshot is loaded, false if not
+     */
+    public static boolean isLoaded() {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return (typeRegistry.getSnapshot() != null);
+    }
+    
+    
+    
+    
+    /*
+     * Called once, when the type registry is initialized. Invalid snapshots
+     * are ignored, as in the rest of system property based configuration.
+     */
+    static void applySystemProperties(final TypeRegistry typeRegistry) {
+        
+        try {
+            final String snapshotFileName = System.getProperty(SNAPSHOT_PROPERTY);
+            if (snapshotFileName != null) {
+                final File snapshotFile = new File(snapshotFileName);
+                if (snapshotFile.isFile()) {
+                    typeRegistry.setSnapshot(
+                            TypeSnapshot.load(snapshotFile, typeRegistry, 
+                                    ClassNameResolver.getDefaultClassLoader()));
+                }
+            }
+        } catch (IOException e) {
+            // The snapshot is ignored
+        } catch (SecurityException e) {
+            // The snapshot is ignored
+        }
+        
+    }
+    
+    
+    
+    
+    private TypeSnapshots() {
+        super();
+    }
+    
+}
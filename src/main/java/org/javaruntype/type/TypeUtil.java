@@ -33,14 +33,8 @@
 import java.util.Map;
 import java.util.Set;
 
-import org.antlr.runtime.ANTLRStringStream;
-import org.antlr.runtime.CommonTokenStream;
-import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 import org.javaruntype.exceptions.TypeRecognitionException;
 import org.javaruntype.exceptions.TypeValidationException;
-import org.javaruntype.type.parser.TypeLexer;
-import org.javaruntype.type.parser.TypeParser;
 import org.javaruntype.typedef.BoundedTypeDefVariable;
 import org.javaruntype.typedef.InnerClassTypeDefVariable;
 import org.javaruntype.typedef.InnerNamedTypeDefVariable;
@@ -66,26 +60,28 @@
  */
 final class TypeUtil {
     
+    // Part of the fingerprint format: must never change
+    private static final long FINGERPRINT_STANDARD = 1L;
+    private static final long FINGERPRINT_EXTENDS = 2L;
+    private static final long FINGERPRINT_SUPER = 3L;
+    private static final long FINGERPRINT_WILDCARD = 4L;
     
     
-    static Type<?> forName(final String typeName) {
+    
+    static Type<?> forName(final String typeName, final ClassLoader classLoader,
+            final boolean initialize) {
 
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        final Type<?> snapshotType = typeRegistry.getSnapshotType(typeName, classLoader);
+        if (snapshotType != null) {
+            return snapshotType;
+        }
+        
         try {
             
-            final String parsedTypeName = 
-                (typeName.startsWith("class "))?
-                        typeName.substring("class ".length()) :
-                        (typeName.startsWith("interface "))?
-                                typeName.substring("interface ".length()) :
-                                typeName; 
-            
-            final TypeLexer lex = new TypeLexer(new ANTLRStringStream(parsedTypeName));
-            final CommonTokenStream tokens = new CommonTokenStream(lex);
-
-            final TypeParser parser = new TypeParser(tokens);
-
-            final CommonTree tree = (CommonTree) parser.type().getTree();
-            return createTypeFromTree(tree);
+            final TypeNameParser parser = 
+                new TypeNameParser(removeTypeKeyword(typeName), classLoader, false, initialize);
+            return parser.parse();
             
         } catch (Exception e) {
             throw new TypeRecognitionException(typeName, e);
@@ -95,96 +91,39 @@ static Type<?> forName(final String typeName) {
     
     
     
-    @SuppressWarnings("unchecked")
-    private static Type<?> createTypeFromTree(final Tree tree) 
-            throws ClassNotFoundException {
-
-        if (tree.getType() != TypeLexer.CLASSNAME) {
-            throw new TypeRecognitionException(
-                    "A class name was expected (was: " + tree.getType() + ")");
-        }
+    static Type<?> tryForName(final String typeName, final ClassLoader classLoader,
+            final boolean initialize) {
 
-        final String className = tree.getText();
-        Class<?> typeClass = null;
-        try {
-            typeClass = Utils.getClass(className);
-        } catch (ClassNotFoundException e1) {
-            try {
-                typeClass = Utils.getClass(TypeNaming.TYPE_PACKAGE_LANG + className);
-            } catch (ClassNotFoundException e2) {
-                try {
-                    typeClass = Utils.getClass(TypeNaming.TYPE_PACKAGE_UTIL + className);
-                } catch (ClassNotFoundException e3) {
-                    try {
-                        typeClass = Utils.getClass(TypeNaming.TYPE_PACKAGE_IO + className);
-                    } catch (ClassNotFoundException e4) {
-                        try {
-                            typeClass = Utils.getClass(TypeNaming.TYPE_PACKAGE_MATH + className);
-                        } catch (ClassNotFoundException e5) {
-                            throw new ClassNotFoundException(className);
-                        }
-                    }
-                }
-            }
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        final Type<?> snapshotType = typeRegistry.getSnapshotType(typeName, classLoader);
+        if (snapshotType != null) {
+            return snapshotType;
         }
         
-        final List<TypeParameter<?>> typeParameters = new LinkedList<TypeParameter<?>>();
-        int arrayDimensions = 0;
-        
-        for (int i = 0; i < tree.getChildCount(); i++) {
-                
-            final Tree child = tree.getChild(i);
+        try {
             
-            if (child.getType() == TypeLexer.ARRAY) {
-                
-                arrayDimensions++;
-                
-            } else {
-                
-                switch (child.getType()) {
-                
-                    case TypeLexer.UNKNOWN:
-                        typeParameters.add(WildcardTypeParameter.UNKNOWN); 
-                        break;
-                        
-                    case TypeLexer.EXT:
-                        Type<?> extendedType = createTypeFromTree(child.getChild(0));
-                        typeParameters.add(new ExtendsTypeParameter<Object>((Type<Object>) extendedType));
-                        break;
-                        
-                    case TypeLexer.SUP:
-                        Type<?> superType = createTypeFromTree(child.getChild(0));
-                        typeParameters.add(new SuperTypeParameter<Object>((Type<Object>) superType));
-                        break;
-                        
-                    default:
-                        Type<?> type = createTypeFromTree(child);
-                        typeParameters.add(new StandardTypeParameter<Object>((Type<Object>) type));
-                
-                }
-                
-            }
-        
-        }
-        
-        // Maybe the type has been specified as raw without the wildcards
-        if (typeParameters.size() == 0) {
-            for (int i = 0; i < typeClass.getTypeParameters().length; i++) {
-                typeParameters.add(WildcardTypeParameter.UNKNOWN);
-            }
+            final TypeNameParser parser = 
+                new TypeNameParser(removeTypeKeyword(typeName), classLoader, true, initialize);
+            return parser.parse();
+            
+        } catch (ClassNotFoundException e) {
+            // Cannot happen: the parser resolves classes silently
+            return null;
         }
         
-        final TypeParameter[] typeParametersArray = 
-            typeParameters.toArray(new TypeParameter[typeParameters.size()]);
-        
-        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
-
-        return typeRegistry.getType(typeClass, typeParametersArray, arrayDimensions);
-        
     }
     
     
     
+    private static String removeTypeKeyword(final String typeName) {
+        return (typeName.startsWith("class "))?
+                    typeName.substring("class ".length()) :
+                    (typeName.startsWith("interface "))?
+                            typeName.substring("interface ".length()) :
+                            typeName; 
+    }
+    
+    
     
     static Class<?> computeRawClass(
             final Class<?> componentClass, final int arrayDimensions) {
@@ -198,41 +137,113 @@ static Class<?> computeRawClass(
     
     
     
+    /*
+     * Names are built into a single buffer, reusing the names of parameter 
+     * types only if they have already been computed, so that building the 
+     * name of a deeply nested type is linear in its length. Names are not
+     * interned.
+     */
     static String createName(final Class<?> componentClass, 
             final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
         
         final StringBuilder strBuilder = new StringBuilder();
         strBuilder.append(componentClass.getName());
-        if (typeParameters.length > 0) {
-            strBuilder.append(TypeNaming.TYPE_NAME_PARAMETERS_START);
-            strBuilder.append(
-                    Utils.join(typeParameters, TypeNaming.TYPE_NAME_PARAMETERS_SEPARATOR));
-            strBuilder.append(TypeNaming.TYPE_NAME_PARAMETERS_END);
-        }
-        for (int i = 0; i < arrayDimensions; i++) {
-            strBuilder.append(TypeNaming.TYPE_NAME_ARRAY);
-        }
-        return strBuilder.toString().intern();
+        appendTypeParametersAndArrayDimensions(strBuilder, typeParameters, arrayDimensions);
+        return strBuilder.toString();
         
     }
     
     
     
+    /*
+     * Only the component class is named by its simple name: parameters are
+     * named by their full names.
+     */
     static String createSimpleName(final Class<?> componentClass, 
             final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
         
         final StringBuilder strBuilder = new StringBuilder();
         strBuilder.append(componentClass.getSimpleName());
+        appendTypeParametersAndArrayDimensions(strBuilder, typeParameters, arrayDimensions);
+        return strBuilder.toString();
+        
+    }
+    
+    
+    
+    private static void appendName(final StringBuilder strBuilder, final Type<?> type) {
+        
+        final String name = type.getComputedName();
+        if (name != null) {
+            strBuilder.append(name);
+            return;
+        }
+        strBuilder.append(type.getComponentClass().getName());
+        appendTypeParametersAndArrayDimensions(
+                strBuilder, type.getTypeParametersArray(), type.getArrayDimensions());
+        
+    }
+    
+    
+    
+    private static void appendTypeParametersAndArrayDimensions(final StringBuilder strBuilder, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+        
         if (typeParameters.length > 0) {
             strBuilder.append(TypeNaming.TYPE_NAME_PARAMETERS_START);
-            strBuilder.append(
-                    Utils.join(typeParameters, TypeNaming.TYPE_NAME_PARAMETERS_SEPARATOR));
+            for (int i = 0; i < typeParameters.length; i++) {
+                if (i > 0) {
+                    strBuilder.append(TypeNaming.TYPE_NAME_PARAMETERS_SEPARATOR);
+                }
+                final TypeParameter<?> typeParameter = typeParameters[i];
+                if (typeParameter instanceof WildcardTypeParameter) {
+                    strBuilder.append(typeParameter.toString());
+                } else {
+                    if (typeParameter instanceof ExtendsTypeParameter<?>) {
+                        strBuilder.append(TypeNaming.TYPE_NAME_EXTENDS);
+                    } else if (typeParameter instanceof SuperTypeParameter<?>) {
+                        strBuilder.append(TypeNaming.TYPE_NAME_SUPER);
+                    }
+                    appendName(strBuilder, typeParameter.getType());
+                }
+            }
             strBuilder.append(TypeNaming.TYPE_NAME_PARAMETERS_END);
         }
         for (int i = 0; i < arrayDimensions; i++) {
             strBuilder.append(TypeNaming.TYPE_NAME_ARRAY);
         }
-        return strBuilder.toString().intern();
+        
+    }
+    
+
+    
+    /*
+     * Fingerprints are computed only from class names, parameter kinds and
+     * array dimensions (in this order), so they are the same in every JVM.
+     * Parameter types are already canonical, with their fingerprints 
+     * computed.
+     */
+    static long computeFingerprint(final Class<?> componentClass, 
+            final TypeParameter<?>[] typeParameters, final int arrayDimensions) {
+        
+        long fingerprint = Utils.fingerprint(componentClass.getName());
+        fingerprint = Utils.combineFingerprints(fingerprint, typeParameters.length);
+        for (int i = 0; i < typeParameters.length; i++) {
+            final TypeParameter<?> typeParameter = typeParameters[i];
+            if (typeParameter instanceof WildcardTypeParameter) {
+                fingerprint = Utils.combineFingerprints(fingerprint, FINGERPRINT_WILDCARD);
+            } else {
+                final long kind =
+                    (typeParameter instanceof StandardTypeParameter? 
+                            FINGERPRINT_STANDARD :
+                            (typeParameter instanceof ExtendsTypeParameter? 
+                                    FINGERPRINT_EXTENDS : FINGERPRINT_SUPER));
+                fingerprint = Utils.combineFingerprints(fingerprint, kind);
+                fingerprint = 
+                    Utils.combineFingerprints(fingerprint, typeParameter.getType().getFingerprint());
+            }
+        }
+        return Utils.combineFingerprints(fingerprint, arrayDimensions);
         
     }
     
@@ -270,8 +281,13 @@ static void validateTypeParameters(final Type<?> type) {
 
     
     
-    private static boolean isTypeParametersValid(final Type<?> type) {
+    static boolean isTypeParametersValid(final Type<?> type) {
 
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        if (typeRegistry.isValidatedBySnapshot(type)) {
+            return true;
+        }
+        
         final TypeDefVariable[] typeDefVariables = type.getTypeDef().getVariables();
         final TypeParameter<?>[] typeParameters = type.getTypeParametersArray();
         
@@ -648,6 +664,11 @@ static Set<Type<?>> getExtendedTypes(final Type<?> type) {
         
         final TypeRegistry typeRegistry = TypeRegistry.getInstance();
         
+        final Set<Type<?>> snapshotExtendedTypes = typeRegistry.getSnapshotExtendedTypes(type);
+        if (snapshotExtendedTypes != null) {
+            return snapshotExtendedTypes;
+        }
+        
         final Set<Type<?>> equivalenceSet = new HashSet<Type<?>>();
         
         if (Object.class.equals(type.getComponentClass())) {
@@ -666,20 +687,12 @@ static Set<Type<?>> getExtendedTypes(final Type<?> type) {
             equivalenceSet.add(typeRegistry.getRawTypeForClass(Object.class));
         }
 
-        final Class<?> componentClass = type.getComponentClass();
-        
-        final java.lang.reflect.Type superclassTypeDeclaration = 
-            componentClass.getGenericSuperclass();
-        if (superclassTypeDeclaration != null) {
-            final Type<?> superclassType = resolveExtendedTypeByDeclaration(type, superclassTypeDeclaration);
-            equivalenceSet.add(superclassType);
-            equivalenceSet.addAll(typeRegistry.getExtendedTypes(superclassType));
-        }
-        
-        for (java.lang.reflect.Type interfaceTypeDeclaration : componentClass.getGenericInterfaces()) {
-            final Type<?> interfaceType = resolveExtendedTypeByDeclaration(type, interfaceTypeDeclaration);
-            equivalenceSet.add(interfaceType);
-            equivalenceSet.addAll(typeRegistry.getExtendedTypes(interfaceType));
+        final SupertypeTemplate supertypeTemplate = 
+            typeRegistry.getSupertypeTemplate(type.getComponentClass());
+        for (int i = 0, n = supertypeTemplate.getSupertypeCount(); i < n; i++) {
+            final Type<?> supertype = supertypeTemplate.getSupertype(i, type);
+            equivalenceSet.add(supertype);
+            equivalenceSet.addAll(typeRegistry.getExtendedTypes(supertype));
         }
 
         return Collections.unmodifiableSet(equivalenceSet);
@@ -687,193 +700,6 @@ static Set<Type<?>> getExtendedTypes(final Type<?> type) {
     }
     
     
-    private static Type<?> resolveExtendedTypeByDeclaration(
-            final Type<?> originalType, final java.lang.reflect.Type typeDeclaration) {
-
-        final Map<String,TypeParameter<?>> typeParametersMap = 
-            new HashMap<String, TypeParameter<?>>();
-
-        Class<?> componentClass = null;
-        
-        if (typeDeclaration instanceof ParameterizedType) {
-            
-            /*
-             * If the declaration is for a parameterized type and its 
-             * declaration specifies values for its type parameters 
-             * (like "<T,F>"), we will add the corresponding TypeParameter<?> 
-             * objects to the type, using the own TypeParameter<?> objects of 
-             * the containing (original) class.
-             */
-
-            final ParameterizedType parameterizedTypeDeclaration = 
-                (ParameterizedType) typeDeclaration;
-
-            // Get the type argument declarations as they appear in the 
-            // original type (eg: "class Original implements Map<A,B>" -> 
-            // "[A,B]")
-            final java.lang.reflect.Type[] parameterizedTypeDeclarationArguments = 
-                parameterizedTypeDeclaration.getActualTypeArguments();
-            
-            componentClass = 
-                (Class<?>) parameterizedTypeDeclaration.getRawType();
-            
-            // Get the type arguments as they are declared in the type declared
-            // itself as argument of the original type (eg: "class Map<K,V>" ->
-            // "[K,V]") 
-            final TypeVariable<?>[] componentClassTypeParameters =
-                componentClass.getTypeParameters();
-            
-            for (int i = 0; i < parameterizedTypeDeclarationArguments.length; i++) {
-                
-                final TypeParameter<?> typeParameter = 
-                    resolveEquivalentTypeParameterByDeclaration(
-                            originalType, 
-                            parameterizedTypeDeclarationArguments[i], 0);
-
-                typeParametersMap.put(
-                        componentClassTypeParameters[i].getName(),
-                        typeParameter);
-                
-            }
-            
-        } else {
-
-            /*
-             * If the declaration is not parameterized, it can mean either that
-             * the type has no type parameters or that it has type parameters
-             * but these have not been specified (raw type).
-             * In the first case, the type class is simply set as component 
-             * class. In the second case, the type parameters are filled with
-             * wildcards (eg: "implements List" -> "implements List<?>").
-             */
-            
-            componentClass = (Class<?>) typeDeclaration;
-            
-            for (int i = 0; i < componentClass.getTypeParameters().length; i++) {
-                typeParametersMap.put(
-                        componentClass.getTypeParameters()[i].getName(), 
-                        WildcardTypeParameter.UNKNOWN);
-            }
-            
-        }
-
-        final TypeDef typeDef = TypeDefs.forClass(componentClass);
-        
-        final TypeParameter<?>[] typeParameters = 
-            new TypeParameter<?>[typeDef.getVariables().length];
-        for (int i = 0; i < typeDef.getVariables().length; i++) {
-            typeParameters[i] = 
-                typeParametersMap.get(typeDef.getVariables()[i].getVariableName());
-        }
-
-        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
-        return typeRegistry.getTypeWithoutValidation(
-                componentClass, typeParameters, originalType.getArrayDimensions());
-        
-    }
-    
-
-    
-    
-    
-    
-    @SuppressWarnings("unchecked")
-    private static TypeParameter<?> resolveEquivalentTypeParameterByDeclaration(
-            final Type<?> originalType, final java.lang.reflect.Type typeDeclaration,
-            final int arrayDimensions) {
-        
-        if (typeDeclaration instanceof TypeVariable<?>) {
-
-            /*
-             * The type argument is a variable, as in "List<E>"
-             */
-            
-            final String argumentName = ((TypeVariable<?>) typeDeclaration).getName();
-
-            // Return a type with the suitable array dimensions
-            final TypeParameter<?> typeParameter = 
-                originalType.getTypeParameterForVariable(argumentName);
-            
-            // For returning a TypeParameter<?>, we will have to make sure that
-            // the array dimensions of the type referred by the TypeParameter<?>
-            // correspond with the dimensions we are being requested plus
-            // the ones at the original type parameter. 
-            
-            if (typeParameter instanceof WildcardTypeParameter) {
-                
-                // If it is a wildcard, simply return it
-                return typeParameter;
-                
-            } 
-                
-            // If it is not a wildcard, we will extract the referred
-            // type and return the same type of TypeParameter<?>, but
-            // with the original arrayDimensions in the type plus
-            // the dimensions we are currently using.
-
-            if (arrayDimensions == 0) {
-                return typeParameter;
-            }
-            
-            final Type<?> containedType = typeParameter.getType();
-            final int newArrayDimensions = 
-                containedType.getArrayDimensions() + arrayDimensions;
-
-            final TypeRegistry typeRegistry = TypeRegistry.getInstance();
-            
-            final Type<?> newType = 
-                typeRegistry.getTypeWithoutValidation(
-                        containedType.getComponentClass(), 
-                        containedType.getTypeParametersArray(), 
-                        newArrayDimensions);
-            
-            if (typeParameter instanceof StandardTypeParameter<?>) {
-                return new StandardTypeParameter(newType);
-            } else if (typeParameter instanceof ExtendsTypeParameter<?>){
-                return new ExtendsTypeParameter(newType);
-            } else { // typeParameter instanceof SuperTypeParameter
-                return new SuperTypeParameter(newType);
-            }
-
-        } else if (typeDeclaration instanceof GenericArrayType) {
-
-            final GenericArrayType genericArrayType = 
-                (GenericArrayType) typeDeclaration;
-            
-            return resolveEquivalentTypeParameterByDeclaration(
-                    originalType, genericArrayType.getGenericComponentType(), 
-                    (arrayDimensions + 1));
-            
-        } else {
-
-            /*
-             * The type argument is a specific type, as in "List<String>"
-             * It could be parameterized ("List<Comparable<E>>") 
-             * or not ("List<String>")
-             */
-            
-            // We should propagate the new array dimensions
-            Type<?> baseType = originalType;
-            if (baseType.isArray()) {
-                TypeRegistry typeRegistry = TypeRegistry.getInstance();
-                baseType = 
-                    typeRegistry.getType(
-                        baseType.getComponentClass(),
-                        baseType.getTypeParametersArray(),
-                        arrayDimensions);
-            }
-            
-            // Create the appropiate type recursively
-            final Type<?> parameterizedTypeDeclarationArgumentType = 
-                resolveExtendedTypeByDeclaration(baseType, typeDeclaration);
-
-            return new StandardTypeParameter(parameterizedTypeDeclarationArgumentType);
-            
-        }
-        
-    }
-    
-    
     
     static Type<?> getTypeWithParameters(final Class<?> componentClass, final TypeParameter<?>... typeParameters) {
         int arrayDimensions = 0;
@@ -896,17 +722,29 @@ static boolean isAssignableFrom(final Type<?> type, final Type<?> fromType) {
         if (type.equals(fromType)) {
             return true;
         }
-        if (type.getComponentClass().equals(Object.class) &&
-            type.getArrayDimensions() <= fromType.getArrayDimensions()) {
-            return true;
+        if (type.getComponentClass().equals(Object.class)) {
+            // Object-based types are assignable from any type with at least 
+            // the same array dimensions, and from nothing else
+            return (type.getArrayDimensions() <= fromType.getArrayDimensions());
+        }
+        
+        // Every supertype of fromType which is not Object-based has the same 
+        // array dimensions as fromType and a component class assignable to
+        // the one of fromType, so if these do not match, no supertype can.
+        if (type.getArrayDimensions() != fromType.getArrayDimensions() ||
+                !type.getComponentClass().isAssignableFrom(fromType.getComponentClass())) {
+            return false;
         }
         if (isTypeAssignableFrom(type,fromType)) {
             return true;
         }
-        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
-        final Set<Type<?>> extendedTypes = typeRegistry.getExtendedTypes(fromType);
-        for (Type<?> extendedType : extendedTypes) {
-            if (isTypeAssignableFrom(type,extendedType)) {
+        
+        // Only walk the part of the hierarchy leading to the component class
+        // of type, and stop as soon as a match is found.
+        final SupertypeIterator supertypes = 
+            new SupertypeIterator(fromType, type.getComponentClass());
+        while (supertypes.hasNext()) {
+            if (isTypeAssignableFrom(type, supertypes.next())) {
                 return true;
             }
         }
@@ -953,27 +791,19 @@ public static TypeParameter<?> createFromJavaLangReflectTypeParameter(
             final Map<String,Type<?>> variableSubstitutions) {
 
         return createFromJavaLangReflectTypeParameter(originalType, type, variableSubstitutions,
-                new HashSet<TypeVariable<?>>());
+                new HashSet<TypeVariable<?>>(), false);
     }
     
     
     private static TypeParameter<?> createFromJavaLangReflectTypeParameter(
             final java.lang.reflect.Type originalType, final java.lang.reflect.Type type,
-            final Map<String, Type<?>> variableSubstitutions, final Set<TypeVariable<?>> validatedTypeVars) {
+            final Map<String, Type<?>> variableSubstitutions, final Set<TypeVariable<?>> validatedTypeVars,
+            final boolean silent) {
 
-        if (type instanceof Class<?>) {
-            return TypeParameters.forType(
-                    createFromJavaLangReflectType(originalType, type, variableSubstitutions, validatedTypeVars));
-        }
-        
-        if (type instanceof GenericArrayType) {
-            return TypeParameters.forType(
-                    createFromJavaLangReflectType(originalType, type, variableSubstitutions, validatedTypeVars));
-        }
-        
-        if (type instanceof ParameterizedType) {
-            return TypeParameters.forType(
-                    createFromJavaLangReflectType(originalType, type, variableSubstitutions, validatedTypeVars));
+        if (type instanceof Class<?> || type instanceof GenericArrayType || type instanceof ParameterizedType) {
+            final Type<?> parameterType =
+                    createFromJavaLangReflectType(originalType, type, variableSubstitutions, validatedTypeVars, silent);
+            return (parameterType == null? null : TypeParameters.forType(parameterType));
         }
         
         if (type instanceof TypeVariable<?>) {
@@ -984,6 +814,9 @@ private static TypeParameter<?> createFromJavaLangReflectTypeParameter(
             final Type<?> correspondingType = 
                 variableSubstitutions.get(typeVariable.getName());
             if (correspondingType == null) {
+                if (silent) {
+                    return null;
+                }
                 throw new TypeValidationException("No variable substitution established for variable " +
                      "\"" + typeVariable.getName() + "\" in type \"" + originalType + "\"");
             } else if (!validatedTypeVars.contains(typeVariable)) {
@@ -1000,8 +833,12 @@ private static TypeParameter<?> createFromJavaLangReflectTypeParameter(
              */ 
             for (java.lang.reflect.Type bound : bounds) {
                 final Type<?> boundType =
-                        createFromJavaLangReflectType(originalType, bound, variableSubstitutions, validatedTypeVars);
-                if (!boundType.isAssignableFrom(correspondingType)) {
+                        createFromJavaLangReflectType(originalType, bound, variableSubstitutions, validatedTypeVars,
+                                silent);
+                if (boundType == null || !boundType.isAssignableFrom(correspondingType)) {
+                    if (silent) {
+                        return null;
+                    }
                     throw new TypeValidationException("Variable substitution established for variable " +
                             "\"" + typeVariable.getName() + "\" in type \"" + originalType + "\" is " +
                             "\"" + correspondingType + "\", which does not conform to upper bound \"extends " +
@@ -1020,29 +857,40 @@ private static TypeParameter<?> createFromJavaLangReflectTypeParameter(
                 
                 final java.lang.reflect.Type[] lowerBounds = wildcardType.getLowerBounds();
                 if (lowerBounds.length > 1) {
+                    if (silent) {
+                        return null;
+                    }
                     throw new TypeValidationException("Type parameter \"" + type + "\" cannot " +
                             "have more than one bound at this point in type \"" + originalType + "\"");
                 }
-                return TypeParameters.forSuperType(
+                final Type<?> lowerBoundType = 
                         createFromJavaLangReflectType(originalType, lowerBounds[0], variableSubstitutions,
-                                validatedTypeVars));
+                                validatedTypeVars, silent);
+                return (lowerBoundType == null? null : TypeParameters.forSuperType(lowerBoundType));
                 
             } else if (wildcardType.getUpperBounds() != null && wildcardType.getUpperBounds().length > 0) {
                 
                 final java.lang.reflect.Type[] upperBounds = wildcardType.getUpperBounds();
                 if (upperBounds.length > 1) {
+                    if (silent) {
+                        return null;
+                    }
                     throw new TypeValidationException("Type parameter \"" + type + "\" cannot " +
                             "have more than one bound at this point in type \"" + originalType + "\"");
                 }
-                return TypeParameters.forExtendsType(
+                final Type<?> upperBoundType = 
                         createFromJavaLangReflectType(originalType, upperBounds[0], variableSubstitutions,
-                                validatedTypeVars));
+                                validatedTypeVars, silent);
+                return (upperBoundType == null? null : TypeParameters.forExtendsType(upperBoundType));
                 
             } else {
                 return TypeParameters.forUnknown();
             }
         }
         
+        if (silent) {
+            return null;
+        }
         throw new TypeValidationException("Specified \"" + type + "\" in type \"" + originalType +
                 "\" is of class \"" + type.getClass() + "\", which is " +
                 "not a recognized java.lang.reflect.Type implementation.");
@@ -1055,13 +903,27 @@ public static Type<?> createFromJavaLangReflectType(
             final Map<String,Type<?>> variableSubstitutions) {
 
         return createFromJavaLangReflectType(originalType, type, variableSubstitutions,
-                new HashSet<TypeVariable<?>>());
+                new HashSet<TypeVariable<?>>(), false);
+    }
+
+
+    /*
+     * Same as createFromJavaLangReflectType(...), but returning null instead of
+     * throwing an exception if the type cannot be created.
+     */
+    static Type<?> tryCreateFromJavaLangReflectType(
+            final java.lang.reflect.Type originalType, final java.lang.reflect.Type type,
+            final Map<String,Type<?>> variableSubstitutions) {
+
+        return createFromJavaLangReflectType(originalType, type, variableSubstitutions,
+                new HashSet<TypeVariable<?>>(), true);
     }
 
 
     private static Type<?> createFromJavaLangReflectType(
         final java.lang.reflect.Type originalType, final java.lang.reflect.Type type,
-        final Map<String, Type<?>> variableSubstitutions, final Set<TypeVariable<?>> validatedTypeVars) {
+        final Map<String, Type<?>> variableSubstitutions, final Set<TypeVariable<?>> validatedTypeVars,
+        final boolean silent) {
 
         if (type instanceof Class<?>) {
             
@@ -1075,9 +937,16 @@ private static Type<?> createFromJavaLangReflectType(
             final GenericArrayType genericArrayType = (GenericArrayType) type;
             final Type<?> componentType =
                     createFromJavaLangReflectType(originalType, genericArrayType.getGenericComponentType(),
-                            variableSubstitutions, validatedTypeVars);
+                            variableSubstitutions, validatedTypeVars, silent);
+            if (componentType == null) {
+                return null;
+            }
             
             final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+            if (silent) {
+                return typeRegistry.tryGetType(componentType.getComponentClass(), 
+                        componentType.getTypeParametersArray(), componentType.getArrayDimensions() + 1);
+            }
             return typeRegistry.getType(componentType.getComponentClass(), componentType.getTypeParametersArray(),
                     componentType.getArrayDimensions() + 1);
             
@@ -1092,13 +961,23 @@ private static Type<?> createFromJavaLangReflectType(
             for (int i = 0; i < actualTypeParameters.length; i++) {
                 typeParameters[i] =
                         createFromJavaLangReflectTypeParameter(originalType, actualTypeParameters[i],
-                                variableSubstitutions, validatedTypeVars);
+                                variableSubstitutions, validatedTypeVars, silent);
+                if (typeParameters[i] == null) {
+                    return null;
+                }
             }
             
             final Type<?> rawType = createFromJavaLangReflectType(originalType, parameterizedType.getRawType(),
-                    variableSubstitutions, validatedTypeVars);
+                    variableSubstitutions, validatedTypeVars, silent);
+            if (rawType == null) {
+                return null;
+            }
             
             final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+            if (silent) {
+                return typeRegistry.tryGetType(rawType.getComponentClass(), typeParameters, 
+                        rawType.getArrayDimensions());
+            }
             return typeRegistry.getType(rawType.getComponentClass(), typeParameters, rawType.getArrayDimensions());
             
         }
@@ -1111,6 +990,9 @@ private static Type<?> createFromJavaLangReflectType(
             final Type<?> correspondingType = 
                 variableSubstitutions.get(typeVariable.getName());
             if (correspondingType == null) {
+                if (silent) {
+                    return null;
+                }
                 throw new TypeValidationException("No variable substitution established for variable " +
                         "\"" + typeVariable.getName() + "\" in type \"" + originalType + "\"");
             } else if (!validatedTypeVars.contains(typeVariable)) {
@@ -1127,8 +1009,12 @@ private static Type<?> createFromJavaLangReflectType(
              */ 
             for (java.lang.reflect.Type bound : bounds) {
                 final Type<?> boundType =
-                        createFromJavaLangReflectType(originalType, bound, variableSubstitutions, validatedTypeVars);
-                if (!boundType.isAssignableFrom(correspondingType)) {
+                        createFromJavaLangReflectType(originalType, bound, variableSubstitutions, validatedTypeVars,
+                                silent);
+                if (boundType == null || !boundType.isAssignableFrom(correspondingType)) {
+                    if (silent) {
+                        return null;
+                    }
                     throw new TypeValidationException("Variable substitution established for variable " +
                             "\"" + typeVariable.getName() + "\" in type \"" + originalType + "\" is " +
                             "\"" + correspondingType + "\", which does not conform to upper bound \"extends " +
@@ -1140,6 +1026,10 @@ private static Type<?> createFromJavaLangReflectType(
             
         }
         
+        if (silent) {
+            return null;
+        }
+        
         if (type instanceof WildcardType) {
             throw new TypeValidationException("Cannot convert wildcard \"" + type + "\" in type \"" + originalType +
                     "\" into a javaRuntype type.");
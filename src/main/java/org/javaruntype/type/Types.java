@@ -41,6 +41,43 @@
  * <p>
  * This class centralizes the methods for obtaining {@link Type} instances.
  * </p>
+ * <p>
+ * Class names in type names can be fully qualified, or relative to one of
+ * the imported packages: <tt>java.lang</tt>, <tt>java.util</tt>, 
+ * <tt>java.io</tt>, <tt>java.math</tt> and the ones specified (separated
+ * by commas) in the <tt>org.javaruntype.imports</tt> system property or
+ * added with {@link #addImportedPackage(String)}. Nested classes can be 
+ * written with dots, like in <tt>Map.Entry&lt;String,Integer&gt;</tt>.
+ * </p>
+ * <p>
+ * Classes loaded while resolving type names are initialized by default.
+ * This can be avoided per call with {@link #forName(String, boolean)}, or
+ * globally with {@link #setInitializeClasses(boolean)} or by setting the
+ * <tt>org.javaruntype.initializeClasses</tt> system property to 
+ * <tt>false</tt>. Obtaining type definitions and supertypes never 
+ * initializes classes.
+ * </p>
+ * <p>
+ * Class names are resolved with the thread context class loader, unless
+ * one is specified with {@link #forName(String, ClassLoader)}. Cached types
+ * are kept separately for each class loader, and they are discarded when 
+ * their class loader is garbage collected.
+ * </p>
+ * <p>
+ * Cached data can be invalidated selectively with 
+ * {@link #invalidate(Class...)}, which removes only what was derived from 
+ * the specified classes (or from their subclasses, or from types with them
+ * as parameters), including computed assignabilities. Assignabilities 
+ * precomputed with {@link #precomputeAssignabilities(Type...)} for the 
+ * affected types need to be precomputed again.
+ * </p>
+ * <p>
+ * Types already known to the registry can also be obtained from their 
+ * fingerprints (see {@link Type#getFingerprint()}) with 
+ * {@link #forFingerprint(long)}, which returns null for unknown types.
+ * As fingerprints are the same in every JVM, peers can identify a type
+ * with its fingerprint once they have both obtained it by name.
+ * </p>
  * 
  * @since 1.0
  * 
@@ -83,225 +120,240 @@ public final class Types {
     public static final Type<BigInteger[]> ARRAY_OF_BIG_INTEGER = Types.forClass(BigInteger[].class);
     public static final Type<Serializable[]> ARRAY_OF_SERIALIZABLE = Types.forClass(Serializable[].class);
 
-    public static final Type<Class<?>> CLASS_OF_UNKNOWN = Types.classOf(TypeParameters.forUnknown());
-    public static final Type<Class<Boolean>> CLASS_OF_BOOLEAN = Types.classOf(Types.BOOLEAN);
-    public static final Type<Class<Byte>> CLASS_OF_BYTE = Types.classOf(Types.BYTE);
-    public static final Type<Class<Character>> CLASS_OF_CHARACTER = Types.classOf(Types.CHARACTER);
-    public static final Type<Class<Double>> CLASS_OF_DOUBLE = Types.classOf(Types.DOUBLE);
-    public static final Type<Class<Float>> CLASS_OF_FLOAT = Types.classOf(Types.FLOAT);
-    public static final Type<Class<Integer>> CLASS_OF_INTEGER = Types.classOf(Types.INTEGER);
-    public static final Type<Class<Long>> CLASS_OF_LONG = Types.classOf(Types.LONG);
-    public static final Type<Class<Number>> CLASS_OF_NUMBER = Types.classOf(Types.NUMBER);
-    public static final Type<Class<Object>> CLASS_OF_OBJECT = Types.classOf(Types.OBJECT);
-    public static final Type<Class<Short>> CLASS_OF_SHORT = Types.classOf(Types.SHORT);
-    public static final Type<Class<String>> CLASS_OF_STRING = Types.classOf(Types.STRING);
-    public static final Type<Class<Date>> CLASS_OF_DATE = Types.classOf(Types.DATE);
-    public static final Type<Class<Calendar>> CLASS_OF_CALENDAR = Types.classOf(Types.CALENDAR);
-    public static final Type<Class<BigDecimal>> CLASS_OF_BIG_DECIMAL = Types.classOf(Types.BIG_DECIMAL);
-    public static final Type<Class<BigInteger>> CLASS_OF_BIG_INTEGER = Types.classOf(Types.BIG_INTEGER);
-    public static final Type<Class<Serializable>> CLASS_OF_SERIALIZABLE = Types.classOf(Types.SERIALIZABLE);
+    public static final Type<Class<?>> CLASS_OF_UNKNOWN = Types.constant(Class.class, TypeParameters.forUnknown());
+    public static final Type<Class<Boolean>> CLASS_OF_BOOLEAN = Types.constant(Class.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Class<Byte>> CLASS_OF_BYTE = Types.constant(Class.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Class<Character>> CLASS_OF_CHARACTER = Types.constant(Class.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Class<Double>> CLASS_OF_DOUBLE = Types.constant(Class.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Class<Float>> CLASS_OF_FLOAT = Types.constant(Class.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Class<Integer>> CLASS_OF_INTEGER = Types.constant(Class.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Class<Long>> CLASS_OF_LONG = Types.constant(Class.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Class<Number>> CLASS_OF_NUMBER = Types.constant(Class.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Class<Object>> CLASS_OF_OBJECT = Types.constant(Class.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Class<Short>> CLASS_OF_SHORT = Types.constant(Class.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Class<String>> CLASS_OF_STRING = Types.constant(Class.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Class<Date>> CLASS_OF_DATE = Types.constant(Class.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Class<Calendar>> CLASS_OF_CALENDAR = Types.constant(Class.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Class<BigDecimal>> CLASS_OF_BIG_DECIMAL = Types.constant(Class.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Class<BigInteger>> CLASS_OF_BIG_INTEGER = Types.constant(Class.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Class<Serializable>> CLASS_OF_SERIALIZABLE = Types.constant(Class.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Iterable<?>> ITERABLE_OF_UNKNOWN = Types.iterableOf(TypeParameters.forUnknown());
-    public static final Type<Iterable<Boolean>> ITERABLE_OF_BOOLEAN = Types.iterableOf(Types.BOOLEAN);
-    public static final Type<Iterable<Byte>> ITERABLE_OF_BYTE = Types.iterableOf(Types.BYTE);
-    public static final Type<Iterable<Character>> ITERABLE_OF_CHARACTER = Types.iterableOf(Types.CHARACTER);
-    public static final Type<Iterable<Double>> ITERABLE_OF_DOUBLE = Types.iterableOf(Types.DOUBLE);
-    public static final Type<Iterable<Float>> ITERABLE_OF_FLOAT = Types.iterableOf(Types.FLOAT);
-    public static final Type<Iterable<Integer>> ITERABLE_OF_INTEGER = Types.iterableOf(Types.INTEGER);
-    public static final Type<Iterable<Long>> ITERABLE_OF_LONG = Types.iterableOf(Types.LONG);
-    public static final Type<Iterable<Number>> ITERABLE_OF_NUMBER = Types.iterableOf(Types.NUMBER);
-    public static final Type<Iterable<Object>> ITERABLE_OF_OBJECT = Types.iterableOf(Types.OBJECT);
-    public static final Type<Iterable<Short>> ITERABLE_OF_SHORT = Types.iterableOf(Types.SHORT);
-    public static final Type<Iterable<String>> ITERABLE_OF_STRING = Types.iterableOf(Types.STRING);
-    public static final Type<Iterable<Date>> ITERABLE_OF_DATE = Types.iterableOf(Types.DATE);
-    public static final Type<Iterable<Calendar>> ITERABLE_OF_CALENDAR = Types.iterableOf(Types.CALENDAR);
-    public static final Type<Iterable<BigDecimal>> ITERABLE_OF_BIG_DECIMAL = Types.iterableOf(Types.BIG_DECIMAL);
-    public static final Type<Iterable<BigInteger>> ITERABLE_OF_BIG_INTEGER = Types.iterableOf(Types.BIG_INTEGER);
-    public static final Type<Iterable<Serializable>> ITERABLE_OF_SERIALIZABLE = Types.iterableOf(Types.SERIALIZABLE);
+    public static final Type<Iterable<?>> ITERABLE_OF_UNKNOWN = Types.constant(Iterable.class, TypeParameters.forUnknown());
+    public static final Type<Iterable<Boolean>> ITERABLE_OF_BOOLEAN = Types.constant(Iterable.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Iterable<Byte>> ITERABLE_OF_BYTE = Types.constant(Iterable.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Iterable<Character>> ITERABLE_OF_CHARACTER = Types.constant(Iterable.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Iterable<Double>> ITERABLE_OF_DOUBLE = Types.constant(Iterable.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Iterable<Float>> ITERABLE_OF_FLOAT = Types.constant(Iterable.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Iterable<Integer>> ITERABLE_OF_INTEGER = Types.constant(Iterable.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Iterable<Long>> ITERABLE_OF_LONG = Types.constant(Iterable.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Iterable<Number>> ITERABLE_OF_NUMBER = Types.constant(Iterable.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Iterable<Object>> ITERABLE_OF_OBJECT = Types.constant(Iterable.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Iterable<Short>> ITERABLE_OF_SHORT = Types.constant(Iterable.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Iterable<String>> ITERABLE_OF_STRING = Types.constant(Iterable.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Iterable<Date>> ITERABLE_OF_DATE = Types.constant(Iterable.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Iterable<Calendar>> ITERABLE_OF_CALENDAR = Types.constant(Iterable.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Iterable<BigDecimal>> ITERABLE_OF_BIG_DECIMAL = Types.constant(Iterable.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Iterable<BigInteger>> ITERABLE_OF_BIG_INTEGER = Types.constant(Iterable.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Iterable<Serializable>> ITERABLE_OF_SERIALIZABLE = Types.constant(Iterable.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Collection<?>> COLLECTION_OF_UNKNOWN = Types.collectionOf(TypeParameters.forUnknown());
-    public static final Type<Collection<Boolean>> COLLECTION_OF_BOOLEAN = Types.collectionOf(Types.BOOLEAN);
-    public static final Type<Collection<Byte>> COLLECTION_OF_BYTE = Types.collectionOf(Types.BYTE);
-    public static final Type<Collection<Character>> COLLECTION_OF_CHARACTER = Types.collectionOf(Types.CHARACTER);
-    public static final Type<Collection<Double>> COLLECTION_OF_DOUBLE = Types.collectionOf(Types.DOUBLE);
-    public static final Type<Collection<Float>> COLLECTION_OF_FLOAT = Types.collectionOf(Types.FLOAT);
-    public static final Type<Collection<Integer>> COLLECTION_OF_INTEGER = Types.collectionOf(Types.INTEGER);
-    public static final Type<Collection<Long>> COLLECTION_OF_LONG = Types.collectionOf(Types.LONG);
-    public static final Type<Collection<Number>> COLLECTION_OF_NUMBER = Types.collectionOf(Types.NUMBER);
-    public static final Type<Collection<Object>> COLLECTION_OF_OBJECT = Types.collectionOf(Types.OBJECT);
-    public static final Type<Collection<Short>> COLLECTION_OF_SHORT = Types.collectionOf(Types.SHORT);
-    public static final Type<Collection<String>> COLLECTION_OF_STRING = Types.collectionOf(Types.STRING);
-    public static final Type<Collection<Date>> COLLECTION_OF_DATE = Types.collectionOf(Types.DATE);
-    public static final Type<Collection<Calendar>> COLLECTION_OF_CALENDAR = Types.collectionOf(Types.CALENDAR);
-    public static final Type<Collection<BigDecimal>> COLLECTION_OF_BIG_DECIMAL = Types.collectionOf(Types.BIG_DECIMAL);
-    public static final Type<Collection<BigInteger>> COLLECTION_OF_BIG_INTEGER = Types.collectionOf(Types.BIG_INTEGER);
-    public static final Type<Collection<Serializable>> COLLECTION_OF_SERIALIZABLE = Types.collectionOf(Types.SERIALIZABLE);
+    public static final Type<Collection<?>> COLLECTION_OF_UNKNOWN = Types.constant(Collection.class, TypeParameters.forUnknown());
+    public static final Type<Collection<Boolean>> COLLECTION_OF_BOOLEAN = Types.constant(Collection.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Collection<Byte>> COLLECTION_OF_BYTE = Types.constant(Collection.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Collection<Character>> COLLECTION_OF_CHARACTER = Types.constant(Collection.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Collection<Double>> COLLECTION_OF_DOUBLE = Types.constant(Collection.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Collection<Float>> COLLECTION_OF_FLOAT = Types.constant(Collection.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Collection<Integer>> COLLECTION_OF_INTEGER = Types.constant(Collection.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Collection<Long>> COLLECTION_OF_LONG = Types.constant(Collection.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Collection<Number>> COLLECTION_OF_NUMBER = Types.constant(Collection.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Collection<Object>> COLLECTION_OF_OBJECT = Types.constant(Collection.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Collection<Short>> COLLECTION_OF_SHORT = Types.constant(Collection.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Collection<String>> COLLECTION_OF_STRING = Types.constant(Collection.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Collection<Date>> COLLECTION_OF_DATE = Types.constant(Collection.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Collection<Calendar>> COLLECTION_OF_CALENDAR = Types.constant(Collection.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Collection<BigDecimal>> COLLECTION_OF_BIG_DECIMAL = Types.constant(Collection.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Collection<BigInteger>> COLLECTION_OF_BIG_INTEGER = Types.constant(Collection.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Collection<Serializable>> COLLECTION_OF_SERIALIZABLE = Types.constant(Collection.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Comparator<?>> COMPARATOR_OF_UNKNOWN = Types.comparatorOf(TypeParameters.forUnknown());
-    public static final Type<Comparator<Boolean>> COMPARATOR_OF_BOOLEAN = Types.comparatorOf(Types.BOOLEAN);
-    public static final Type<Comparator<Byte>> COMPARATOR_OF_BYTE = Types.comparatorOf(Types.BYTE);
-    public static final Type<Comparator<Character>> COMPARATOR_OF_CHARACTER = Types.comparatorOf(Types.CHARACTER);
-    public static final Type<Comparator<Double>> COMPARATOR_OF_DOUBLE = Types.comparatorOf(Types.DOUBLE);
-    public static final Type<Comparator<Float>> COMPARATOR_OF_FLOAT = Types.comparatorOf(Types.FLOAT);
-    public static final Type<Comparator<Integer>> COMPARATOR_OF_INTEGER = Types.comparatorOf(Types.INTEGER);
-    public static final Type<Comparator<Long>> COMPARATOR_OF_LONG = Types.comparatorOf(Types.LONG);
-    public static final Type<Comparator<Number>> COMPARATOR_OF_NUMBER = Types.comparatorOf(Types.NUMBER);
-    public static final Type<Comparator<Object>> COMPARATOR_OF_OBJECT = Types.comparatorOf(Types.OBJECT);
-    public static final Type<Comparator<Short>> COMPARATOR_OF_SHORT = Types.comparatorOf(Types.SHORT);
-    public static final Type<Comparator<String>> COMPARATOR_OF_STRING = Types.comparatorOf(Types.STRING);
-    public static final Type<Comparator<Date>> COMPARATOR_OF_DATE = Types.comparatorOf(Types.DATE);
-    public static final Type<Comparator<Calendar>> COMPARATOR_OF_CALENDAR = Types.comparatorOf(Types.CALENDAR);
-    public static final Type<Comparator<BigDecimal>> COMPARATOR_OF_BIG_DECIMAL = Types.comparatorOf(Types.BIG_DECIMAL);
-    public static final Type<Comparator<BigInteger>> COMPARATOR_OF_BIG_INTEGER = Types.comparatorOf(Types.BIG_INTEGER);
-    public static final Type<Comparator<Serializable>> COMPARATOR_OF_SERIALIZABLE = Types.comparatorOf(Types.SERIALIZABLE);
+    public static final Type<Comparator<?>> COMPARATOR_OF_UNKNOWN = Types.constant(Comparator.class, TypeParameters.forUnknown());
+    public static final Type<Comparator<Boolean>> COMPARATOR_OF_BOOLEAN = Types.constant(Comparator.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Comparator<Byte>> COMPARATOR_OF_BYTE = Types.constant(Comparator.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Comparator<Character>> COMPARATOR_OF_CHARACTER = Types.constant(Comparator.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Comparator<Double>> COMPARATOR_OF_DOUBLE = Types.constant(Comparator.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Comparator<Float>> COMPARATOR_OF_FLOAT = Types.constant(Comparator.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Comparator<Integer>> COMPARATOR_OF_INTEGER = Types.constant(Comparator.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Comparator<Long>> COMPARATOR_OF_LONG = Types.constant(Comparator.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Comparator<Number>> COMPARATOR_OF_NUMBER = Types.constant(Comparator.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Comparator<Object>> COMPARATOR_OF_OBJECT = Types.constant(Comparator.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Comparator<Short>> COMPARATOR_OF_SHORT = Types.constant(Comparator.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Comparator<String>> COMPARATOR_OF_STRING = Types.constant(Comparator.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Comparator<Date>> COMPARATOR_OF_DATE = Types.constant(Comparator.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Comparator<Calendar>> COMPARATOR_OF_CALENDAR = Types.constant(Comparator.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Comparator<BigDecimal>> COMPARATOR_OF_BIG_DECIMAL = Types.constant(Comparator.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Comparator<BigInteger>> COMPARATOR_OF_BIG_INTEGER = Types.constant(Comparator.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Comparator<Serializable>> COMPARATOR_OF_SERIALIZABLE = Types.constant(Comparator.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Enumeration<?>> ENUMERATION_OF_UNKNOWN = Types.enumerationOf(TypeParameters.forUnknown());
-    public static final Type<Enumeration<Boolean>> ENUMERATION_OF_BOOLEAN = Types.enumerationOf(Types.BOOLEAN);
-    public static final Type<Enumeration<Byte>> ENUMERATION_OF_BYTE = Types.enumerationOf(Types.BYTE);
-    public static final Type<Enumeration<Character>> ENUMERATION_OF_CHARACTER = Types.enumerationOf(Types.CHARACTER);
-    public static final Type<Enumeration<Double>> ENUMERATION_OF_DOUBLE = Types.enumerationOf(Types.DOUBLE);
-    public static final Type<Enumeration<Float>> ENUMERATION_OF_FLOAT = Types.enumerationOf(Types.FLOAT);
-    public static final Type<Enumeration<Integer>> ENUMERATION_OF_INTEGER = Types.enumerationOf(Types.INTEGER);
-    public static final Type<Enumeration<Long>> ENUMERATION_OF_LONG = Types.enumerationOf(Types.LONG);
-    public static final Type<Enumeration<Number>> ENUMERATION_OF_NUMBER = Types.enumerationOf(Types.NUMBER);
-    public static final Type<Enumeration<Object>> ENUMERATION_OF_OBJECT = Types.enumerationOf(Types.OBJECT);
-    public static final Type<Enumeration<Short>> ENUMERATION_OF_SHORT = Types.enumerationOf(Types.SHORT);
-    public static final Type<Enumeration<String>> ENUMERATION_OF_STRING = Types.enumerationOf(Types.STRING);
-    public static final Type<Enumeration<Date>> ENUMERATION_OF_DATE = Types.enumerationOf(Types.DATE);
-    public static final Type<Enumeration<Calendar>> ENUMERATION_OF_CALENDAR = Types.enumerationOf(Types.CALENDAR);
-    public static final Type<Enumeration<BigDecimal>> ENUMERATION_OF_BIG_DECIMAL = Types.enumerationOf(Types.BIG_DECIMAL);
-    public static final Type<Enumeration<BigInteger>> ENUMERATION_OF_BIG_INTEGER = Types.enumerationOf(Types.BIG_INTEGER);
-    public static final Type<Enumeration<Serializable>> ENUMERATION_OF_SERIALIZABLE = Types.enumerationOf(Types.SERIALIZABLE);
+    public static final Type<Enumeration<?>> ENUMERATION_OF_UNKNOWN = Types.constant(Enumeration.class, TypeParameters.forUnknown());
+    public static final Type<Enumeration<Boolean>> ENUMERATION_OF_BOOLEAN = Types.constant(Enumeration.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Enumeration<Byte>> ENUMERATION_OF_BYTE = Types.constant(Enumeration.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Enumeration<Character>> ENUMERATION_OF_CHARACTER = Types.constant(Enumeration.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Enumeration<Double>> ENUMERATION_OF_DOUBLE = Types.constant(Enumeration.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Enumeration<Float>> ENUMERATION_OF_FLOAT = Types.constant(Enumeration.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Enumeration<Integer>> ENUMERATION_OF_INTEGER = Types.constant(Enumeration.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Enumeration<Long>> ENUMERATION_OF_LONG = Types.constant(Enumeration.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Enumeration<Number>> ENUMERATION_OF_NUMBER = Types.constant(Enumeration.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Enumeration<Object>> ENUMERATION_OF_OBJECT = Types.constant(Enumeration.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Enumeration<Short>> ENUMERATION_OF_SHORT = Types.constant(Enumeration.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Enumeration<String>> ENUMERATION_OF_STRING = Types.constant(Enumeration.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Enumeration<Date>> ENUMERATION_OF_DATE = Types.constant(Enumeration.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Enumeration<Calendar>> ENUMERATION_OF_CALENDAR = Types.constant(Enumeration.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Enumeration<BigDecimal>> ENUMERATION_OF_BIG_DECIMAL = Types.constant(Enumeration.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Enumeration<BigInteger>> ENUMERATION_OF_BIG_INTEGER = Types.constant(Enumeration.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Enumeration<Serializable>> ENUMERATION_OF_SERIALIZABLE = Types.constant(Enumeration.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Iterator<?>> ITERATOR_OF_UNKNOWN = Types.iteratorOf(TypeParameters.forUnknown());
-    public static final Type<Iterator<Boolean>> ITERATOR_OF_BOOLEAN = Types.iteratorOf(Types.BOOLEAN);
-    public static final Type<Iterator<Byte>> ITERATOR_OF_BYTE = Types.iteratorOf(Types.BYTE);
-    public static final Type<Iterator<Character>> ITERATOR_OF_CHARACTER = Types.iteratorOf(Types.CHARACTER);
-    public static final Type<Iterator<Double>> ITERATOR_OF_DOUBLE = Types.iteratorOf(Types.DOUBLE);
-    public static final Type<Iterator<Float>> ITERATOR_OF_FLOAT = Types.iteratorOf(Types.FLOAT);
-    public static final Type<Iterator<Integer>> ITERATOR_OF_INTEGER = Types.iteratorOf(Types.INTEGER);
-    public static final Type<Iterator<Long>> ITERATOR_OF_LONG = Types.iteratorOf(Types.LONG);
-    public static final Type<Iterator<Number>> ITERATOR_OF_NUMBER = Types.iteratorOf(Types.NUMBER);
-    public static final Type<Iterator<Object>> ITERATOR_OF_OBJECT = Types.iteratorOf(Types.OBJECT);
-    public static final Type<Iterator<Short>> ITERATOR_OF_SHORT = Types.iteratorOf(Types.SHORT);
-    public static final Type<Iterator<String>> ITERATOR_OF_STRING = Types.iteratorOf(Types.STRING);
-    public static final Type<Iterator<Date>> ITERATOR_OF_DATE = Types.iteratorOf(Types.DATE);
-    public static final Type<Iterator<Calendar>> ITERATOR_OF_CALENDAR = Types.iteratorOf(Types.CALENDAR);
-    public static final Type<Iterator<BigDecimal>> ITERATOR_OF_BIG_DECIMAL = Types.iteratorOf(Types.BIG_DECIMAL);
-    public static final Type<Iterator<BigInteger>> ITERATOR_OF_BIG_INTEGER = Types.iteratorOf(Types.BIG_INTEGER);
-    public static final Type<Iterator<Serializable>> ITERATOR_OF_SERIALIZABLE = Types.iteratorOf(Types.SERIALIZABLE);
+    public static final Type<Iterator<?>> ITERATOR_OF_UNKNOWN = Types.constant(Iterator.class, TypeParameters.forUnknown());
+    public static final Type<Iterator<Boolean>> ITERATOR_OF_BOOLEAN = Types.constant(Iterator.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Iterator<Byte>> ITERATOR_OF_BYTE = Types.constant(Iterator.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Iterator<Character>> ITERATOR_OF_CHARACTER = Types.constant(Iterator.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Iterator<Double>> ITERATOR_OF_DOUBLE = Types.constant(Iterator.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Iterator<Float>> ITERATOR_OF_FLOAT = Types.constant(Iterator.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Iterator<Integer>> ITERATOR_OF_INTEGER = Types.constant(Iterator.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Iterator<Long>> ITERATOR_OF_LONG = Types.constant(Iterator.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Iterator<Number>> ITERATOR_OF_NUMBER = Types.constant(Iterator.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Iterator<Object>> ITERATOR_OF_OBJECT = Types.constant(Iterator.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Iterator<Short>> ITERATOR_OF_SHORT = Types.constant(Iterator.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Iterator<String>> ITERATOR_OF_STRING = Types.constant(Iterator.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Iterator<Date>> ITERATOR_OF_DATE = Types.constant(Iterator.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Iterator<Calendar>> ITERATOR_OF_CALENDAR = Types.constant(Iterator.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Iterator<BigDecimal>> ITERATOR_OF_BIG_DECIMAL = Types.constant(Iterator.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Iterator<BigInteger>> ITERATOR_OF_BIG_INTEGER = Types.constant(Iterator.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Iterator<Serializable>> ITERATOR_OF_SERIALIZABLE = Types.constant(Iterator.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<List<?>> LIST_OF_UNKNOWN = Types.listOf(TypeParameters.forUnknown());
-    public static final Type<List<Boolean>> LIST_OF_BOOLEAN = Types.listOf(Types.BOOLEAN);
-    public static final Type<List<Byte>> LIST_OF_BYTE = Types.listOf(Types.BYTE);
-    public static final Type<List<Character>> LIST_OF_CHARACTER = Types.listOf(Types.CHARACTER);
-    public static final Type<List<Double>> LIST_OF_DOUBLE = Types.listOf(Types.DOUBLE);
-    public static final Type<List<Float>> LIST_OF_FLOAT = Types.listOf(Types.FLOAT);
-    public static final Type<List<Integer>> LIST_OF_INTEGER = Types.listOf(Types.INTEGER);
-    public static final Type<List<Long>> LIST_OF_LONG = Types.listOf(Types.LONG);
-    public static final Type<List<Number>> LIST_OF_NUMBER = Types.listOf(Types.NUMBER);
-    public static final Type<List<Object>> LIST_OF_OBJECT = Types.listOf(Types.OBJECT);
-    public static final Type<List<Short>> LIST_OF_SHORT = Types.listOf(Types.SHORT);
-    public static final Type<List<String>> LIST_OF_STRING = Types.listOf(Types.STRING);
-    public static final Type<List<Date>> LIST_OF_DATE = Types.listOf(Types.DATE);
-    public static final Type<List<Calendar>> LIST_OF_CALENDAR = Types.listOf(Types.CALENDAR);
-    public static final Type<List<BigDecimal>> LIST_OF_BIG_DECIMAL = Types.listOf(Types.BIG_DECIMAL);
-    public static final Type<List<BigInteger>> LIST_OF_BIG_INTEGER = Types.listOf(Types.BIG_INTEGER);
-    public static final Type<List<Serializable>> LIST_OF_SERIALIZABLE = Types.listOf(Types.SERIALIZABLE);
+    public static final Type<List<?>> LIST_OF_UNKNOWN = Types.constant(List.class, TypeParameters.forUnknown());
+    public static final Type<List<Boolean>> LIST_OF_BOOLEAN = Types.constant(List.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<List<Byte>> LIST_OF_BYTE = Types.constant(List.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<List<Character>> LIST_OF_CHARACTER = Types.constant(List.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<List<Double>> LIST_OF_DOUBLE = Types.constant(List.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<List<Float>> LIST_OF_FLOAT = Types.constant(List.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<List<Integer>> LIST_OF_INTEGER = Types.constant(List.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<List<Long>> LIST_OF_LONG = Types.constant(List.class, TypeParameters.forType(Types.LONG));
+    public static final Type<List<Number>> LIST_OF_NUMBER = Types.constant(List.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<List<Object>> LIST_OF_OBJECT = Types.constant(List.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<List<Short>> LIST_OF_SHORT = Types.constant(List.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<List<String>> LIST_OF_STRING = Types.constant(List.class, TypeParameters.forType(Types.STRING));
+    public static final Type<List<Date>> LIST_OF_DATE = Types.constant(List.class, TypeParameters.forType(Types.DATE));
+    public static final Type<List<Calendar>> LIST_OF_CALENDAR = Types.constant(List.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<List<BigDecimal>> LIST_OF_BIG_DECIMAL = Types.constant(List.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<List<BigInteger>> LIST_OF_BIG_INTEGER = Types.constant(List.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<List<Serializable>> LIST_OF_SERIALIZABLE = Types.constant(List.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<ListIterator<?>> LIST_ITERATOR_OF_UNKNOWN = Types.listIteratorOf(TypeParameters.forUnknown());
-    public static final Type<ListIterator<Boolean>> LIST_ITERATOR_OF_BOOLEAN = Types.listIteratorOf(Types.BOOLEAN);
-    public static final Type<ListIterator<Byte>> LIST_ITERATOR_OF_BYTE = Types.listIteratorOf(Types.BYTE);
-    public static final Type<ListIterator<Character>> LIST_ITERATOR_OF_CHARACTER = Types.listIteratorOf(Types.CHARACTER);
-    public static final Type<ListIterator<Double>> LIST_ITERATOR_OF_DOUBLE = Types.listIteratorOf(Types.DOUBLE);
-    public static final Type<ListIterator<Float>> LIST_ITERATOR_OF_FLOAT = Types.listIteratorOf(Types.FLOAT);
-    public static final Type<ListIterator<Integer>> LIST_ITERATOR_OF_INTEGER = Types.listIteratorOf(Types.INTEGER);
-    public static final Type<ListIterator<Long>> LIST_ITERATOR_OF_LONG = Types.listIteratorOf(Types.LONG);
-    public static final Type<ListIterator<Number>> LIST_ITERATOR_OF_NUMBER = Types.listIteratorOf(Types.NUMBER);
-    public static final Type<ListIterator<Object>> LIST_ITERATOR_OF_OBJECT = Types.listIteratorOf(Types.OBJECT);
-    public static final Type<ListIterator<Short>> LIST_ITERATOR_OF_SHORT = Types.listIteratorOf(Types.SHORT);
-    public static final Type<ListIterator<String>> LIST_ITERATOR_OF_STRING = Types.listIteratorOf(Types.STRING);
-    public static final Type<ListIterator<Date>> LIST_ITERATOR_OF_DATE = Types.listIteratorOf(Types.DATE);
-    public static final Type<ListIterator<Calendar>> LIST_ITERATOR_OF_CALENDAR = Types.listIteratorOf(Types.CALENDAR);
-    public static final Type<ListIterator<BigDecimal>> LIST_ITERATOR_OF_BIG_DECIMAL = Types.listIteratorOf(Types.BIG_DECIMAL);
-    public static final Type<ListIterator<BigInteger>> LIST_ITERATOR_OF_BIG_INTEGER = Types.listIteratorOf(Types.BIG_INTEGER);
-    public static final Type<ListIterator<Serializable>> LIST_ITERATOR_OF_SERIALIZABLE = Types.listIteratorOf(Types.SERIALIZABLE);
+    public static final Type<ListIterator<?>> LIST_ITERATOR_OF_UNKNOWN = Types.constant(ListIterator.class, TypeParameters.forUnknown());
+    public static final Type<ListIterator<Boolean>> LIST_ITERATOR_OF_BOOLEAN = Types.constant(ListIterator.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<ListIterator<Byte>> LIST_ITERATOR_OF_BYTE = Types.constant(ListIterator.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<ListIterator<Character>> LIST_ITERATOR_OF_CHARACTER = Types.constant(ListIterator.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<ListIterator<Double>> LIST_ITERATOR_OF_DOUBLE = Types.constant(ListIterator.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<ListIterator<Float>> LIST_ITERATOR_OF_FLOAT = Types.constant(ListIterator.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<ListIterator<Integer>> LIST_ITERATOR_OF_INTEGER = Types.constant(ListIterator.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<ListIterator<Long>> LIST_ITERATOR_OF_LONG = Types.constant(ListIterator.class, TypeParameters.forType(Types.LONG));
+    public static final Type<ListIterator<Number>> LIST_ITERATOR_OF_NUMBER = Types.constant(ListIterator.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<ListIterator<Object>> LIST_ITERATOR_OF_OBJECT = Types.constant(ListIterator.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<ListIterator<Short>> LIST_ITERATOR_OF_SHORT = Types.constant(ListIterator.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<ListIterator<String>> LIST_ITERATOR_OF_STRING = Types.constant(ListIterator.class, TypeParameters.forType(Types.STRING));
+    public static final Type<ListIterator<Date>> LIST_ITERATOR_OF_DATE = Types.constant(ListIterator.class, TypeParameters.forType(Types.DATE));
+    public static final Type<ListIterator<Calendar>> LIST_ITERATOR_OF_CALENDAR = Types.constant(ListIterator.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<ListIterator<BigDecimal>> LIST_ITERATOR_OF_BIG_DECIMAL = Types.constant(ListIterator.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<ListIterator<BigInteger>> LIST_ITERATOR_OF_BIG_INTEGER = Types.constant(ListIterator.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<ListIterator<Serializable>> LIST_ITERATOR_OF_SERIALIZABLE = Types.constant(ListIterator.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Map<?,?>> MAP_OF_UNKNOWN_UNKNOWN = Types.mapOf(TypeParameters.forUnknown(), TypeParameters.forUnknown());
-    public static final Type<Map<String,?>> MAP_OF_STRING_UNKNOWN = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forUnknown());
-    public static final Type<Map<String,Boolean>> MAP_OF_STRING_BOOLEAN = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BOOLEAN));
-    public static final Type<Map<String,Byte>> MAP_OF_STRING_BYTE = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BYTE));
-    public static final Type<Map<String,Character>> MAP_OF_STRING_CHARACTER = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CHARACTER));
-    public static final Type<Map<String,Double>> MAP_OF_STRING_DOUBLE = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DOUBLE));
-    public static final Type<Map<String,Float>> MAP_OF_STRING_FLOAT = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.FLOAT));
-    public static final Type<Map<String,Integer>> MAP_OF_STRING_INTEGER = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.INTEGER));
-    public static final Type<Map<String,Long>> MAP_OF_STRING_LONG = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.LONG));
-    public static final Type<Map<String,Number>> MAP_OF_STRING_NUMBER = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.NUMBER));
-    public static final Type<Map<String,Object>> MAP_OF_STRING_OBJECT = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.OBJECT));
-    public static final Type<Map<String,Short>> MAP_OF_STRING_SHORT = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SHORT));
-    public static final Type<Map<String,String>> MAP_OF_STRING_STRING = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.STRING));
-    public static final Type<Map<String,Date>> MAP_OF_STRING_DATE = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DATE));
-    public static final Type<Map<String,Calendar>> MAP_OF_STRING_CALENDAR = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CALENDAR));
-    public static final Type<Map<String,BigDecimal>> MAP_OF_STRING_BIG_DECIMAL = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_DECIMAL));
-    public static final Type<Map<String,BigInteger>> MAP_OF_STRING_BIG_INTEGER = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_INTEGER));
-    public static final Type<Map<String,Serializable>> MAP_OF_STRING_SERIALIZABLE = Types.mapOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SERIALIZABLE));
+    public static final Type<Map<?,?>> MAP_OF_UNKNOWN_UNKNOWN = Types.constant(Map.class, TypeParameters.forUnknown(), TypeParameters.forUnknown());
+    public static final Type<Map<String,?>> MAP_OF_STRING_UNKNOWN = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forUnknown());
+    public static final Type<Map<String,Boolean>> MAP_OF_STRING_BOOLEAN = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Map<String,Byte>> MAP_OF_STRING_BYTE = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BYTE));
+    public static final Type<Map<String,Character>> MAP_OF_STRING_CHARACTER = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Map<String,Double>> MAP_OF_STRING_DOUBLE = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Map<String,Float>> MAP_OF_STRING_FLOAT = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.FLOAT));
+    public static final Type<Map<String,Integer>> MAP_OF_STRING_INTEGER = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.INTEGER));
+    public static final Type<Map<String,Long>> MAP_OF_STRING_LONG = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.LONG));
+    public static final Type<Map<String,Number>> MAP_OF_STRING_NUMBER = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.NUMBER));
+    public static final Type<Map<String,Object>> MAP_OF_STRING_OBJECT = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.OBJECT));
+    public static final Type<Map<String,Short>> MAP_OF_STRING_SHORT = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SHORT));
+    public static final Type<Map<String,String>> MAP_OF_STRING_STRING = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.STRING));
+    public static final Type<Map<String,Date>> MAP_OF_STRING_DATE = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DATE));
+    public static final Type<Map<String,Calendar>> MAP_OF_STRING_CALENDAR = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Map<String,BigDecimal>> MAP_OF_STRING_BIG_DECIMAL = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Map<String,BigInteger>> MAP_OF_STRING_BIG_INTEGER = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Map<String,Serializable>> MAP_OF_STRING_SERIALIZABLE = Types.constant(Map.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Map.Entry<?,?>> MAP_ENTRY_OF_UNKNOWN_UNKNOWN = Types.mapEntryOf(TypeParameters.forUnknown(), TypeParameters.forUnknown());
-    public static final Type<Map.Entry<String,?>> MAP_ENTRY_OF_STRING_UNKNOWN = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forUnknown());
-    public static final Type<Map.Entry<String,Boolean>> MAP_ENTRY_OF_STRING_BOOLEAN = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BOOLEAN));
-    public static final Type<Map.Entry<String,Byte>> MAP_ENTRY_OF_STRING_BYTE = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BYTE));
-    public static final Type<Map.Entry<String,Character>> MAP_ENTRY_OF_STRING_CHARACTER = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CHARACTER));
-    public static final Type<Map.Entry<String,Double>> MAP_ENTRY_OF_STRING_DOUBLE = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DOUBLE));
-    public static final Type<Map.Entry<String,Float>> MAP_ENTRY_OF_STRING_FLOAT = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.FLOAT));
-    public static final Type<Map.Entry<String,Integer>> MAP_ENTRY_OF_STRING_INTEGER = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.INTEGER));
-    public static final Type<Map.Entry<String,Long>> MAP_ENTRY_OF_STRING_LONG = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.LONG));
-    public static final Type<Map.Entry<String,Number>> MAP_ENTRY_OF_STRING_NUMBER = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.NUMBER));
-    public static final Type<Map.Entry<String,Object>> MAP_ENTRY_OF_STRING_OBJECT = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.OBJECT));
-    public static final Type<Map.Entry<String,Short>> MAP_ENTRY_OF_STRING_SHORT = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SHORT));
-    public static final Type<Map.Entry<String,String>> MAP_ENTRY_OF_STRING_STRING = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.STRING));
-    public static final Type<Map.Entry<String,Date>> MAP_ENTRY_OF_STRING_DATE = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DATE));
-    public static final Type<Map.Entry<String,Calendar>> MAP_ENTRY_OF_STRING_CALENDAR = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CALENDAR));
-    public static final Type<Map.Entry<String,BigDecimal>> MAP_ENTRY_OF_STRING_BIG_DECIMAL = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_DECIMAL));
-    public static final Type<Map.Entry<String,BigInteger>> MAP_ENTRY_OF_STRING_BIG_INTEGER = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_INTEGER));
-    public static final Type<Map.Entry<String,Serializable>> MAP_ENTRY_OF_STRING_SERIALIZABLE = Types.mapEntryOf(TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SERIALIZABLE));
+    public static final Type<Map.Entry<?,?>> MAP_ENTRY_OF_UNKNOWN_UNKNOWN = Types.constant(Map.Entry.class, TypeParameters.forUnknown(), TypeParameters.forUnknown());
+    public static final Type<Map.Entry<String,?>> MAP_ENTRY_OF_STRING_UNKNOWN = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forUnknown());
+    public static final Type<Map.Entry<String,Boolean>> MAP_ENTRY_OF_STRING_BOOLEAN = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Map.Entry<String,Byte>> MAP_ENTRY_OF_STRING_BYTE = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BYTE));
+    public static final Type<Map.Entry<String,Character>> MAP_ENTRY_OF_STRING_CHARACTER = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Map.Entry<String,Double>> MAP_ENTRY_OF_STRING_DOUBLE = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Map.Entry<String,Float>> MAP_ENTRY_OF_STRING_FLOAT = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.FLOAT));
+    public static final Type<Map.Entry<String,Integer>> MAP_ENTRY_OF_STRING_INTEGER = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.INTEGER));
+    public static final Type<Map.Entry<String,Long>> MAP_ENTRY_OF_STRING_LONG = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.LONG));
+    public static final Type<Map.Entry<String,Number>> MAP_ENTRY_OF_STRING_NUMBER = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.NUMBER));
+    public static final Type<Map.Entry<String,Object>> MAP_ENTRY_OF_STRING_OBJECT = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.OBJECT));
+    public static final Type<Map.Entry<String,Short>> MAP_ENTRY_OF_STRING_SHORT = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SHORT));
+    public static final Type<Map.Entry<String,String>> MAP_ENTRY_OF_STRING_STRING = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.STRING));
+    public static final Type<Map.Entry<String,Date>> MAP_ENTRY_OF_STRING_DATE = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.DATE));
+    public static final Type<Map.Entry<String,Calendar>> MAP_ENTRY_OF_STRING_CALENDAR = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Map.Entry<String,BigDecimal>> MAP_ENTRY_OF_STRING_BIG_DECIMAL = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Map.Entry<String,BigInteger>> MAP_ENTRY_OF_STRING_BIG_INTEGER = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Map.Entry<String,Serializable>> MAP_ENTRY_OF_STRING_SERIALIZABLE = Types.constant(Map.Entry.class, TypeParameters.forType(Types.STRING), TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Queue<?>> QUEUE_OF_UNKNOWN = Types.queueOf(TypeParameters.forUnknown());
-    public static final Type<Queue<Boolean>> QUEUE_OF_BOOLEAN = Types.queueOf(Types.BOOLEAN);
-    public static final Type<Queue<Byte>> QUEUE_OF_BYTE = Types.queueOf(Types.BYTE);
-    public static final Type<Queue<Character>> QUEUE_OF_CHARACTER = Types.queueOf(Types.CHARACTER);
-    public static final Type<Queue<Double>> QUEUE_OF_DOUBLE = Types.queueOf(Types.DOUBLE);
-    public static final Type<Queue<Float>> QUEUE_OF_FLOAT = Types.queueOf(Types.FLOAT);
-    public static final Type<Queue<Integer>> QUEUE_OF_INTEGER = Types.queueOf(Types.INTEGER);
-    public static final Type<Queue<Long>> QUEUE_OF_LONG = Types.queueOf(Types.LONG);
-    public static final Type<Queue<Number>> QUEUE_OF_NUMBER = Types.queueOf(Types.NUMBER);
-    public static final Type<Queue<Object>> QUEUE_OF_OBJECT = Types.queueOf(Types.OBJECT);
-    public static final Type<Queue<Short>> QUEUE_OF_SHORT = Types.queueOf(Types.SHORT);
-    public static final Type<Queue<String>> QUEUE_OF_STRING = Types.queueOf(Types.STRING);
-    public static final Type<Queue<Date>> QUEUE_OF_DATE = Types.queueOf(Types.DATE);
-    public static final Type<Queue<Calendar>> QUEUE_OF_CALENDAR = Types.queueOf(Types.CALENDAR);
-    public static final Type<Queue<BigDecimal>> QUEUE_OF_BIG_DECIMAL = Types.queueOf(Types.BIG_DECIMAL);
-    public static final Type<Queue<BigInteger>> QUEUE_OF_BIG_INTEGER = Types.queueOf(Types.BIG_INTEGER);
-    public static final Type<Queue<Serializable>> QUEUE_OF_SERIALIZABLE = Types.queueOf(Types.SERIALIZABLE);
+    public static final Type<Queue<?>> QUEUE_OF_UNKNOWN = Types.constant(Queue.class, TypeParameters.forUnknown());
+    public static final Type<Queue<Boolean>> QUEUE_OF_BOOLEAN = Types.constant(Queue.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Queue<Byte>> QUEUE_OF_BYTE = Types.constant(Queue.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Queue<Character>> QUEUE_OF_CHARACTER = Types.constant(Queue.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Queue<Double>> QUEUE_OF_DOUBLE = Types.constant(Queue.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Queue<Float>> QUEUE_OF_FLOAT = Types.constant(Queue.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Queue<Integer>> QUEUE_OF_INTEGER = Types.constant(Queue.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Queue<Long>> QUEUE_OF_LONG = Types.constant(Queue.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Queue<Number>> QUEUE_OF_NUMBER = Types.constant(Queue.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Queue<Object>> QUEUE_OF_OBJECT = Types.constant(Queue.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Queue<Short>> QUEUE_OF_SHORT = Types.constant(Queue.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Queue<String>> QUEUE_OF_STRING = Types.constant(Queue.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Queue<Date>> QUEUE_OF_DATE = Types.constant(Queue.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Queue<Calendar>> QUEUE_OF_CALENDAR = Types.constant(Queue.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Queue<BigDecimal>> QUEUE_OF_BIG_DECIMAL = Types.constant(Queue.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Queue<BigInteger>> QUEUE_OF_BIG_INTEGER = Types.constant(Queue.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Queue<Serializable>> QUEUE_OF_SERIALIZABLE = Types.constant(Queue.class, TypeParameters.forType(Types.SERIALIZABLE));
 
-    public static final Type<Set<?>> SET_OF_UNKNOWN = Types.setOf(TypeParameters.forUnknown());
-    public static final Type<Set<Boolean>> SET_OF_BOOLEAN = Types.setOf(Types.BOOLEAN);
-    public static final Type<Set<Byte>> SET_OF_BYTE = Types.setOf(Types.BYTE);
-    public static final Type<Set<Character>> SET_OF_CHARACTER = Types.setOf(Types.CHARACTER);
-    public static final Type<Set<Double>> SET_OF_DOUBLE = Types.setOf(Types.DOUBLE);
-    public static final Type<Set<Float>> SET_OF_FLOAT = Types.setOf(Types.FLOAT);
-    public static final Type<Set<Integer>> SET_OF_INTEGER = Types.setOf(Types.INTEGER);
-    public static final Type<Set<Long>> SET_OF_LONG = Types.setOf(Types.LONG);
-    public static final Type<Set<Number>> SET_OF_NUMBER = Types.setOf(Types.NUMBER);
-    public static final Type<Set<Object>> SET_OF_OBJECT = Types.setOf(Types.OBJECT);
-    public static final Type<Set<Short>> SET_OF_SHORT = Types.setOf(Types.SHORT);
-    public static final Type<Set<String>> SET_OF_STRING = Types.setOf(Types.STRING);
-    public static final Type<Set<Date>> SET_OF_DATE = Types.setOf(Types.DATE);
-    public static final Type<Set<Calendar>> SET_OF_CALENDAR = Types.setOf(Types.CALENDAR);
-    public static final Type<Set<BigDecimal>> SET_OF_BIG_DECIMAL = Types.setOf(Types.BIG_DECIMAL);
-    public static final Type<Set<BigInteger>> SET_OF_BIG_INTEGER = Types.setOf(Types.BIG_INTEGER);
-    public static final Type<Set<Serializable>> SET_OF_SERIALIZABLE = Types.setOf(Types.SERIALIZABLE);
+    public static final Type<Set<?>> SET_OF_UNKNOWN = Types.constant(Set.class, TypeParameters.forUnknown());
+    public static final Type<Set<Boolean>> SET_OF_BOOLEAN = Types.constant(Set.class, TypeParameters.forType(Types.BOOLEAN));
+    public static final Type<Set<Byte>> SET_OF_BYTE = Types.constant(Set.class, TypeParameters.forType(Types.BYTE));
+    public static final Type<Set<Character>> SET_OF_CHARACTER = Types.constant(Set.class, TypeParameters.forType(Types.CHARACTER));
+    public static final Type<Set<Double>> SET_OF_DOUBLE = Types.constant(Set.class, TypeParameters.forType(Types.DOUBLE));
+    public static final Type<Set<Float>> SET_OF_FLOAT = Types.constant(Set.class, TypeParameters.forType(Types.FLOAT));
+    public static final Type<Set<Integer>> SET_OF_INTEGER = Types.constant(Set.class, TypeParameters.forType(Types.INTEGER));
+    public static final Type<Set<Long>> SET_OF_LONG = Types.constant(Set.class, TypeParameters.forType(Types.LONG));
+    public static final Type<Set<Number>> SET_OF_NUMBER = Types.constant(Set.class, TypeParameters.forType(Types.NUMBER));
+    public static final Type<Set<Object>> SET_OF_OBJECT = Types.constant(Set.class, TypeParameters.forType(Types.OBJECT));
+    public static final Type<Set<Short>> SET_OF_SHORT = Types.constant(Set.class, TypeParameters.forType(Types.SHORT));
+    public static final Type<Set<String>> SET_OF_STRING = Types.constant(Set.class, TypeParameters.forType(Types.STRING));
+    public static final Type<Set<Date>> SET_OF_DATE = Types.constant(Set.class, TypeParameters.forType(Types.DATE));
+    public static final Type<Set<Calendar>> SET_OF_CALENDAR = Types.constant(Set.class, TypeParameters.forType(Types.CALENDAR));
+    public static final Type<Set<BigDecimal>> SET_OF_BIG_DECIMAL = Types.constant(Set.class, TypeParameters.forType(Types.BIG_DECIMAL));
+    public static final Type<Set<BigInteger>> SET_OF_BIG_INTEGER = Types.constant(Set.class, TypeParameters.forType(Types.BIG_INTEGER));
+    public static final Type<Set<Serializable>> SET_OF_SERIALIZABLE = Types.constant(Set.class, TypeParameters.forType(Types.SERIALIZABLE));
     
 
+
+    
+    /*
+     * Constants are known to be valid, so they are not validated again, and
+     * they are not added to the (bounded) type caches either, which would
+     * otherwise be filled with them before the application asks for any 
+     * type. They are kept canonical, so the caches will return these same 
+     * instances when they are requested.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Type<T> constant(final Class<?> componentClass, final TypeParameter<?>... typeParameters) {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return (Type<T>) typeRegistry.getValidatedType(componentClass, typeParameters, 0);
+    }
+
     
     
     
@@ -326,7 +378,65 @@ public static <T> Type<T> forClass(final Class<? super T> componentClass, final
     public static Type<?> forName(final String typeName) {
         Utils.validateNotNull(typeName, "Type name cannot be null");
         final TypeRegistry typeRegistry = TypeRegistry.getInstance();
-        return typeRegistry.forName(typeName);
+        return typeRegistry.forName(typeName, 
+                ClassNameResolver.getDefaultClassLoader(),
+                ClassNameResolver.getInstance().isInitializeClasses());
+    }
+    
+    
+    public static Type<?> forName(final String typeName, final boolean initializeClasses) {
+        Utils.validateNotNull(typeName, "Type name cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.forName(typeName, 
+                ClassNameResolver.getDefaultClassLoader(), initializeClasses);
+    }
+    
+    
+    public static Type<?> forName(final String typeName, final ClassLoader classLoader) {
+        Utils.validateNotNull(typeName, "Type name cannot be null");
+        Utils.validateNotNull(classLoader, "Class loader cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.forName(typeName, classLoader,
+                ClassNameResolver.getInstance().isInitializeClasses());
+    }
+    
+    
+    public static Type<?> tryForName(final String typeName) {
+        Utils.validateNotNull(typeName, "Type name cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.tryForName(typeName, 
+                ClassNameResolver.getDefaultClassLoader(),
+                ClassNameResolver.getInstance().isInitializeClasses());
+    }
+    
+    
+    public static Type<?> tryForName(final String typeName, final boolean initializeClasses) {
+        Utils.validateNotNull(typeName, "Type name cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.tryForName(typeName, 
+                ClassNameResolver.getDefaultClassLoader(), initializeClasses);
+    }
+    
+    
+    public static Type<?> tryForName(final String typeName, final ClassLoader classLoader) {
+        Utils.validateNotNull(typeName, "Type name cannot be null");
+        Utils.validateNotNull(classLoader, "Class loader cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.tryForName(typeName, classLoader,
+                ClassNameResolver.getInstance().isInitializeClasses());
+    }
+    
+    
+    public static Type<?> forFingerprint(final long fingerprint) {
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.forFingerprint(fingerprint, ClassNameResolver.getDefaultClassLoader());
+    }
+    
+    
+    public static Type<?> forFingerprint(final long fingerprint, final ClassLoader classLoader) {
+        Utils.validateNotNull(classLoader, "Class loader cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.forFingerprint(fingerprint, classLoader);
     }
     
     
@@ -1005,6 +1115,12 @@ public static Set<Type<?>> getAllTypesAssignableFrom(final Type<?> type) {
     }
     
     
+    public static Iterator<Type<?>> iterateAllTypesAssignableFrom(final Type<?> type) {
+        Utils.validateNotNull(type, "Type cannot be null");
+        return type.iterateAllTypesAssignableFromThis();
+    }
+    
+    
     public static boolean isAssignableFrom(final Type<?> type, final Type<?> fromType) {
         Utils.validateNotNull(type, "Type cannot be null");
         final TypeRegistry typeRegistry = TypeRegistry.getInstance();
@@ -1012,6 +1128,41 @@ public static boolean isAssignableFrom(final Type<?> type, final Type<?> fromTyp
     }
     
     
+    public static void precomputeAssignabilities(final Type<?>... knownTypes) {
+        Utils.validateNotNull(knownTypes, "Types cannot be null");
+        for (int i = 0; i < knownTypes.length; i++) {
+            Utils.validateNotNull(knownTypes[i], "Type cannot be null");
+        }
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        typeRegistry.precomputeAssignabilities(knownTypes);
+    }
+    
+    
+    
+    public static void addImportedPackage(final String packageName) {
+        Utils.validateNotNull(packageName, "Package name cannot be null");
+        final ClassNameResolver classNameResolver = ClassNameResolver.getInstance();
+        classNameResolver.addImportedPackage(packageName);
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        typeRegistry.clearFailures();
+    }
+    
+    
+    public static void invalidate(final Class<?>... classes) {
+        Utils.validateNotNull(classes, "Classes cannot be null");
+        for (int i = 0; i < classes.length; i++) {
+            Utils.validateNotNull(classes[i], "Class cannot be null");
+        }
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        typeRegistry.invalidate(classes);
+    }
+    
+    
+    public static void setInitializeClasses(final boolean initializeClasses) {
+        final ClassNameResolver classNameResolver = ClassNameResolver.getInstance();
+        classNameResolver.setInitializeClasses(initializeClasses);
+    }
+    
     
     public static Type<?> forJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType) {
         Utils.validateNotNull(javaLangReflectType, "Type cannot be null");
@@ -1031,6 +1182,23 @@ public static Type<?> forJavaLangReflectType(final java.lang.reflect.Type javaLa
     }
     
     
+    public static Type<?> tryForJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType) {
+        Utils.validateNotNull(javaLangReflectType, "Type cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        return typeRegistry.tryForJavaLangReflectType(javaLangReflectType);
+    }
+    
+    
+    public static Type<?> tryForJavaLangReflectType(final java.lang.reflect.Type javaLangReflectType, final Map<String,Type<?>> variableSubstitutions) {
+        Utils.validateNotNull(javaLangReflectType, "Type cannot be null");
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        if (variableSubstitutions == null || variableSubstitutions.isEmpty()) {
+            return typeRegistry.tryForJavaLangReflectType(javaLangReflectType);
+        }
+        return typeRegistry.tryForJavaLangReflectType(javaLangReflectType, variableSubstitutions);
+    }
+    
+    
 
     
     
@@ -0,0 +1,171 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.type;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Progress of a warm-up of the type registry started by means of 
+ * {@link TypeProfiles}: number of profile entries replayed until now 
+ * (and how many of them failed, for example because a class no longer
+ * exists) and the time it took.
+ * </p>
+ * <p>
+ * Objects of this class are <b>thread-safe</b>.
+ * </p>
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+public final class WarmUpProgress {
+
+    private final int entryCount;
+    private final AtomicInteger completedCount = new AtomicInteger(0);
+    private final AtomicInteger failedCount = new AtomicInteger(0);
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final long startTime;
+    private volatile long endTime;
+    
+    
+    
+    WarmUpProgress(final int entryCount) {
+        super();
+        this.entryCount = entryCount;
+        this.startTime = System.nanoTime();
+        this.endTime = 0L;
+        if (entryCount == 0) {
+            finish();
+        }
+    }
+    
+    
+    
+    
+    void entryCompleted(final boolean failed) {
+        if (failed) {
+            this.failedCount.incrementAndGet();
+        }
+        if (this.completedCount.incrementAndGet() == this.entryCount) {
+            finish();
+        }
+    }
+    
+    
+    private void finish() {
+        this.endTime = System.nanoTime();
+        this.done.countDown();
+    }
+    
+    
+    
+
+    /**
+     * <p>
+     * Returns the number of entries in the profile being replayed.
+     * </p>
+     * 
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
+    /**
+     * <p>
+     * Returns the number of entries replayed until now, including the
+     * ones which failed.
+     * </p>
+     * 
+     * @return the number of replayed entries
+     */
+    public int getCompletedCount() {
+        return this.completedCount.get();
+    }
+
+    /**
+     * <p>
+     * Returns the number of entries which could not be replayed.
+     * </p>
+     * 
+     * @return the number of failed entries
+     */
+    public int getFailedCount() {
+        return this.failedCount.get();
+    }
+
+    /**
+     * <p>
+     * Returns whether every entry in the profile has already been replayed.
+     * </p>
+     * 
+     * @return true if the warm-up has finished, false if not
+     */
+    public boolean isDone() {
+        return (this.done.getCount() == 0);
+    }
+
+    /**
+     * <p>
+     * Returns the duration of the warm-up, or the time elapsed since it 
+     * started if it has not finished yet.
+     * </p>
+     * 
+     * @return the duration, in milliseconds
+     */
+    public long getDuration() {
+        final long end = (isDone()? this.endTime : System.nanoTime());
+        return TimeUnit.NANOSECONDS.toMillis(end - this.startTime);
+    }
+    
+    /**
+     * <p>
+     * Waits for the warm-up to finish, for at most the specified time.
+     * </p>
+     * 
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if the warm-up finished, false if the timeout elapsed
+     * @throws InterruptedException if the current thread is interrupted 
+     *         while waiting
+     */
+    public boolean awaitCompletion(final long timeout, final TimeUnit unit) 
+            throws InterruptedException {
+        return this.done.await(timeout, unit);
+    }
+    
+
+    @Override
+    public String toString() {
+        final StringBuilder strBuilder = new StringBuilder();
+        strBuilder.append("WarmUpProgress[entries=").append(this.entryCount);
+        strBuilder.append(", completed=").append(getCompletedCount());
+        strBuilder.append(", failed=").append(getFailedCount());
+        strBuilder.append(", duration=").append(getDuration());
+        strBuilder.append(", done=").append(isDone());
+        strBuilder.append("]");
+        return strBuilder.toString();
+    }
+    
+}
@@ -0,0 +1,81 @@
+/*
+ * =============================================================================
+ * 
+ *   Copyright (c) 2009, The JAVARUNTYPE team (http://www.javaruntype.org)
+ * 
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * 
+ * =============================================================================
+ */
+package org.javaruntype.typedef;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+
+
+/*
+ * (non-javadoc)
+ * 
+ * Serialized form of TypeDef instances (see TypeDef.writeReplace()). Type
+ * definitions are completely determined by their component classes, so 
+ * only the class is written (once per stream, as with any other class), 
+ * and the canonical type definition is obtained from the registry when 
+ * read.
+ * 
+ * @since 1.4
+ * 
+ * @author Daniel Fern&aacute;ndez
+ *
+ */
+final class SerializedTypeDef implements Serializable {
+
+    private static final long serialVersionUID = 2967151093586446512L;
+
+    private transient Class<?> componentClass;
+    
+    
+    
+    SerializedTypeDef(final Class<?> componentClass) {
+        super();
+        this.componentClass = componentClass;
+    }
+    
+    
+    
+    
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.writeObject(this.componentClass);
+    }
+    
+    
+    private void readObject(final ObjectInputStream in) 
+            throws IOException, ClassNotFoundException {
+        final Object object = in.readObject();
+        if (!(object instanceof Class<?>)) {
+            throw new InvalidObjectException("Expected a class, found: " + object);
+        }
+        this.componentClass = (Class<?>) object;
+    }
+    
+    
+    private Object readResolve() throws ObjectStreamException {
+        final TypeDefRegistry typeDefRegistry = TypeDefRegistry.getInstance();
+        return typeDefRegistry.forClass(this.componentClass);
+    }
+    
+}
@@ -80,6 +80,7 @@ public final class TypeDef implements Serializable {
     
     // Class is immutable, so hashCode can be precomputed
     private final int hashCode;
+    private final long fingerprint;
 
 
     private static String createName(final Class<?> componentClass, 
@@ -108,6 +109,7 @@ private static String createName(final Class<?> componentClass,
         this.variables = variables.clone(); 
         this.name = createName(componentClass, variables);
         this.hashCode = this.name.hashCode();
+        this.fingerprint = Utils.fingerprint(this.name);
         
     }
     
@@ -143,6 +145,19 @@ public TypeDefVariable[] getVariables() {
     public String getName() {
         return this.name;
     }
+    
+    
+    /**
+     * Returns a 64-bit fingerprint of the type definition, computed from its
+     * name (which includes the bounds of its variables). The fingerprint of 
+     * a type definition is the same in every JVM.
+     * 
+     * @return the fingerprint of the type definition.
+     * @since 1.4
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
 
     
     @Override
@@ -174,6 +189,13 @@ public boolean equals(final Object obj) {
     }
     
     
+    @SuppressWarnings("unused")
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializedTypeDef(this.componentClass);
+    }
+    
+    
+    // Only for streams written before type definitions were serialized as SerializedTypeDef
     @SuppressWarnings("unused")
     private Object readResolve() throws ObjectStreamException {
         final TypeDefRegistry typeDefRegistry = TypeDefRegistry.getInstance();
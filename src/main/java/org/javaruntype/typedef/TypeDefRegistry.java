@@ -19,18 +19,22 @@
  */
 package org.javaruntype.typedef;
 
-import org.javaruntype.cache.ConcurrentCache;
 
 /*
  * (non-javadoc)
  * 
- * This is the registry of type definitions, a synchronized cache which ensures
- * that only one object of each type definition exists in memory at a time.
+ * This is the registry of type definitions, which ensures that only one 
+ * object of each type definition exists in memory at a time.
  * 
  * This is not for saving CPU cycles (an aspect which would probably be more
  * efficient if new instances were created), but to avoid an excessive
  * memory usage under heavy processing load. 
  * 
+ * Type definitions are stored attached to their classes (by means of a 
+ * ClassValue), so that they are never evicted while their class is alive and
+ * never prevent its class loader from being garbage collected. They are
+ * only removed when explicitly invalidated.
+ * 
  * @since 1.0
  * 
  * @author Daniel Fern&aacute;ndez
@@ -38,8 +42,13 @@
  */
 final class TypeDefRegistry {
     
-    private final ConcurrentCache<Class<?>,TypeDef> typeDefsByClass = 
-        new ConcurrentCache<Class<?>, TypeDef>();
+    private final ClassValue<TypeDef> typeDefsByClass = 
+        new ClassValue<TypeDef>() {
+            @Override
+            protected TypeDef computeValue(final Class<?> typeClass) {
+                return TypeDefUtil.forClass(typeClass);
+            }
+        };
     
     
     private final static TypeDefRegistry instance = new TypeDefRegistry(); 
@@ -59,13 +68,15 @@ private TypeDefRegistry() {
     
     TypeDef forClass(final Class<?> typeClass) {
 
-        final TypeDef typeDef = this.typeDefsByClass.get(typeClass);
-        if (typeDef != null) {
-            return typeDef; 
-        }
-        return this.typeDefsByClass.computeAndGet(
-                typeClass, 
-                TypeDefUtil.forClass(typeClass));
+        return this.typeDefsByClass.get(typeClass);
+        
+    }
+    
+    
+    
+    void invalidate(final Class<?> typeClass) {
+        
+        this.typeDefsByClass.remove(typeClass);
         
     }
     
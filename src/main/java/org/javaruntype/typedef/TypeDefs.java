@@ -54,6 +54,30 @@ public static TypeDef forClass(final Class<?> typeClass) {
     }
     
     
+    /**
+     * <p>
+     * Removes the <tt>TypeDef</tt> objects corresponding to the given classes
+     * from the registry, so that they will be created again the next time
+     * they are requested. <tt>TypeDef</tt> objects for any other classes are
+     * not affected.
+     * </p>
+     * 
+     * @param typeClasses the classes which TypeDefs must be invalidated.
+     * @since 1.4
+     */
+    public static void invalidate(final Class<?>... typeClasses) {
+        
+        Utils.validateNotNull(typeClasses, "Classes cannot be null");
+        
+        final TypeDefRegistry typeDefRegistry = TypeDefRegistry.getInstance();
+        for (int i = 0; i < typeClasses.length; i++) {
+            Utils.validateNotNull(typeClasses[i], "Class cannot be null");
+            typeDefRegistry.invalidate(typeClasses[i]);
+        }
+        
+    }
+    
+    
     private TypeDefs() {
         super();
     }
@@ -37,6 +37,9 @@
 public class Utils {
     
 
+    private static final long FINGERPRINT_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+
     private static Map<String,String> primitiveClassAbbrevs = new HashMap<String,String>();
 
     
@@ -225,6 +228,51 @@ public static String removeAllWhitespaces(final String string) {
     }
     
     
+    /**
+     * <p>
+     * Internal utility method. DO NOT use this method directly.
+     * </p>
+     *
+     * @param string the text to be fingerprinted
+     * @return a 64-bit fingerprint of the text, which does not depend on 
+     *         the JVM in which it is computed
+     * @since 1.4
+     */
+    public static long fingerprint(final String string) {
+        // FNV-1a over the characters of the string
+        long fingerprint = FINGERPRINT_OFFSET_BASIS;
+        for (int i = 0, n = string.length(); i < n; i++) {
+            fingerprint = (fingerprint ^ string.charAt(i)) * FINGERPRINT_PRIME;
+        }
+        return mixFingerprint(fingerprint);
+    }
+    
+    
+    /**
+     * <p>
+     * Internal utility method. DO NOT use this method directly.
+     * </p>
+     *
+     * @param fingerprint the fingerprint to be extended
+     * @param value the value to be added to the fingerprint
+     * @return a 64-bit fingerprint of the original fingerprint followed by 
+     *         the value (so that order matters)
+     * @since 1.4
+     */
+    public static long combineFingerprints(final long fingerprint, final long value) {
+        return mixFingerprint((fingerprint * FINGERPRINT_PRIME) ^ value);
+    }
+    
+    
+    private static long mixFingerprint(final long value) {
+        // Finalizer of MurmurHash3, so that every bit affects every other
+        long mixed = value;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xff51afd7ed558ccdL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return mixed ^ (mixed >>> 33);
+    }
+    
+    
     /**
      * <p>
      * Internal utility method. DO NOT use this method directly.
@@ -0,0 +1,535 @@
+package org.javaruntype.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+public class TestConcurrentCache extends TestCase {
+
+    private static final int CACHE_SIZE = 200;
+    private static final int KEY_SPACE = 10000;
+    private static final int REQUESTS = 200000;
+    
+    
+    public void testComputeAndGet() throws Exception {
+        
+        final ConcurrentCache<String,String> cache = new ConcurrentCache<String,String>(10);
+        final String value1 = new String("value");
+        final String value2 = new String("value");
+        
+        assertNull(cache.get("a"));
+        assertSame(value1, cache.computeAndGet("a", value1));
+        assertSame(value1, cache.computeAndGet("a", value2));
+        assertSame(value1, cache.get("a"));
+        
+        cache.clear();
+        assertNull(cache.get("a"));
+        assertSame(value2, cache.computeAndGet("a", value2));
+        
+    }
+    
+    
+    public void testMaxElements() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = new ConcurrentCache<Integer,Integer>(50);
+        for (int i = 0; i < 1000; i++) {
+            cache.computeAndGet(Integer.valueOf(i), Integer.valueOf(i));
+            assertTrue(cache.size() <= 50);
+        }
+        // Some room can be reserved for insertions in progress
+        assertTrue(cache.size() > 25);
+        
+    }
+    
+    
+    public void testMaxElementsWithConcurrentWriters() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = new ConcurrentCache<Integer,Integer>(100);
+        final AtomicInteger maxObservedSize = new AtomicInteger(0);
+        final Thread[] threads = new Thread[64];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    final Random random = new Random(seed);
+                    for (int i = 0; i < 5000; i++) {
+                        final Integer key = Integer.valueOf(random.nextInt(KEY_SPACE));
+                        if (cache.get(key) == null) {
+                            cache.computeAndGet(key, key);
+                        }
+                        final int size = cache.size();
+                        int max = maxObservedSize.get();
+                        while (size > max && !maxObservedSize.compareAndSet(max, size)) {
+                            max = maxObservedSize.get();
+                        }
+                    }
+                }
+            };
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        
+        assertTrue(maxObservedSize.get() <= 100);
+        
+    }
+    
+    
+    public void testSingleFlightLoading() throws Exception {
+        
+        final ConcurrentCache<String,String> cache = new ConcurrentCache<String,String>(10);
+        final AtomicInteger loads = new AtomicInteger(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CacheLoader<String,String> loader = new CacheLoader<String,String>() {
+            public String load(final String key) {
+                loads.incrementAndGet();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return key.toUpperCase();
+            }
+        };
+        
+        final String[] results = new String[16];
+        final Thread[] threads = new Thread[results.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int index = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    results[index] = cache.get("key", loader);
+                }
+            };
+            threads[t].start();
+        }
+        start.countDown();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        
+        assertEquals(1, loads.get());
+        for (int t = 0; t < results.length; t++) {
+            assertSame(results[0], results[t]);
+        }
+        
+    }
+    
+    
+    public void testCrossThreadRecursiveLoading() throws Exception {
+        
+        final ConcurrentCache<String,String> cache = new ConcurrentCache<String,String>(10);
+        final CountDownLatch bothLoading = new CountDownLatch(2);
+        final ThreadLocal<Boolean> nested = new ThreadLocal<Boolean>();
+        
+        // The first load at each thread requires the key being loaded by the other
+        // thread, so if both threads just waited for each other they would deadlock
+        final CacheLoader<String,String> loader = new CacheLoader<String,String>() {
+            public String load(final String key) {
+                if (nested.get() != null) {
+                    return key;
+                }
+                nested.set(Boolean.TRUE);
+                bothLoading.countDown();
+                try {
+                    bothLoading.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return key + cache.get(("a".equals(key)? "b" : "a"), this);
+            }
+        };
+        
+        final String[] results = new String[2];
+        final Thread[] threads = new Thread[results.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int index = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    results[index] = cache.get((index == 0? "a" : "b"), loader);
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join(10000);
+            assertFalse(threads[t].isAlive());
+        }
+        
+        assertTrue(results[0].startsWith("a"));
+        assertTrue(results[1].startsWith("b"));
+        
+    }
+    
+    
+    public void testFrequentKeysSurviveBurst() throws Exception {
+        
+        final ConcurrentCache<String,String> cache = new ConcurrentCache<String,String>(CACHE_SIZE);
+        final String[] hotKeys = new String[] { 
+                "java.util.Map<java.lang.String,java.lang.Object>", "java.util.List<java.lang.String>" };
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < hotKeys.length; i++) {
+                getOrCompute(cache, hotKeys[i]);
+            }
+        }
+        for (int i = 0; i < 10 * CACHE_SIZE; i++) {
+            getOrCompute(cache, "one-off-" + i);
+        }
+        for (int i = 0; i < hotKeys.length; i++) {
+            assertNotNull(cache.get(hotKeys[i]));
+        }
+        
+    }
+    
+    
+    /*
+     * Hit rate benchmark: a Zipfian stream of keys (like the one produced by an 
+     * application which uses a few types very often and many others only from 
+     * time to time), interrupted by bursts of one-off keys. The frequency-aware 
+     * policy must clearly beat FIFO on it.
+     */
+    public void testHitRateOnSkewedStream() throws Exception {
+        
+        final int[] stream = createSkewedStream(new Random(20091008L));
+        
+        final ConcurrentCache<Integer,Integer> cache = new ConcurrentCache<Integer,Integer>(CACHE_SIZE);
+        final FifoCache fifo = new FifoCache(CACHE_SIZE);
+        
+        int cacheHits = 0;
+        int fifoHits = 0;
+        for (int i = 0; i < stream.length; i++) {
+            final Integer key = Integer.valueOf(stream[i]);
+            if (cache.get(key) != null) {
+                cacheHits++;
+            } else {
+                cache.computeAndGet(key, key);
+            }
+            if (fifo.get(key) != null) {
+                fifoHits++;
+            } else {
+                fifo.put(key, key);
+            }
+        }
+        
+        final double cacheHitRate = (double) cacheHits / stream.length;
+        final double fifoHitRate = (double) fifoHits / stream.length;
+        
+        assertTrue("W-TinyLFU hit rate " + cacheHitRate + " should improve FIFO hit rate " + fifoHitRate,
+                cacheHitRate > fifoHitRate + 0.05);
+        
+    }
+    
+    
+    public void testStats() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = 
+            new ConcurrentCache<Integer,Integer>("testStats", 10);
+        final CacheLoader<Integer,Integer> loader = new CacheLoader<Integer, Integer>() {
+            public Integer load(final Integer key) {
+                return Integer.valueOf(key.intValue() * 2);
+            }
+        };
+        
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i * 2), cache.get(Integer.valueOf(i), loader));
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.get(Integer.valueOf(19), loader);
+        }
+        
+        final CacheStats stats = Caches.getStats("testStats");
+        assertEquals("testStats", stats.getName());
+        assertEquals(10, stats.getMaxElements());
+        assertEquals(5, stats.getHitCount());
+        assertEquals(20, stats.getMissCount());
+        assertEquals(25, stats.getRequestCount());
+        assertEquals(0.2, stats.getHitRate(), 0.0001);
+        assertEquals(20, stats.getLoadCount());
+        assertTrue(stats.getTotalLoadTime() >= 0L);
+        assertTrue(stats.getEvictionCount() >= 10);
+        assertEquals(cache.size(), stats.getSize());
+        assertEquals(stats.getEvictionCount(), 20 - stats.getSize());
+        
+        assertTrue(Caches.getAllStats().containsKey("testStats"));
+        assertNull(Caches.getStats("nonExistingCache"));
+        
+    }
+    
+    
+    public void testMBean() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = 
+            new ConcurrentCache<Integer,Integer>("testMBean", 10);
+        cache.get(Integer.valueOf(1));
+        cache.computeAndGet(Integer.valueOf(1), Integer.valueOf(1));
+        cache.get(Integer.valueOf(1));
+        
+        // MBeans are only registered on demand
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = new ObjectName("org.javaruntype:type=Cache,name=testMBean");
+        assertFalse(server.isRegistered(objectName));
+        
+        Caches.registerMBeans();
+        try {
+            assertTrue(server.isRegistered(objectName));
+            assertEquals(Long.valueOf(1), server.getAttribute(objectName, "HitCount"));
+            assertEquals(Long.valueOf(1), server.getAttribute(objectName, "MissCount"));
+            assertEquals(Integer.valueOf(1), server.getAttribute(objectName, "Size"));
+            
+            final ConcurrentCache<Integer,Integer> newCache = 
+                new ConcurrentCache<Integer,Integer>("testMBeanCreatedLater", 10);
+            assertTrue(server.isRegistered(
+                    new ObjectName("org.javaruntype:type=Cache,name=" + newCache.getName())));
+        } finally {
+            Caches.unregisterMBeans();
+        }
+        assertFalse(server.isRegistered(objectName));
+        
+    }
+    
+    
+    public void testDuplicateNames() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = 
+            new ConcurrentCache<Integer,Integer>("testDuplicateNames", 10);
+        final ConcurrentCache<Integer,Integer> duplicate = 
+            new ConcurrentCache<Integer,Integer>("testDuplicateNames", 20);
+        assertEquals("testDuplicateNames", cache.getName());
+        assertEquals("testDuplicateNames#2", duplicate.getName());
+        assertEquals(10, Caches.getStats("testDuplicateNames").getMaxElements());
+        assertEquals(20, Caches.getStats("testDuplicateNames#2").getMaxElements());
+        
+    }
+    
+    
+    public void testSetMaxElements() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = new ConcurrentCache<Integer,Integer>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.computeAndGet(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        
+        cache.setMaxElements(20);
+        assertEquals(20, cache.getMaxElements());
+        assertTrue(cache.size() <= 20);
+        for (int i = 0; i < 100; i++) {
+            cache.computeAndGet(Integer.valueOf(i), Integer.valueOf(i));
+            assertTrue(cache.size() <= 20);
+        }
+        
+        cache.setMaxElements(500);
+        for (int i = 0; i < 400; i++) {
+            cache.computeAndGet(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        assertTrue(cache.size() > 200);
+        
+    }
+    
+    
+    public void testInvalidate() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = new ConcurrentCache<Integer,Integer>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.computeAndGet(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        // Some entries might have been evicted already
+        int present = 0;
+        int presentEven = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.getIfPresent(Integer.valueOf(i)) != null) {
+                present++;
+                presentEven += (i % 2 == 0? 1 : 0);
+            }
+        }
+        
+        final int invalidated = 
+            cache.invalidate(new CacheEntryFilter<Integer, Integer>() {
+                public boolean matches(final Integer key, final Integer value) {
+                    return (key.intValue() % 2 == 0);
+                }
+            });
+        assertEquals(presentEven, invalidated);
+        assertEquals(present - presentEven, cache.size());
+        for (int i = 0; i < 100; i += 2) {
+            assertNull(cache.getIfPresent(Integer.valueOf(i)));
+        }
+        
+        // The room freed is reused, and the bound is kept
+        for (int i = 100; i < 300; i++) {
+            cache.computeAndGet(Integer.valueOf(i), Integer.valueOf(i));
+            assertTrue(cache.size() <= 100);
+        }
+        
+    }
+    
+    
+    public void testConfiguredCaches() throws Exception {
+        
+        final String maxElementsProperty = "org.javaruntype.cache.testConfiguredByProperty.maxElements";
+        final String adaptiveProperty = "org.javaruntype.cache.testConfiguredByProperty.adaptive";
+        final String previousMaxElements = System.getProperty(maxElementsProperty);
+        final String previousAdaptive = System.getProperty(adaptiveProperty);
+        
+        try {
+            
+            Caches.setMaxElements("testConfigured", 30);
+            System.setProperty(maxElementsProperty, "40");
+            System.setProperty(adaptiveProperty, "true");
+            
+            final ConcurrentCache<Integer,Integer> configured = 
+                new ConcurrentCache<Integer,Integer>("testConfigured", 10);
+            final ConcurrentCache<Integer,Integer> configuredByProperty = 
+                new ConcurrentCache<Integer,Integer>("testConfiguredByProperty", 10);
+            assertEquals(30, configured.getMaxElements());
+            assertFalse(configured.isAdaptive());
+            assertEquals(40, configuredByProperty.getMaxElements());
+            assertTrue(configuredByProperty.isAdaptive());
+            
+            Caches.setMaxElements("testConfigured", 50);
+            Caches.setAdaptive("testConfigured", true);
+            assertEquals(50, configured.getMaxElements());
+            assertTrue(configured.isAdaptive());
+            assertEquals(50, Caches.getStats("testConfigured").getMaxElements());
+            
+        } finally {
+            restoreProperty(maxElementsProperty, previousMaxElements);
+            restoreProperty(adaptiveProperty, previousAdaptive);
+        }
+        
+    }
+    
+    
+    public void testAdaptiveGrowth() throws Exception {
+        
+        final ConcurrentCache<Integer,Integer> cache = new ConcurrentCache<Integer,Integer>(100);
+        cache.setAdaptive(true);
+        
+        final Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            final Integer key = Integer.valueOf(random.nextInt(1000));
+            if (cache.get(key) == null) {
+                cache.computeAndGet(key, key);
+            }
+        }
+        // High miss rate with a working set of 1000 keys: the cache grows
+        assertTrue(cache.getMaxElements() > 100);
+        assertTrue(cache.getMaxElements() <= 100 * AdaptiveCapacity.GROWTH_LIMIT_FACTOR);
+        
+        cache.setAdaptive(false);
+        final int grownMaxElements = cache.getMaxElements();
+        for (int i = 0; i < 10000; i++) {
+            cache.get(Integer.valueOf(random.nextInt(100000)));
+        }
+        assertEquals(grownMaxElements, cache.getMaxElements());
+        
+    }
+    
+    
+    public void testAdaptiveShrinking() throws Exception {
+        
+        final long second = 1000L * 1000L * 1000L;
+        final AdaptiveCapacity capacity = new AdaptiveCapacity(100, 0L, 0L, 0L);
+        
+        // Many requests, high miss rate: grows if there is memory headroom
+        assertEquals(200, capacity.evaluate(100, 500L, 1500L, second, 0.5));
+        assertEquals(200, capacity.evaluate(200, 500L, 1500L, 2 * second, 0.5));
+        assertEquals(200, capacity.evaluate(200, 600L, 4000L, 3 * second, 0.2));
+        // Low memory headroom: shrinks
+        assertEquals(100, capacity.evaluate(200, 5000L, 6000L, 4 * second, 0.05));
+        // Idle for a whole period: shrinks, but never below the initial size
+        assertEquals(200, capacity.evaluate(400, 5010L, 6000L, 100 * second, 0.5));
+        assertEquals(100, capacity.evaluate(100, 5020L, 6000L, 200 * second, 0.5));
+        
+    }
+    
+    
+    
+    private static void getOrCompute(final ConcurrentCache<String,String> cache, final String key) {
+        if (cache.get(key) == null) {
+            cache.computeAndGet(key, key);
+        }
+    }
+    
+    
+    private static int[] createSkewedStream(final Random random) {
+        
+        // Cumulative probabilities of a Zipf distribution with exponent 1
+        final double[] cumulative = new double[KEY_SPACE];
+        double total = 0.0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        
+        final int[] stream = new int[REQUESTS];
+        int oneOffKey = KEY_SPACE;
+        for (int i = 0; i < REQUESTS; i++) {
+            if ((i % 10000) < 1000) {
+                // Burst of keys which will never be requested again
+                stream[i] = oneOffKey++;
+            } else {
+                final double value = random.nextDouble() * total;
+                int low = 0;
+                int high = KEY_SPACE - 1;
+                while (low < high) {
+                    final int middle = (low + high) >>> 1;
+                    if (cumulative[middle] < value) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                stream[i] = low;
+            }
+        }
+        return stream;
+        
+    }
+    
+    
+    private static void restoreProperty(final String name, final String value) {
+        if (value == null) {
+            System.clearProperty(name);
+        } else {
+            System.setProperty(name, value);
+        }
+    }
+    
+    
+    private static final class FifoCache extends LinkedHashMap<Integer,Integer> {
+        
+        private static final long serialVersionUID = 1L;
+        private final int maxElements;
+        
+        FifoCache(final int maxElements) {
+            super();
+            this.maxElements = maxElements;
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer,Integer> eldest) {
+            return size() > this.maxElements;
+        }
+        
+    }
+    
+}
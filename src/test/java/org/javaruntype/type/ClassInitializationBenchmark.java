@@ -0,0 +1,105 @@
+package org.javaruntype.type;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Startup benchmark for type name resolution with and without class
+ * initialization. Each measurement runs in a fresh JVM so that no class
+ * is loaded (or initialized) beforehand. Run with:
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        org.javaruntype.type.ClassInitializationBenchmark [runs]
+ */
+public class ClassInitializationBenchmark {
+
+    private static final String[] TYPE_NAMES = new String[] {
+        "javax.swing.JTable",
+        "javax.swing.JTree",
+        "javax.swing.JEditorPane",
+        "java.awt.Font",
+        "java.awt.Color",
+        "java.awt.image.BufferedImage",
+        "javax.script.ScriptEngineManager",
+        "java.util.logging.LogManager",
+        "java.util.List<javax.swing.JComponent>",
+        "java.util.Map<String,javax.swing.text.html.HTMLEditorKit>",
+        "java.util.Set<javax.sound.sampled.AudioSystem>",
+        "java.util.List<javax.print.PrintServiceLookup>"
+    };
+
+
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 2 && "child".equals(args[0])) {
+            runChild(Boolean.parseBoolean(args[1]));
+            return;
+        }
+
+        final int runs = (args.length > 0 ? Integer.parseInt(args[0]) : 5);
+
+        final List<Long> initializing = new ArrayList<Long>();
+        final List<Long> nonInitializing = new ArrayList<Long>();
+        for (int i = 0; i < runs; i++) {
+            initializing.add(Long.valueOf(spawnChild(true)));
+            nonInitializing.add(Long.valueOf(spawnChild(false)));
+        }
+
+        System.out.println("initialize=true:  " + median(initializing) + " us (median of " + runs + ") " + initializing);
+        System.out.println("initialize=false: " + median(nonInitializing) + " us (median of " + runs + ") " + nonInitializing);
+
+    }
+
+
+
+    private static void runChild(final boolean initialize) {
+        System.setProperty("java.awt.headless", "true");
+        // Bootstrap the library itself outside the measurement
+        Types.forName("Integer", initialize);
+        final long start = System.nanoTime();
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            Types.forName(TYPE_NAMES[i], initialize);
+        }
+        final long elapsed = System.nanoTime() - start;
+        System.out.println(elapsed / 1000);
+    }
+
+
+
+    private static long spawnChild(final boolean initialize) throws Exception {
+        final String javaExecutable =
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final ProcessBuilder processBuilder =
+            new ProcessBuilder(
+                    javaExecutable, "-cp", System.getProperty("java.class.path"),
+                    ClassInitializationBenchmark.class.getName(),
+                    "child", String.valueOf(initialize));
+        processBuilder.redirectErrorStream(true);
+        final Process process = processBuilder.start();
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        String line = null;
+        String lastLine = null;
+        while ((line = reader.readLine()) != null) {
+            lastLine = line;
+        }
+        reader.close();
+        if (process.waitFor() != 0 || lastLine == null) {
+            throw new IllegalStateException("Benchmark process failed: " + lastLine);
+        }
+        return Long.parseLong(lastLine.trim());
+    }
+
+
+
+    private static long median(final List<Long> values) {
+        final List<Long> sorted = new ArrayList<Long>(values);
+        java.util.Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2).longValue();
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.javaruntype.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Benchmark for the serialization of types: a list of types (with many 
+ * of them repeated, as in replicated sessions) is serialized and 
+ * deserialized repeatedly, reporting the size of the stream and the 
+ * average time of both operations. Run with:
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        org.javaruntype.type.SerializationBenchmark [iterations]
+ */
+public class SerializationBenchmark {
+
+    private static final String[] TYPE_NAMES = new String[] {
+        "String", "java.util.List<String>", "java.util.Map<String,java.util.List<Integer>>",
+        "java.util.Set<java.util.Map<String,java.math.BigDecimal>>", "Integer[]",
+        "java.util.Map<String,java.util.Map<String,java.util.List<? extends Number>>>",
+        "java.util.Collection<? super Integer>", "java.util.HashMap<Long,java.util.Date>[]"
+    };
+    
+    private static final int TYPES_PER_STREAM = 1000;
+
+
+
+    public static void main(final String[] args) throws Exception {
+
+        final int iterations = (args.length > 0 ? Integer.parseInt(args[0]) : 2000);
+
+        final List<Type<?>> types = new ArrayList<Type<?>>();
+        for (int i = 0; i < TYPES_PER_STREAM; i++) {
+            types.add(Types.forName(TYPE_NAMES[i % TYPE_NAMES.length]));
+        }
+        
+        final byte[] single = serialize(Types.forName(TYPE_NAMES[2]));
+        final byte[] bytes = serialize(types);
+        
+        // Warm-up
+        for (int i = 0; i < iterations; i++) {
+            deserialize(serialize(types));
+        }
+        
+        long serializationTime = 0L;
+        long deserializationTime = 0L;
+        for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            final byte[] iterationBytes = serialize(types);
+            final long middle = System.nanoTime();
+            deserialize(iterationBytes);
+            final long end = System.nanoTime();
+            serializationTime += (middle - start);
+            deserializationTime += (end - middle);
+        }
+
+        System.out.println("single type:     " + single.length + " bytes");
+        System.out.println("stream of " + TYPES_PER_STREAM + ": " + bytes.length + " bytes");
+        System.out.println("serialization:   " + (serializationTime / iterations / 1000) + " us per stream");
+        System.out.println("deserialization: " + (deserializationTime / iterations / 1000) + " us per stream");
+
+    }
+
+
+
+    private static byte[] serialize(final Object object) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+
+
+    private static Object deserialize(final byte[] bytes) throws Exception {
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        final Object object = in.readObject();
+        in.close();
+        return object;
+    }
+
+}
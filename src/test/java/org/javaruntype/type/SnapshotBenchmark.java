@@ -0,0 +1,140 @@
+package org.javaruntype.type;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Benchmark for the loading of the type registry from a snapshot. A first 
+ * JVM executes a workload (a set of type names plus assignability checks 
+ * among them) and exports the resulting registry snapshot, and then the 
+ * first execution of the workload is timed in fresh JVMs, with and without 
+ * mapping the snapshot at startup. Run with:
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        org.javaruntype.type.SnapshotBenchmark [runs]
+ */
+public class SnapshotBenchmark {
+
+    private static final String[] COMPONENT_NAMES = new String[] {
+        "String", "Integer", "Long", "java.math.BigDecimal", "java.util.Date",
+        "java.util.List<String>", "java.util.Set<Integer>", "java.lang.Number"
+    };
+    
+    // Type names are exported as long as they are still cached by name 
+    // when exporting, so the workload is kept under the cache's capacity
+    private static final String[] CONTAINER_NAMES = new String[] {
+        "java.util.ArrayList", "java.util.LinkedList", "java.util.HashSet",
+        "java.util.TreeSet", "java.util.concurrent.CopyOnWriteArrayList"
+    };
+    
+    private static final String[] SUPERTYPE_NAMES = new String[] {
+        "java.util.Collection", "java.util.List", "java.util.Set", 
+        "java.util.Queue", "java.lang.Iterable"
+    };
+
+
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 1 && "child".equals(args[0])) {
+            System.out.println(runWorkload());
+            return;
+        }
+        if (args.length == 2 && "export".equals(args[0])) {
+            runWorkload();
+            final FileOutputStream out = new FileOutputStream(args[1]);
+            try {
+                TypeSnapshots.export(out);
+            } finally {
+                out.close();
+            }
+            System.out.println("exported");
+            return;
+        }
+
+        final int runs = (args.length > 0 ? Integer.parseInt(args[0]) : 5);
+
+        final File snapshotFile = File.createTempFile("javaruntype-snapshot", ".bin");
+        snapshotFile.deleteOnExit();
+        spawnChild(null, "export", snapshotFile.getPath());
+        System.out.println("snapshot: " + snapshotFile.length() + " bytes");
+        
+        final List<Long> cold = new ArrayList<Long>();
+        final List<Long> mapped = new ArrayList<Long>();
+        for (int i = 0; i < runs; i++) {
+            cold.add(Long.valueOf(spawnChild(null, "child", null)));
+            mapped.add(Long.valueOf(
+                    spawnChild("-D" + TypeSnapshots.SNAPSHOT_PROPERTY + "=" + snapshotFile.getPath(), "child", null)));
+        }
+
+        System.out.println("first workload, cold:     " + median(cold) + " us (median of " + runs + ") " + cold);
+        System.out.println("first workload, snapshot: " + median(mapped) + " us (median of " + runs + ") " + mapped);
+
+    }
+
+
+
+    private static long runWorkload() {
+        // Bootstrap the library itself (which maps the snapshot, if any)
+        Types.forName("Object");
+        final long start = System.nanoTime();
+        for (int i = 0; i < CONTAINER_NAMES.length; i++) {
+            for (int j = 0; j < COMPONENT_NAMES.length; j++) {
+                final Type<?> type = 
+                    Types.forName(CONTAINER_NAMES[i] + "<" + COMPONENT_NAMES[j] + ">");
+                for (int k = 0; k < SUPERTYPE_NAMES.length; k++) {
+                    Types.forName(SUPERTYPE_NAMES[k] + "<" + COMPONENT_NAMES[j] + ">").isAssignableFrom(type);
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1000;
+    }
+
+
+
+    private static String spawnChild(
+            final String property, final String mode, final String argument) throws Exception {
+        final String javaExecutable =
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final List<String> command = new ArrayList<String>();
+        command.add(javaExecutable);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        if (property != null) {
+            command.add(property);
+        }
+        command.add(SnapshotBenchmark.class.getName());
+        command.add(mode);
+        if (argument != null) {
+            command.add(argument);
+        }
+        final ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        final Process process = processBuilder.start();
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        String line = null;
+        String lastLine = null;
+        while ((line = reader.readLine()) != null) {
+            lastLine = line;
+        }
+        reader.close();
+        if (process.waitFor() != 0 || lastLine == null) {
+            throw new IllegalStateException("Benchmark process failed: " + lastLine);
+        }
+        return lastLine.trim();
+    }
+
+
+
+    private static long median(final List<Long> values) {
+        final List<Long> sorted = new ArrayList<Long>(values);
+        java.util.Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2).longValue();
+    }
+
+}
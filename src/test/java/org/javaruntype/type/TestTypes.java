@@ -1,8 +1,41 @@
 package org.javaruntype.type;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
 import junit.framework.TestCase;
 
+import org.javaruntype.cache.CacheStats;
+import org.javaruntype.cache.Caches;
 import org.javaruntype.exceptions.TypeRecognitionException;
+import org.javaruntype.type.testtypes.TInitializations;
+import org.javaruntype.type.testtypes.TParentType;
+import org.javaruntype.type.testtypes.TType;
+import org.javaruntype.type.testtypes.TType2;
+import org.javaruntype.type.testtypes.TType3;
+import org.javaruntype.typedef.TypeDef;
+import org.javaruntype.typedef.TypeDefs;
+import org.javaruntype.util.Utils;
 
 public class TestTypes extends TestCase {
 
@@ -103,6 +136,404 @@ public void testForName() throws Exception {
     }
 
     
+    public void testForNameSyntax() throws Exception {
+        
+        assertEquals(Types.forName("List<String>[]"), Types.forName("  List < String > [] "));
+        assertEquals(Types.forName("List<? extends Number>"), Types.forName("List<?  extends  Number>"));
+        assertEquals(Types.forName("Map<?,? super Integer>"), Types.forName("Map< ? , ? super Integer >"));
+        assertEquals(Types.forName("java.util.Map$Entry<?,?>"), Types.forName("java.util.Map$Entry"));
+        
+        checkInvalidName("");
+        checkInvalidName("[]");
+        checkInvalidName("<String>");
+        checkInvalidName("String>");
+        checkInvalidName("String!");
+        checkInvalidName("String[");
+        checkInvalidName("String[ ]");
+        checkInvalidName("List<String");
+        checkInvalidName("List<String>>");
+        checkInvalidName("List<String>[][]x");
+        checkInvalidName("List<>");
+        checkInvalidName("List<,String>");
+        checkInvalidName("List<String,>");
+        checkInvalidName("Map<String Integer>");
+        checkInvalidName("List<? extends>");
+        checkInvalidName("List<? extendsNumber>");
+        checkInvalidName("List<? extends ?>");
+        checkInvalidName("List<?[]>");
+        
+        // Nesting depth is not limited by the stack
+        final int depth = 5000;
+        final StringBuilder strBuilder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            strBuilder.append("List<");
+        }
+        strBuilder.append("String");
+        for (int i = 0; i < depth; i++) {
+            strBuilder.append(">");
+        }
+        Type<?> type = Types.forName(strBuilder.toString());
+        for (int i = 0; i < depth; i++) {
+            assertEquals(List.class, type.getComponentClass());
+            type = type.getTypeParameters().get(0).getType();
+        }
+        assertEquals(Types.STRING, type);
+        
+    }
+
+    
+    public void testClassNameResolution() throws Exception {
+        
+        final CountingClassLoader loader = new CountingClassLoader(getClass().getClassLoader());
+        final ClassNameResolver resolver = 
+            new ClassNameResolver("org.javaruntype.type.testtypes, java.util.concurrent.", true);
+        
+        // Cold resolution of Map<String,List<Integer>> must not throw any exceptions
+        assertEquals(Map.class, resolver.resolve("Map", loader, true));
+        assertEquals(String.class, resolver.resolve("String", loader, true));
+        assertEquals(List.class, resolver.resolve("List", loader, true));
+        assertEquals(Integer.class, resolver.resolve("Integer", loader, true));
+        assertEquals(0, loader.failures);
+        
+        assertEquals(int.class, resolver.resolve("int", loader, true));
+        assertEquals(Map.Entry.class, resolver.resolve("Map.Entry", loader, true));
+        assertEquals(Map.Entry.class, resolver.resolve("java.util.Map.Entry", loader, true));
+        assertEquals(Map.Entry.class, resolver.resolve("java.util.Map$Entry", loader, true));
+        assertEquals(Thread.State.class, resolver.resolve("Thread.State", loader, true));
+        assertEquals(TType2.class, resolver.resolve("TType2", loader, true));
+        assertEquals(ConcurrentMap.class, resolver.resolve("ConcurrentMap", loader, true));
+        assertEquals(0, loader.failures);
+        
+        for (int i = 0; i < 2; i++) {
+            try {
+                resolver.resolve("TTypeX", loader, true);
+                fail();
+            } catch (ClassNotFoundException e) {
+                // Only the last resort attempt fails
+                assertEquals(i + 1, loader.failures);
+            }
+        }
+        
+        // The bootstrap loader only resolves its own classes, not the ones in the classpath
+        assertEquals(Map.Entry.class, resolver.resolve("Map.Entry", null, true));
+        assertNull(resolver.tryResolve("TType2", null, true));
+
+        // Classes without a resource can be defined after failing to resolve them
+        final String runtimeClassName = TType3.class.getName();
+        loader.undefinedClassNames.add(runtimeClassName);
+        assertNull(resolver.tryResolve(runtimeClassName, loader, true));
+        loader.undefinedClassNames.remove(runtimeClassName);
+        assertEquals(TType3.class, resolver.tryResolve(runtimeClassName, loader, true));
+        
+        assertEquals(Types.forName("java.util.Map$Entry<String,Integer>"), 
+                Types.forName("Map.Entry<String,Integer>"));
+        checkInvalidName("ConcurrentMap<String,String>");
+
+        // Imported packages are tested on a private resolver, as the shared one is global
+        final ClassNameResolver importingResolver = new ClassNameResolver("", true);
+        assertNull(importingResolver.tryResolve("ConcurrentMap", loader, true));
+        importingResolver.addImportedPackage("java.util.concurrent");
+        assertEquals(ConcurrentMap.class, importingResolver.resolve("ConcurrentMap", loader, true));
+        
+    }
+
+    
+    public void testTryForName() throws Exception {
+        
+        assertEquals(Types.forName("Map<String,List<Integer>>"), Types.tryForName("Map<String,List<Integer>>"));
+        assertEquals(Types.forName("class java.lang.String"), Types.tryForName("class java.lang.String"));
+        assertNull(Types.tryForName("Strin"));
+        assertNull(Types.tryForName("List<String"));
+        assertNull(Types.tryForName("String<Integer>"));
+        assertNull(Types.tryForName("org.javaruntype.type.testtypes.TType<Number,?,String>"));
+        assertNull(Types.tryForName("List<? extends ?>"));
+        checkInvalidName("org.javaruntype.type.testtypes.TType<Number,?,String>");
+        
+        final java.lang.reflect.Type listOfE = 
+            TestTypes.class.getDeclaredMethod("listOfE").getGenericReturnType();
+        assertNull(Types.tryForJavaLangReflectType(listOfE));
+        final Map<String,Type<?>> substitutions = new java.util.HashMap<String, Type<?>>();
+        substitutions.put("E", Types.INTEGER);
+        assertEquals(Types.forName("List<Integer>"), Types.tryForJavaLangReflectType(listOfE, substitutions));
+        substitutions.put("E", Types.STRING);
+        assertNull(Types.tryForJavaLangReflectType(listOfE, substitutions));
+        assertEquals(Types.LIST_OF_STRING, 
+                Types.tryForJavaLangReflectType(
+                        TestTypes.class.getDeclaredMethod("listOfString").getGenericReturnType()));
+        
+        final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+        if (allocationBean == null) {
+            return;
+        }
+        // Repeated failures are served from the negative cache
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20000; i++) {
+            assertNull(Types.tryForName("Strin"));
+            assertNull(Types.tryForName("List<String"));
+        }
+        final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        // Allow some slack for the measurement itself
+        assertTrue("Allocated " + allocated + " bytes", allocated < 20000);
+        
+    }
+
+    
+    public void testNonInitializingResolution() throws Exception {
+        
+        final Type<?> type = 
+            Types.forName("org.javaruntype.type.testtypes.TStaticInit<Integer>", false);
+        assertEquals(Types.INTEGER, type.getTypeParameters().get(0).getType());
+        assertTrue(Types.forName("List<Integer>").isAssignableFrom(type));
+        assertTrue(Types.getAllTypesAssignableFrom(type).contains(Types.forName("Collection<Integer>")));
+        assertEquals(1, org.javaruntype.typedef.TypeDefs.forClass(type.getRawClass()).getVariables().length);
+        assertEquals(0, TInitializations.count);
+        
+        assertNotNull(Types.tryForName("org.javaruntype.type.testtypes.TStaticInit<Long>", false));
+        assertEquals(0, TInitializations.count);
+        
+    }
+
+    
+    public void testClassLoaderPartitions() throws Exception {
+        
+        final String typeName = "org.javaruntype.type.testtypes.TType2<String>";
+        final URL testClasses = TType2.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader loader = new URLClassLoader(new URL[] { testClasses }, null);
+        
+        Type<?> type = Types.forName(typeName, loader);
+        assertSame(loader, type.getComponentClass().getClassLoader());
+        assertSame(type, Types.forName(typeName, loader));
+        assertNotSame(type, Types.forName(typeName));
+        assertEquals(Types.forName(typeName).getName(), type.getName());
+        assertTrue(Types.forName("Map<LinkedHashMap<String,String>,List<Set<Serializable>>>").isAssignableFrom(type));
+        assertNotNull(Types.tryForName("junit.framework.TestCase"));
+        assertNull(Types.tryForName("junit.framework.TestCase", loader));
+        
+        final String partition = 
+            "[" + URLClassLoader.class.getName() + "@" + 
+            Integer.toHexString(System.identityHashCode(loader)) + "]";
+        assertNotNull(Caches.getStats("types" + partition));
+        assertEquals(1, Caches.getStats("typesByPossibleNames" + partition).getSize());
+        assertEquals(1, Caches.getStats("failedTypeNames" + partition).getSize());
+        
+        // A partition lives as long as its class loader, even if no type 
+        // defined by that loader has been resolved through it
+        URLClassLoader emptyLoader = new URLClassLoader(new URL[0], null);
+        final String emptyPartition = 
+            "[" + URLClassLoader.class.getName() + "@" + 
+            Integer.toHexString(System.identityHashCode(emptyLoader)) + "]";
+        assertSame(Types.LIST_OF_STRING, Types.forName("java.util.List<String>", emptyLoader));
+        final CacheStats beforeCollection = Caches.getStats("typesByPossibleNames" + emptyPartition);
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertSame(Types.LIST_OF_STRING, Types.forName("java.util.List<String>", emptyLoader));
+        final CacheStats afterCollection = Caches.getStats("typesByPossibleNames" + emptyPartition);
+        assertEquals(beforeCollection.getHitCount() + 1, afterCollection.getHitCount());
+        assertEquals(beforeCollection.getMissCount(), afterCollection.getMissCount());
+        
+        // The partition must not prevent its class loader from being collected 
+        final WeakReference<ClassLoader> loaderReference = new WeakReference<ClassLoader>(loader);
+        final WeakReference<ClassLoader> emptyLoaderReference = new WeakReference<ClassLoader>(emptyLoader);
+        loader.close();
+        loader = null;
+        type = null;
+        emptyLoader.close();
+        emptyLoader = null;
+        for (int i = 0; i < 100 && (loaderReference.get() != null || emptyLoaderReference.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(loaderReference.get());
+        assertNull(emptyLoaderReference.get());
+        assertNull(Caches.getStats("types" + partition));
+        
+    }
+
+    
+    public void testDefaultPartitionClassLoaders() throws Exception {
+        
+        final ClassLoader loader = TestTypes.class.getClassLoader();
+        final ClassLoader parentLoader = loader.getParent();
+        
+        // Failures in an ancestor loader do not affect the loader itself...
+        assertNull(Types.tryForName("junit.framework.Assert", parentLoader));
+        assertNotNull(Types.tryForName("junit.framework.Assert", loader));
+        
+        // ...and types resolved by a loader are not seen by its ancestors
+        assertNotNull(Types.forName("junit.framework.TestSuite", loader));
+        assertNull(Types.tryForName("junit.framework.TestSuite", parentLoader));
+        
+    }
+
+    
+    public void testInvalidate() throws Exception {
+        
+        final String tTypeName = "org.javaruntype.type.testtypes.TType<Object,Float,String>";
+        final String unrelatedName = "org.javaruntype.type.testtypes.TType3<Object,Integer,Integer>";
+        final Type<?> parentType = Types.forName("org.javaruntype.type.testtypes.TParentType<Float>");
+        final Type<?> tType = Types.forName(tTypeName);
+        final Type<?> listOfTType = Types.forName("List<" + tTypeName + ">");
+        final Type<?> unrelated = Types.forName(unrelatedName);
+        Types.precomputeAssignabilities(parentType, tType, listOfTType, unrelated, Types.NUMBER, Types.INTEGER);
+        assertTrue(tType.getAssignabilities().isKnown(parentType.getId()));
+        assertTrue(Types.NUMBER.getAssignabilities().isKnown(listOfTType.getId()));
+        final TypeDef tTypeDef = TypeDefs.forClass(TType.class);
+        final TypeDef unrelatedTypeDef = TypeDefs.forClass(TType3.class);
+        
+        Types.invalidate(TParentType.class);
+        
+        // Subclasses and types with them as parameters are affected...
+        assertFalse(tType.getAssignabilities().isKnown(parentType.getId()));
+        assertFalse(listOfTType.getAssignabilities().isKnown(Types.NUMBER.getId()));
+        assertFalse(Types.NUMBER.getAssignabilities().isKnown(listOfTType.getId()));
+        assertNotSame(tTypeDef, TypeDefs.forClass(TType.class));
+        assertEquals(tTypeDef, TypeDefs.forClass(TType.class));
+        // ...but the rest is not
+        assertTrue(Types.INTEGER.getAssignabilities().isKnown(Types.NUMBER.getId()));
+        assertTrue(unrelated.getAssignabilities().isKnown(Types.NUMBER.getId()));
+        assertSame(unrelatedTypeDef, TypeDefs.forClass(TType3.class));
+        
+        final CacheStats before = Caches.getStats("typesByPossibleNames");
+        assertSame(unrelated, Types.forName(unrelatedName));
+        final CacheStats afterUnrelated = Caches.getStats("typesByPossibleNames");
+        assertEquals(before.getHitCount() + 1, afterUnrelated.getHitCount());
+        assertEquals(before.getMissCount(), afterUnrelated.getMissCount());
+        // Canonical instances are kept
+        assertSame(tType, Types.forName(tTypeName));
+        final CacheStats afterInvalidated = Caches.getStats("typesByPossibleNames");
+        assertEquals(afterUnrelated.getMissCount() + 1, afterInvalidated.getMissCount());
+        
+        assertTrue(parentType.isAssignableFrom(tType));
+        assertFalse(tType.isAssignableFrom(parentType));
+        
+    }
+    
+    
+    public void testProfileWarmUp() throws Exception {
+        
+        TypeProfiles.startRecording();
+        try {
+            assertTrue(TypeProfiles.isRecording());
+            final Type<?> mapType = Types.forName("java.util.HashMap<String,java.util.List<Integer>>");
+            Types.forClass(TType.class);
+            assertTrue(Types.forName("java.util.Map<?,?>").isAssignableFrom(mapType));
+            assertNull(Types.tryForName("java.util.NonExistingClass"));
+        } finally {
+            TypeProfiles.stopRecording();
+        }
+        assertFalse(TypeProfiles.isRecording());
+        Types.forName("java.util.HashMap<String,java.util.Set<Integer>>");
+        
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TypeProfiles.writeProfile(bytes);
+        final TypeProfile profile = 
+            TypeProfile.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertTrue(profile.getTypeNames().contains("java.util.HashMap<String,java.util.List<Integer>>"));
+        assertTrue(profile.getTypeNames().contains("java.util.List<java.lang.Integer>"));
+        assertFalse(profile.getTypeNames().contains("java.util.NonExistingClass"));
+        assertFalse(profile.getTypeNames().contains("java.util.HashMap<String,java.util.Set<Integer>>"));
+        assertTrue(profile.getClassNames().contains(TType.class.getName()));
+        assertEquals(1, profile.getAssignabilities().size());
+        
+        Types.invalidate(TType.class);
+        final WarmUpProgress progress = 
+            TypeProfiles.warmUp(new ByteArrayInputStream(bytes.toByteArray()));
+        assertTrue(progress.awaitCompletion(10, TimeUnit.SECONDS));
+        assertTrue(progress.isDone());
+        assertSame(progress, TypeProfiles.getLastWarmUp());
+        assertEquals(profile.size(), progress.getEntryCount());
+        assertEquals(progress.getEntryCount(), progress.getCompletedCount());
+        assertEquals(0, progress.getFailedCount());
+        assertTrue(progress.getDuration() >= 0);
+        
+        try {
+            TypeProfiles.warmUp(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }));
+            fail();
+        } catch (IOException e) {
+            // Not a profile
+        }
+        
+    }
+    
+    
+    public void testSnapshot() throws Exception {
+        
+        final Type<?> parentType = Types.forName("org.javaruntype.type.testtypes.TParentType<Float>");
+        final Type<?> tType = Types.forName("org.javaruntype.type.testtypes.TType<Object,Float,String>");
+        final Type<?> mapType = Types.forName("java.util.HashMap<String,java.util.List<? extends Number>>");
+        assertTrue(parentType.isAssignableFrom(tType));
+        assertFalse(tType.isAssignableFrom(parentType));
+        Types.precomputeAssignabilities(Types.MAP_OF_UNKNOWN_UNKNOWN, mapType);
+        // Names of deeply nested types are not written, so they do not grow quadratically
+        Type<?> deepType = Types.STRING;
+        for (int i = 0; i < 1000; i++) {
+            deepType = Types.listOf(deepType);
+        }
+        
+        final TypeRegistry typeRegistry = TypeRegistry.getInstance();
+        final File file = File.createTempFile("javaruntype-snapshot", ".bin");
+        try {
+            // Only these types are exported, whatever else the registry contains
+            final FileOutputStream out = new FileOutputStream(file);
+            try {
+                TypeSnapshot.write(typeRegistry, TestTypes.class.getClassLoader(), 
+                        Arrays.<Type<?>>asList(parentType, tType, mapType, Types.MAP_OF_UNKNOWN_UNKNOWN, deepType), 
+                        out);
+            } finally {
+                out.close();
+            }
+            assertTrue(file.length() < 1024 * 1024);
+            
+            final TypeSnapshot snapshot = 
+                TypeSnapshot.load(file, typeRegistry, TestTypes.class.getClassLoader());
+            assertSame(Types.listOf(Types.listOf(Types.STRING)), 
+                    snapshot.getType("java.util.List<java.util.List<java.lang.String>>"));
+            assertSame(tType, snapshot.getType(tType.getName()));
+            assertSame(mapType, snapshot.getType(mapType.getName()));
+            assertNull(snapshot.getType("java.util.HashMap<String,Float>"));
+            assertTrue(snapshot.isValidated(tType));
+            assertEquals(tType.getAllTypesAssignableFromThis(), snapshot.getExtendedTypes(tType));
+            assertEquals(AssignabilityCache.ASSIGNABLE, snapshot.getAssignability(parentType, tType));
+            assertEquals(AssignabilityCache.NOT_ASSIGNABLE, snapshot.getAssignability(tType, parentType));
+            assertEquals(AssignabilityCache.ASSIGNABLE, 
+                    snapshot.getAssignability(Types.MAP_OF_UNKNOWN_UNKNOWN, mapType));
+            
+            // Entries depending on invalidated classes are stale
+            TypeSnapshots.load(file);
+            assertTrue(TypeSnapshots.isLoaded());
+            Types.invalidate(TParentType.class);
+            assertTrue(parentType.isAssignableFrom(tType));
+            final TypeSnapshot loadedSnapshot = typeRegistry.getSnapshot();
+            assertNull(loadedSnapshot.getType(tType.getName()));
+            assertEquals(AssignabilityCache.UNKNOWN, loadedSnapshot.getAssignability(parentType, tType));
+            assertSame(mapType, loadedSnapshot.getType(mapType.getName()));
+            assertSame(mapType, Types.forName(mapType.getName()));
+            
+            final FileOutputStream corruptOut = new FileOutputStream(file);
+            try {
+                corruptOut.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+            } finally {
+                corruptOut.close();
+            }
+            try {
+                TypeSnapshots.load(file);
+                fail();
+            } catch (IOException e) {
+                // Not a snapshot
+            }
+            
+        } finally {
+            TypeSnapshots.unload();
+            file.delete();
+        }
+        assertFalse(TypeSnapshots.isLoaded());
+        
+    }
+    
+    
     public void testEquals() throws Exception {
         
         Type<?> stringType1 = Types.forName("String");
@@ -135,7 +566,363 @@ public void testRegistryCache() throws Exception {
         
     }
     
-
+    
+    public void testCanonicalInstances() throws Exception {
+        
+        final Type<?> listOfStringType = Types.forName("java.util.List<java.lang.String>");
+        assertSame(listOfStringType, Types.listOf(Types.STRING));
+        
+        // Extended types are created without validation, but are canonical too
+        final Type<?> arrayListOfStringType = Types.forName("ArrayList<String>");
+        assertTrue(arrayListOfStringType.getAllTypesAssignableFromThis().contains(listOfStringType));
+        for (Type<?> extendedType : arrayListOfStringType.getAllTypesAssignableFromThis()) {
+            assertSame(extendedType, Types.forName(extendedType.getName()));
+        }
+        
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(listOfStringType);
+        out.close();
+        final ObjectInputStream in = 
+            new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertSame(listOfStringType, in.readObject());
+        
+        assertEquals(listOfStringType.getId(), listOfStringType.hashCode());
+        assertFalse(listOfStringType.getId() == arrayListOfStringType.getId());
+        
+    }
+    
+    
+    public void testTypeIdRecycling() throws Exception {
+        
+        final int typesPerRound = 5000;
+        final int firstRoundMaxId = createCollectableTypes(typesPerRound);
+        int lastRoundMaxId = firstRoundMaxId;
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 5; j++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            lastRoundMaxId = createCollectableTypes(typesPerRound);
+        }
+        // Without recycling, ids would have grown by 4 * typesPerRound
+        assertTrue("Max id grew from " + firstRoundMaxId + " to " + lastRoundMaxId,
+                lastRoundMaxId < firstRoundMaxId + 2 * typesPerRound);
+        
+        // Recycled ids do not carry the assignabilities of their former types
+        final Type<?> listOfInteger = Types.listOf(Types.INTEGER);
+        assertTrue(Types.forName("Collection<? extends Number>").isAssignableFrom(listOfInteger));
+        assertFalse(Types.forName("Collection<? extends String>").isAssignableFrom(listOfInteger));
+        
+    }
+    
+    
+    public void testSerialization() throws Exception {
+        
+        final Type<?> tType = Types.forName("org.javaruntype.type.testtypes.TType<Object,Float,String>");
+        final Type<?> mapType = Types.forName("java.util.Map<String,java.util.List<? extends Number>[]>");
+        final TypeDef typeDef = TypeDefs.forClass(TParentType.class);
+        
+        final byte[] tTypeBytes = serialize(tType);
+        final byte[] mapTypeBytes = serialize(mapType);
+        final byte[] allBytes = serialize(new Object[] { tType, mapType, tType, mapType, typeDef });
+        // Types repeated in the same stream are only written once
+        assertTrue(allBytes.length < tTypeBytes.length + mapTypeBytes.length);
+        
+        final Object[] objects = (Object[]) deserialize(allBytes);
+        assertSame(tType, objects[0]);
+        assertSame(mapType, objects[1]);
+        assertSame(tType, objects[2]);
+        assertSame(mapType, objects[3]);
+        assertSame(typeDef, objects[4]);
+        assertSame(Types.forClass(int.class), deserialize(serialize(Types.forClass(int.class))));
+        assertSame(Types.forClass(int[].class), deserialize(serialize(Types.forClass(int[].class))));
+        
+        // Types are validated when read, even if they were not when written
+        final Type<?> extendedType = 
+            Types.forName("java.util.ArrayList<java.util.Date>").getAllTypesAssignableFromThis().iterator().next();
+        assertSame(extendedType, deserialize(serialize(extendedType)));
+        assertTrue(extendedType.isValidated());
+        
+        Types.invalidate(TParentType.class);
+        assertSame(tType, deserialize(tTypeBytes));
+        assertTrue(tType.isValidated());
+        
+        // Streams containing invalid types are rejected
+        checkInvalidSerializedType(Enum.class, Types.STRING);
+        checkInvalidSerializedType(List.class, Types.STRING, Types.INTEGER);
+        
+        try {
+            deserialize(new byte[] { 1, 2, 3, 4 });
+            fail();
+        } catch (IOException e) {
+            // Not a serialized object
+        }
+        
+    }
+    
+    
+    public void testFingerprints() throws Exception {
+        
+        final Type<?> mapType = Types.forName("java.util.Map<String,java.util.List<? extends Number>[]>");
+        assertSame(mapType, Types.forFingerprint(mapType.getFingerprint()));
+        assertSame(Types.STRING, Types.forFingerprint(Types.STRING.getFingerprint()));
+        
+        // Fingerprints depend on the structure only, not on the JVM
+        assertEquals(
+                Utils.combineFingerprints(
+                        Utils.combineFingerprints(Utils.fingerprint("java.lang.String"), 0L), 0L),
+                Types.STRING.getFingerprint());
+        assertEquals(Utils.fingerprint("java.util.Map<K,V>"), TypeDefs.forClass(Map.class).getFingerprint());
+        
+        final String[] typeNames = new String[] {
+            "java.util.List<String>", "java.util.List<? extends String>", "java.util.List<? super String>",
+            "java.util.Set<String>", "java.util.List<String>[]", "java.util.List<String>[][]", "java.util.List", 
+            "java.util.Map<String,Integer>", "java.util.Map<Integer,String>", "String[]", "int[]", "int"
+        };
+        final Set<Long> fingerprints = new HashSet<Long>();
+        for (int i = 0; i < typeNames.length; i++) {
+            final Type<?> type = Types.forName(typeNames[i]);
+            assertTrue(fingerprints.add(Long.valueOf(type.getFingerprint())));
+            assertSame(type, Types.forFingerprint(type.getFingerprint()));
+        }
+        
+        assertNull(Types.forFingerprint(12345L));
+        
+    }
+    
+    
+    public void testLazyNames() throws Exception {
+        
+        final Type<?> type = 
+            Types.forClass(java.util.TreeMap.class, 
+                    TypeParameters.forType(Types.forClass(StringBuilder.class)),
+                    TypeParameters.forExtendsType(Types.listOf(TypeParameters.forSuperType(Types.BIG_INTEGER))));
+        // Names are only computed when needed
+        assertNull(type.getComputedName());
+        assertSame(type, Types.forClass(java.util.TreeMap.class, type.getTypeParametersArray()));
+        
+        final String name = 
+            "java.util.TreeMap<java.lang.StringBuilder,? extends java.util.List<? super java.math.BigInteger>>";
+        assertEquals(name, type.getName());
+        assertSame(type.getName(), type.getComputedName());
+        assertEquals(name, type.toString());
+        assertEquals(
+                "TreeMap<java.lang.StringBuilder,? extends java.util.List<? super java.math.BigInteger>>", 
+                type.getSimpleName());
+        assertSame(type, Types.forName(name));
+        
+        Type<?> nestedType = Types.STRING;
+        for (int i = 0; i < 50; i++) {
+            nestedType = Types.listOf(nestedType);
+        }
+        assertSame(nestedType, Types.forName(nestedType.getName()));
+        
+    }
+    
+    
+    public void testConstants() throws Exception {
+        
+        final Field[] fields = Types.class.getFields();
+        int constantCount = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (Modifier.isStatic(fields[i].getModifiers()) && 
+                    Type.class.equals(fields[i].getType())) {
+                final Type<?> constant = (Type<?>) fields[i].get(null);
+                // Constants are canonical, and valid
+                assertTrue(constant.isValidated());
+                assertSame(constant, Types.forName(constant.getName()));
+                constantCount++;
+            }
+        }
+        assertTrue(constantCount > 200);
+        
+    }
+    
+    
+    public void testTrustedTypes() throws Exception {
+        
+        final CacheStats before = Caches.getStats("trustedTypes");
+        final Type<?> linkedListType = Types.forName("java.util.LinkedList<java.lang.Short>");
+        final Set<Type<?>> extendedTypes = linkedListType.getAllTypesAssignableFromThis();
+        final CacheStats after = Caches.getStats("trustedTypes");
+        
+        // Supertypes are created without validation, and cached apart
+        assertTrue(after.getLoadCount() > before.getLoadCount());
+        assertTrue(extendedTypes.contains(Types.forName("java.util.AbstractList<java.lang.Short>")));
+        assertSame(extendedTypes, linkedListType.getAllTypesAssignableFromThis());
+        
+    }
+    
+    
+    public void testSupertypes() throws Exception {
+        
+        final Set<Type<?>> ttype3Supertypes = 
+            Types.forName("org.javaruntype.type.testtypes.TType3<?,?,?>").getAllTypesAssignableFromThis();
+        assertTrue(ttype3Supertypes.contains(Types.forName("java.util.Map<Integer[],?>")));
+        
+        final Set<Type<?>> ttype5Supertypes = 
+            Types.forName("org.javaruntype.type.testtypes.TType5<Integer>[]").getAllTypesAssignableFromThis();
+        assertTrue(ttype5Supertypes.contains(
+                Types.forName("java.util.ArrayList<java.util.List<? extends Integer>>[]")));
+        assertTrue(ttype5Supertypes.contains(
+                Types.forName("java.util.List<java.util.List<? extends Integer>>[]")));
+        assertTrue(ttype5Supertypes.contains(
+                Types.forName("Comparable<java.util.Map<? super Integer,Integer[]>>[]")));
+        assertTrue(ttype5Supertypes.contains(Types.forName("Object[]")));
+        
+        final Set<Type<?>> ttype5ExtendsSupertypes = 
+            Types.forName("org.javaruntype.type.testtypes.TType5<? extends Number>").getAllTypesAssignableFromThis();
+        assertTrue(ttype5ExtendsSupertypes.contains(
+                Types.forName("java.util.List<java.util.List<? extends Number>>")));
+        assertTrue(ttype5ExtendsSupertypes.contains(
+                Types.forName("Comparable<java.util.Map<?,? extends Number[]>>")));
+        
+    }
+    
+    
+    public void testIterateSupertypes() throws Exception {
+        
+        final String[] typeNames = new String[] {
+                "String", "Object[][]", "Comparable<Integer>", "int[]",
+                "LinkedHashMap<String[],List<? extends Number[][]>[]>[]",
+                "org.javaruntype.type.testtypes.TType5<? super Integer>[][]" };
+        
+        for (int i = 0; i < typeNames.length; i++) {
+            final Type<?> type = Types.forName(typeNames[i]);
+            final Set<Type<?>> iterated = new HashSet<Type<?>>();
+            final Iterator<Type<?>> supertypesIter = type.iterateAllTypesAssignableFromThis();
+            while (supertypesIter.hasNext()) {
+                assertTrue(iterated.add(supertypesIter.next()));
+            }
+            assertEquals(type.getAllTypesAssignableFromThis(), iterated);
+        }
+        
+        assertFalse(Types.LIST_OF_STRING.isAssignableFrom(Types.forName("HashMap<String,String>")));
+        assertFalse(Types.LIST_OF_STRING.isAssignableFrom(Types.forName("ArrayList<String>[]")));
+        assertFalse(Types.forName("Object[][]").isAssignableFrom(Types.forName("ArrayList<String>[]")));
+        assertTrue(Types.forName("Object[]").isAssignableFrom(Types.forName("ArrayList<String>[]")));
+        assertTrue(Types.forName("Iterable<? extends CharSequence>").isAssignableFrom(
+                Types.forName("java.util.concurrent.CopyOnWriteArrayList<String>")));
+        
+    }
+    
+    
+    public void testPrecomputeAssignabilities() throws Exception {
+        
+        final Type<?>[] knownTypes = new Type<?>[] {
+                Types.OBJECT, Types.STRING, Types.INTEGER, Types.NUMBER,
+                Types.LIST_OF_STRING, Types.forName("ArrayList<String>"),
+                Types.forName("Collection<? extends CharSequence>"),
+                Types.forName("Map<String,? super Integer>"),
+                Types.forName("HashMap<String,Number>"),
+                Types.forName("Object[]"), Types.forName("String[]"),
+                Types.forName("Comparable<? super String>")
+        };
+        
+        Types.precomputeAssignabilities(knownTypes);
+        
+        for (int i = 0; i < knownTypes.length; i++) {
+            for (int j = 0; j < knownTypes.length; j++) {
+                final AssignabilityRow row = knownTypes[j].getAssignabilities();
+                assertTrue(row.isKnown(knownTypes[i].getId()));
+                assertEquals(
+                        TypeUtil.isAssignableFrom(knownTypes[i], knownTypes[j]),
+                        knownTypes[i].isAssignableFrom(knownTypes[j]));
+            }
+        }
+        
+        final AssignabilityRow row = new AssignabilityRow();
+        assertFalse(row.isKnown(5000));
+        row.set(5000, true);
+        row.set(511, false);
+        row.set(512, true);
+        assertTrue(row.isKnown(5000) && row.isAssignable(5000));
+        assertTrue(row.isKnown(511) && !row.isAssignable(511));
+        assertTrue(row.isKnown(512) && row.isAssignable(512));
+        assertFalse(row.isKnown(513) || row.isKnown(0) || row.isKnown(100000));
+        
+    }
+    
+    
+    public void testRegistryHitsDoNotAllocate() throws Exception {
+        
+        final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+        if (allocationBean == null) {
+            return;
+        }
+        
+        final Type<?> mapType = Types.forName("java.util.Map<String,List<Integer>>");
+        for (int i = 0; i < 20000; i++) {
+            Types.arrayOf(mapType);
+        }
+        
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20000; i++) {
+            Types.arrayOf(mapType);
+        }
+        final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        // Allow some slack for the measurement itself
+        assertTrue("Allocated " + allocated + " bytes", allocated < 20000);
+        
+    }
+    
+    
+    public void testAssignabilityCache() throws Exception {
+        
+        final AssignabilityCache cache = new AssignabilityCache(16);
+        assertEquals(AssignabilityCache.UNKNOWN, cache.get(1, 2));
+        cache.put(1, 2, true);
+        cache.put(2, 1, false);
+        cache.put(0, 0, false);
+        cache.put(Integer.MAX_VALUE, Integer.MAX_VALUE, true);
+        assertEquals(AssignabilityCache.ASSIGNABLE, cache.get(1, 2));
+        assertEquals(AssignabilityCache.NOT_ASSIGNABLE, cache.get(2, 1));
+        assertEquals(AssignabilityCache.NOT_ASSIGNABLE, cache.get(0, 0));
+        assertEquals(AssignabilityCache.ASSIGNABLE, cache.get(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(AssignabilityCache.UNKNOWN, cache.get(1, 1));
+        
+        // The cache is bounded: entries get overwritten, but never mixed up
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i + 1, (i % 3 == 0));
+        }
+        for (int i = 0; i < 1000; i++) {
+            final byte result = cache.get(i, i + 1);
+            assertTrue(result == AssignabilityCache.UNKNOWN ||
+                    result == ((i % 3 == 0)? AssignabilityCache.ASSIGNABLE : AssignabilityCache.NOT_ASSIGNABLE));
+        }
+        
+    }
+    
+    
+    public void testAssignabilityHitsDoNotAllocate() throws Exception {
+        
+        final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+        if (allocationBean == null) {
+            return;
+        }
+        
+        final Type<?> collectionType = Types.forName("Collection<? extends CharSequence>");
+        final Type<?> listType = Types.forName("java.util.LinkedList<String>");
+        final Type<?> mapType = Types.forName("HashMap<String,Integer>");
+        for (int i = 0; i < 20000; i++) {
+            collectionType.isAssignableFrom(listType);
+            collectionType.isAssignableFrom(mapType);
+        }
+        
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(collectionType.isAssignableFrom(listType));
+            assertFalse(collectionType.isAssignableFrom(mapType));
+        }
+        final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        // Allow some slack for the measurement itself
+        assertTrue("Allocated " + allocated + " bytes", allocated < 20000);
+        
+    }
+    
     
     public void testAssignable() throws Exception {
 
@@ -460,6 +1247,139 @@ public void testAssignable() throws Exception {
     }
     
     
+    @SuppressWarnings("unused")
+    private static <E extends Number> List<E> listOfE() {
+        return null;
+    }
+    
+    
+    @SuppressWarnings("unused")
+    private static List<String> listOfString() {
+        return null;
+    }
+    
+    
+    private static byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+    
+    
+    private static Object deserialize(final byte[] bytes) throws Exception {
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+    
+    
+    /*
+     * Creates (without keeping them) distinct types like Map<String,Long>[][],
+     * and returns the highest id given to them.
+     */
+    private static int createCollectableTypes(final int count) {
+        final Type<?>[] parameterTypes = 
+            new Type<?>[] { Types.STRING, Types.INTEGER, Types.LONG, Types.FLOAT, Types.DOUBLE };
+        int maxId = 0;
+        int created = 0;
+        for (int dimensions = 1; created < count; dimensions++) {
+            for (int i = 0; i < parameterTypes.length && created < count; i++) {
+                for (int j = 0; j < parameterTypes.length && created < count; j++) {
+                    final Type<?> type = 
+                        TypeRegistry.getInstance().getTypeWithoutValidation(
+                                Map.class, 
+                                new TypeParameter<?>[] { 
+                                        TypeParameters.forType(parameterTypes[i]), 
+                                        TypeParameters.forType(parameterTypes[j]) }, 
+                                dimensions);
+                    maxId = Math.max(maxId, type.getId());
+                    created++;
+                }
+            }
+        }
+        return maxId;
+    }
+    
+    
+    private static void checkInvalidSerializedType(final Class<?> componentClass, 
+            final Type<?>... typeParameterTypes) throws Exception {
+        final TypeParameter<?>[] typeParameters = new TypeParameter<?>[typeParameterTypes.length];
+        for (int i = 0; i < typeParameterTypes.length; i++) {
+            typeParameters[i] = TypeParameters.forType(typeParameterTypes[i]);
+        }
+        // Only the registry can create (without validating) an invalid type
+        final Type<?> invalidType = 
+            TypeRegistry.getInstance().getTypeWithoutValidation(componentClass, typeParameters, 0);
+        final byte[] invalidTypeBytes = serialize(invalidType);
+        try {
+            deserialize(invalidTypeBytes);
+            fail();
+        } catch (InvalidObjectException e) {
+            // The type is validated when read
+        }
+        assertFalse(invalidType.isValidated());
+    }
+    
+    
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        final java.lang.management.ThreadMXBean threadBean = 
+            ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean allocationBean =
+            (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || 
+                !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        return allocationBean;
+    }
+    
+    
+    private static final class CountingClassLoader extends ClassLoader {
+        
+        int failures = 0;
+        
+        // Classes not defined (yet), and which never have a resource
+        final Set<String> undefinedClassNames = new HashSet<String>();
+        
+        CountingClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+        
+        @Override
+        public URL getResource(final String name) {
+            final String className = name.replace('/', '.');
+            if (className.endsWith(".class") && 
+                    this.undefinedClassNames.contains(className.substring(0, className.length() - 6))) {
+                return null;
+            }
+            return super.getResource(name);
+        }
+        
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) 
+                throws ClassNotFoundException {
+            try {
+                if (this.undefinedClassNames.contains(name)) {
+                    throw new ClassNotFoundException(name);
+                }
+                return super.loadClass(name, resolve);
+            } catch (ClassNotFoundException e) {
+                this.failures++;
+                throw e;
+            }
+        }
+        
+    }
+    
+    
     private void checkValidName(String name) {
         Type<?> type = Types.forName(name);
         String strType = type.getName();
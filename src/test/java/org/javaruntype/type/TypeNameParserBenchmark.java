@@ -0,0 +1,94 @@
+package org.javaruntype.type;
+
+import java.lang.management.ManagementFactory;
+
+/*
+ * Benchmark for the parsing of type names: a few fully-qualified names,
+ * from simple ones to nested arrays of wildcards, are parsed repeatedly
+ * through TypeUtil.forName(...), bypassing the name caches of the registry
+ * (so the figures include class resolution and registry lookups, but not
+ * name cache hits). It reports the average time per name in the last
+ * rounds and, when the JVM supports it, the bytes allocated per name.
+ * Run with:
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        org.javaruntype.type.TypeNameParserBenchmark [rounds] [names per round]
+ *
+ * The ANTLR parser it was compared with no longer exists: to measure it,
+ * check out the revision before TypeNameParser was introduced, copy this
+ * class into it and replace the call in parse(...) with
+ * TypeUtil.forName(typeName), which was the entry point to that parser.
+ */
+public class TypeNameParserBenchmark {
+
+    private static final String[] TYPE_NAMES = new String[] {
+        "java.lang.String",
+        "java.util.List<java.lang.String>",
+        "java.util.Map<java.lang.String,java.util.List<? extends java.lang.Number>>[]",
+        "java.util.LinkedHashMap<java.lang.String[],java.util.List<? extends java.lang.Number[][]>[]>[]",
+        "java.util.Map<?,? super java.lang.Integer>"
+    };
+
+    private static final int WARM_UP_ROUNDS = 3;
+
+
+
+    public static void main(final String[] args) throws Exception {
+
+        final int rounds = (args.length > 0 ? Integer.parseInt(args[0]) : 8);
+        final int namesPerRound = (args.length > 1 ? Integer.parseInt(args[1]) : 200000);
+
+        final ClassLoader classLoader = TypeNameParserBenchmark.class.getClassLoader();
+
+        long sink = 0L;
+        for (int round = 0; round < rounds; round++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < namesPerRound; i++) {
+                sink += parse(TYPE_NAMES[i % TYPE_NAMES.length], classLoader).hashCode();
+            }
+            final long time = System.nanoTime() - start;
+            if (round >= WARM_UP_ROUNDS) {
+                System.out.println("round " + round + ": " + (time / namesPerRound) + " ns per name");
+            }
+        }
+
+        final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+        if (allocationBean != null) {
+            final long threadId = Thread.currentThread().getId();
+            final long before = allocationBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < namesPerRound; i++) {
+                sink += parse(TYPE_NAMES[i % TYPE_NAMES.length], classLoader).hashCode();
+            }
+            final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+            System.out.println("allocated: " + (allocated / namesPerRound) + " bytes per name");
+        }
+
+        // Prevents the loops from being optimized away
+        System.out.println((sink == 42L ? "" : "done"));
+
+    }
+
+
+
+    private static Type<?> parse(final String typeName, final ClassLoader classLoader) {
+        return TypeUtil.forName(typeName, classLoader, true);
+    }
+
+
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        final java.lang.management.ThreadMXBean threadBean =
+            ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean allocationBean =
+            (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() ||
+                !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        return allocationBean;
+    }
+
+}
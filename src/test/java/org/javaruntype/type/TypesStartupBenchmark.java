@@ -0,0 +1,103 @@
+package org.javaruntype.type;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.javaruntype.cache.Caches;
+
+/*
+ * Startup benchmark measuring the latency of the first call to 
+ * Types.forName(...) in a fresh JVM, which includes initializing the 
+ * Types class and its constants. It is measured both with and without 
+ * the registration of cache MBeans (not done by default), which on its 
+ * own takes longer than everything else at startup (it creates the 
+ * platform MBean server). Run with:
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        org.javaruntype.type.TypesStartupBenchmark [runs]
+ */
+public class TypesStartupBenchmark {
+
+    private static final String TYPE_NAME = "java.util.Map<String,java.util.List<Integer>>";
+
+
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 1 && "child".equals(args[0])) {
+            runChild();
+            return;
+        }
+
+        final int runs = (args.length > 0 ? Integer.parseInt(args[0]) : 10);
+
+        final List<Long> firstCall = new ArrayList<Long>();
+        final List<Long> secondCall = new ArrayList<Long>();
+        final List<Long> firstCallNoJmx = new ArrayList<Long>();
+        final List<Long> secondCallNoJmx = new ArrayList<Long>();
+        for (int i = 0; i < runs; i++) {
+            final String[] result = spawnChild(true).split(" ");
+            firstCall.add(Long.valueOf(result[0]));
+            secondCall.add(Long.valueOf(result[1]));
+            final String[] resultNoJmx = spawnChild(false).split(" ");
+            firstCallNoJmx.add(Long.valueOf(resultNoJmx[0]));
+            secondCallNoJmx.add(Long.valueOf(resultNoJmx[1]));
+        }
+
+        System.out.println("first Types.forName:           " + median(firstCall) + " us (median of " + runs + ") " + firstCall);
+        System.out.println("second Types.forName:          " + median(secondCall) + " us (median of " + runs + ") " + secondCall);
+        System.out.println("first Types.forName (no JMX):  " + median(firstCallNoJmx) + " us (median of " + runs + ") " + firstCallNoJmx);
+        System.out.println("second Types.forName (no JMX): " + median(secondCallNoJmx) + " us (median of " + runs + ") " + secondCallNoJmx);
+
+    }
+
+
+
+    private static void runChild() {
+        final long start = System.nanoTime();
+        Types.forName(TYPE_NAME);
+        final long first = System.nanoTime() - start;
+        final long secondStart = System.nanoTime();
+        Types.forName("java.util.Set<java.util.Map<String,Integer>>");
+        final long second = System.nanoTime() - secondStart;
+        System.out.println((first / 1000) + " " + (second / 1000));
+    }
+
+
+
+    private static String spawnChild(final boolean jmx) throws Exception {
+        final String javaExecutable =
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final ProcessBuilder processBuilder =
+            new ProcessBuilder(
+                    javaExecutable, "-cp", System.getProperty("java.class.path"),
+                    "-D" + Caches.JMX_ENABLED_PROPERTY + "=" + jmx,
+                    TypesStartupBenchmark.class.getName(), "child");
+        processBuilder.redirectErrorStream(true);
+        final Process process = processBuilder.start();
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        String line = null;
+        String lastLine = null;
+        while ((line = reader.readLine()) != null) {
+            lastLine = line;
+        }
+        reader.close();
+        if (process.waitFor() != 0 || lastLine == null) {
+            throw new IllegalStateException("Benchmark process failed: " + lastLine);
+        }
+        return lastLine.trim();
+    }
+
+
+
+    private static long median(final List<Long> values) {
+        final List<Long> sorted = new ArrayList<Long>(values);
+        java.util.Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2).longValue();
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.javaruntype.type;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Benchmark for the warm-up of the type registry from a recorded profile.
+ * A first JVM records the profile of a workload (a set of type names plus 
+ * assignability checks among them), and then the first execution of the 
+ * workload is timed in fresh JVMs, with and without replaying the profile
+ * at startup. Run with:
+ *
+ *   java -cp target/classes:target/test-classes \
+ *        org.javaruntype.type.WarmUpBenchmark [runs]
+ */
+public class WarmUpBenchmark {
+
+    private static final String[] COMPONENT_NAMES = new String[] {
+        "String", "Integer", "Long", "java.math.BigDecimal", "java.util.Date",
+        "java.util.List<String>", "java.util.Set<Integer>", "java.lang.Number"
+    };
+    
+    private static final String[] CONTAINER_NAMES = new String[] {
+        "java.util.ArrayList", "java.util.LinkedList", "java.util.HashSet",
+        "java.util.TreeSet", "java.util.concurrent.CopyOnWriteArrayList",
+        "java.util.concurrent.ConcurrentLinkedQueue", "java.util.ArrayDeque"
+    };
+    
+    private static final String[] SUPERTYPE_NAMES = new String[] {
+        "java.util.Collection", "java.util.List", "java.util.Set", 
+        "java.util.Queue", "java.lang.Iterable"
+    };
+
+
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 1 && "child".equals(args[0])) {
+            runChild();
+            return;
+        }
+
+        final int runs = (args.length > 0 ? Integer.parseInt(args[0]) : 5);
+
+        final File profileFile = File.createTempFile("javaruntype-profile", ".bin");
+        profileFile.deleteOnExit();
+        spawnChild("-D" + TypeProfiles.RECORD_PROPERTY + "=" + profileFile.getPath());
+        System.out.println("profile: " + profileFile.length() + " bytes");
+        
+        final List<Long> cold = new ArrayList<Long>();
+        final List<Long> warm = new ArrayList<Long>();
+        String warmUpReport = null;
+        for (int i = 0; i < runs; i++) {
+            cold.add(Long.valueOf(spawnChild(null).split(" ")[0]));
+            final String[] result = 
+                spawnChild("-D" + TypeProfiles.WARM_UP_PROPERTY + "=" + profileFile.getPath()).split(" ", 2);
+            warm.add(Long.valueOf(result[0]));
+            warmUpReport = result[1];
+        }
+
+        System.out.println("first workload, cold:      " + median(cold) + " us (median of " + runs + ") " + cold);
+        System.out.println("first workload, warmed up: " + median(warm) + " us (median of " + runs + ") " + warm);
+        System.out.println("last warm-up: " + warmUpReport);
+
+    }
+
+
+
+    private static void runChild() throws Exception {
+        // Bootstrap the library itself (which starts the warm-up, if any)
+        Types.forName("Object");
+        final WarmUpProgress warmUp = TypeProfiles.getLastWarmUp();
+        if (warmUp != null) {
+            warmUp.awaitCompletion(1, TimeUnit.MINUTES);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < CONTAINER_NAMES.length; i++) {
+            for (int j = 0; j < COMPONENT_NAMES.length; j++) {
+                final Type<?> type = 
+                    Types.forName(CONTAINER_NAMES[i] + "<" + COMPONENT_NAMES[j] + ">");
+                for (int k = 0; k < SUPERTYPE_NAMES.length; k++) {
+                    Types.forName(SUPERTYPE_NAMES[k] + "<" + COMPONENT_NAMES[j] + ">").isAssignableFrom(type);
+                }
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        System.out.println((elapsed / 1000) + " " + warmUp);
+    }
+
+
+
+    private static String spawnChild(final String property) throws Exception {
+        final String javaExecutable =
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final List<String> command = new ArrayList<String>();
+        command.add(javaExecutable);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        if (property != null) {
+            command.add(property);
+        }
+        command.add(WarmUpBenchmark.class.getName());
+        command.add("child");
+        final ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        final Process process = processBuilder.start();
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        String line = null;
+        String lastLine = null;
+        while ((line = reader.readLine()) != null) {
+            lastLine = line;
+        }
+        reader.close();
+        if (process.waitFor() != 0 || lastLine == null) {
+            throw new IllegalStateException("Benchmark process failed: " + lastLine);
+        }
+        return lastLine.trim();
+    }
+
+
+
+    private static long median(final List<Long> values) {
+        final List<Long> sorted = new ArrayList<Long>(values);
+        java.util.Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2).longValue();
+    }
+
+}
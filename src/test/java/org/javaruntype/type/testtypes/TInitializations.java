@@ -0,0 +1,7 @@
+package org.javaruntype.type.testtypes;
+
+public class TInitializations {
+
+    public static int count = 0;
+    
+}
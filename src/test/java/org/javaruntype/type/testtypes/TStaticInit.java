@@ -0,0 +1,13 @@
+package org.javaruntype.type.testtypes;
+
+import java.util.ArrayList;
+
+public class TStaticInit<T extends Number> extends ArrayList<T> {
+
+    private static final long serialVersionUID = -4310972153466328011L;
+
+    static {
+        TInitializations.count++;
+    }
+    
+}
@@ -0,0 +1,15 @@
+package org.javaruntype.type.testtypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TType5<E> extends ArrayList<List<? extends E>> implements Comparable<Map<? super E,E[]>> {
+
+    private static final long serialVersionUID = -2516417349842907744L;
+
+    public int compareTo(final Map<? super E, E[]> o) {
+        return 0;
+    }
+    
+}
@@ -1,6 +1,10 @@
 package org.javaruntype.typedef;
 
 
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
@@ -11,4 +15,32 @@ public void testForClass() throws Exception {
         Assert.assertEquals("java.lang.String",TypeDefs.forClass(String.class).getName());
     }
     
+    
+    public void testClassLoaderNotRetained() throws Exception {
+        
+        final URL testClasses = 
+            TestTypeDefs.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { testClasses }, null);
+        Class<?> typeClass = 
+            Class.forName("org.javaruntype.type.testtypes.TType2", false, classLoader);
+        Assert.assertNotSame(classLoader, TestTypeDefs.class.getClassLoader());
+        
+        TypeDef typeDef = TypeDefs.forClass(typeClass);
+        Assert.assertEquals("org.javaruntype.type.testtypes.TType2<X>", typeDef.getName());
+        Assert.assertSame(typeDef, TypeDefs.forClass(typeClass));
+        
+        final WeakReference<ClassLoader> classLoaderRef = 
+            new WeakReference<ClassLoader>(classLoader);
+        classLoader = null;
+        typeClass = null;
+        typeDef = null;
+        
+        for (int i = 0; i < 50 && classLoaderRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assert.assertNull(classLoaderRef.get());
+        
+    }
+    
 }